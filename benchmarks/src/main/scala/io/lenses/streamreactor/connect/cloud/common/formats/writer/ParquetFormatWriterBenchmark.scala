@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cloud.common.formats.writer
+
+import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodec
+import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodecName.UNCOMPRESSED
+import io.lenses.streamreactor.connect.cloud.common.model.Offset
+import io.lenses.streamreactor.connect.cloud.common.model.Topic
+import io.lenses.streamreactor.connect.cloud.common.model.location.FileUtils.toBufferedOutputStream
+import io.lenses.streamreactor.connect.cloud.common.sink.SinkError
+import io.lenses.streamreactor.connect.cloud.common.sink.config.ParquetWriterOptions
+import io.lenses.streamreactor.connect.cloud.common.sink.conversion.NullSinkData
+import io.lenses.streamreactor.connect.cloud.common.sink.conversion.StructSinkData
+import io.lenses.streamreactor.connect.cloud.common.stream.BuildLocalOutputStream
+import io.lenses.streamreactor.connect.cloud.common.stream.CloudOutputStream
+import org.apache.kafka.connect.data.Schema
+import org.apache.kafka.connect.data.SchemaBuilder
+import org.apache.kafka.connect.data.Struct
+import org.openjdk.jmh.annotations._
+
+import java.io.File
+import java.nio.file.Files
+import java.util.concurrent.TimeUnit
+
+/**
+  * Measures the rows per second written by [[ParquetFormatWriter]] to a local staging file. The `byteAtATime` mode
+  * hands the bytes of a row group over to the staging stream one at a time, which is how they reached the stream
+  * before Parquet writes were passed on in blocks. The `buffered` mode is the current write path.
+  *
+  * Run with `sbt "benchmarks/Jmh/run .*ParquetFormatWriterBenchmark.*"`.
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+class ParquetFormatWriterBenchmark {
+
+  @Param(Array("byteAtATime", "buffered"))
+  var mode: String = _
+
+  @Param(Array("134217728", "8388608"))
+  var rowGroupSize: Long = _
+
+  private implicit val compressionCodec: CompressionCodec = UNCOMPRESSED.toCodec()
+
+  private val topic = Topic("orders")
+
+  private var file: File = _
+
+  private var outputStream: CloudOutputStream = _
+
+  private var writer: ParquetFormatWriter = _
+
+  private var messageDetail: MessageDetail = _
+
+  private var offset: Long = 0L
+
+  @Setup(Level.Trial)
+  def setupRecord(): Unit = {
+    val schema = SchemaBuilder
+      .struct()
+      .name("order")
+      .field("id", Schema.INT64_SCHEMA)
+      .field("customer", Schema.STRING_SCHEMA)
+      .field("domain", Schema.STRING_SCHEMA)
+      .field("amount", Schema.FLOAT64_SCHEMA)
+      .field("express", Schema.BOOLEAN_SCHEMA)
+      .build()
+    val value = new Struct(schema)
+      .put("id", 1234567L)
+      .put("customer", "customer-0001")
+      .put("domain", "myExampleGroup.uk")
+      .put("amount", 100.43)
+      .put("express", true)
+    messageDetail = MessageDetail(NullSinkData(None), StructSinkData(value), Map.empty, None, topic, 1, Offset(0))
+  }
+
+  @Setup(Level.Iteration)
+  def openFile(): Unit = {
+    file = Files.createTempFile("parquet-benchmark", ".parquet").toFile
+    val localStream = new BuildLocalOutputStream(toBufferedOutputStream(file), topic.withPartition(1))
+    outputStream = mode match {
+      case "byteAtATime" => new ByteAtATimeOutputStream(localStream)
+      case "buffered"    => localStream
+      case other         => throw new IllegalArgumentException(s"Unknown mode $other")
+    }
+    writer = new ParquetFormatWriter(outputStream, ParquetWriterOptions.Default.copy(rowGroupSize = rowGroupSize))
+  }
+
+  @TearDown(Level.Iteration)
+  def completeFile(): Unit = {
+    val _ = writer.complete()
+    val _ = file.delete()
+  }
+
+  @Benchmark
+  def writeRow(): Unit = {
+    offset += 1
+    val _ = writer.write(messageDetail.copy(offset = Offset(offset)))
+  }
+
+}
+
+private class ByteAtATimeOutputStream(underlying: CloudOutputStream) extends CloudOutputStream {
+
+  override def write(b: Int): Unit = underlying.write(b)
+
+  override def write(bytes: Array[Byte], startOffset: Int, numberOfBytes: Int): Unit =
+    (startOffset until startOffset + numberOfBytes).foreach(i => underlying.write(bytes(i).toInt))
+
+  override def complete(): Either[SinkError, Unit] = underlying.complete()
+
+  override def getPointer: Long = underlying.getPointer
+}
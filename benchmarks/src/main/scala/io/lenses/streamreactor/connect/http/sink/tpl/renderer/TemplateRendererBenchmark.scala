@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.http.sink.tpl.renderer
+
+import io.lenses.streamreactor.connect.http.sink.config.NullPayloadHandler
+import io.lenses.streamreactor.connect.http.sink.config.NullLiteralNullPayloadHandler
+import io.lenses.streamreactor.connect.http.sink.tpl.substitutions.SubstitutionType
+import org.apache.kafka.connect.data.Schema
+import org.apache.kafka.connect.data.SchemaBuilder
+import org.apache.kafka.connect.data.Struct
+import org.apache.kafka.connect.header.ConnectHeaders
+import org.apache.kafka.connect.sink.SinkRecord
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+
+/**
+  * Compares the regex based [[TemplateRenderer]], which re-parses the template for every record,
+  * with [[CompiledTemplate]], which parses the template once and renders from pre-split segments.
+  *
+  * Run with `sbt "benchmarks/Jmh/run .*TemplateRendererBenchmark.*"`.
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+class TemplateRendererBenchmark {
+
+  @Param(Array("content", "header", "endpoint"))
+  var templateKind: String = _
+
+  private val nullPayloadHandler: NullPayloadHandler = NullLiteralNullPayloadHandler
+
+  private val templateRenderer = new TemplateRenderer(SubstitutionType)
+
+  private var template: String = _
+
+  private var compiledTemplate: CompiledTemplate = _
+
+  private var record: SinkRecord = _
+
+  @Setup
+  def setup(): Unit = {
+    template = templateKind match {
+      case "content" =>
+        """{"order": {{value.orderNo}}, "domain": "{{value.groupDomain}}", "key": "{{key}}", "topic": "{{topic}}", "partition": {{partition}}, "offset": {{offset}}}"""
+      case "header"   => "{{header.correlationId}}"
+      case "endpoint" => "http://localhost:8080/{{topic}}/{{value.groupDomain}}/orders/{{value.orderNo}}"
+      case other      => throw new IllegalArgumentException(s"Unknown template kind $other")
+    }
+    compiledTemplate = CompiledTemplate(template)
+
+    val valueSchema = SchemaBuilder
+      .struct()
+      .name("order")
+      .field("groupDomain", Schema.STRING_SCHEMA)
+      .field("orderNo", Schema.INT32_SCHEMA)
+      .build()
+    val value = new Struct(valueSchema)
+      .put("groupDomain", "myExampleGroup.uk")
+      .put("orderNo", 10)
+    record = new SinkRecord(
+      "orders",
+      3,
+      Schema.STRING_SCHEMA,
+      "myKey",
+      valueSchema,
+      value,
+      9,
+      1234L,
+      null,
+      new ConnectHeaders().addString("correlationId", "6b3c1f5e"),
+    )
+  }
+
+  @Benchmark
+  def regexRenderer(bh: Blackhole): Unit =
+    bh.consume(templateRenderer.render(record, template, nullPayloadHandler))
+
+  @Benchmark
+  def compiledRenderer(bh: Blackhole): Unit =
+    bh.consume(compiledTemplate.render(record, nullPayloadHandler))
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.redis.sink.writer
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.lenses.streamreactor.connect.json.SimpleJsonConverter
+import org.apache.kafka.connect.data.Schema
+import org.apache.kafka.connect.data.SchemaBuilder
+import org.apache.kafka.connect.data.Struct
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+import scala.jdk.CollectionConverters.MapHasAsJava
+import scala.jdk.CollectionConverters.MapHasAsScala
+
+/**
+  * Compares the ways the Redis stream writer turns a record into the fields of an XADD: through JSON with a new
+  * `ObjectMapper` for every record, as it used to, through JSON with a shared mapper, and straight from the struct.
+  *
+  * Run with `sbt "benchmarks/Jmh/run .*StreamFieldsBenchmark.*"`.
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+class StreamFieldsBenchmark {
+
+  private val converter = new SimpleJsonConverter()
+
+  private var struct: Struct = _
+
+  @Setup
+  def setup(): Unit = {
+    val schema = SchemaBuilder.struct().name("com.example.Cpu")
+      .field("type", Schema.STRING_SCHEMA)
+      .field("host", Schema.STRING_SCHEMA)
+      .field("cores", Schema.INT32_SCHEMA)
+      .field("temperature", Schema.FLOAT64_SCHEMA)
+      .field("voltage", Schema.FLOAT64_SCHEMA)
+      .field("idle", Schema.BOOLEAN_SCHEMA)
+      .field("ts", Schema.INT64_SCHEMA)
+      .build()
+    struct = new Struct(schema)
+      .put("type", "Xeon")
+      .put("host", "worker-17.example.com")
+      .put("cores", 32)
+      .put("temperature", 60.4)
+      .put("voltage", 90.1)
+      .put("idle", false)
+      .put("ts", 1482180657010L)
+  }
+
+  @Benchmark
+  def mapperPerRecord(bh: Blackhole): Unit = {
+    val jsonNode = converter.fromConnectData(struct.schema(), struct)
+    val fields   = new ObjectMapper().convertValue(jsonNode, classOf[java.util.HashMap[String, Any]])
+      .asScala.toMap.map { case (k, v) => (k, v.toString) }
+    bh.consume(fields.asJava)
+  }
+
+  @Benchmark
+  def sharedMapper(bh: Blackhole): Unit =
+    bh.consume(StreamFields.viaJson(struct, converter))
+
+  @Benchmark
+  def direct(bh: Blackhole): Unit =
+    bh.consume(StreamFields(struct, converter))
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.azure.eventhubs.source;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.lenses.streamreactor.connect.azure.eventhubs.config.HeadersMode;
+import io.lenses.streamreactor.connect.azure.eventhubs.config.SourceDataType.KeyValueTypes;
+
+/**
+ * Measures the records per second {@link EventHubsKafkaConsumerController#poll(Duration)} turns into
+ * SourceRecords for each {@link HeadersMode}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventHubsKafkaConsumerControllerBenchmark {
+
+  private static final String INPUT_TOPIC = "input";
+  private static final int PARTITIONS = 4;
+  private static final int RECORDS_PER_POLL = 500;
+
+  @Param({"NONE", "ALL", "ALLOW_LIST"})
+  public HeadersMode headersMode;
+
+  private RecordCountBoundedQueue recordsQueue;
+  private ConsumerRecords<byte[], byte[]> consumerRecords;
+  private KafkaByteBlockingQueuedProducer producer;
+  private EventHubsKafkaConsumerController controller;
+
+  @Setup
+  public void setUp() {
+    Map<TopicPartition, List<ConsumerRecord<byte[], byte[]>>> records = new HashMap<>();
+    byte[] key = new byte[16];
+    byte[] value = new byte[512];
+    for (int i = 0; i < RECORDS_PER_POLL; i++) {
+      int partition = i % PARTITIONS;
+      RecordHeaders headers = new RecordHeaders();
+      headers.add("correlation-id", new byte[36]);
+      headers.add("content-type", new byte[16]);
+      headers.add("trace-parent", new byte[55]);
+      records.computeIfAbsent(new TopicPartition(INPUT_TOPIC, partition), tp -> new ArrayList<>())
+          .add(new ConsumerRecord<>(INPUT_TOPIC, partition, i, System.currentTimeMillis(), TimestampType.CREATE_TIME,
+              key.length, value.length, key, value, headers, Optional.empty()));
+    }
+    consumerRecords = new ConsumerRecords<>(records);
+    recordsQueue = new RecordCountBoundedQueue(RECORDS_PER_POLL);
+    producer =
+        new KafkaByteBlockingQueuedProducer(new TopicPartitionOffsetProvider(null), recordsQueue, new IdleConsumer(),
+            KeyValueTypes.DEFAULT_TYPES, "benchmark", Set.of(INPUT_TOPIC), false);
+    controller =
+        new EventHubsKafkaConsumerController(producer, recordsQueue, Map.of(INPUT_TOPIC, "output"), headersMode,
+            Set.of("correlation-id"));
+  }
+
+  @TearDown
+  public void tearDown() {
+    controller.close(Duration.ZERO);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS_PER_POLL)
+  public List<SourceRecord> poll() throws InterruptedException {
+    recordsQueue.offer(consumerRecords);
+    return controller.poll(Duration.ZERO);
+  }
+
+  /**
+   * Consumer that never returns records, so the producer thread stays idle and all the records come
+   * from the benchmark.
+   */
+  private static class IdleConsumer extends MockConsumer<byte[], byte[]> {
+
+    IdleConsumer() {
+      super(OffsetResetStrategy.EARLIEST);
+    }
+
+    @Override
+    public synchronized ConsumerRecords<byte[], byte[]> poll(Duration timeout) {
+      try {
+        Thread.sleep(timeout.toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return ConsumerRecords.empty();
+    }
+  }
+}
@@ -42,6 +42,23 @@ public class AzureEventHubsConfigConstants {
       "Specifies timeout for consumer closing.";
   public static final String CONSUMER_CLOSE_TIMEOUT_DEFAULT = "30";
 
+  public static final String CONSUMER_THREADS = SOURCE_CONNECTOR_PREFIX + DOT + "consumer.threads";
+  public static final String CONSUMER_THREADS_DOC =
+      "Number of EventHubs consumers, each on its own thread, a task runs in the consumer group.";
+  public static final int CONSUMER_THREADS_DEFAULT = 1;
+  public static final String RECORDS_QUEUE_SIZE = SOURCE_CONNECTOR_PREFIX + DOT + "records.queue.size";
+  public static final String RECORDS_QUEUE_SIZE_DOC =
+      "Maximum number of records the consumers of a task buffer before the task polls them.";
+  public static final int RECORDS_QUEUE_SIZE_DEFAULT = 10000;
+
+  public static final String HEADERS_MODE = SOURCE_CONNECTOR_PREFIX + DOT + "headers.mode";
+  public static final String HEADERS_MODE_DOC =
+      "Specifies which headers of EventHubs records are copied to Kafka: none, all (default) or allow-list.";
+  public static final String HEADERS_MODE_DEFAULT = "all";
+  public static final String HEADERS_ALLOW_LIST = SOURCE_CONNECTOR_PREFIX + DOT + "headers.allow.list";
+  public static final String HEADERS_ALLOW_LIST_DOC =
+      "Comma separated keys of the headers copied to Kafka when headers mode is allow-list.";
+
   public static final String KCQL_CONFIG = CONNECTOR_PREFIX + DOT + "kcql";
   public static final String KCQL_DOC =
       "KCQL expression describing field selection and data routing to the target.";
@@ -79,6 +79,49 @@ public class AzureEventHubsSourceConfig extends BaseConfig implements ConnectorP
                 4,
                 ConfigDef.Width.LONG,
                 AzureEventHubsConfigConstants.CONSUMER_OFFSET
+            )
+            .define(AzureEventHubsConfigConstants.HEADERS_MODE,
+                Type.STRING,
+                AzureEventHubsConfigConstants.HEADERS_MODE_DEFAULT,
+                ConfigDef.ValidString.in("none", "all", "allow-list"),
+                Importance.LOW,
+                AzureEventHubsConfigConstants.HEADERS_MODE_DOC,
+                CONNECTION_GROUP,
+                5,
+                ConfigDef.Width.SHORT,
+                AzureEventHubsConfigConstants.HEADERS_MODE
+            )
+            .define(AzureEventHubsConfigConstants.HEADERS_ALLOW_LIST,
+                Type.LIST,
+                AzureEventHubsConfigConstants.OPTIONAL_EMPTY_DEFAULT,
+                Importance.LOW,
+                AzureEventHubsConfigConstants.HEADERS_ALLOW_LIST_DOC,
+                CONNECTION_GROUP,
+                6,
+                ConfigDef.Width.LONG,
+                AzureEventHubsConfigConstants.HEADERS_ALLOW_LIST
+            )
+            .define(AzureEventHubsConfigConstants.CONSUMER_THREADS,
+                Type.INT,
+                AzureEventHubsConfigConstants.CONSUMER_THREADS_DEFAULT,
+                ConfigDef.Range.atLeast(1),
+                Importance.MEDIUM,
+                AzureEventHubsConfigConstants.CONSUMER_THREADS_DOC,
+                CONNECTION_GROUP,
+                7,
+                ConfigDef.Width.SHORT,
+                AzureEventHubsConfigConstants.CONSUMER_THREADS
+            )
+            .define(AzureEventHubsConfigConstants.RECORDS_QUEUE_SIZE,
+                Type.INT,
+                AzureEventHubsConfigConstants.RECORDS_QUEUE_SIZE_DEFAULT,
+                ConfigDef.Range.atLeast(1),
+                Importance.MEDIUM,
+                AzureEventHubsConfigConstants.RECORDS_QUEUE_SIZE_DOC,
+                CONNECTION_GROUP,
+                8,
+                ConfigDef.Width.SHORT,
+                AzureEventHubsConfigConstants.RECORDS_QUEUE_SIZE
             ).define(AzureEventHubsConfigConstants.KCQL_CONFIG,
                 Type.STRING,
                 Importance.HIGH,
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.azure.eventhubs.config;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Indicates which headers of the EventHubs records are copied to the SourceRecords.
+ */
+public enum HeadersMode {
+
+  /**
+   * No headers are copied.
+   */
+  NONE,
+  /**
+   * All the headers are copied.
+   */
+  ALL,
+  /**
+   * Only the headers listed in {@link AzureEventHubsConfigConstants#HEADERS_ALLOW_LIST} are copied.
+   */
+  ALLOW_LIST;
+
+  private static final Map<String, HeadersMode> NAME_TO_HEADERS_MODE =
+      Arrays.stream(values()).collect(Collectors.toMap(Enum::name, Function.identity()));
+
+  public static HeadersMode fromName(String name) {
+    return NAME_TO_HEADERS_MODE.get(name.toUpperCase().replace('-', '_'));
+  }
+}
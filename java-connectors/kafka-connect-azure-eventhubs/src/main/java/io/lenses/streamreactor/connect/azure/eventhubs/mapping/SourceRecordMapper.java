@@ -16,6 +16,7 @@
 package io.lenses.streamreactor.connect.azure.eventhubs.mapping;
 
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Header;
@@ -58,7 +59,37 @@ public class SourceRecordMapper {
   }
 
   /**
-   * Method to make SourceRecord out of ConsumerRecord including optional byte headers
+   * Method to make SourceRecord out of ConsumerRecord including only the optional byte headers
+   * from original message whose keys are allowed.
+   *
+   * @param consumerRecord original consumer record
+   * @param partitionKey   AzureTopicPartitionKey to indicate topic and partition
+   * @param offsetMap      AzureOffsetMarker to indicate offset
+   * @param outputTopic    Output topic for record
+   * @param keySchema      Schema of the key
+   * @param valueSchema    Schema of the value
+   * @param allowedHeaders keys of the headers to copy
+   * @return SourceRecord with allowed headers
+   */
+  public static SourceRecord mapSourceRecordIncludingAllowedHeaders(
+      ConsumerRecord<?, ?> consumerRecord,
+      Map<String, String> partitionKey, Map<String, Object> offsetMap,
+      String outputTopic, Schema keySchema, Schema valueSchema, Set<String> allowedHeaders) {
+    ConnectHeaders connectHeaders = new ConnectHeaders();
+    for (Header header : consumerRecord.headers()) {
+      if (allowedHeaders.contains(header.key())) {
+        connectHeaders.add(header.key(),
+            new SchemaAndValue(Schema.OPTIONAL_BYTES_SCHEMA, header.value()));
+      }
+    }
+    return new SourceRecord(partitionKey, offsetMap,
+        outputTopic, null, keySchema, consumerRecord.key(),
+        valueSchema, consumerRecord.value(), consumerRecord.timestamp(),
+        connectHeaders);
+  }
+
+  /**
+   * Method to make SourceRecord out of ConsumerRecord without the headers
    * from original message.
    *
    * @param consumerRecord original consumer record
@@ -17,8 +17,11 @@ package io.lenses.streamreactor.connect.azure.eventhubs.source;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
@@ -56,21 +59,29 @@ public class AzureConsumerRebalancerListener implements ConsumerRebalanceListene
 
   @Override
   public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
-    // implementation not needed, offsets already committed
+    // offsets are already committed, only the offsets kept in memory have to follow the assignment
+    topicPartitionOffsetProvider.partitionsRevoked(toPartitionKeys(partitions));
+  }
+
+  @Override
+  public void onPartitionsLost(Collection<TopicPartition> partitions) {
+    topicPartitionOffsetProvider.partitionsLost(toPartitionKeys(partitions));
   }
 
   @Override
   public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+    Map<TopicPartition, AzureTopicPartitionKey> partitionKeys = new HashMap<>(partitions.size());
+    partitions.forEach(partition -> partitionKeys.put(partition,
+        new AzureTopicPartitionKey(partition.topic(), partition.partition())));
+    topicPartitionOffsetProvider.partitionsAssigned(partitionKeys.values());
+    Map<AzureTopicPartitionKey, AzureOffsetMarker> partitionOffsets =
+        topicPartitionOffsetProvider.getOffsets(partitionKeys.values());
+
     List<TopicPartition> partitionsWithoutOffsets = new ArrayList<>();
-    partitions.forEach(partition -> {
-      AzureTopicPartitionKey partitionKey =
-          new AzureTopicPartitionKey(
-              partition.topic(), partition.partition());
-      Optional<AzureOffsetMarker> partitionOffset = topicPartitionOffsetProvider.getOffset(partitionKey);
-      partitionOffset.ifPresentOrElse(
-          offset -> kafkaConsumer.seek(partition, offset.getOffsetValue()),
-          () -> partitionsWithoutOffsets.add(partition));
-    });
+    partitionKeys.forEach((partition, partitionKey) -> Optional.ofNullable(partitionOffsets.get(partitionKey))
+        .ifPresentOrElse(
+            offset -> kafkaConsumer.seek(partition, offset.getOffsetValue()),
+            () -> partitionsWithoutOffsets.add(partition)));
     if (!partitionsWithoutOffsets.isEmpty()) {
       if (shouldSeekToLatest) {
         kafkaConsumer.seekToEnd(partitionsWithoutOffsets);
@@ -80,4 +91,10 @@ public class AzureConsumerRebalancerListener implements ConsumerRebalanceListene
     }
   }
 
+  private static List<AzureTopicPartitionKey> toPartitionKeys(Collection<TopicPartition> partitions) {
+    return partitions.stream()
+        .map(partition -> new AzureTopicPartitionKey(partition.topic(), partition.partition()))
+        .collect(Collectors.toList());
+  }
+
 }
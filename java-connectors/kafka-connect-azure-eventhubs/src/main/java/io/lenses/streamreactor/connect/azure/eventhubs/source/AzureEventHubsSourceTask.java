@@ -25,17 +25,22 @@ import io.lenses.streamreactor.common.util.EitherUtils;
 import io.lenses.streamreactor.common.util.JarManifest;
 import io.lenses.streamreactor.connect.azure.eventhubs.config.AzureEventHubsConfigConstants;
 import io.lenses.streamreactor.connect.azure.eventhubs.config.AzureEventHubsSourceConfig;
+import io.lenses.streamreactor.connect.azure.eventhubs.config.HeadersMode;
+import io.lenses.streamreactor.connect.azure.eventhubs.source.TopicPartitionOffsetProvider.AzureOffsetMarker;
+import io.lenses.streamreactor.connect.azure.eventhubs.source.TopicPartitionOffsetProvider.AzureTopicPartitionKey;
 import io.lenses.streamreactor.connect.azure.eventhubs.util.EventHubsKcqlMappingsValidator;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.apache.kafka.connect.source.SourceTask;
+import org.apache.kafka.connect.source.SourceTaskContext;
+import org.apache.kafka.connect.source.TransactionContext;
 import org.apache.kafka.connect.storage.OffsetStorageReader;
 
 /**
@@ -46,10 +51,10 @@ public class AzureEventHubsSourceTask extends SourceTask {
 
   private static final Duration ONE_SECOND_DURATION = Duration.of(1, ChronoUnit.SECONDS);
   private Duration closeTimeout;
-  private static final int RECORDS_QUEUE_DEFAULT_SIZE = 10;
   private final JarManifest jarManifest;
   private EventHubsKafkaConsumerController eventHubsKafkaConsumerController;
   private BlockingQueueProducerProvider blockingQueueProducerProvider;
+  private TopicPartitionOffsetProvider topicPartitionOffsetProvider;
 
   public AzureEventHubsSourceTask() {
     jarManifest =
@@ -73,10 +78,11 @@ public class AzureEventHubsSourceTask extends SourceTask {
         ofNullable(this.context).flatMap(
             context -> ofNullable(context.offsetStorageReader())).orElseThrow();
     AzureEventHubsSourceConfig azureEventHubsSourceConfig = new AzureEventHubsSourceConfig(props);
-    TopicPartitionOffsetProvider topicPartitionOffsetProvider = new TopicPartitionOffsetProvider(offsetStorageReader);
+    TopicPartitionOffsetProvider offsetProvider = new TopicPartitionOffsetProvider(offsetStorageReader);
 
-    ArrayBlockingQueue<ConsumerRecords<byte[], byte[]>> recordsQueue =
-        new ArrayBlockingQueue<>(RECORDS_QUEUE_DEFAULT_SIZE);
+    RecordCountBoundedQueue recordsQueue =
+        new RecordCountBoundedQueue(
+            azureEventHubsSourceConfig.getInt(AzureEventHubsConfigConstants.RECORDS_QUEUE_SIZE));
     Either<StreamReactorException, List<Kcql>> mappedInputsOutputsEither =
         EventHubsKcqlMappingsValidator.mapInputToOutputsFromConfig(
             azureEventHubsSourceConfig.getString(AzureEventHubsConfigConstants.KCQL_CONFIG));
@@ -84,12 +90,14 @@ public class AzureEventHubsSourceTask extends SourceTask {
         EitherUtils.unpackOrThrow(mappedInputsOutputsEither)
             .stream().collect(Collectors.toUnmodifiableMap(Kcql::getSource, Kcql::getTarget));
 
-    blockingQueueProducerProvider = new BlockingQueueProducerProvider(topicPartitionOffsetProvider);
-    KafkaByteBlockingQueuedProducer producer =
-        blockingQueueProducerProvider.createProducer(azureEventHubsSourceConfig, recordsQueue, inputToOutputTopics);
+    blockingQueueProducerProvider = new BlockingQueueProducerProvider(offsetProvider);
+    List<KafkaByteBlockingQueuedProducer> producers =
+        blockingQueueProducerProvider.createProducers(azureEventHubsSourceConfig, recordsQueue, inputToOutputTopics);
     EventHubsKafkaConsumerController kafkaConsumerController =
-        new EventHubsKafkaConsumerController(producer, recordsQueue, inputToOutputTopics);
-    initialize(kafkaConsumerController, azureEventHubsSourceConfig);
+        new EventHubsKafkaConsumerController(producers, recordsQueue, inputToOutputTopics,
+            HeadersMode.fromName(azureEventHubsSourceConfig.getString(AzureEventHubsConfigConstants.HEADERS_MODE)),
+            new HashSet<>(azureEventHubsSourceConfig.getList(AzureEventHubsConfigConstants.HEADERS_ALLOW_LIST)));
+    initialize(kafkaConsumerController, azureEventHubsSourceConfig, offsetProvider);
   }
 
   /**
@@ -101,7 +109,22 @@ public class AzureEventHubsSourceTask extends SourceTask {
    */
   public void initialize(EventHubsKafkaConsumerController eventHubsKafkaConsumerController,
       AzureEventHubsSourceConfig azureEventHubsSourceConfig) {
+    initialize(eventHubsKafkaConsumerController, azureEventHubsSourceConfig, null);
+  }
+
+  /**
+   * Initializes the Task. This method shouldn't be called if start() was already called with
+   * {@link EventHubsKafkaConsumerController} instance.
+   *
+   * @param eventHubsKafkaConsumerController {@link EventHubsKafkaConsumerController} for this task
+   * @param azureEventHubsSourceConfig       config for task
+   * @param topicPartitionOffsetProvider     provider that caches offsets of the records committed by this task
+   */
+  public void initialize(EventHubsKafkaConsumerController eventHubsKafkaConsumerController,
+      AzureEventHubsSourceConfig azureEventHubsSourceConfig,
+      TopicPartitionOffsetProvider topicPartitionOffsetProvider) {
     this.eventHubsKafkaConsumerController = eventHubsKafkaConsumerController;
+    this.topicPartitionOffsetProvider = topicPartitionOffsetProvider;
     closeTimeout =
         Duration.of(azureEventHubsSourceConfig.getInt(AzureEventHubsConfigConstants.CONSUMER_CLOSE_TIMEOUT),
             ChronoUnit.SECONDS);
@@ -112,7 +135,24 @@ public class AzureEventHubsSourceTask extends SourceTask {
   public List<SourceRecord> poll() throws InterruptedException {
     List<SourceRecord> poll =
         eventHubsKafkaConsumerController.poll(ONE_SECOND_DURATION);
-    return poll.isEmpty() ? null : poll;
+    if (poll.isEmpty()) {
+      return null;
+    }
+    // with connector defined transaction boundaries every poll batch is committed as one transaction
+    ofNullable(context).map(SourceTaskContext::transactionContext)
+        .ifPresent(TransactionContext::commitTransaction);
+    return poll;
+  }
+
+  @Override
+  public void commitRecord(SourceRecord sourceRecord, RecordMetadata metadata) {
+    if (topicPartitionOffsetProvider != null
+        && sourceRecord.sourcePartition() instanceof AzureTopicPartitionKey
+        && sourceRecord.sourceOffset() instanceof AzureOffsetMarker) {
+      topicPartitionOffsetProvider.updateCommittedOffset(
+          (AzureTopicPartitionKey) sourceRecord.sourcePartition(),
+          (AzureOffsetMarker) sourceRecord.sourceOffset());
+    }
   }
 
   @Override
@@ -15,13 +15,13 @@
  */
 package io.lenses.streamreactor.connect.azure.eventhubs.source;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.config.ConfigException;
 
@@ -47,17 +47,39 @@ public class BlockingQueueProducerProvider implements ProducerProvider<byte[], b
     this.topicPartitionOffsetProvider = topicPartitionOffsetProvider;
   }
 
+  /**
+   * Instantiates as many BlockingQueuedKafkaConsumers as configured by
+   * {@link AzureEventHubsConfigConstants#CONSUMER_THREADS}. The consumers share the consumer group,
+   * so the partitions of the input topics are spread between them, and the records queue.
+   *
+   * @param azureEventHubsSourceConfig Config of Task
+   * @param recordBlockingQueue        queue for ConsumerRecords
+   * @param inputToOutputTopics        map of input to output topics
+   * @return BlockingQueuedKafkaConsumer instances.
+   */
+  public List<KafkaByteBlockingQueuedProducer> createProducers(
+      AzureEventHubsSourceConfig azureEventHubsSourceConfig,
+      RecordCountBoundedQueue recordBlockingQueue,
+      Map<String, String> inputToOutputTopics) {
+    int consumerThreads = azureEventHubsSourceConfig.getInt(AzureEventHubsConfigConstants.CONSUMER_THREADS);
+    List<KafkaByteBlockingQueuedProducer> producers = new ArrayList<>(consumerThreads);
+    for (int i = 0; i < consumerThreads; i++) {
+      producers.add(createProducer(azureEventHubsSourceConfig, recordBlockingQueue, inputToOutputTopics));
+    }
+    return producers;
+  }
+
   /**
    * Instantiates BlockingQueuedKafkaConsumer from given properties.
    *
    * @param azureEventHubsSourceConfig Config of Task
-   * @param recordBlockingQueue        BlockingQueue for ConsumerRecords
+   * @param recordBlockingQueue        queue for ConsumerRecords
    * @param inputToOutputTopics        map of input to output topics
    * @return BlockingQueuedKafkaConsumer instance.
    */
   public KafkaByteBlockingQueuedProducer createProducer(
       AzureEventHubsSourceConfig azureEventHubsSourceConfig,
-      BlockingQueue<ConsumerRecords<byte[], byte[]>> recordBlockingQueue,
+      RecordCountBoundedQueue recordBlockingQueue,
       Map<String, String> inputToOutputTopics) {
     String connectorName = azureEventHubsSourceConfig.getString(AzureEventHubsConfigConstants.CONNECTOR_NAME);
     final String clientId = connectorName + "#" + UUID.randomUUID();
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.azure.eventhubs.source;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Counters describing a single EventHubs consumer of a task. The lag is the number of records the
+ * consumer is behind the end of its assigned partitions as of its last poll, while the queue depth
+ * is read live from the records queue the consumers of the task share. The counters are published
+ * over JMX through {@link EventHubsConsumerMetricsMBean}.
+ */
+@ToString
+public class EventHubsConsumerMetrics implements EventHubsConsumerMetricsMBean {
+
+  @Getter
+  private final String clientId;
+  @ToString.Exclude
+  private final IntSupplier queueDepthSupplier;
+  private final LongAdder polledRecords = new LongAdder();
+  private final LongAdder pollCount = new LongAdder();
+  private final AtomicLong lag = new AtomicLong();
+  private final LongAdder offerBlockedMillis = new LongAdder();
+
+  public EventHubsConsumerMetrics(String clientId, IntSupplier queueDepthSupplier) {
+    this.clientId = clientId;
+    this.queueDepthSupplier = queueDepthSupplier;
+  }
+
+  void recordPoll(int records, long currentLag) {
+    pollCount.increment();
+    polledRecords.add(records);
+    lag.set(currentLag);
+  }
+
+  void recordOfferBlocked(long blockedNanos) {
+    offerBlockedMillis.add(TimeUnit.NANOSECONDS.toMillis(blockedNanos));
+  }
+
+  /**
+   * @return the number of records polled from EventHubs
+   */
+  public long getPolledRecords() {
+    return polledRecords.sum();
+  }
+
+  /**
+   * @return the number of polls of EventHubs
+   */
+  public long getPollCount() {
+    return pollCount.sum();
+  }
+
+  /**
+   * @return the number of records behind the end of the assigned partitions as of the last poll
+   */
+  public long getLag() {
+    return lag.get();
+  }
+
+  /**
+   * @return the time spent waiting for room in the records queue
+   */
+  public long getOfferBlockedMillis() {
+    return offerBlockedMillis.sum();
+  }
+
+  /**
+   * @return the number of records waiting in the records queue of the task
+   */
+  @ToString.Include
+  public int getQueueDepth() {
+    return queueDepthSupplier.getAsInt();
+  }
+}
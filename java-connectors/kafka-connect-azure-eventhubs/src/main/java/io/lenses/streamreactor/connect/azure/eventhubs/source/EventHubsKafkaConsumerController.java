@@ -15,21 +15,28 @@
  */
 package io.lenses.streamreactor.connect.azure.eventhubs.source;
 
+import static io.lenses.streamreactor.connect.azure.eventhubs.mapping.SourceRecordMapper.mapSourceRecordIncludingAllowedHeaders;
 import static io.lenses.streamreactor.connect.azure.eventhubs.mapping.SourceRecordMapper.mapSourceRecordIncludingHeaders;
+import static io.lenses.streamreactor.connect.azure.eventhubs.mapping.SourceRecordMapper.mapSourceRecordWithoutHeaders;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.source.SourceRecord;
 
+import io.lenses.streamreactor.connect.azure.eventhubs.config.HeadersMode;
+import io.lenses.streamreactor.connect.azure.eventhubs.config.SourceDataType.KeyValueTypes;
 import io.lenses.streamreactor.connect.azure.eventhubs.source.TopicPartitionOffsetProvider.AzureOffsetMarker;
 import io.lenses.streamreactor.connect.azure.eventhubs.source.TopicPartitionOffsetProvider.AzureTopicPartitionKey;
 import lombok.extern.slf4j.Slf4j;
@@ -42,23 +49,58 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class EventHubsKafkaConsumerController {
 
-  private final BlockingQueue<ConsumerRecords<byte[], byte[]>> recordsQueue;
-  private KafkaByteBlockingQueuedProducer queuedKafkaProducer;
+  private final RecordCountBoundedQueue recordsQueue;
+  private final List<KafkaByteBlockingQueuedProducer> queuedKafkaProducers;
   private final Map<String, String> inputToOutputTopics;
+  private final HeadersMode headersMode;
+  private final Set<String> allowedHeaders;
+  private final Map<String, Map<Integer, AzureTopicPartitionKey>> partitionKeys = new HashMap<>();
 
   /**
-   * Constructs EventHubsKafkaConsumerController.
+   * Constructs EventHubsKafkaConsumerController that copies all the headers of the records.
    *
    * @param queuedKafkaProducer producer to the recordsQueue
    * @param recordsQueue        queue that contains EventHub records
    * @param inputToOutputTopics input to output topics
    */
   public EventHubsKafkaConsumerController(KafkaByteBlockingQueuedProducer queuedKafkaProducer,
-      BlockingQueue<ConsumerRecords<byte[], byte[]>> recordsQueue,
+      RecordCountBoundedQueue recordsQueue,
       Map<String, String> inputToOutputTopics) {
+    this(List.of(queuedKafkaProducer), recordsQueue, inputToOutputTopics, HeadersMode.ALL, Collections.emptySet());
+  }
+
+  /**
+   * Constructs EventHubsKafkaConsumerController.
+   *
+   * @param queuedKafkaProducer producer to the recordsQueue
+   * @param recordsQueue        queue that contains EventHub records
+   * @param inputToOutputTopics input to output topics
+   * @param headersMode         which headers of the records are copied
+   * @param allowedHeaders      keys of the headers copied in {@link HeadersMode#ALLOW_LIST} mode
+   */
+  public EventHubsKafkaConsumerController(KafkaByteBlockingQueuedProducer queuedKafkaProducer,
+      RecordCountBoundedQueue recordsQueue,
+      Map<String, String> inputToOutputTopics, HeadersMode headersMode, Set<String> allowedHeaders) {
+    this(List.of(queuedKafkaProducer), recordsQueue, inputToOutputTopics, headersMode, allowedHeaders);
+  }
+
+  /**
+   * Constructs EventHubsKafkaConsumerController for several producers sharing the recordsQueue.
+   *
+   * @param queuedKafkaProducers producers to the recordsQueue, all of the same key and value types
+   * @param recordsQueue         queue that contains EventHub records
+   * @param inputToOutputTopics  input to output topics
+   * @param headersMode          which headers of the records are copied
+   * @param allowedHeaders       keys of the headers copied in {@link HeadersMode#ALLOW_LIST} mode
+   */
+  public EventHubsKafkaConsumerController(List<KafkaByteBlockingQueuedProducer> queuedKafkaProducers,
+      RecordCountBoundedQueue recordsQueue,
+      Map<String, String> inputToOutputTopics, HeadersMode headersMode, Set<String> allowedHeaders) {
     this.recordsQueue = recordsQueue;
-    this.queuedKafkaProducer = queuedKafkaProducer;
+    this.queuedKafkaProducers = queuedKafkaProducers;
     this.inputToOutputTopics = inputToOutputTopics;
+    this.headersMode = headersMode;
+    this.allowedHeaders = allowedHeaders;
   }
 
   /**
@@ -72,7 +114,7 @@ public class EventHubsKafkaConsumerController {
   public List<SourceRecord> poll(Duration duration) throws InterruptedException {
     List<SourceRecord> sourceRecords = null;
 
-    queuedKafkaProducer.start();
+    queuedKafkaProducers.forEach(KafkaByteBlockingQueuedProducer::start);
 
     ConsumerRecords<byte[], byte[]> consumerRecords = null;
     try {
@@ -86,20 +128,22 @@ public class EventHubsKafkaConsumerController {
 
     if (consumerRecords != null && !consumerRecords.isEmpty()) {
       sourceRecords = new ArrayList<>(consumerRecords.count());
+      KeyValueTypes keyValueTypes = queuedKafkaProducers.get(0).getKeyValueTypes();
+      Schema keySchema = keyValueTypes.getKeyType().getSchema();
+      Schema valueSchema = keyValueTypes.getValueType().getSchema();
       for (ConsumerRecord<byte[], byte[]> consumerRecord : consumerRecords) {
 
         String inputTopic = consumerRecord.topic();
         AzureTopicPartitionKey azureTopicPartitionKey =
-            new AzureTopicPartitionKey(
-                inputTopic, consumerRecord.partition());
+            partitionKey(inputTopic, consumerRecord.partition());
         AzureOffsetMarker offsetMarker = new AzureOffsetMarker(consumerRecord.offset());
 
         SourceRecord sourceRecord =
-            mapSourceRecordIncludingHeaders(consumerRecord,
+            mapSourceRecord(consumerRecord,
                 azureTopicPartitionKey,
                 offsetMarker, inputToOutputTopics.get(inputTopic),
-                queuedKafkaProducer.getKeyValueTypes().getKeyType().getSchema(),
-                queuedKafkaProducer.getKeyValueTypes().getValueType().getSchema());
+                keySchema,
+                valueSchema);
 
         sourceRecords.add(sourceRecord);
 
@@ -108,7 +152,47 @@ public class EventHubsKafkaConsumerController {
     return sourceRecords != null ? sourceRecords : Collections.emptyList();
   }
 
+  /**
+   * Partition keys are the same for every record of a topic partition, so a single instance per
+   * topic partition is shared by all of its SourceRecords.
+   */
+  private AzureTopicPartitionKey partitionKey(String topic, int partition) {
+    return partitionKeys
+        .computeIfAbsent(topic, t -> new HashMap<>())
+        .computeIfAbsent(partition, p -> new AzureTopicPartitionKey(topic, p));
+  }
+
+  private SourceRecord mapSourceRecord(ConsumerRecord<byte[], byte[]> consumerRecord,
+      AzureTopicPartitionKey partitionKey, AzureOffsetMarker offsetMarker, String outputTopic,
+      Schema keySchema, Schema valueSchema) {
+    switch (headersMode) {
+      case NONE:
+        return mapSourceRecordWithoutHeaders(consumerRecord, partitionKey, offsetMarker, outputTopic,
+            keySchema, valueSchema);
+      case ALLOW_LIST:
+        return mapSourceRecordIncludingAllowedHeaders(consumerRecord, partitionKey, offsetMarker, outputTopic,
+            keySchema, valueSchema, allowedHeaders);
+      default:
+        return mapSourceRecordIncludingHeaders(consumerRecord, partitionKey, offsetMarker, outputTopic,
+            keySchema, valueSchema);
+    }
+  }
+
+  /**
+   * Metrics of the consumers of the producers.
+   *
+   * @return metrics of every consumer
+   */
+  public List<EventHubsConsumerMetrics> getConsumerMetrics() {
+    return queuedKafkaProducers.stream()
+        .map(KafkaByteBlockingQueuedProducer::getMetrics)
+        .collect(Collectors.toList());
+  }
+
   public void close(Duration timeoutDuration) {
-    queuedKafkaProducer.stop(timeoutDuration);
+    queuedKafkaProducers.forEach(producer -> {
+      producer.stop(timeoutDuration);
+      log.info("Stopped EventHubs consumer {}", producer.getMetrics());
+    });
   }
 }
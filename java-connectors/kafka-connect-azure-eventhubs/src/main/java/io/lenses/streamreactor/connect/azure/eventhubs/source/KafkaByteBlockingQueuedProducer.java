@@ -17,28 +17,33 @@ package io.lenses.streamreactor.connect.azure.eventhubs.source;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.management.ObjectName;
+
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
 
+import io.lenses.streamreactor.common.metrics.MetricsRegistrar;
 import io.lenses.streamreactor.connect.azure.eventhubs.config.SourceDataType.KeyValueTypes;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Abstraction over Kafka {@link Consumer} class that wraps the Consumer into a thread and allows
- * it to output its records into a {@link BlockingQueue} shared with {@link EventHubsKafkaConsumerController}.
+ * it to output its records into a {@link RecordCountBoundedQueue} shared with {@link EventHubsKafkaConsumerController}.
  */
 @Slf4j
 public class KafkaByteBlockingQueuedProducer implements BlockingQueueProducer {
 
   private static final Duration DEFAULT_POLL_DURATION = Duration.of(1, ChronoUnit.SECONDS);
+  private static final String METRICS_DOMAIN = "io.lenses.streamreactor.connect.azure.eventhubs.source";
   private final TopicPartitionOffsetProvider topicPartitionOffsetProvider;
-  private final BlockingQueue<ConsumerRecords<byte[], byte[]>> recordsQueue;
+  private final RecordCountBoundedQueue recordsQueue;
   private final Consumer<byte[], byte[]> consumer;
   private final String clientId;
   private final Set<String> inputTopics;
@@ -48,14 +53,17 @@ public class KafkaByteBlockingQueuedProducer implements BlockingQueueProducer {
   private final KeyValueTypes keyValueTypes;
   private final AtomicBoolean initialized = new AtomicBoolean(false);
   private final AtomicBoolean running = new AtomicBoolean(false);
+  @Getter
+  private final EventHubsConsumerMetrics metrics;
+  private final ObjectName metricsName;
 
   /**
    * Class is a proxy that allows access to some methods of Kafka Consumer. It's main purpose is to
-   * create a thread around the consumer and put consumer record into BlockingQueue. After that it
+   * create a thread around the consumer and put consumer record into RecordCountBoundedQueue. After that it
    * starts consumption.
    *
    * @param topicPartitionOffsetProvider TopicPartitionOffsetProvider for subscription handler
-   * @param recordsQueue                 BlockingQueue to put records into
+   * @param recordsQueue                 queue to put records into
    * @param consumer                     Kafka Consumer
    * @param keyValueTypes                {@link KeyValueTypes} instance indicating key and value
    *                                     types
@@ -65,7 +73,7 @@ public class KafkaByteBlockingQueuedProducer implements BlockingQueueProducer {
    *                                     offsets committed
    */
   public KafkaByteBlockingQueuedProducer(TopicPartitionOffsetProvider topicPartitionOffsetProvider,
-      BlockingQueue<ConsumerRecords<byte[], byte[]>> recordsQueue, Consumer<byte[], byte[]> consumer,
+      RecordCountBoundedQueue recordsQueue, Consumer<byte[], byte[]> consumer,
       KeyValueTypes keyValueTypes, String clientId, Set<String> inputTopics, boolean shouldSeekToLatest) {
     this.topicPartitionOffsetProvider = topicPartitionOffsetProvider;
     this.recordsQueue = recordsQueue;
@@ -74,18 +82,24 @@ public class KafkaByteBlockingQueuedProducer implements BlockingQueueProducer {
     this.inputTopics = inputTopics;
     this.shouldSeekToLatest = shouldSeekToLatest;
     this.keyValueTypes = keyValueTypes;
+    this.metrics = new EventHubsConsumerMetrics(clientId, recordsQueue::getRecordsCount);
+    this.metricsName =
+        MetricsRegistrar.objectName(METRICS_DOMAIN, Map.of("type", "metrics", "client", clientId));
+    MetricsRegistrar.register(metrics, metricsName);
 
     start();
   }
 
   /**
-   * Starts the production to the records queue.
+   * Starts the production to the records queue on a daemon thread named after the consumer.
    */
   public void start() {
     if (!initialized.getAndSet(true)) {
       pollingRunnable = new EventhubsPollingRunnable();
 
-      new Thread(pollingRunnable).start();
+      Thread pollingThread = new Thread(pollingRunnable, "eventhubs-consumer-" + clientId);
+      pollingThread.setDaemon(true);
+      pollingThread.start();
       initialized.set(true);
     }
   }
@@ -93,6 +107,7 @@ public class KafkaByteBlockingQueuedProducer implements BlockingQueueProducer {
   public void stop(Duration timeoutDuration) {
     pollingRunnable.close(timeoutDuration);
     running.set(false);
+    MetricsRegistrar.unregister(metricsName);
   }
 
   private class EventhubsPollingRunnable implements Runnable {
@@ -105,12 +120,15 @@ public class KafkaByteBlockingQueuedProducer implements BlockingQueueProducer {
           new AzureConsumerRebalancerListener(topicPartitionOffsetProvider, consumer, shouldSeekToLatest));
       while (running.get()) {
         ConsumerRecords<byte[], byte[]> consumerRecords = consumer.poll(DEFAULT_POLL_DURATION);
+        metrics.recordPoll(consumerRecords != null ? consumerRecords.count() : 0, currentLag());
         if (consumerRecords != null && !consumerRecords.isEmpty()) {
           try {
+            long offerStart = System.nanoTime();
             boolean offer = false;
             while (!offer) {
               offer = recordsQueue.offer(consumerRecords, 5, TimeUnit.SECONDS);
             }
+            metrics.recordOfferBlocked(System.nanoTime() - offerStart);
           } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.info("Kafka Consumer with clientId={} has been interrupted on offering", clientId);
@@ -119,6 +137,14 @@ public class KafkaByteBlockingQueuedProducer implements BlockingQueueProducer {
       }
     }
 
+    private long currentLag() {
+      long lag = 0;
+      for (TopicPartition topicPartition : consumer.assignment()) {
+        lag += consumer.currentLag(topicPartition).orElse(0L);
+      }
+      return lag;
+    }
+
     void close(Duration timeoutDuration) {
       consumer.close(timeoutDuration);
     }
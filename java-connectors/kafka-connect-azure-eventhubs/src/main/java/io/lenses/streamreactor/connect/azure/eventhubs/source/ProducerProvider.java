@@ -16,9 +16,6 @@
 package io.lenses.streamreactor.connect.azure.eventhubs.source;
 
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
-
-import org.apache.kafka.clients.consumer.ConsumerRecords;
 
 import io.lenses.streamreactor.connect.azure.eventhubs.config.AzureEventHubsSourceConfig;
 
@@ -28,6 +25,6 @@ import io.lenses.streamreactor.connect.azure.eventhubs.config.AzureEventHubsSour
 public interface ProducerProvider<K, V> {
 
   BlockingQueueProducer createProducer(AzureEventHubsSourceConfig azureEventHubsSourceConfig,
-      BlockingQueue<ConsumerRecords<byte[], byte[]>> recordBlockingQueue,
+      RecordCountBoundedQueue recordBlockingQueue,
       Map<String, String> inputToOutputTopics);
 }
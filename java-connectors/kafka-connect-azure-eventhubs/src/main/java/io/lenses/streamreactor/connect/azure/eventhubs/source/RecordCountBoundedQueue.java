@@ -0,0 +1,208 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.azure.eventhubs.source;
+
+import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+
+/**
+ * Queue of {@link ConsumerRecords} batches bounded by the number of records the batches hold rather
+ * than by the number of batches, so its memory footprint does not depend on how many records the
+ * consumers return per poll. A batch larger than the capacity is accepted once the queue is empty.
+ *
+ * <p>The batches are held in a {@link BlockingQueue} which is not exposed: only the methods used to
+ * hand batches over between the consumers and {@link EventHubsKafkaConsumerController} are, and each
+ * of them accounts for the capacity, so no batch can leave the queue without freeing its records.</p>
+ */
+public class RecordCountBoundedQueue {
+
+  private final BlockingQueue<ConsumerRecords<byte[], byte[]>> queue = new LinkedBlockingQueue<>();
+  private final int recordsCapacity;
+  private final Semaphore recordPermits;
+
+  /**
+   * Creates the queue.
+   *
+   * @param recordsCapacity maximum number of records the queued batches can hold
+   */
+  public RecordCountBoundedQueue(int recordsCapacity) {
+    if (recordsCapacity < 1) {
+      throw new IllegalArgumentException("Records capacity must be greater than 0");
+    }
+    this.recordsCapacity = recordsCapacity;
+    this.recordPermits = new Semaphore(recordsCapacity, true);
+  }
+
+  /**
+   * Adds the batch if there is capacity for its records, without waiting.
+   *
+   * @param records batch of records
+   * @return true if the batch was added
+   */
+  public boolean offer(ConsumerRecords<byte[], byte[]> records) {
+    if (!recordPermits.tryAcquire(permits(records))) {
+      return false;
+    }
+    return enqueue(records);
+  }
+
+  /**
+   * Adds the batch, waiting up to the timeout for capacity for its records.
+   *
+   * @param records batch of records
+   * @param timeout maximum time to wait
+   * @param unit    unit of the timeout
+   * @return true if the batch was added
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean offer(ConsumerRecords<byte[], byte[]> records, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    if (!recordPermits.tryAcquire(permits(records), timeout, unit)) {
+      return false;
+    }
+    return enqueue(records);
+  }
+
+  /**
+   * Adds the batch, waiting for capacity for its records.
+   *
+   * @param records batch of records
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void put(ConsumerRecords<byte[], byte[]> records) throws InterruptedException {
+    recordPermits.acquire(permits(records));
+    enqueue(records);
+  }
+
+  /**
+   * Removes the batch at the head of the queue, without waiting.
+   *
+   * @return the batch, or null if the queue is empty
+   */
+  public ConsumerRecords<byte[], byte[]> poll() {
+    return release(queue.poll());
+  }
+
+  /**
+   * Removes the batch at the head of the queue, waiting up to the timeout for one to be added.
+   *
+   * @param timeout maximum time to wait
+   * @param unit    unit of the timeout
+   * @return the batch, or null if none was added in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public ConsumerRecords<byte[], byte[]> poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return release(queue.poll(timeout, unit));
+  }
+
+  /**
+   * Removes the batch at the head of the queue, waiting for one to be added.
+   *
+   * @return the batch
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public ConsumerRecords<byte[], byte[]> take() throws InterruptedException {
+    return release(queue.take());
+  }
+
+  /**
+   * Removes all the batches, without waiting.
+   *
+   * @param collection collection to add the batches to, in the order they were queued
+   * @return number of batches removed
+   */
+  public int drainTo(Collection<? super ConsumerRecords<byte[], byte[]>> collection) {
+    return drainTo(collection, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Removes up to the given number of batches, without waiting.
+   *
+   * @param collection  collection to add the batches to, in the order they were queued
+   * @param maxElements maximum number of batches to remove
+   * @return number of batches removed
+   */
+  public int drainTo(Collection<? super ConsumerRecords<byte[], byte[]>> collection, int maxElements) {
+    int drained = 0;
+    ConsumerRecords<byte[], byte[]> records;
+    while (drained < maxElements && (records = poll()) != null) {
+      collection.add(records);
+      drained++;
+    }
+    return drained;
+  }
+
+  /**
+   * Removes all the batches.
+   */
+  public void clear() {
+    while (poll() != null) {
+      // permits are released by poll
+    }
+  }
+
+  /**
+   * Number of batches in the queue.
+   *
+   * @return number of batches
+   */
+  public int size() {
+    return queue.size();
+  }
+
+  /**
+   * Whether the queue holds no batch.
+   *
+   * @return true if the queue is empty
+   */
+  public boolean isEmpty() {
+    return queue.isEmpty();
+  }
+
+  /**
+   * Number of records the queued batches hold, counting a batch larger than the capacity as the
+   * capacity.
+   *
+   * @return number of records in the queue
+   */
+  public int getRecordsCount() {
+    return recordsCapacity - recordPermits.availablePermits();
+  }
+
+  private boolean enqueue(ConsumerRecords<byte[], byte[]> records) {
+    if (!queue.offer(records)) {
+      recordPermits.release(permits(records));
+      return false;
+    }
+    return true;
+  }
+
+  private ConsumerRecords<byte[], byte[]> release(ConsumerRecords<byte[], byte[]> records) {
+    if (records != null) {
+      recordPermits.release(permits(records));
+    }
+    return records;
+  }
+
+  private int permits(ConsumerRecords<byte[], byte[]> records) {
+    return Math.min(Math.max(records.count(), 1), recordsCapacity);
+  }
+}
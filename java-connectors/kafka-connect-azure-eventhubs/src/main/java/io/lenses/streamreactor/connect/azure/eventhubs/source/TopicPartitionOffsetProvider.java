@@ -15,8 +15,16 @@
  */
 package io.lenses.streamreactor.connect.azure.eventhubs.source;
 
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.apache.kafka.connect.storage.OffsetStorageReader;
 
@@ -25,7 +33,10 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * This class represents an abstraction over OffsetStorageReader that can be freely called by Azure
  * EventHub Kafka Consumers when it was initialized once. It helps consumers to find out which
- * offset were already committed inside Kafka Connect.
+ * offset were already committed inside Kafka Connect. Offsets of the records the task committed are
+ * kept in memory while the task holds their partitions, so partitions handed back to the task by a
+ * rebalance are resumed without reading the offsets topic. Once a partition goes to another task its
+ * offset is evicted, as the other task moves it on.
  */
 @Slf4j
 public final class TopicPartitionOffsetProvider {
@@ -33,6 +44,9 @@ public final class TopicPartitionOffsetProvider {
   private static final String OFFSET_KEY = "OFFSET";
 
   private final OffsetStorageReader offsetStorageReader;
+  private final Map<AzureTopicPartitionKey, Long> committedOffsets = new ConcurrentHashMap<>();
+  private final Set<AzureTopicPartitionKey> revokedPartitions = ConcurrentHashMap.newKeySet();
+  private final Set<AzureTopicPartitionKey> releasedPartitions = ConcurrentHashMap.newKeySet();
 
   public TopicPartitionOffsetProvider(OffsetStorageReader offsetStorageReader) {
     this.offsetStorageReader = offsetStorageReader;
@@ -47,11 +61,105 @@ public final class TopicPartitionOffsetProvider {
    *         AzureOffsetMarker if combo already did commit some.
    */
   public Optional<AzureOffsetMarker> getOffset(AzureTopicPartitionKey azureTopicPartitionKey) {
+    Long committedOffset = committedOffsets.get(azureTopicPartitionKey);
+    if (committedOffset != null) {
+      return Optional.of(new AzureOffsetMarker(committedOffset));
+    }
     return Optional.ofNullable(offsetStorageReader.offset(azureTopicPartitionKey))
         .map(offsetMap -> (Long) offsetMap.get(OFFSET_KEY))
         .map(AzureOffsetMarker::new);
   }
 
+  /**
+   * Checks for committed offsets of many topic+partition combos at once. Offsets committed by this
+   * task are served from memory and the remaining combos are looked up with a single call to
+   * {@link OffsetStorageReader#offsets(Collection)}.
+   *
+   * @param azureTopicPartitionKeys keys of topic+partition combos.
+   *
+   * @return map of AzureOffsetMarkers for the combos that already committed some offsets, combos
+   *         without committed offsets are not present in the map.
+   */
+  public Map<AzureTopicPartitionKey, AzureOffsetMarker> getOffsets(
+      Collection<AzureTopicPartitionKey> azureTopicPartitionKeys) {
+    Map<AzureTopicPartitionKey, AzureOffsetMarker> offsets = new HashMap<>(azureTopicPartitionKeys.size());
+    azureTopicPartitionKeys.forEach(key -> {
+      Long committedOffset = committedOffsets.get(key);
+      if (committedOffset != null) {
+        offsets.put(key, new AzureOffsetMarker(committedOffset));
+      }
+    });
+    List<AzureTopicPartitionKey> keysToRead =
+        azureTopicPartitionKeys.stream()
+            .filter(key -> !offsets.containsKey(key))
+            .collect(Collectors.toList());
+    if (keysToRead.isEmpty()) {
+      return offsets;
+    }
+    Map<Map<String, String>, Map<String, Object>> storedOffsets =
+        offsetStorageReader.offsets(Collections.<Map<String, String>>unmodifiableList(keysToRead));
+    keysToRead.forEach(key -> Optional.ofNullable(storedOffsets)
+        .map(stored -> stored.get(key))
+        .map(offsetMap -> (Long) offsetMap.get(OFFSET_KEY))
+        .ifPresent(offset -> offsets.put(key, new AzureOffsetMarker(offset))));
+    return offsets;
+  }
+
+  /**
+   * Remembers the offset of a record committed by the task, so that later lookups for its
+   * topic+partition combo do not have to reach the offsets topic. Offsets only move forward.
+   *
+   * @param azureTopicPartitionKey key of topic+partition combo.
+   * @param azureOffsetMarker      offset of the committed record.
+   */
+  public void updateCommittedOffset(AzureTopicPartitionKey azureTopicPartitionKey,
+      AzureOffsetMarker azureOffsetMarker) {
+    committedOffsets.merge(azureTopicPartitionKey, azureOffsetMarker.getOffsetValue(), Math::max);
+    // records of a released partition can still be committed after it was evicted
+    if (releasedPartitions.contains(azureTopicPartitionKey)) {
+      committedOffsets.remove(azureTopicPartitionKey);
+    }
+  }
+
+  /**
+   * Marks topic+partition combos revoked from the task. Their offsets are kept until the next
+   * assignment tells whether they were handed back to the task.
+   *
+   * @param azureTopicPartitionKeys keys of the revoked topic+partition combos.
+   */
+  public void partitionsRevoked(Collection<AzureTopicPartitionKey> azureTopicPartitionKeys) {
+    revokedPartitions.addAll(azureTopicPartitionKeys);
+  }
+
+  /**
+   * Evicts the offsets of the topic+partition combos revoked and not assigned back to the task, and
+   * starts remembering the offsets of the assigned ones.
+   *
+   * @param azureTopicPartitionKeys keys of the assigned topic+partition combos.
+   */
+  public void partitionsAssigned(Collection<AzureTopicPartitionKey> azureTopicPartitionKeys) {
+    revokedPartitions.removeAll(azureTopicPartitionKeys);
+    releasePartitions(List.copyOf(revokedPartitions));
+    revokedPartitions.clear();
+    releasedPartitions.removeAll(azureTopicPartitionKeys);
+  }
+
+  /**
+   * Evicts the offsets of topic+partition combos lost by the task, which may already be held by
+   * another task.
+   *
+   * @param azureTopicPartitionKeys keys of the lost topic+partition combos.
+   */
+  public void partitionsLost(Collection<AzureTopicPartitionKey> azureTopicPartitionKeys) {
+    revokedPartitions.removeAll(azureTopicPartitionKeys);
+    releasePartitions(azureTopicPartitionKeys);
+  }
+
+  private void releasePartitions(Collection<AzureTopicPartitionKey> azureTopicPartitionKeys) {
+    releasedPartitions.addAll(azureTopicPartitionKeys);
+    azureTopicPartitionKeys.forEach(committedOffsets::remove);
+  }
+
   /**
    * This class represents immutable map that represents topic and partition combo used by
    * TopicPartitionOffsetProvider.
@@ -77,16 +185,39 @@ public final class TopicPartitionOffsetProvider {
 
   /**
    * This class represents immutable map that represents topic and partition combo offset used by
-   * Kafka Connect SourceRecords.
+   * Kafka Connect SourceRecords. It is created for every record, so it only holds the offset and
+   * exposes it as a single entry map instead of allocating a hash table.
    */
-  public static class AzureOffsetMarker extends HashMap<String, Object> {
+  public static class AzureOffsetMarker extends AbstractMap<String, Object> {
+
+    private final long offset;
 
-    public AzureOffsetMarker(Long offset) {
-      put(OFFSET_KEY, offset);
+    public AzureOffsetMarker(long offset) {
+      this.offset = offset;
     }
 
     public Long getOffsetValue() {
-      return (Long) get(OFFSET_KEY);
+      return offset;
+    }
+
+    @Override
+    public Object get(Object key) {
+      return OFFSET_KEY.equals(key) ? offset : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return OFFSET_KEY.equals(key);
+    }
+
+    @Override
+    public int size() {
+      return 1;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return Collections.singleton(new SimpleImmutableEntry<>(OFFSET_KEY, offset));
     }
   }
 }
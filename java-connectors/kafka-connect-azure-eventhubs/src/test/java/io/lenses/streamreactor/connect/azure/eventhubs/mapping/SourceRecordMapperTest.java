@@ -23,7 +23,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Header;
@@ -78,6 +80,38 @@ class SourceRecordMapperTest {
     assertThat(((byte[]) sourceRecord.headers().lastWithName(HEADER_KEY).value())).hasSize(headerLength);
   }
 
+  @Test
+  void shouldMapSourceRecordIncludingOnlyAllowedHeaders() {
+    //given
+    AzureTopicPartitionKey topicPartitionKey = new AzureTopicPartitionKey(TOPIC, PARTITION);
+    AzureOffsetMarker azureOffsetMarker = new AzureOffsetMarker(OFFSET);
+
+    Header allowedHeader = mock(Header.class);
+    when(allowedHeader.key()).thenReturn(HEADER_KEY);
+    when(allowedHeader.value()).thenReturn(new byte[]{1, 10});
+    Header otherHeader = mock(Header.class);
+    when(otherHeader.key()).thenReturn("otherHeaderKey");
+
+    Headers mockedHeaders = mock(Headers.class);
+    when(mockedHeaders.iterator()).thenReturn(List.of(allowedHeader, otherHeader).iterator());
+
+    ConsumerRecord<String, String> consumerRecord = mockConsumerRecord(Optional.of(mockedHeaders));
+
+    //when
+    Schema stringSchema = Schema.STRING_SCHEMA;
+    Schema optionalStringSchema = Schema.OPTIONAL_STRING_SCHEMA;
+    SourceRecord sourceRecord =
+        SourceRecordMapper.mapSourceRecordIncludingAllowedHeaders(
+            consumerRecord, topicPartitionKey, azureOffsetMarker,
+            OUTPUT_TOPIC, optionalStringSchema, stringSchema, Set.of(HEADER_KEY));
+
+    //then
+    assertRecordAttributesAreMappedFromSourceConsumerRecord(sourceRecord, consumerRecord,
+        OUTPUT_TOPIC, optionalStringSchema, stringSchema, topicPartitionKey, azureOffsetMarker);
+    assertThat(sourceRecord.headers()).hasSize(1);
+    assertThat(sourceRecord.headers().lastWithName(HEADER_KEY)).isNotNull();
+  }
+
   @Test
   void mapSourceRecordWithoutHeaders() {
     //given
@@ -16,18 +16,24 @@
 package io.lenses.streamreactor.connect.azure.eventhubs.source;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.common.TopicPartition;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import io.lenses.streamreactor.connect.azure.eventhubs.source.TopicPartitionOffsetProvider.AzureOffsetMarker;
 import io.lenses.streamreactor.connect.azure.eventhubs.source.TopicPartitionOffsetProvider.AzureTopicPartitionKey;
@@ -93,8 +99,8 @@ class AzureConsumerRebalancerListenerTest {
     TopicPartitionOffsetProvider offsetProvider =
         mock(
             TopicPartitionOffsetProvider.class);
-    when(offsetProvider.getOffset(any(AzureTopicPartitionKey.class)))
-        .thenReturn(Optional.of(new AzureOffsetMarker(specificOffset)));
+    when(offsetProvider.getOffsets(anyCollection()))
+        .thenReturn(Map.of(new AzureTopicPartitionKey("topic1", 1), new AzureOffsetMarker(specificOffset)));
     AzureConsumerRebalancerListener testObj =
         new AzureConsumerRebalancerListener(offsetProvider, stringKafkaConsumer, SEEK_TO_EARLIEST);
     String topic = "topic1";
@@ -111,4 +117,68 @@ class AzureConsumerRebalancerListenerTest {
     verify(topicPartition1, times(1)).partition();
     verify(stringKafkaConsumer).seek(topicPartition1, specificOffset);
   }
+
+  @Test
+  void onPartitionsAssignedShouldLookUpOffsetsOfAllPartitionsAtOnce() {
+    //given
+    Consumer<String, String> stringKafkaConsumer = mock(Consumer.class);
+    TopicPartitionOffsetProvider offsetProvider =
+        mock(
+            TopicPartitionOffsetProvider.class);
+    when(offsetProvider.getOffsets(anyCollection()))
+        .thenReturn(Map.of(new AzureTopicPartitionKey("topic1", 1), new AzureOffsetMarker(100L)));
+    AzureConsumerRebalancerListener testObj =
+        new AzureConsumerRebalancerListener(offsetProvider, stringKafkaConsumer, SEEK_TO_EARLIEST);
+    TopicPartition committedPartition = new TopicPartition("topic1", 1);
+    TopicPartition newPartition = new TopicPartition("topic1", 2);
+
+    //when
+    testObj.onPartitionsAssigned(List.of(committedPartition, newPartition));
+
+    //then
+    verify(offsetProvider, times(1)).getOffsets(anyCollection());
+    verify(offsetProvider, never()).getOffset(any(AzureTopicPartitionKey.class));
+    verify(stringKafkaConsumer).seek(committedPartition, 100L);
+    verify(stringKafkaConsumer).seekToBeginning(List.of(newPartition));
+  }
+
+  @Test
+  void onPartitionsRevokedAndLostShouldPassPartitionsToOffsetProvider() {
+    //given
+    Consumer<String, String> stringKafkaConsumer = mock(Consumer.class);
+    TopicPartitionOffsetProvider offsetProvider =
+        mock(
+            TopicPartitionOffsetProvider.class);
+    AzureConsumerRebalancerListener testObj =
+        new AzureConsumerRebalancerListener(offsetProvider, stringKafkaConsumer, SEEK_TO_EARLIEST);
+
+    //when
+    testObj.onPartitionsRevoked(List.of(new TopicPartition("topic1", 1)));
+    testObj.onPartitionsLost(List.of(new TopicPartition("topic1", 2)));
+
+    //then
+    verify(offsetProvider).partitionsRevoked(List.of(new AzureTopicPartitionKey("topic1", 1)));
+    verify(offsetProvider).partitionsLost(List.of(new AzureTopicPartitionKey("topic1", 2)));
+    verify(offsetProvider, never()).partitionsRevoked(List.of(new AzureTopicPartitionKey("topic1", 2)));
+  }
+
+  @Test
+  void onPartitionsAssignedShouldPassPartitionsToOffsetProviderBeforeLookingUpOffsets() {
+    //given
+    Consumer<String, String> stringKafkaConsumer = mock(Consumer.class);
+    TopicPartitionOffsetProvider offsetProvider =
+        mock(
+            TopicPartitionOffsetProvider.class);
+    AzureConsumerRebalancerListener testObj =
+        new AzureConsumerRebalancerListener(offsetProvider, stringKafkaConsumer, SEEK_TO_EARLIEST);
+
+    //when
+    testObj.onPartitionsAssigned(List.of(new TopicPartition("topic1", 1)));
+
+    //then
+    InOrder inOrder = inOrder(offsetProvider);
+    inOrder.verify(offsetProvider).partitionsAssigned(
+        argThat(keys -> keys.size() == 1 && keys.contains(new AzureTopicPartitionKey("topic1", 1))));
+    inOrder.verify(offsetProvider).getOffsets(anyCollection());
+  }
 }
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.kafka.connect.source.ConnectorTransactionBoundaries;
 import org.apache.kafka.connect.source.ExactlyOnceSupport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -78,6 +79,17 @@ class AzureEventHubsSourceConnectorTest {
     assertEquals(SUPPORTED, exactlyOnceSupport);
   }
 
+  @Test
+  void canDefineTransactionBoundariesShouldReturnSupported() {
+    //given
+
+    //when
+    ConnectorTransactionBoundaries transactionBoundaries = testObj.canDefineTransactionBoundaries(new HashMap<>());
+
+    //then
+    assertEquals(ConnectorTransactionBoundaries.SUPPORTED, transactionBoundaries);
+  }
+
   private Map<String, String> createSimplePropertiesWithKcql() {
     Map<String, String> properties =
         Map.of(
@@ -22,6 +22,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atMostOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,8 +30,11 @@ import static org.mockito.Mockito.when;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.kafka.connect.source.SourceRecord;
+import org.apache.kafka.connect.source.SourceTaskContext;
+import org.apache.kafka.connect.source.TransactionContext;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -41,6 +45,8 @@ import ch.qos.logback.core.read.ListAppender;
 import io.lenses.streamreactor.common.util.JarManifest;
 import io.lenses.streamreactor.connect.azure.eventhubs.config.AzureEventHubsConfigConstants;
 import io.lenses.streamreactor.connect.azure.eventhubs.config.AzureEventHubsSourceConfig;
+import io.lenses.streamreactor.connect.azure.eventhubs.source.TopicPartitionOffsetProvider.AzureOffsetMarker;
+import io.lenses.streamreactor.connect.azure.eventhubs.source.TopicPartitionOffsetProvider.AzureTopicPartitionKey;
 
 class AzureEventHubsSourceTaskTest {
 
@@ -128,6 +134,49 @@ class AzureEventHubsSourceTaskTest {
     assertIterableEquals(sourceRecords, poll);
   }
 
+  @Test
+  void pollShouldCommitTransactionPerBatchWhenConnectorDefinesTransactionBoundaries() throws InterruptedException {
+    //given
+    AzureEventHubsSourceConfig azureEventHubsSourceConfig = mock(AzureEventHubsSourceConfig.class);
+    EventHubsKafkaConsumerController mockedController = mock(EventHubsKafkaConsumerController.class);
+    SourceTaskContext sourceTaskContext = mock(SourceTaskContext.class);
+    TransactionContext transactionContext = mock(TransactionContext.class);
+    when(sourceTaskContext.transactionContext()).thenReturn(transactionContext);
+    testObj.initialize(sourceTaskContext);
+    testObj.initialize(mockedController, azureEventHubsSourceConfig);
+    when(mockedController.poll(any(Duration.class)))
+        .thenReturn(Collections.singletonList(mock(SourceRecord.class)))
+        .thenReturn(Collections.emptyList());
+
+    //when
+    testObj.poll();
+    testObj.poll();
+
+    //then
+    verify(transactionContext, times(1)).commitTransaction();
+  }
+
+  @Test
+  void commitRecordShouldCacheCommittedOffsetInOffsetProvider() {
+    //given
+    AzureEventHubsSourceConfig azureEventHubsSourceConfig = mock(AzureEventHubsSourceConfig.class);
+    EventHubsKafkaConsumerController mockedController = mock(EventHubsKafkaConsumerController.class);
+    TopicPartitionOffsetProvider offsetProvider = mock(TopicPartitionOffsetProvider.class);
+    testObj.initialize(mockedController, azureEventHubsSourceConfig, offsetProvider);
+    AzureTopicPartitionKey partitionKey = new AzureTopicPartitionKey("topic", 1);
+    AzureOffsetMarker offsetMarker = new AzureOffsetMarker(10L);
+    SourceRecord sourceRecord =
+        new SourceRecord(partitionKey, offsetMarker, "output", null, null, null, null);
+
+    //when
+    testObj.commitRecord(sourceRecord, null);
+    testObj.commitRecord(new SourceRecord(Map.of(), Map.of(), "output", null, null, null, null), null);
+
+    //then
+    verify(offsetProvider, times(1)).updateCommittedOffset(partitionKey, offsetMarker);
+    verify(offsetProvider, never()).getOffsets(any());
+  }
+
   @Test
   void getVersionShouldDelegateToJarManifestGetVersion() {
     //given
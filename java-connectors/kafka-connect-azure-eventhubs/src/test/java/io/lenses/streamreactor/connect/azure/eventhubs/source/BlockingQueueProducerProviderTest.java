@@ -24,7 +24,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.List;
 
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.config.ConfigException;
@@ -71,7 +71,7 @@ class BlockingQueueProducerProviderTest {
     ConfigException configException;
     try (MockedConstruction<KafkaConsumer> ignored = Mockito.mockConstruction(KafkaConsumer.class)) {
       configException = assertThrows(ConfigException.class, () -> {
-        testObj.createProducer(azureConfigMock, new ArrayBlockingQueue<>(1),
+        testObj.createProducer(azureConfigMock, new RecordCountBoundedQueue(1),
             new HashMap<>());
       });
     }
@@ -100,7 +100,7 @@ class BlockingQueueProducerProviderTest {
     KafkaByteBlockingQueuedProducer consumer;
     try (MockedConstruction<KafkaConsumer> ignored = Mockito.mockConstruction(KafkaConsumer.class)) {
       consumer =
-          testObj.createProducer(azureConfigMock, new ArrayBlockingQueue<>(1),
+          testObj.createProducer(azureConfigMock, new RecordCountBoundedQueue(1),
               new HashMap<>());
     }
 
@@ -110,4 +110,32 @@ class BlockingQueueProducerProviderTest {
     assertEquals(1, logWatcher.list.size());
     assertTrue(logWatcher.list.get(0).getFormattedMessage().startsWith("Attempting to create Client with Id"));
   }
+
+  @Test
+  void createProducersShouldCreateAConsumerPerConfiguredThread() {
+    //given
+    TopicPartitionOffsetProvider mockedOffsetProvider = mock(TopicPartitionOffsetProvider.class);
+
+    AzureEventHubsSourceConfig azureConfigMock = mock(AzureEventHubsSourceConfig.class);
+    when(azureConfigMock.getString(AzureEventHubsConfigConstants.CONSUMER_OFFSET)).thenReturn("earliest");
+    when(azureConfigMock.getInt(AzureEventHubsConfigConstants.CONSUMER_THREADS)).thenReturn(3);
+
+    //when
+    BlockingQueueProducerProvider testObj =
+        new BlockingQueueProducerProvider(
+            mockedOffsetProvider);
+    List<KafkaByteBlockingQueuedProducer> producers;
+    int consumersCreated;
+    try (MockedConstruction<KafkaConsumer> construction = Mockito.mockConstruction(KafkaConsumer.class)) {
+      producers =
+          testObj.createProducers(azureConfigMock, new RecordCountBoundedQueue(1),
+              new HashMap<>());
+      consumersCreated = construction.constructed().size();
+    }
+
+    //then
+    assertEquals(3, producers.size());
+    assertEquals(3, consumersCreated);
+    assertEquals(3, producers.stream().map(producer -> producer.getMetrics().getClientId()).distinct().count());
+  }
 }
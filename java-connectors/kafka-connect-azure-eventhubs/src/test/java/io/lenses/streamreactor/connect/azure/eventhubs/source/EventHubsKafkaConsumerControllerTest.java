@@ -16,6 +16,7 @@
 package io.lenses.streamreactor.connect.azure.eventhubs.source;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -28,16 +29,18 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.junit.jupiter.api.Test;
 
+import io.lenses.streamreactor.connect.azure.eventhubs.config.HeadersMode;
 import io.lenses.streamreactor.connect.azure.eventhubs.config.SourceDataType;
 import io.lenses.streamreactor.connect.azure.eventhubs.config.SourceDataType.KeyValueTypes;
 
@@ -64,7 +67,7 @@ class EventHubsKafkaConsumerControllerTest {
 
     KafkaByteBlockingQueuedProducer mockedBlockingProducer = mockByteBlockingProducer(mockedKeyValueTypes);
 
-    ArrayBlockingQueue<ConsumerRecords<byte[], byte[]>> recordsQueue = mockRecordsQueue(INPUT_TOPIC);
+    RecordCountBoundedQueue recordsQueue = mockRecordsQueue(INPUT_TOPIC);
 
     //when
     testObj =
@@ -76,7 +79,7 @@ class EventHubsKafkaConsumerControllerTest {
     verify(mockedBlockingProducer).start();
     verify(mockedKeyDataType, times(1)).getSchema();
     verify(mockedValueDataType, times(1)).getSchema();
-    verify(mockedBlockingProducer, times(2)).getKeyValueTypes();
+    verify(mockedBlockingProducer, times(1)).getKeyValueTypes();
     assertEquals(1, sourceRecords.size());
   }
 
@@ -95,7 +98,7 @@ class EventHubsKafkaConsumerControllerTest {
 
     KafkaByteBlockingQueuedProducer mockedBlockingProducer = mockByteBlockingProducer(mockedKeyValueTypes);
 
-    ArrayBlockingQueue<ConsumerRecords<byte[], byte[]>> recordsQueue = mockRecordsQueue(INPUT_TOPIC, INPUT_TOPIC_2);
+    RecordCountBoundedQueue recordsQueue = mockRecordsQueue(INPUT_TOPIC, INPUT_TOPIC_2);
 
     //when
     testObj =
@@ -105,14 +108,67 @@ class EventHubsKafkaConsumerControllerTest {
 
     //then
     verify(mockedBlockingProducer).start();
-    verify(mockedKeyDataType, times(2)).getSchema(); //1x both records
-    verify(mockedValueDataType, times(2)).getSchema(); //1x both records
-    verify(mockedBlockingProducer, times(4)).getKeyValueTypes();
+    verify(mockedKeyDataType, times(1)).getSchema(); //once for all the records
+    verify(mockedValueDataType, times(1)).getSchema(); //once for all the records
+    verify(mockedBlockingProducer, times(1)).getKeyValueTypes();
     assertEquals(2, sourceRecords.size());
     assertEquals(OUTPUT_TOPIC, sourceRecords.get(0).topic());
     assertEquals(OUTPUT_TOPIC_2, sourceRecords.get(1).topic());
   }
 
+  @Test
+  void pollShouldShareThePartitionKeyOfRecordsFromTheSamePartition() throws InterruptedException {
+    //given
+    KafkaByteBlockingQueuedProducer mockedBlockingProducer =
+        mockByteBlockingProducer(KeyValueTypes.DEFAULT_TYPES);
+    RecordCountBoundedQueue recordsQueue =
+        mockRecordsQueue(INPUT_TOPIC, INPUT_TOPIC);
+
+    //when
+    testObj =
+        new EventHubsKafkaConsumerController(mockedBlockingProducer, recordsQueue,
+            Map.of(INPUT_TOPIC, OUTPUT_TOPIC));
+    List<SourceRecord> sourceRecords = testObj.poll(DURATION_2_SECONDS);
+
+    //then
+    assertEquals(2, sourceRecords.size());
+    assertSame(sourceRecords.get(0).sourcePartition(), sourceRecords.get(1).sourcePartition());
+    assertEquals(Map.of("TOPIC", INPUT_TOPIC, "PARTITION", "0"), sourceRecords.get(0).sourcePartition());
+  }
+
+  @Test
+  void pollShouldCopyOnlyTheHeadersSelectedByTheHeadersMode() throws InterruptedException {
+    //given
+    RecordHeaders headers = new RecordHeaders();
+    headers.add("allowed", new byte[]{1});
+    headers.add("other", new byte[]{2});
+
+    //when
+    List<SourceRecord> noHeaders = pollRecordWithHeaders(headers, HeadersMode.NONE, Set.of());
+    List<SourceRecord> allHeaders = pollRecordWithHeaders(headers, HeadersMode.ALL, Set.of());
+    List<SourceRecord> allowedHeaders = pollRecordWithHeaders(headers, HeadersMode.ALLOW_LIST, Set.of("allowed"));
+
+    //then
+    assertEquals(0, noHeaders.get(0).headers().size());
+    assertEquals(2, allHeaders.get(0).headers().size());
+    assertEquals(1, allowedHeaders.get(0).headers().size());
+    assertEquals("allowed", allowedHeaders.get(0).headers().iterator().next().key());
+  }
+
+  private List<SourceRecord> pollRecordWithHeaders(RecordHeaders headers, HeadersMode headersMode,
+      Set<String> allowed) throws InterruptedException {
+    ConsumerRecord<byte[], byte[]> consumerRecord = mockConsumerRecord(INPUT_TOPIC, Optional.of(headers));
+    ConsumerRecords<byte[], byte[]> mockedRecords = mock(ConsumerRecords.class);
+    when(mockedRecords.count()).thenReturn(1);
+    when(mockedRecords.iterator()).thenReturn(List.of(consumerRecord).iterator());
+
+    testObj =
+        new EventHubsKafkaConsumerController(mockByteBlockingProducer(KeyValueTypes.DEFAULT_TYPES),
+            queueOf(mockedRecords),
+            Map.of(INPUT_TOPIC, OUTPUT_TOPIC), headersMode, allowed);
+    return testObj.poll(DURATION_2_SECONDS);
+  }
+
   @Test
   void closeShouldCloseTheProducer() {
     //given
@@ -122,7 +178,7 @@ class EventHubsKafkaConsumerControllerTest {
 
     Map<String, String> inputOutputMap = Map.of(INPUT_TOPIC, OUTPUT_TOPIC);
 
-    ArrayBlockingQueue<ConsumerRecords<byte[], byte[]>> recordsQueue = mockRecordsQueue();
+    RecordCountBoundedQueue recordsQueue = mockRecordsQueue();
 
     testObj =
         new EventHubsKafkaConsumerController(mockedBlockingProducer, recordsQueue,
@@ -170,7 +226,7 @@ class EventHubsKafkaConsumerControllerTest {
     return mockedBlockingProducer;
   }
 
-  private static ArrayBlockingQueue<ConsumerRecords<byte[], byte[]>> mockRecordsQueue(String... inputTopics) {
+  private static RecordCountBoundedQueue mockRecordsQueue(String... inputTopics) {
 
     Headers headersMock = mockEmptyHeaders();
 
@@ -183,7 +239,13 @@ class EventHubsKafkaConsumerControllerTest {
     when(mockedRecords.count()).thenReturn(consumerRecordList.size());
     when(mockedRecords.iterator()).thenReturn(consumerRecordList.iterator());
 
-    return new ArrayBlockingQueue<>(DEFAULT_CAPACITY, false, List.of(mockedRecords));
+    return queueOf(mockedRecords);
+  }
+
+  private static RecordCountBoundedQueue queueOf(ConsumerRecords<byte[], byte[]> records) {
+    RecordCountBoundedQueue recordsQueue = new RecordCountBoundedQueue(DEFAULT_CAPACITY);
+    recordsQueue.offer(records);
+    return recordsQueue;
   }
 
 }
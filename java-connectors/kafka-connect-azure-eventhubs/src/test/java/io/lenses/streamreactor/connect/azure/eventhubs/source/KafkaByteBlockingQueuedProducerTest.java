@@ -15,15 +15,26 @@
  */
 package io.lenses.streamreactor.connect.azure.eventhubs.source;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
+import java.lang.management.ManagementFactory;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
-import java.util.concurrent.BlockingQueue;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
 import org.junit.jupiter.api.Test;
 import org.mockito.internal.util.collections.Sets;
 
@@ -36,7 +47,7 @@ class KafkaByteBlockingQueuedProducerTest {
 
   KafkaByteBlockingQueuedProducer testObj =
       new KafkaByteBlockingQueuedProducer(
-          mock(TopicPartitionOffsetProvider.class), mock(BlockingQueue.class),
+          mock(TopicPartitionOffsetProvider.class), mock(RecordCountBoundedQueue.class),
           consumer, KeyValueTypes.DEFAULT_TYPES,
           CLIENT_ID, Sets.newSet("topic"), false);
 
@@ -51,4 +62,49 @@ class KafkaByteBlockingQueuedProducerTest {
     //then
     verify(consumer).close(eq(tenSeconds));
   }
+
+  @Test
+  void consumerShouldPollOnANamedDaemonThread() {
+    //then
+    assertTrue(Thread.getAllStackTraces().keySet().stream()
+        .anyMatch(thread -> thread.getName().equals("eventhubs-consumer-" + CLIENT_ID) && thread.isDaemon()));
+  }
+
+  @Test
+  void metricsShouldBeRegisteredAsMBeanUntilStopped() throws Exception {
+    //given
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    ObjectName metricsName =
+        new ObjectName("io.lenses.streamreactor.connect.azure.eventhubs.source:type=metrics,client=" + CLIENT_ID);
+
+    //then
+    assertEquals(CLIENT_ID, mBeanServer.getAttribute(metricsName, "ClientId"));
+
+    //when
+    testObj.stop(Duration.ZERO);
+
+    //then
+    assertFalse(mBeanServer.isRegistered(metricsName));
+  }
+
+  @Test
+  void queueDepthShouldBeReadFromTheRecordsCountOfTheQueue() {
+    //given
+    TopicPartition topicPartition = new TopicPartition("topic", 0);
+    RecordCountBoundedQueue recordsQueue = new RecordCountBoundedQueue(10);
+    recordsQueue.offer(new ConsumerRecords<>(Map.of(topicPartition, List.of(
+        new ConsumerRecord<>("topic", 0, 0L, new byte[0], new byte[0]),
+        new ConsumerRecord<>("topic", 0, 1L, new byte[0], new byte[0])))));
+
+    //when
+    KafkaByteBlockingQueuedProducer producer =
+        new KafkaByteBlockingQueuedProducer(
+            mock(TopicPartitionOffsetProvider.class), recordsQueue,
+            mock(Consumer.class), KeyValueTypes.DEFAULT_TYPES,
+            "queueDepthClientId", Sets.newSet("topic"), false);
+
+    //then
+    assertEquals(2, producer.getMetrics().getQueueDepth());
+    producer.stop(Duration.ZERO);
+  }
 }
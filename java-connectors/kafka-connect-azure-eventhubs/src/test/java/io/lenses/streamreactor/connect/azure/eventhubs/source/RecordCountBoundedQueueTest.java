@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.azure.eventhubs.source;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.junit.jupiter.api.Test;
+
+class RecordCountBoundedQueueTest {
+
+  @Test
+  void offerShouldBeRejectedWhenTheRecordsExceedTheCapacity() throws InterruptedException {
+    //given
+    RecordCountBoundedQueue testObj = new RecordCountBoundedQueue(10);
+
+    //when
+    boolean firstOffered = testObj.offer(records(6), 10, TimeUnit.MILLISECONDS);
+    boolean secondOffered = testObj.offer(records(6), 10, TimeUnit.MILLISECONDS);
+
+    //then
+    assertTrue(firstOffered);
+    assertFalse(secondOffered);
+    assertEquals(1, testObj.size());
+    assertEquals(6, testObj.getRecordsCount());
+  }
+
+  @Test
+  void pollShouldFreeTheCapacityOfThePolledRecords() throws InterruptedException {
+    //given
+    RecordCountBoundedQueue testObj = new RecordCountBoundedQueue(10);
+    ConsumerRecords<byte[], byte[]> first = records(6);
+    testObj.offer(first);
+
+    //when
+    ConsumerRecords<byte[], byte[]> polled = testObj.poll(10, TimeUnit.MILLISECONDS);
+
+    //then
+    assertSame(first, polled);
+    assertEquals(0, testObj.getRecordsCount());
+    assertTrue(testObj.offer(records(10)));
+  }
+
+  @Test
+  void batchLargerThanTheCapacityShouldBeAcceptedWhenTheQueueIsEmpty() {
+    //given
+    RecordCountBoundedQueue testObj = new RecordCountBoundedQueue(10);
+
+    //when
+    boolean offered = testObj.offer(records(25));
+
+    //then
+    assertTrue(offered);
+    assertFalse(testObj.offer(records(1)));
+  }
+
+  @Test
+  void drainToShouldFreeTheCapacityOfTheDrainedRecords() {
+    //given
+    RecordCountBoundedQueue testObj = new RecordCountBoundedQueue(10);
+    testObj.offer(records(4));
+    testObj.offer(records(5));
+    List<ConsumerRecords<byte[], byte[]>> drained = new ArrayList<>();
+
+    //when
+    int drainedCount = testObj.drainTo(drained);
+
+    //then
+    assertEquals(2, drainedCount);
+    assertEquals(2, drained.size());
+    assertEquals(0, testObj.getRecordsCount());
+    assertTrue(testObj.isEmpty());
+  }
+
+  @Test
+  void clearShouldFreeTheCapacityOfTheQueuedRecords() throws InterruptedException {
+    //given
+    RecordCountBoundedQueue testObj = new RecordCountBoundedQueue(10);
+    testObj.put(records(4));
+    testObj.put(records(6));
+
+    //when
+    testObj.clear();
+
+    //then
+    assertEquals(0, testObj.getRecordsCount());
+    assertTrue(testObj.isEmpty());
+    assertTrue(testObj.offer(records(10)));
+  }
+
+  @Test
+  void capacityShouldBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new RecordCountBoundedQueue(0));
+  }
+
+  private static ConsumerRecords<byte[], byte[]> records(int count) {
+    ConsumerRecords<byte[], byte[]> records = mock(ConsumerRecords.class);
+    when(records.count()).thenReturn(count);
+    return records;
+  }
+}
@@ -16,13 +16,17 @@
 package io.lenses.streamreactor.connect.azure.eventhubs.source;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -97,6 +101,121 @@ class TopicPartitionOffsetProviderTest {
     assertEquals(offsetOne, offset.get().getOffsetValue());
   }
 
+  @Test
+  void getOffsetsShouldReadAllOffsetsWithSingleCallToOffsetStorageReader() {
+    //given
+    OffsetStorageReader offsetStorageReader = mock(OffsetStorageReader.class);
+    AzureTopicPartitionKey committedKey = new AzureTopicPartitionKey("some_topic", 1);
+    AzureTopicPartitionKey newKey = new AzureTopicPartitionKey("some_topic", 2);
+    Map<Map<String, String>, Map<String, Object>> storedOffsets = new HashMap<>();
+    storedOffsets.put(committedKey, Map.of("OFFSET", 5L));
+    when(offsetStorageReader.<String>offsets(anyCollection())).thenReturn(storedOffsets);
+    TopicPartitionOffsetProvider topicPartitionOffsetProvider =
+        new TopicPartitionOffsetProvider(
+            offsetStorageReader);
+
+    //when
+    Map<AzureTopicPartitionKey, AzureOffsetMarker> offsets =
+        topicPartitionOffsetProvider.getOffsets(List.of(committedKey, newKey));
+
+    //then
+    verify(offsetStorageReader).offsets(List.<Map<String, String>>of(committedKey, newKey));
+    verify(offsetStorageReader, never()).offset(any(Map.class));
+    assertEquals(Map.of(committedKey, new AzureOffsetMarker(5L)), offsets);
+  }
+
+  @Test
+  void getOffsetsShouldServeOffsetsCommittedByTaskFromMemory() {
+    //given
+    OffsetStorageReader offsetStorageReader = mock(OffsetStorageReader.class);
+    AzureTopicPartitionKey azureTopicPartitionKey = new AzureTopicPartitionKey("some_topic", 1);
+    TopicPartitionOffsetProvider topicPartitionOffsetProvider =
+        new TopicPartitionOffsetProvider(
+            offsetStorageReader);
+    topicPartitionOffsetProvider.updateCommittedOffset(azureTopicPartitionKey, new AzureOffsetMarker(10L));
+    topicPartitionOffsetProvider.updateCommittedOffset(azureTopicPartitionKey, new AzureOffsetMarker(7L));
+
+    //when
+    Map<AzureTopicPartitionKey, AzureOffsetMarker> offsets =
+        topicPartitionOffsetProvider.getOffsets(List.of(new AzureTopicPartitionKey("some_topic", 1)));
+    Optional<AzureOffsetMarker> offset = topicPartitionOffsetProvider.getOffset(azureTopicPartitionKey);
+
+    //then
+    verify(offsetStorageReader, never()).offsets(anyCollection());
+    verify(offsetStorageReader, never()).offset(any(Map.class));
+    assertEquals(Long.valueOf(10L), offsets.get(azureTopicPartitionKey).getOffsetValue());
+    assertEquals(Long.valueOf(10L), offset.orElseThrow().getOffsetValue());
+  }
+
+  @Test
+  void getOffsetsShouldServeOffsetsFromMemoryForPartitionsHandedBackToTask() {
+    //given
+    OffsetStorageReader offsetStorageReader = mock(OffsetStorageReader.class);
+    AzureTopicPartitionKey azureTopicPartitionKey = new AzureTopicPartitionKey("some_topic", 1);
+    TopicPartitionOffsetProvider topicPartitionOffsetProvider =
+        new TopicPartitionOffsetProvider(
+            offsetStorageReader);
+    topicPartitionOffsetProvider.partitionsAssigned(List.of(azureTopicPartitionKey));
+    topicPartitionOffsetProvider.updateCommittedOffset(azureTopicPartitionKey, new AzureOffsetMarker(10L));
+
+    //when
+    topicPartitionOffsetProvider.partitionsRevoked(List.of(azureTopicPartitionKey));
+    topicPartitionOffsetProvider.partitionsAssigned(List.of(azureTopicPartitionKey));
+    Map<AzureTopicPartitionKey, AzureOffsetMarker> offsets =
+        topicPartitionOffsetProvider.getOffsets(List.of(azureTopicPartitionKey));
+
+    //then
+    verify(offsetStorageReader, never()).offsets(anyCollection());
+    assertEquals(Map.of(azureTopicPartitionKey, new AzureOffsetMarker(10L)), offsets);
+  }
+
+  @Test
+  void getOffsetsShouldReadOffsetsOfPartitionsRevokedAndNotHandedBackFromOffsetStorageReader() {
+    //given
+    OffsetStorageReader offsetStorageReader = mock(OffsetStorageReader.class);
+    AzureTopicPartitionKey revokedKey = new AzureTopicPartitionKey("some_topic", 1);
+    AzureTopicPartitionKey keptKey = new AzureTopicPartitionKey("some_topic", 2);
+    when(offsetStorageReader.<String>offsets(anyCollection()))
+        .thenReturn(Map.of(revokedKey, Map.of("OFFSET", 25L)));
+    TopicPartitionOffsetProvider topicPartitionOffsetProvider =
+        new TopicPartitionOffsetProvider(
+            offsetStorageReader);
+    topicPartitionOffsetProvider.partitionsAssigned(List.of(revokedKey, keptKey));
+    topicPartitionOffsetProvider.updateCommittedOffset(revokedKey, new AzureOffsetMarker(10L));
+    topicPartitionOffsetProvider.updateCommittedOffset(keptKey, new AzureOffsetMarker(20L));
+
+    //when
+    topicPartitionOffsetProvider.partitionsRevoked(List.of(revokedKey, keptKey));
+    topicPartitionOffsetProvider.partitionsAssigned(List.of(keptKey));
+    // a record of the revoked partition committed after it was evicted
+    topicPartitionOffsetProvider.updateCommittedOffset(revokedKey, new AzureOffsetMarker(11L));
+    topicPartitionOffsetProvider.partitionsAssigned(List.of(revokedKey));
+    Map<AzureTopicPartitionKey, AzureOffsetMarker> offsets =
+        topicPartitionOffsetProvider.getOffsets(List.of(revokedKey, keptKey));
+
+    //then
+    verify(offsetStorageReader).offsets(List.<Map<String, String>>of(revokedKey));
+    assertEquals(Map.of(revokedKey, new AzureOffsetMarker(25L), keptKey, new AzureOffsetMarker(20L)), offsets);
+  }
+
+  @Test
+  void getOffsetShouldReadOffsetsOfLostPartitionsFromOffsetStorageReader() {
+    //given
+    OffsetStorageReader offsetStorageReader = mock(OffsetStorageReader.class);
+    AzureTopicPartitionKey azureTopicPartitionKey = new AzureTopicPartitionKey("some_topic", 1);
+    TopicPartitionOffsetProvider topicPartitionOffsetProvider =
+        new TopicPartitionOffsetProvider(
+            offsetStorageReader);
+    topicPartitionOffsetProvider.updateCommittedOffset(azureTopicPartitionKey, new AzureOffsetMarker(10L));
+
+    //when
+    topicPartitionOffsetProvider.partitionsLost(List.of(azureTopicPartitionKey));
+    topicPartitionOffsetProvider.getOffset(azureTopicPartitionKey);
+
+    //then
+    verify(offsetStorageReader).offset(azureTopicPartitionKey);
+  }
+
   @Test
   void azureTopicPartitionKeyShouldReturnTopicAndPartitionValues() {
     //given
@@ -111,4 +230,19 @@ class TopicPartitionOffsetProviderTest {
     assertEquals(topic, azureTopicPartitionKey.getTopic());
   }
 
+  @Test
+  void azureOffsetMarkerShouldBeAnImmutableSingleEntryMap() {
+    //given
+    long offset = 42L;
+
+    //when
+    final AzureOffsetMarker azureOffsetMarker = new AzureOffsetMarker(offset);
+
+    //then
+    assertEquals(Map.of("OFFSET", offset), azureOffsetMarker);
+    assertEquals(new HashMap<>(Map.of("OFFSET", offset)).hashCode(), azureOffsetMarker.hashCode());
+    assertEquals(Long.valueOf(offset), azureOffsetMarker.getOffsetValue());
+    assertThrows(UnsupportedOperationException.class, () -> azureOffsetMarker.put("OFFSET", 1L));
+  }
+
 }
@@ -63,11 +63,25 @@ public class AzureServiceBusConfigConstants {
   public static final int SOURCE_MIN_BACKOFF_COMPLETE_RETRIES_MS_DEFAULT = 1000;
 
   public static final String SOURCE_SLEEP_ON_EMPTY_POLL_MS_DOC =
-      "The duration in milliseconds to sleep when no records are returned from the poll. This avoids a tight loop in Connect.";
+      "The maximum duration in milliseconds a poll waits for records to arrive when none are available. "
+          + "This avoids a tight loop in Connect.";
   public static final String SOURCE_SLEEP_ON_EMPTY_POLL_MS =
       SOURCE_CONNECTOR_PREFIX + DOT + "sleep.on.empty.poll.ms";
   public static final int SOURCE_SLEEP_ON_EMPTY_POLL_MS_DEFAULT = 250;
 
+  public static final String SOURCE_MAX_CONCURRENT_COMPLETIONS_DOC =
+      "The maximum number of message completions each receiver issues to Service Bus at the same time.";
+  public static final String SOURCE_MAX_CONCURRENT_COMPLETIONS =
+      SOURCE_CONNECTOR_PREFIX + DOT + "complete.max.concurrent";
+  public static final int SOURCE_MAX_CONCURRENT_COMPLETIONS_DEFAULT = 16;
+
+  public static final String SOURCE_MAX_LOCK_RENEWAL_MS_DOC =
+      "The maximum duration in milliseconds the lock of a received message is renewed for while it waits to be "
+          + "written to Kafka and completed. 0 disables lock renewal.";
+  public static final String SOURCE_MAX_LOCK_RENEWAL_MS =
+      SOURCE_CONNECTOR_PREFIX + DOT + "lock.renewal.max.ms";
+  public static final long SOURCE_MAX_LOCK_RENEWAL_MS_DEFAULT = 300000;
+
   public static final String MAX_NUMBER_OF_RETRIES = SINK_CONNECTOR_PREFIX + DOT + "retries.max";
   public static final String MAX_NUMBER_OF_RETRIES_DOC = "Maximum number of retries if message sending fails.";
   public static final int MAX_NUMBER_OF_RETRIES_DEFAULT = 3;
@@ -76,4 +90,17 @@ public class AzureServiceBusConfigConstants {
   public static final String TIMEOUT_BETWEEN_RETRIES_DOC = "Timeout (in millis) between retries.";
   public static final int TIMEOUT_BETWEEN_RETRIES_DEFAULT = 500;
 
+  public static final String SINK_ASYNC_SEND_ENABLED = SINK_CONNECTOR_PREFIX + DOT + "async.send.enabled";
+  public static final String SINK_ASYNC_SEND_ENABLED_DOC =
+      "Send messages with the asynchronous Service Bus client. Batches for all topics are sent concurrently and "
+          + "offsets are committed once Service Bus confirms them. A batch exhausting its retries fails the task, and "
+          + "the records of the batches not confirmed yet are sent again from the last committed offsets.";
+  public static final boolean SINK_ASYNC_SEND_ENABLED_DEFAULT = false;
+
+  public static final String SINK_MAX_IN_FLIGHT_BATCHES = SINK_CONNECTOR_PREFIX + DOT + "max.inflight.batches";
+  public static final String SINK_MAX_IN_FLIGHT_BATCHES_DOC =
+      "Maximum number of sends each Service Bus sender can have in flight when sending asynchronously. The batches a "
+          + "send is split into are sent concurrently up to the same limit.";
+  public static final int SINK_MAX_IN_FLIGHT_BATCHES_DEFAULT = 5;
+
 }
@@ -73,6 +73,25 @@ public class AzureServiceBusSinkConfig extends BaseConfig implements ConnectorPr
                 4,
                 Width.SHORT,
                 AzureServiceBusConfigConstants.TIMEOUT_BETWEEN_RETRIES
+            ).define(AzureServiceBusConfigConstants.SINK_ASYNC_SEND_ENABLED,
+                Type.BOOLEAN,
+                AzureServiceBusConfigConstants.SINK_ASYNC_SEND_ENABLED_DEFAULT,
+                Importance.MEDIUM,
+                AzureServiceBusConfigConstants.SINK_ASYNC_SEND_ENABLED_DOC,
+                CONNECTION_GROUP,
+                5,
+                Width.SHORT,
+                AzureServiceBusConfigConstants.SINK_ASYNC_SEND_ENABLED
+            ).define(AzureServiceBusConfigConstants.SINK_MAX_IN_FLIGHT_BATCHES,
+                Type.INT,
+                AzureServiceBusConfigConstants.SINK_MAX_IN_FLIGHT_BATCHES_DEFAULT,
+                ConfigDef.Range.atLeast(1),
+                Importance.MEDIUM,
+                AzureServiceBusConfigConstants.SINK_MAX_IN_FLIGHT_BATCHES_DOC,
+                CONNECTION_GROUP,
+                6,
+                Width.SHORT,
+                AzureServiceBusConfigConstants.SINK_MAX_IN_FLIGHT_BATCHES
             ).define(AzureServiceBusConfigConstants.KCQL_CONFIG,
                 Type.STRING,
                 Importance.HIGH,
@@ -114,6 +114,28 @@ public class AzureServiceBusSourceConfig extends BaseConfig implements Connector
                 5,
                 Width.SHORT,
                 AzureServiceBusConfigConstants.SOURCE_SLEEP_ON_EMPTY_POLL_MS
+            )
+            .define(AzureServiceBusConfigConstants.SOURCE_MAX_CONCURRENT_COMPLETIONS,
+                Type.INT,
+                AzureServiceBusConfigConstants.SOURCE_MAX_CONCURRENT_COMPLETIONS_DEFAULT,
+                ConfigDef.Range.atLeast(1),
+                Importance.MEDIUM,
+                AzureServiceBusConfigConstants.SOURCE_MAX_CONCURRENT_COMPLETIONS_DOC,
+                BASE_GROUP,
+                6,
+                Width.SHORT,
+                AzureServiceBusConfigConstants.SOURCE_MAX_CONCURRENT_COMPLETIONS
+            )
+            .define(AzureServiceBusConfigConstants.SOURCE_MAX_LOCK_RENEWAL_MS,
+                Type.LONG,
+                AzureServiceBusConfigConstants.SOURCE_MAX_LOCK_RENEWAL_MS_DEFAULT,
+                ConfigDef.Range.atLeast(0),
+                Importance.MEDIUM,
+                AzureServiceBusConfigConstants.SOURCE_MAX_LOCK_RENEWAL_MS_DOC,
+                BASE_GROUP,
+                7,
+                Width.SHORT,
+                AzureServiceBusConfigConstants.SOURCE_MAX_LOCK_RENEWAL_MS
             );
   }
 
@@ -21,6 +21,7 @@ import cyclops.control.Either;
 import io.lenses.kcql.Kcql;
 import io.lenses.streamreactor.common.collections.TopicPartitionOffsetAndMetadataStorage;
 import io.lenses.streamreactor.common.exception.ConnectorStartupException;
+import io.lenses.streamreactor.common.metrics.MetricsRegistrar;
 import io.lenses.streamreactor.common.util.JarManifest;
 import io.lenses.streamreactor.connect.azure.servicebus.config.AzureServiceBusConfigConstants;
 import io.lenses.streamreactor.connect.azure.servicebus.config.AzureServiceBusSinkConfig;
@@ -33,6 +34,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import javax.management.ObjectName;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
@@ -45,12 +47,14 @@ import org.apache.kafka.connect.sink.SinkTask;
 @Slf4j
 public class AzureServiceBusSinkTask extends SinkTask {
 
+  private static final String METRICS_DOMAIN = "io.lenses.streamreactor.connect.azure.servicebus.sink";
   private final JarManifest jarManifest;
   private TaskToSenderBridge taskToReceiverBridge;
   private final Consumer<Map<TopicPartition, OffsetAndMetadata>> flushFunction =
       this::updateOffsets;
 
   private final TopicPartitionOffsetAndMetadataStorage offsetStorage;
+  private ObjectName metricsName;
 
   public AzureServiceBusSinkTask() {
     this.jarManifest =
@@ -65,8 +69,14 @@ public class AzureServiceBusSinkTask extends SinkTask {
     Map<String, ServiceBusSinkMapping> serviceBusSinkMappings =
         unpackOrThrow(transformToMappings(props.get(AzureServiceBusConfigConstants.KCQL_CONFIG)));
 
-    initialize(new TaskToSenderBridge(new AzureServiceBusSinkConfig(props),
-        new ConcurrentHashMap<>(), flushFunction, serviceBusSinkMappings));
+    AzureServiceBusSinkConfig config = new AzureServiceBusSinkConfig(props);
+    initialize(new TaskToSenderBridge(config, new ConcurrentHashMap<>(), flushFunction, serviceBusSinkMappings));
+    registerMetrics(config.getString(AzureServiceBusConfigConstants.CONNECTOR_NAME));
+  }
+
+  private void registerMetrics(String connectorName) {
+    metricsName = MetricsRegistrar.taskMetricsName(METRICS_DOMAIN, connectorName);
+    MetricsRegistrar.register(taskToReceiverBridge.getSenderMetrics(), metricsName);
   }
 
   void initialize(TaskToSenderBridge taskToReceiverBridge) {
@@ -91,10 +101,18 @@ public class AzureServiceBusSinkTask extends SinkTask {
     });
   }
 
+  @Override
+  public void close(Collection<TopicPartition> partitions) {
+    taskToReceiverBridge.closePartitions(partitions);
+  }
+
   @Override
   public void stop() {
     log.info("Stopping {}", getClass().getSimpleName());
     taskToReceiverBridge.closeSenderClients();
+    if (metricsName != null) {
+      MetricsRegistrar.unregister(metricsName);
+    }
     log.info("Stopped {}", getClass().getSimpleName());
   }
 
@@ -105,6 +123,11 @@ public class AzureServiceBusSinkTask extends SinkTask {
 
   @Override
   public Map<TopicPartition, OffsetAndMetadata> preCommit(Map<TopicPartition, OffsetAndMetadata> currentOffsets) {
+    taskToReceiverBridge.pollFailures().forEach(
+        exception -> {
+          throw exception;
+        }
+    );
     return offsetStorage.checkAgainstProcessedOffsets(currentOffsets);
   }
 
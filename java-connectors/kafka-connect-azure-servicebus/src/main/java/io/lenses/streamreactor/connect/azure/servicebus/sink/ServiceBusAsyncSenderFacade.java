@@ -0,0 +1,328 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.azure.servicebus.sink;
+
+import com.azure.messaging.servicebus.ServiceBusErrorSource;
+import com.azure.messaging.servicebus.ServiceBusException;
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderAsyncClient;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * A facade between {@link ServiceBusSenderAsyncClient}s and rest of the connector. Sending does not wait for Service
+ * Bus to confirm the messages, so up to {@code maxInFlightBatches} sends can be in flight at once. A send is split
+ * into as many {@link ServiceBusMessageBatch}es as its messages need, and those batches are sent concurrently. Offsets
+ * are committed in the order the sends were made and only once every earlier send has been confirmed. A send which
+ * exhausts its retries fails the sender: it is dropped together with every send made after it, whose offsets are then
+ * never committed, and any further send is rejected. The records are delivered again once the task is restarted from
+ * the last committed offsets.
+ */
+@Slf4j
+public class ServiceBusAsyncSenderFacade {
+
+  private final Set<Integer> assignedPartitions = ConcurrentHashMap.newKeySet();
+  private final Deque<PendingBatch> pendingBatches = new ArrayDeque<>();
+  private final Queue<ServiceBusSendingException> failures = new ConcurrentLinkedQueue<>();
+  private final Consumer<Map<TopicPartition, OffsetAndMetadata>> commitOffsetFunction;
+  private final String originalKafkaTopicName;
+  private final ServiceBusSenderAsyncClient sender;
+  private final boolean batchEnabled;
+  private final int maxInFlightBatches;
+  private final Semaphore inFlightPermits;
+  private final int maxNumberOfRetries;
+  private final Duration retryTimeout;
+  private final ServiceBusSenderMetrics metrics;
+  private volatile ServiceBusSendingException failure;
+
+  /**
+   * Instantiates ServiceBusAsyncSenderFacade.
+   *
+   * @param commitOffsetFunction   function to call when a batch is confirmed
+   * @param originalKafkaTopicName Kafka topic this sender services
+   * @param sender                 asynchronous Service Bus sender client
+   * @param batchEnabled           whether messages are sent in a single message batch
+   * @param maxInFlightBatches     maximum number of sends not confirmed yet
+   * @param maxNumberOfRetries     maximum number of attempts to send a batch
+   * @param retryTimeout           time to wait between attempts
+   * @param metrics                metrics of the batches sent
+   */
+  public ServiceBusAsyncSenderFacade(Consumer<Map<TopicPartition, OffsetAndMetadata>> commitOffsetFunction,
+      String originalKafkaTopicName, ServiceBusSenderAsyncClient sender, boolean batchEnabled, int maxInFlightBatches,
+      int maxNumberOfRetries, Duration retryTimeout, ServiceBusSenderMetrics metrics) {
+    this.commitOffsetFunction = commitOffsetFunction;
+    this.originalKafkaTopicName = originalKafkaTopicName;
+    this.sender = sender;
+    this.batchEnabled = batchEnabled;
+    this.maxInFlightBatches = maxInFlightBatches;
+    this.inFlightPermits = new Semaphore(maxInFlightBatches);
+    this.maxNumberOfRetries = maxNumberOfRetries;
+    this.retryTimeout = retryTimeout;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Constructs Facade from {@link ServiceBusConnectionDetails} object.
+   *
+   * @param serviceBusConnectionDetails connection details.
+   * @param maxInFlightBatches          maximum number of sends not confirmed yet
+   * @param maxNumberOfRetries          maximum number of attempts to send a batch
+   * @param retryTimeoutInMillis        time to wait between attempts
+   * @param metrics                     metrics of the batches sent
+   */
+  public static ServiceBusAsyncSenderFacade fromConnectionDetails(
+      ServiceBusConnectionDetails serviceBusConnectionDetails, int maxInFlightBatches, int maxNumberOfRetries,
+      int retryTimeoutInMillis, ServiceBusSenderMetrics metrics) {
+    return new ServiceBusAsyncSenderFacade(serviceBusConnectionDetails.getUpdateOffsetFunction(),
+        serviceBusConnectionDetails.getOriginalKafkaTopicName(),
+        ServiceBusSenderFacade.senderClientBuilder(serviceBusConnectionDetails).buildAsyncClient(),
+        serviceBusConnectionDetails.isBatchEnabled(), maxInFlightBatches, maxNumberOfRetries,
+        Duration.ofMillis(retryTimeoutInMillis), metrics);
+  }
+
+  /**
+   * Records a {@link TopicPartition} of the topic as assigned to the task.
+   *
+   * @param tp topic and partition object
+   */
+  public void initializePartition(TopicPartition tp) {
+    assignedPartitions.add(tp.partition());
+  }
+
+  /**
+   * Records a {@link TopicPartition} of the topic as no longer assigned to the task.
+   *
+   * @param tp topic and partition object
+   */
+  public void closePartition(TopicPartition tp) {
+    assignedPartitions.remove(tp.partition());
+  }
+
+  /**
+   * Whether any partition of the topic is still assigned to the task.
+   *
+   * @return true if the sender still services a partition
+   */
+  public boolean hasAssignedPartitions() {
+    return !assignedPartitions.isEmpty();
+  }
+
+  /**
+   * Starts sending the messages without waiting for Service Bus to confirm them. Blocks only while the sender already
+   * has {@code maxInFlightBatches} sends in flight. The offsets are committed once all the messages are confirmed.
+   *
+   * @param serviceBusMessages messages to send.
+   * @throws ServiceBusSendingException if an earlier send exhausted its retries
+   */
+  public void sendMessages(Collection<ServiceBusMessageWrapper> serviceBusMessages) {
+    inFlightPermits.acquireUninterruptibly();
+
+    PendingBatch pendingBatch =
+        new PendingBatch(ServiceBusSenderFacade.calculateHighestOffsetsPerPartitions(serviceBusMessages));
+    synchronized (pendingBatches) {
+      if (failure != null) {
+        inFlightPermits.release();
+        throw new ServiceBusSendingException(String.format(
+            "Sender for %s topic failed earlier, rejecting %d messages", originalKafkaTopicName,
+            serviceBusMessages.size()), failure.getCause());
+      }
+      pendingBatches.addLast(pendingBatch);
+    }
+
+    List<ServiceBusMessage> messages =
+        serviceBusMessages.stream()
+            .map(ServiceBusMessageWrapper::getServiceBusMessage)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toUnmodifiableList());
+
+    send(messages)
+        .subscribe(
+            unused -> {
+            },
+            error -> onBatchCompleted(pendingBatch, error),
+            () -> onBatchCompleted(pendingBatch, null));
+  }
+
+  /**
+   * Returns and clears the failures of the batches which exhausted their retries since the last call.
+   *
+   * @return list of exceptions for failed batches.
+   */
+  public List<ServiceBusSendingException> pollFailures() {
+    List<ServiceBusSendingException> polled = new ArrayList<>();
+    ServiceBusSendingException failure;
+    while ((failure = failures.poll()) != null) {
+      polled.add(failure);
+    }
+    return polled;
+  }
+
+  /**
+   * Number of batches sent but not confirmed yet.
+   *
+   * @return batches in flight
+   */
+  public int getInFlightBatches() {
+    return maxInFlightBatches - inFlightPermits.availablePermits();
+  }
+
+  /**
+   * Waits for the batches in flight to be confirmed or to fail.
+   *
+   * @param timeout maximum time to wait
+   * @return true if no batch is in flight anymore
+   */
+  public boolean awaitInFlightBatches(Duration timeout) {
+    try {
+      if (inFlightPermits.tryAcquire(maxInFlightBatches, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        inFlightPermits.release(maxInFlightBatches);
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  /**
+   * Waits for the batches in flight and closes sender.
+   *
+   * @param timeout maximum time to wait for the batches in flight
+   */
+  public void close(Duration timeout) {
+    if (!awaitInFlightBatches(timeout)) {
+      log.warn("Closing sender for {} topic with {} batches still in flight", originalKafkaTopicName,
+          getInFlightBatches());
+    }
+    sender.close();
+  }
+
+  private Mono<Void> send(List<ServiceBusMessage> messages) {
+    if (messages.isEmpty()) {
+      return Mono.empty();
+    }
+    if (!batchEnabled) {
+      return withRetries(Mono.defer(() -> sender.sendMessages(messages)), messages.size());
+    }
+    return withRetries(Mono.defer(() -> createMessageBatches(messages, 0, new ArrayList<>())), messages.size())
+        .doOnNext(batches -> metrics.recordSplit(batches.size()))
+        .flatMapMany(Flux::fromIterable)
+        .flatMap(batch -> withRetries(Mono.defer(() -> sender.sendMessages(batch)), batch.getCount())
+            .doOnSuccess(unused -> metrics.recordBatch(batch)), maxInFlightBatches)
+        .then();
+  }
+
+  private Mono<List<ServiceBusMessageBatch>> createMessageBatches(List<ServiceBusMessage> messages, int from,
+      List<ServiceBusMessageBatch> batches) {
+    return sender.createMessageBatch()
+        .flatMap(batch -> {
+          int next = from;
+          while (next < messages.size() && batch.tryAddMessage(messages.get(next))) {
+            next++;
+          }
+          if (next == from) {
+            return Mono.error(new ServiceBusException(new IllegalArgumentException(String.format(
+                "Message for topic %s does not fit into an empty batch", originalKafkaTopicName)),
+                ServiceBusErrorSource.SEND));
+          }
+          batches.add(batch);
+          return next < messages.size() ? createMessageBatches(messages, next, batches) : Mono.just(batches);
+        });
+  }
+
+  private <T> Mono<T> withRetries(Mono<T> send, int messageCount) {
+    return send.retryWhen(Retry.fixedDelay(Math.max(0, maxNumberOfRetries - 1L), retryTimeout)
+        .filter(ServiceBusException.class::isInstance)
+        .doBeforeRetry(signal -> log.info("Retrying {} messages for {} topic", messageCount, originalKafkaTopicName))
+        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+  }
+
+  private void onBatchCompleted(PendingBatch pendingBatch, Throwable error) {
+    try {
+      if (error != null) {
+        log.error("Sending batch for {} topic failed", originalKafkaTopicName, error);
+        ServiceBusSendingException sendingException =
+            new ServiceBusSendingException("Number of retries exhausted. Cause:", error);
+        failures.add(sendingException);
+        dropFailedBatches(pendingBatch, sendingException);
+      } else {
+        commitConfirmedBatches(pendingBatch);
+      }
+    } finally {
+      inFlightPermits.release();
+    }
+  }
+
+  private void dropFailedBatches(PendingBatch failedBatch, ServiceBusSendingException sendingException) {
+    synchronized (pendingBatches) {
+      if (failure == null) {
+        failure = sendingException;
+      }
+      if (!pendingBatches.contains(failedBatch)) {
+        return;
+      }
+      int dropped = 0;
+      PendingBatch last;
+      do {
+        last = pendingBatches.pollLast();
+        dropped++;
+      } while (last != failedBatch);
+      log.warn("Dropped {} unconfirmed batches for {} topic, their offsets will not be committed", dropped,
+          originalKafkaTopicName);
+    }
+  }
+
+  private void commitConfirmedBatches(PendingBatch completedBatch) {
+    synchronized (pendingBatches) {
+      completedBatch.confirmed = true;
+      while (!pendingBatches.isEmpty() && pendingBatches.peekFirst().confirmed) {
+        commitOffsetFunction.accept(ServiceBusSenderFacade.toTopicPartitionOffsets(originalKafkaTopicName,
+            pendingBatches.pollFirst().highestOffsetsPerPartition));
+      }
+    }
+  }
+
+  private static final class PendingBatch {
+
+    private final Map<Integer, Long> highestOffsetsPerPartition;
+    private boolean confirmed;
+
+    private PendingBatch(Map<Integer, Long> highestOffsetsPerPartition) {
+      this.highestOffsetsPerPartition = highestOffsetsPerPartition;
+    }
+  }
+}
@@ -19,12 +19,14 @@ import static io.lenses.streamreactor.connect.azure.servicebus.util.ServiceBusTy
 
 import com.azure.messaging.servicebus.ServiceBusClientBuilder;
 import com.azure.messaging.servicebus.ServiceBusClientBuilder.ServiceBusSenderClientBuilder;
+import com.azure.messaging.servicebus.ServiceBusErrorSource;
 import com.azure.messaging.servicebus.ServiceBusException;
 import com.azure.messaging.servicebus.ServiceBusMessage;
 import com.azure.messaging.servicebus.ServiceBusMessageBatch;
 import com.azure.messaging.servicebus.ServiceBusSenderClient;
 import cyclops.control.Try;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -53,25 +55,39 @@ public class ServiceBusSenderFacade {
   private final String originalKafkaTopicName;
   private final ServiceBusSenderClient sender;
   private final Boolean batchEnabled;
+  private final ServiceBusSenderMetrics metrics;
 
   /**
    * Constructs Facade from {@link ServiceBusConnectionDetails} object.
    *
    * @param serviceBusConnectionDetails connection details.
+   * @param metrics                     metrics of the batches sent
    */
-  public static ServiceBusSenderFacade fromConnectionDetails(ServiceBusConnectionDetails serviceBusConnectionDetails) {
+  public static ServiceBusSenderFacade fromConnectionDetails(ServiceBusConnectionDetails serviceBusConnectionDetails,
+      ServiceBusSenderMetrics metrics) {
     return new ServiceBusSenderFacade(serviceBusConnectionDetails.getUpdateOffsetFunction(),
         serviceBusConnectionDetails.getOriginalKafkaTopicName(),
-        initializeServiceBusClient(serviceBusConnectionDetails), serviceBusConnectionDetails.isBatchEnabled());
+        initializeServiceBusClient(serviceBusConnectionDetails), serviceBusConnectionDetails.isBatchEnabled(),
+        metrics);
   }
 
   /**
-   * Initializes offset for specific {@link TopicPartition}.
+   * Initializes offset for specific {@link TopicPartition}. An offset remembered from an earlier assignment is
+   * forgotten, as the partition is consumed again from its last committed offset.
    * 
    * @param tp topic and partition object
    */
   public void initializePartition(TopicPartition tp) {
-    partitionCommittedOffsets.computeIfAbsent(tp.partition(), tpart -> new AtomicLong(NO_OFFSET));
+    partitionCommittedOffsets.put(tp.partition(), new AtomicLong(NO_OFFSET));
+  }
+
+  /**
+   * Forgets the offset of a {@link TopicPartition} which is no longer assigned to the task.
+   *
+   * @param tp topic and partition object
+   */
+  public void closePartition(TopicPartition tp) {
+    partitionCommittedOffsets.remove(tp.partition());
   }
 
   /**
@@ -82,28 +98,39 @@ public class ServiceBusSenderFacade {
   }
 
   /**
-   * Method which fetches {@link ServiceBusMessageBatch} from sender and packs messages to it.
-   * If it successfully manages to send them it then commits offset for topic and partition.
+   * Method which fetches {@link ServiceBusMessageBatch}es from sender and packs messages to them, starting a new batch
+   * whenever the current one is full. Batches are sent in order and the offsets of the messages in a batch are
+   * committed as soon as it is sent, so if sending fails only the messages that were sent have their offsets
+   * committed. Messages whose offsets were already committed are not sent again when the collection is retried.
    *
    * @param serviceBusMessages messages to send.
    * @return Optional with {@link ServiceBusException} if sending fails.
    */
   public Optional<ServiceBusException> sendMessages(Collection<ServiceBusMessageWrapper> serviceBusMessages) {
-    Map<Integer, Long> highestOffsetsPerPartitions = calculateHighestOffsetsPerPartitions(serviceBusMessages);
-    Optional<ServiceBusException> sendExceptions;
+    List<ServiceBusMessageWrapper> messagesToSend =
+        serviceBusMessages.stream()
+            .filter(this::notCommittedYet)
+            .collect(Collectors.toUnmodifiableList());
 
     if (batchEnabled) {
-      ServiceBusMessageBatch senderMessageBatch = createMessageBatch(serviceBusMessages);
-      sendExceptions = submitBatch(senderMessageBatch);
-    } else {
-      sendExceptions = sendMessagesSeparately(serviceBusMessages);
+      try {
+        return sendInBatches(messagesToSend);
+      } catch (ServiceBusException e) {
+        return Optional.of(e);
+      }
+    }
+    Optional<ServiceBusException> sendExceptions = sendMessagesSeparately(messagesToSend);
+    if (sendExceptions.isEmpty()) {
+      commitPartitionOffsets(calculateHighestOffsetsPerPartitions(messagesToSend));
     }
-
-    commitPartitionOffsets(highestOffsetsPerPartitions);
-
     return sendExceptions;
   }
 
+  private boolean notCommittedYet(ServiceBusMessageWrapper message) {
+    AtomicLong committedOffset = partitionCommittedOffsets.get(message.getOriginalKafkaPartition());
+    return committedOffset == null || message.getOriginalKafkaOffset() > committedOffset.get();
+  }
+
   private Optional<ServiceBusException> sendMessagesSeparately(
       Collection<ServiceBusMessageWrapper> serviceBusMessages) {
     List<ServiceBusMessage> messages =
@@ -117,16 +144,57 @@ public class ServiceBusSenderFacade {
         .failureGet().toOptional();
   }
 
-  private Optional<ServiceBusException> submitBatch(ServiceBusMessageBatch senderMessageBatch) {
+  private Optional<ServiceBusException> sendInBatches(List<ServiceBusMessageWrapper> serviceBusMessages) {
+    ServiceBusMessageBatch senderMessageBatch = sender.createMessageBatch();
+    List<ServiceBusMessageWrapper> messagesInBatch = new ArrayList<>();
+    int batches = 1;
+
+    for (ServiceBusMessageWrapper wrapper : serviceBusMessages) {
+      Optional<ServiceBusMessage> message = wrapper.getServiceBusMessage();
+      if (message.isPresent() && !senderMessageBatch.tryAddMessage(message.get())) {
+        if (senderMessageBatch.getCount() == 0) {
+          return Optional.of(messageTooLarge(wrapper));
+        }
+        Optional<ServiceBusException> sendException = submitBatch(senderMessageBatch, messagesInBatch);
+        if (sendException.isPresent()) {
+          return sendException;
+        }
+        senderMessageBatch = sender.createMessageBatch();
+        messagesInBatch = new ArrayList<>();
+        batches++;
+        if (!senderMessageBatch.tryAddMessage(message.get())) {
+          return Optional.of(messageTooLarge(wrapper));
+        }
+      }
+      messagesInBatch.add(wrapper);
+    }
+    metrics.recordSplit(batches);
+    return submitBatch(senderMessageBatch, messagesInBatch);
+  }
+
+  private Optional<ServiceBusException> submitBatch(ServiceBusMessageBatch senderMessageBatch,
+      List<ServiceBusMessageWrapper> messagesInBatch) {
     if (senderMessageBatch.getCount() > 0) {
-      return Try.runWithCatch(() -> sender.sendMessages(senderMessageBatch), ServiceBusException.class)
-          .failureGet().toOptional();
-    } else {
-      return Optional.empty();
+      Optional<ServiceBusException> sendException =
+          Try.runWithCatch(() -> sender.sendMessages(senderMessageBatch), ServiceBusException.class)
+              .failureGet().toOptional();
+      if (sendException.isPresent()) {
+        return sendException;
+      }
+      metrics.recordBatch(senderMessageBatch);
     }
+    commitPartitionOffsets(calculateHighestOffsetsPerPartitions(messagesInBatch));
+    return Optional.empty();
   }
 
-  private static Map<Integer, Long> calculateHighestOffsetsPerPartitions(
+  static ServiceBusException messageTooLarge(ServiceBusMessageWrapper wrapper) {
+    return new ServiceBusException(new IllegalArgumentException(String.format(
+        "Message from topic %s partition %d offset %d does not fit into an empty batch",
+        wrapper.getOriginalTopic(), wrapper.getOriginalKafkaPartition(), wrapper.getOriginalKafkaOffset())),
+        ServiceBusErrorSource.SEND);
+  }
+
+  static Map<Integer, Long> calculateHighestOffsetsPerPartitions(
       Collection<ServiceBusMessageWrapper> serviceBusMessages) {
     return serviceBusMessages.stream()
         .map(msg -> new SimpleEntry<>(msg.getOriginalKafkaPartition(), msg.getOriginalKafkaOffset()))
@@ -139,18 +207,12 @@ public class ServiceBusSenderFacade {
         );
   }
 
-  private ServiceBusMessageBatch createMessageBatch(Collection<ServiceBusMessageWrapper> serviceBusMessages) {
-    ServiceBusMessageBatch senderMessageBatch = sender.createMessageBatch();
-    serviceBusMessages.stream().map(ServiceBusMessageWrapper::getServiceBusMessage)
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .forEach(senderMessageBatch::tryAddMessage);
-
-    return senderMessageBatch;
-  }
-
   private static ServiceBusSenderClient initializeServiceBusClient(
       ServiceBusConnectionDetails serviceBusConnectionDetails) {
+    return senderClientBuilder(serviceBusConnectionDetails).buildClient();
+  }
+
+  static ServiceBusSenderClientBuilder senderClientBuilder(ServiceBusConnectionDetails serviceBusConnectionDetails) {
     ServiceBusSenderClientBuilder builder =
         new ServiceBusClientBuilder()
             .connectionString(serviceBusConnectionDetails.getConnectionString())
@@ -158,15 +220,25 @@ public class ServiceBusSenderFacade {
 
     setQueueOrTopicNameFunction.accept(builder, serviceBusConnectionDetails);
 
-    return builder.buildClient();
+    return builder;
   }
 
   private void commitPartitionOffsets(Map<Integer, Long> highestOffsetsInBatchPerPartition) {
-    Map<TopicPartition, OffsetAndMetadata> offsetsMap = new HashMap<>(highestOffsetsInBatchPerPartition.size());
-    highestOffsetsInBatchPerPartition.forEach((key, value) -> offsetsMap.put(new TopicPartition(originalKafkaTopicName,
-        key), new OffsetAndMetadata(value)));
+    if (highestOffsetsInBatchPerPartition.isEmpty()) {
+      return;
+    }
+    highestOffsetsInBatchPerPartition.forEach((partition, offset) -> partitionCommittedOffsets
+        .computeIfAbsent(partition, p -> new AtomicLong(NO_OFFSET))
+        .accumulateAndGet(offset, Math::max));
+    commitOffsetFunction.accept(toTopicPartitionOffsets(originalKafkaTopicName, highestOffsetsInBatchPerPartition));
+  }
 
-    commitOffsetFunction.accept(offsetsMap);
+  static Map<TopicPartition, OffsetAndMetadata> toTopicPartitionOffsets(String kafkaTopicName,
+      Map<Integer, Long> highestOffsetsPerPartition) {
+    Map<TopicPartition, OffsetAndMetadata> offsetsMap = new HashMap<>(highestOffsetsPerPartition.size());
+    highestOffsetsPerPartition.forEach((key, value) -> offsetsMap.put(new TopicPartition(kafkaTopicName, key),
+        new OffsetAndMetadata(value)));
+    return offsetsMap;
   }
 
   private static final BiConsumer<ServiceBusSenderClientBuilder, ServiceBusConnectionDetails> setQueueOrTopicNameFunction =
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.azure.servicebus.sink;
+
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.ToString;
+
+/**
+ * Counters describing the {@link ServiceBusMessageBatch}es sent by the senders of a task. The fill of a batch is the
+ * percentage of its maximum size in bytes used by the messages it carried, a low figure means the records of a
+ * {@code put} were not enough to fill a batch while a high one means the records were split into several batches.
+ */
+@ToString
+public class ServiceBusSenderMetrics implements ServiceBusSenderMetricsMBean {
+
+  private final LongAdder batchCount = new LongAdder();
+  private final LongAdder messageCount = new LongAdder();
+  private final LongAdder splitCount = new LongAdder();
+  private final LongAdder totalFillPercent = new LongAdder();
+  private final AtomicLong maxMessagesPerBatch = new AtomicLong();
+
+  void recordBatch(ServiceBusMessageBatch batch) {
+    batchCount.increment();
+    messageCount.add(batch.getCount());
+    maxMessagesPerBatch.accumulateAndGet(batch.getCount(), Math::max);
+    if (batch.getMaxSizeInBytes() > 0) {
+      totalFillPercent.add(100L * batch.getSizeInBytes() / batch.getMaxSizeInBytes());
+    }
+  }
+
+  void recordSplit(int batches) {
+    if (batches > 1) {
+      splitCount.increment();
+    }
+  }
+
+  /**
+   * @return the number of batches sent
+   */
+  public long getBatchCount() {
+    return batchCount.sum();
+  }
+
+  /**
+   * @return the number of messages sent in batches
+   */
+  public long getMessageCount() {
+    return messageCount.sum();
+  }
+
+  /**
+   * @return the number of sends which did not fit into a single batch and were split
+   */
+  public long getSplitCount() {
+    return splitCount.sum();
+  }
+
+  /**
+   * @return the average number of messages per batch
+   */
+  public long getAverageMessagesPerBatch() {
+    final long batches = batchCount.sum();
+    return batches == 0 ? 0 : messageCount.sum() / batches;
+  }
+
+  /**
+   * @return the highest number of messages sent in a single batch
+   */
+  public long getMaxMessagesPerBatch() {
+    return maxMessagesPerBatch.get();
+  }
+
+  /**
+   * @return the average percentage of the maximum batch size in bytes used by the batches
+   */
+  public long getAverageFillPercent() {
+    final long batches = batchCount.sum();
+    return batches == 0 ? 0 : totalFillPercent.sum() / batches;
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.azure.servicebus.sink;
+
+/**
+ * JMX view of {@link ServiceBusSenderMetrics}, registered per task under
+ * {@code io.lenses.streamreactor.connect.azure.servicebus.sink:type=metrics,name=<connector>,task=<n>}.
+ */
+public interface ServiceBusSenderMetricsMBean {
+
+  long getBatchCount();
+
+  long getMessageCount();
+
+  long getSplitCount();
+
+  long getAverageMessagesPerBatch();
+
+  long getMaxMessagesPerBatch();
+
+  long getAverageFillPercent();
+}
@@ -21,11 +21,13 @@ import io.lenses.streamreactor.connect.azure.servicebus.config.AzureServiceBusSi
 import io.lenses.streamreactor.connect.azure.servicebus.mapping.ServiceBusSinkMapping;
 import io.lenses.streamreactor.connect.azure.servicebus.util.ServiceBusKcqlProperties;
 import io.lenses.streamreactor.connect.azure.servicebus.util.ServiceBusType;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
@@ -42,12 +44,18 @@ import org.apache.kafka.common.config.ConfigException;
 @Slf4j
 public class TaskToSenderBridge {
 
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
   private final Map<String, ServiceBusSenderFacade> serviceBusSendersStore;
+  private final Map<String, ServiceBusAsyncSenderFacade> serviceBusAsyncSendersStore;
   private final Consumer<Map<TopicPartition, OffsetAndMetadata>> updateOffsetFunction;
   private final Map<String, ServiceBusSinkMapping> serviceBusSinkMappings;
   private final AzureServiceBusSinkConfig config;
   private final int maxNumberOfRetries;
   private final int retryTimeoutInMillis;
+  private final boolean asyncSendEnabled;
+  private final int maxInFlightBatches;
+  private final ServiceBusSenderMetrics senderMetrics = new ServiceBusSenderMetrics();
 
   /**
    * Instantiates TaskToSenderBridge.
@@ -60,7 +68,25 @@ public class TaskToSenderBridge {
   TaskToSenderBridge(AzureServiceBusSinkConfig config, Map<String, ServiceBusSenderFacade> serviceBusSendersStore,
       Consumer<Map<TopicPartition, OffsetAndMetadata>> updateOffsetFunction,
       Map<String, ServiceBusSinkMapping> serviceBusSinkMappings) {
+    this(config, serviceBusSendersStore, new ConcurrentHashMap<>(), updateOffsetFunction, serviceBusSinkMappings);
+  }
+
+  /**
+   * Instantiates TaskToSenderBridge.
+   *
+   * @param config                      sink connector configuration
+   * @param serviceBusSendersStore      map of topic to {@link ServiceBusSenderFacade} that services it
+   * @param serviceBusAsyncSendersStore map of topic to {@link ServiceBusAsyncSenderFacade} that services it when
+   *                                    sending asynchronously
+   * @param updateOffsetFunction        function to call when updating committed offsets
+   * @param serviceBusSinkMappings      mappings between Kafka topics and service buses from KCQL
+   */
+  TaskToSenderBridge(AzureServiceBusSinkConfig config, Map<String, ServiceBusSenderFacade> serviceBusSendersStore,
+      Map<String, ServiceBusAsyncSenderFacade> serviceBusAsyncSendersStore,
+      Consumer<Map<TopicPartition, OffsetAndMetadata>> updateOffsetFunction,
+      Map<String, ServiceBusSinkMapping> serviceBusSinkMappings) {
     this.serviceBusSendersStore = serviceBusSendersStore;
+    this.serviceBusAsyncSendersStore = serviceBusAsyncSendersStore;
     this.updateOffsetFunction = updateOffsetFunction;
     this.serviceBusSinkMappings = serviceBusSinkMappings;
     this.config = config;
@@ -73,6 +99,12 @@ public class TaskToSenderBridge {
     retryTimeoutInMillis =
         retryTimeoutFromConf > 0 ? retryTimeoutFromConf
             : AzureServiceBusConfigConstants.TIMEOUT_BETWEEN_RETRIES_DEFAULT;
+
+    asyncSendEnabled = Boolean.TRUE.equals(config.getBoolean(AzureServiceBusConfigConstants.SINK_ASYNC_SEND_ENABLED));
+    Integer maxInFlightBatchesFromConf = config.getInt(AzureServiceBusConfigConstants.SINK_MAX_IN_FLIGHT_BATCHES);
+    maxInFlightBatches =
+        maxInFlightBatchesFromConf != null && maxInFlightBatchesFromConf > 0 ? maxInFlightBatchesFromConf
+            : AzureServiceBusConfigConstants.SINK_MAX_IN_FLIGHT_BATCHES_DEFAULT;
   }
 
   /**
@@ -100,16 +132,64 @@ public class TaskToSenderBridge {
   }
 
   private void initializeSendersForNewTopics(Collection<TopicPartition> partitions, String connectionString) {
-    partitions.stream().filter(tp -> serviceBusSendersStore.get(tp.topic()) == null)
-        .forEach(tp -> {
-          ServiceBusSinkMapping mappingForTopic = serviceBusSinkMappings.get(tp.topic());
+    if (asyncSendEnabled) {
+      initializeAsyncSendersForNewTopics(partitions, connectionString);
+      return;
+    }
+    partitions.forEach(tp -> {
+      ServiceBusSenderFacade sender = serviceBusSendersStore.get(tp.topic());
+      if (sender == null) {
+        ServiceBusSinkMapping mappingForTopic = serviceBusSinkMappings.get(tp.topic());
+
+        initializeSender(createConnectionDetails(connectionString, mappingForTopic, tp));
+        sender = serviceBusSendersStore.get(mappingForTopic.getInputKafkaTopic());
+      }
+      sender.initializePartition(tp);
+    });
+  }
+
+  /**
+   * Forgets the offsets the senders remember for the {@link TopicPartition}s revoked from the task. An asynchronous
+   * sender left without any partition is closed once its batches in flight are confirmed, and dropped, so a new one is
+   * created if its topic is assigned again.
+   *
+   * @param partitions topic+partitions collection
+   */
+  public void closePartitions(Collection<TopicPartition> partitions) {
+    partitions.forEach(tp -> {
+      Optional.ofNullable(serviceBusSendersStore.get(tp.topic()))
+          .ifPresent(sender -> sender.closePartition(tp));
+      Optional.ofNullable(serviceBusAsyncSendersStore.get(tp.topic()))
+          .ifPresent(sender -> sender.closePartition(tp));
+    });
+
+    partitions.stream().map(TopicPartition::topic).distinct().forEach(topic -> {
+      ServiceBusAsyncSenderFacade sender = serviceBusAsyncSendersStore.get(topic);
+      if (sender != null && !sender.hasAssignedPartitions()) {
+        serviceBusAsyncSendersStore.remove(topic);
+        sender.close(CLOSE_TIMEOUT);
+      }
+    });
+  }
+
+  private void initializeAsyncSendersForNewTopics(Collection<TopicPartition> partitions, String connectionString) {
+    partitions.forEach(tp -> {
+      ServiceBusSinkMapping mappingForTopic = serviceBusSinkMappings.get(tp.topic());
 
-          initializeSender(new ServiceBusConnectionDetails(connectionString, mappingForTopic.getOutputServiceBusName(),
-              ServiceBusType.fromString(mappingForTopic.getProperties()
-                  .get(ServiceBusKcqlProperties.SERVICE_BUS_TYPE.getPropertyName())), updateOffsetFunction,
-              tp.topic(), getBatchEnabled(mappingForTopic)));
-          serviceBusSendersStore.get(mappingForTopic.getInputKafkaTopic()).initializePartition(tp);
-        });
+      serviceBusAsyncSendersStore.computeIfAbsent(tp.topic(),
+          topic -> ServiceBusAsyncSenderFacade.fromConnectionDetails(
+              createConnectionDetails(connectionString, mappingForTopic, tp), maxInFlightBatches, maxNumberOfRetries,
+              retryTimeoutInMillis, senderMetrics))
+          .initializePartition(tp);
+    });
+  }
+
+  private ServiceBusConnectionDetails createConnectionDetails(String connectionString,
+      ServiceBusSinkMapping mappingForTopic, TopicPartition tp) {
+    return new ServiceBusConnectionDetails(connectionString, mappingForTopic.getOutputServiceBusName(),
+        ServiceBusType.fromString(mappingForTopic.getProperties()
+            .get(ServiceBusKcqlProperties.SERVICE_BUS_TYPE.getPropertyName())), updateOffsetFunction,
+        tp.topic(), getBatchEnabled(mappingForTopic));
   }
 
   private static boolean getBatchEnabled(ServiceBusSinkMapping mappingForTopic) {
@@ -130,6 +210,8 @@ public class TaskToSenderBridge {
    * Method groups messages by their original Kafka topic then attempts to send it via their respective
    * {@link ServiceBusSenderFacade}s. If sending a message collection doesn't complete successfully it then
    * tries to retry based on properties timeout and maximum number of retries.
+   * When sending asynchronously the method only waits for a free in flight slot of each sender, and the exceptions
+   * returned are those of earlier batches which exhausted their retries since the previous call.
    * 
    * @param serviceBusMessages collection of {@link ServiceBusMessageWrapper}s
    * @return list of exceptions that method couldn't handle.
@@ -139,6 +221,10 @@ public class TaskToSenderBridge {
         serviceBusMessages.stream()
             .collect(Collectors.groupingBy(ServiceBusMessageWrapper::getOriginalTopic));
 
+    if (asyncSendEnabled) {
+      return sendMessagesAsynchronously(messagesByKafkaTopic);
+    }
+
     return messagesByKafkaTopic.entrySet().stream()
         .flatMap(entry -> {
           String topicName = entry.getKey();
@@ -161,6 +247,26 @@ public class TaskToSenderBridge {
         .collect(Collectors.toList());
   }
 
+  private List<ServiceBusSendingException> sendMessagesAsynchronously(
+      Map<String, List<ServiceBusMessageWrapper>> messagesByKafkaTopic) {
+    messagesByKafkaTopic.forEach((topicName, messages) -> serviceBusAsyncSendersStore.get(topicName).sendMessages(
+        messages));
+
+    return pollFailures();
+  }
+
+  /**
+   * Returns the failures of the batches sent asynchronously which exhausted their retries since the previous call, so
+   * they are reported when committing offsets too and not only on the next send.
+   *
+   * @return list of exceptions for failed batches.
+   */
+  public List<ServiceBusSendingException> pollFailures() {
+    return serviceBusAsyncSendersStore.values().stream()
+        .flatMap(sender -> sender.pollFailures().stream())
+        .collect(Collectors.toList());
+  }
+
   private static void coolDownBeforeRetry(int millis) {
     try {
       TimeUnit.MILLISECONDS.sleep(millis);
@@ -169,13 +275,24 @@ public class TaskToSenderBridge {
     }
   }
 
+  /**
+   * Metrics of the batches sent by all the senders of the task.
+   *
+   * @return sender metrics
+   */
+  public ServiceBusSenderMetrics getSenderMetrics() {
+    return senderMetrics;
+  }
+
   public void closeSenderClients() {
     serviceBusSendersStore.forEach((k, sender) -> sender.close());
+    serviceBusAsyncSendersStore.forEach((k, sender) -> sender.close(CLOSE_TIMEOUT));
+    log.info("Closed Service Bus senders. {}", senderMetrics);
   }
 
   private void initializeSender(ServiceBusConnectionDetails serviceBusConnectionDetails) {
     serviceBusSendersStore.put(serviceBusConnectionDetails.getOriginalKafkaTopicName(),
-        ServiceBusSenderFacade.fromConnectionDetails(serviceBusConnectionDetails));
+        ServiceBusSenderFacade.fromConnectionDetails(serviceBusConnectionDetails, senderMetrics));
   }
 
 }
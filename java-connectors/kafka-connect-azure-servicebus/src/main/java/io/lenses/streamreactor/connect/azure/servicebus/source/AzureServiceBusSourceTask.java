@@ -19,6 +19,7 @@ import static io.lenses.streamreactor.common.util.EitherUtils.unpackOrThrow;
 
 import cyclops.control.Option;
 import io.lenses.kcql.Kcql;
+import io.lenses.streamreactor.common.metrics.MetricsRegistrar;
 import io.lenses.streamreactor.common.util.JarManifest;
 import io.lenses.streamreactor.connect.azure.servicebus.config.AzureServiceBusConfigConstants;
 import io.lenses.streamreactor.connect.azure.servicebus.config.AzureServiceBusSourceConfig;
@@ -30,6 +31,7 @@ import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import javax.management.ObjectName;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.config.ConfigException;
@@ -43,10 +45,12 @@ import org.apache.kafka.connect.source.SourceTask;
 @Slf4j
 public class AzureServiceBusSourceTask extends SourceTask {
 
+  private static final String METRICS_DOMAIN = "io.lenses.streamreactor.connect.azure.servicebus.source";
   private final JarManifest jarManifest;
   private TaskToReceiverBridge taskToReceiverBridge;
   private final AtomicReference<Throwable> serviceBusReceiverError = new AtomicReference<>();
-  private long sleepOnEmptyPoll = 100;
+  private Duration maxPollWait = Duration.ofMillis(100);
+  private ObjectName metricsName;
 
   public AzureServiceBusSourceTask() {
     this.jarManifest = unpackOrThrow(JarManifest.produceFromClass(getClass()));
@@ -64,16 +68,20 @@ public class AzureServiceBusSourceTask extends SourceTask {
     if (recordsQueueSize < 1) {
       throw new ConfigException("Records queue size must be greater than 0");
     }
-    sleepOnEmptyPoll = config.getLong(AzureServiceBusConfigConstants.SOURCE_SLEEP_ON_EMPTY_POLL_MS);
+    final long sleepOnEmptyPoll = config.getLong(AzureServiceBusConfigConstants.SOURCE_SLEEP_ON_EMPTY_POLL_MS);
     if (sleepOnEmptyPoll < 0) {
       throw new ConfigException("Sleep on empty poll must be greater than or equal to 0");
     }
+    maxPollWait = Duration.ofMillis(sleepOnEmptyPoll);
     String connectionString = config.getPassword(AzureServiceBusConfigConstants.CONNECTION_STRING).value();
     List<Kcql> kcqls =
         KcqlConfigBusMapper.mapKcqlsFromConfig(props.get(AzureServiceBusConfigConstants.KCQL_CONFIG), true)
             .fold(ex -> {
               throw ex;
             }, Function.identity());
+    if (recordsQueueSize < kcqls.size()) {
+      throw new ConfigException("Records queue size must be at least the number of KCQL mappings");
+    }
 
     final ArrayBlockingQueue<ServiceBusMessageHolder> recordsQueue =
         new ArrayBlockingQueue<>(recordsQueueSize);
@@ -91,15 +99,24 @@ public class AzureServiceBusSourceTask extends SourceTask {
     if (completeMinFirstRetryBackoff < 0) {
       throw new ConfigException("Min backoff complete retries must be greater than or equal to 0");
     }
+    final int maxConcurrentCompletions =
+        config.getInt(AzureServiceBusConfigConstants.SOURCE_MAX_CONCURRENT_COMPLETIONS);
+    final long maxLockRenewalMs = config.getLong(AzureServiceBusConfigConstants.SOURCE_MAX_LOCK_RENEWAL_MS);
     final Map<String, ServiceBusReceiverFacade> receiversMap =
         ServiceBusReceiverFacadeInitializer.initializeReceiverFacades(recordsQueue, kcqls, connectionString,
             prefetchCount, maxCompleteRetries, Duration.ofMillis(completeMinFirstRetryBackoff),
-            serviceBusReceiverError);
+            maxConcurrentCompletions, Duration.ofMillis(maxLockRenewalMs), serviceBusReceiverError);
 
     TaskToReceiverBridge serviceBusReceiverBridge =
         new TaskToReceiverBridge(recordsQueue, receiversMap);
 
     initialize(serviceBusReceiverBridge);
+    registerMetrics(config.getString(AzureServiceBusConfigConstants.CONNECTOR_NAME));
+  }
+
+  private void registerMetrics(String connectorName) {
+    metricsName = MetricsRegistrar.taskMetricsName(METRICS_DOMAIN, connectorName);
+    MetricsRegistrar.register(taskToReceiverBridge.getReceiverMetrics(), metricsName);
   }
 
   void initialize(TaskToReceiverBridge taskToReceiverBridge) {
@@ -113,16 +130,10 @@ public class AzureServiceBusSourceTask extends SourceTask {
           throw new ConnectException("Error in Service Bus Receiver", e);
         });
     List<SourceRecord> poll =
-        taskToReceiverBridge.poll();
+        taskToReceiverBridge.poll(maxPollWait);
     if (poll.isEmpty()) {
-      try {
-        Thread.sleep(sleepOnEmptyPoll);
-      } catch (InterruptedException e) {
-        log.trace("Error while sleeping between polling of records", e);
-      }
       return null;
     }
-    log.debug("Polled {} records", poll.size());
     return poll;
   }
 
@@ -135,5 +146,8 @@ public class AzureServiceBusSourceTask extends SourceTask {
   public void stop() {
     log.info("Stopping {}", getClass().getSimpleName());
     taskToReceiverBridge.closeReceivers();
+    if (metricsName != null) {
+      MetricsRegistrar.unregister(metricsName);
+    }
   }
 }
@@ -16,6 +16,7 @@
 package io.lenses.streamreactor.connect.azure.servicebus.source;
 
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 /**
  * Interface for acknowledging a ServiceBus messages.
@@ -23,10 +24,30 @@ import reactor.core.publisher.Mono;
 public interface MessageAck {
 
   /**
-   * Acknowledge the message.
+   * Acknowledge the message. Implementations subscribe to {@code mono}, possibly asynchronously, to complete the
+   * message in Service Bus.
    *
    * @param mono  Mono created from async client complete method.
    * @param msgId ServiceBus message ID.
    */
   void acknowledge(Mono<Void> mono, String msgId);
+
+  /**
+   * Acknowledgement of the message that runs when subscribed to, so that the caller controls how many
+   * acknowledgements are in flight. It completes once the message is acknowledged or acknowledging it failed.
+   * The default implementation hands {@link #acknowledge(Mono, String)} a {@code mono} that signals the returned one
+   * when it terminates, implementations which retry should rather override this method and return the retrying
+   * pipeline itself.
+   *
+   * @param mono  Mono created from async client complete method.
+   * @param msgId ServiceBus message ID.
+   * @return Mono that completes when the acknowledgement finishes.
+   */
+  default Mono<Void> acknowledgement(Mono<Void> mono, String msgId) {
+    return Mono.defer(() -> {
+      final Sinks.Empty<Void> acknowledged = Sinks.empty();
+      acknowledge(mono.doFinally(signal -> acknowledged.tryEmitEmpty()), msgId);
+      return acknowledged.asMono();
+    });
+  }
 }
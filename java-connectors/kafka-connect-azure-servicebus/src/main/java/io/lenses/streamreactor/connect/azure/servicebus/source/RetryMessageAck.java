@@ -49,6 +49,15 @@ public class RetryMessageAck implements MessageAck {
         .subscribe();
   }
 
+  @Override
+  public Mono<Void> acknowledgement(Mono<Void> mono, String msgId) {
+    return mono
+        .retryWhen(this.retrySpec)
+        .doOnError(onError)
+        .doOnSuccess(v -> onSuccess.accept(msgId))
+        .onErrorResume(e -> Mono.empty());
+  }
+
   public static Consumer<String> logSuccess() {
     return msgId -> log.debug("Message acknowledged successfully. Message ID: {}", msgId);
   }
@@ -21,6 +21,7 @@ import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
 import com.azure.messaging.servicebus.ServiceBusReceiverAsyncClient;
 import com.azure.messaging.servicebus.models.ServiceBusReceiveMode;
 import io.lenses.kcql.Kcql;
+import io.lenses.streamreactor.connect.azure.servicebus.config.AzureServiceBusConfigConstants;
 import io.lenses.streamreactor.connect.azure.servicebus.source.ServiceBusPartitionOffsetProvider.AzureServiceBusOffsetMarker;
 import io.lenses.streamreactor.connect.azure.servicebus.source.ServiceBusPartitionOffsetProvider.AzureServiceBusPartitionKey;
 import io.lenses.streamreactor.connect.azure.servicebus.util.ServiceBusKcqlProperties;
@@ -29,12 +30,16 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.connect.source.SourceRecord;
+import org.reactivestreams.Subscription;
 import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -46,16 +51,20 @@ import static io.lenses.streamreactor.connect.azure.servicebus.mapping.ServiceBu
 @Slf4j
 public class ServiceBusReceiverFacade {
 
-  private static final int FIVE_SECONDS_TIMEOUT = 5;
   @Getter
   private final String receiverId;
-  private final Disposable subscription;
+  private final BaseSubscriber<ServiceBusReceivedMessage> subscription;
+  private final Disposable completionSubscription;
   private final ServiceBusReceiverAsyncClient serviceBusReceiverAsyncClient;
   private final MessageAck messageAck;
+  private final Sinks.Many<ServiceBusReceivedMessage> completions;
+  private final AtomicLong outstandingMessages = new AtomicLong();
 
   /**
    * Creates a Facade between {@link ServiceBusReceiverAsyncClient} (that fetches records from Azure Service Bus) and
-   * {@link TaskToReceiverBridge} that holds the facades.
+   * {@link TaskToReceiverBridge} that holds the facades, issuing up to
+   * {@link AzureServiceBusConfigConstants#SOURCE_MAX_CONCURRENT_COMPLETIONS_DEFAULT} completions at the same time and
+   * buffering up to {@link AzureServiceBusConfigConstants#TASK_RECORDS_QUEUE_SIZE_DEFAULT} messages.
    *
    * @param receiverId                    Receiver ID
    * @param serviceBusReceiverAsyncClient {@link ServiceBusReceiverAsyncClient} that fetches records from Azure Service
@@ -70,19 +79,69 @@ public class ServiceBusReceiverFacade {
       @NonNull Consumer<ServiceBusReceivedMessage> onMessage,
       @NonNull Consumer<Throwable> onError,
       @NonNull MessageAck messageAck) {
+    this(receiverId, serviceBusReceiverAsyncClient, onMessage, onError, messageAck,
+        AzureServiceBusConfigConstants.SOURCE_MAX_CONCURRENT_COMPLETIONS_DEFAULT,
+        AzureServiceBusConfigConstants.TASK_RECORDS_QUEUE_SIZE_DEFAULT);
+  }
+
+  /**
+   * Creates a Facade between {@link ServiceBusReceiverAsyncClient} (that fetches records from Azure Service Bus) and
+   * {@link TaskToReceiverBridge} that holds the facades. The receiver only requests as many messages from Service Bus
+   * as {@code maxBufferedMessages} up front, and afterwards only as many as the task took from the records queue (see
+   * {@link #requestMessages(long)}), so {@code onMessage} never has to wait for room in the queue.
+   *
+   * @param receiverId                    Receiver ID
+   * @param serviceBusReceiverAsyncClient {@link ServiceBusReceiverAsyncClient} that fetches records from Azure Service
+   *                                      Bus
+   * @param onMessage                     Consumer that processes received message
+   * @param onError                       Consumer that processes error
+   * @param messageAck                    Acknowledgement of the message
+   * @param maxConcurrentCompletions      maximum number of completions in flight at the same time
+   * @param maxBufferedMessages           maximum number of messages received but not yet taken by the task
+   */
+  public ServiceBusReceiverFacade(
+      @NonNull String receiverId,
+      @NonNull ServiceBusReceiverAsyncClient serviceBusReceiverAsyncClient,
+      @NonNull Consumer<ServiceBusReceivedMessage> onMessage,
+      @NonNull Consumer<Throwable> onError,
+      @NonNull MessageAck messageAck,
+      int maxConcurrentCompletions,
+      int maxBufferedMessages) {
     this.receiverId = receiverId;
     this.serviceBusReceiverAsyncClient = serviceBusReceiverAsyncClient;
+    this.messageAck = messageAck;
+    this.completions = Sinks.many().unicast().onBackpressureBuffer();
+    this.completionSubscription =
+        completions.asFlux()
+            .flatMap(this::completeInServiceBus, maxConcurrentCompletions)
+            .subscribe();
     this.subscription =
         serviceBusReceiverAsyncClient.receiveMessages()
+            .doOnNext(message -> outstandingMessages.incrementAndGet())
             .doOnNext(onMessage)
             .doOnError(onError)
-            .subscribe();
-    this.messageAck = messageAck;
+            .subscribeWith(new BaseSubscriber<>() {
+              @Override
+              protected void hookOnSubscribe(Subscription receiveSubscription) {
+                request(maxBufferedMessages);
+              }
+
+              @Override
+              protected void hookOnNext(ServiceBusReceivedMessage message) {
+                // messages are handed over to the task by onMessage
+              }
+
+              @Override
+              protected void hookOnError(Throwable throwable) {
+                // errors are reported by onError
+              }
+            });
   }
 
   public static ServiceBusReceiverAsyncClient buildAsyncClient(@NonNull Kcql kcql,
       @NonNull String connectionString,
-      int prefetchCount) {
+      int prefetchCount,
+      @NonNull Duration maxLockRenewal) {
     Map<String, String> kcqlProperties = kcql.getProperties();
     String subscriptionName = kcqlProperties.get(ServiceBusKcqlProperties.SUBSCRIPTION_NAME.getPropertyName());
     ServiceBusType busType =
@@ -105,6 +164,7 @@ public class ServiceBusReceiverFacade {
     serviceBusReceiverClientBuilder.receiveMode(ServiceBusReceiveMode.PEEK_LOCK);
     serviceBusReceiverClientBuilder.prefetchCount(prefetchCount);
     serviceBusReceiverClientBuilder.disableAutoComplete();
+    serviceBusReceiverClientBuilder.maxAutoLockRenewDuration(maxLockRenewal);
     return serviceBusReceiverClientBuilder.buildAsyncClient();
   }
 
@@ -114,6 +174,7 @@ public class ServiceBusReceiverFacade {
   public void unsubscribeAndClose() {
     try {
       subscription.dispose();
+      completionSubscription.dispose();
     } catch (Exception e) {
       log.error("{} - error while disposing: {}", receiverId, e.getMessage());
     }
@@ -132,10 +193,53 @@ public class ServiceBusReceiverFacade {
     };
   }
 
+  /**
+   * Requests more messages from Service Bus, called once the task took messages of this receiver from the records
+   * queue.
+   *
+   * @param count number of messages to request.
+   */
+  public void requestMessages(long count) {
+    subscription.request(count);
+  }
+
+  /**
+   * Number of messages received from Service Bus that are not completed yet, either because they are still waiting to
+   * be written to Kafka or because their completion is in flight.
+   *
+   * @return number of outstanding messages.
+   */
+  public long getOutstandingMessages() {
+    return outstandingMessages.get();
+  }
+
+  /**
+   * Queues the message for completion. Completions of a receiver are issued by a single pipeline which keeps at most
+   * the configured number of them in flight, so a burst of Kafka acknowledgements does not flood Service Bus.
+   *
+   * @param serviceBusMessage message to complete.
+   */
   void complete(ServiceBusReceivedMessage serviceBusMessage) {
     log.debug("Completing message with id {}", serviceBusMessage.getMessageId());
-    Mono<Void> complete = serviceBusReceiverAsyncClient.complete(serviceBusMessage);
-    this.messageAck.acknowledge(complete, serviceBusMessage.getMessageId());
+    Sinks.EmitResult emitResult;
+    synchronized (completions) {
+      emitResult = completions.tryEmitNext(serviceBusMessage);
+    }
+    if (emitResult.isFailure()) {
+      outstandingMessages.decrementAndGet();
+      log.warn("{} - could not queue completion of message {}: {}", receiverId, serviceBusMessage.getMessageId(),
+          emitResult);
+    }
+  }
+
+  private Mono<Void> completeInServiceBus(ServiceBusReceivedMessage serviceBusMessage) {
+    return Mono.defer(() -> messageAck.acknowledgement(serviceBusReceiverAsyncClient.complete(serviceBusMessage),
+        serviceBusMessage.getMessageId()))
+        .onErrorResume(e -> {
+          log.warn("{} - error while completing message {}", receiverId, serviceBusMessage.getMessageId(), e);
+          return Mono.empty();
+        })
+        .doFinally(signal -> outstandingMessages.decrementAndGet());
   }
 
   public static Consumer<ServiceBusReceivedMessage> onSuccessfulMessage(
@@ -153,13 +257,10 @@ public class ServiceBusReceiverFacade {
       SourceRecord sourceRecord = mapSingleServiceBusMessage(message, outputTopic, partitionKey, offsetMarker);
       ServiceBusMessageHolder serviceBusMessageHolder =
           new ServiceBusMessageHolder(message, sourceRecord, receiverId);
-      boolean offer = false;
-      while (!offer) {
-        try {
-          offer = recordsQueue.offer(serviceBusMessageHolder, FIVE_SECONDS_TIMEOUT, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-          throw new RuntimeException(e);
-        }
+      if (!recordsQueue.offer(serviceBusMessageHolder)) {
+        throw new IllegalStateException(String.format(
+            "%s - records queue is full, message %s was received beyond the requested demand", receiverId,
+            message.getMessageId()));
       }
     };
   }
@@ -40,9 +40,12 @@ public class ServiceBusReceiverFacadeInitializer {
   /**
    * Initializes map of {@link ServiceBusReceiverFacade}s from given input.
    *
-   * @param recordsQueue     Queue that receiver can write records to.
+   * @param recordsQueue     Queue that receiver can write records to, its capacity is shared equally by the
+   *                         receivers.
    * @param kcqls            {@link Kcql}s with mappings.
    * @param connectionString ServiceBus connection string.
+   * @param maxConcurrentCompletions maximum number of completions each receiver has in flight.
+   * @param maxLockRenewal   maximum duration the locks of received messages are renewed for.
    * @return map of receiverIDs to {@link ServiceBusReceiverFacade} object.
    */
   static Map<String, ServiceBusReceiverFacade> initializeReceiverFacades(
@@ -52,12 +55,16 @@ public class ServiceBusReceiverFacadeInitializer {
       int prefetchCount,
       int maxCompleteRetries,
       Duration minBackoffCompleteRetries,
+      int maxConcurrentCompletions,
+      Duration maxLockRenewal,
       AtomicReference<Throwable> serviceBusReceiverError
   ) {
+    final int maxBufferedMessagesPerReceiver = Math.max(1, recordsQueue.remainingCapacity() / kcqls.size());
     return kcqls.stream()
         .map(kcql -> {
           final ServiceBusReceiverAsyncClient serviceBusReceiverAsyncClient =
-              ServiceBusReceiverFacade.buildAsyncClient(kcql, connectionString, prefetchCount);
+              ServiceBusReceiverFacade.buildAsyncClient(kcql, connectionString, prefetchCount,
+                  maxLockRenewal);
           final String asyncClientId = FACADE_CLASS_SIMPLE_NAME + UUID.randomUUID();
           final MessageAck messageAck =
               new RetryMessageAck(RetrySpec.backoff(maxCompleteRetries, minBackoffCompleteRetries),
@@ -69,7 +76,9 @@ public class ServiceBusReceiverFacadeInitializer {
               ServiceBusReceiverFacade.onSuccessfulMessage(asyncClientId, recordsQueue, kcql.getSource(), kcql
                   .getTarget()),
               ServiceBusReceiverFacade.onError(asyncClientId, serviceBusReceiverError),
-              messageAck);
+              messageAck,
+              maxConcurrentCompletions,
+              maxBufferedMessagesPerReceiver);
         })
         .collect(Collectors.toMap(ServiceBusReceiverFacade::getReceiverId, e -> e));
   }
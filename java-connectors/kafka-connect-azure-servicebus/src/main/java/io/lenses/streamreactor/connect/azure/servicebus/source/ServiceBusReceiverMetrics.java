@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.azure.servicebus.source;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.AllArgsConstructor;
+
+/**
+ * Gauges describing the messages held by the receivers of a task. A message is outstanding from the moment it is
+ * received until its completion in Service Bus finishes, so a growing figure means either the task does not keep up
+ * with the receivers or completions do not keep up with Kafka acknowledgements, the queued records and records
+ * awaiting commit tell the two apart.
+ */
+@AllArgsConstructor
+public class ServiceBusReceiverMetrics implements ServiceBusReceiverMetricsMBean {
+
+  private final Supplier<Map<String, Long>> outstandingMessagesPerReceiver;
+  private final LongSupplier queuedRecords;
+  private final LongSupplier recordsAwaitingCommit;
+
+  /**
+   * @return the number of messages received and not completed yet by all the receivers of the task
+   */
+  public long getOutstandingMessages() {
+    return outstandingMessagesPerReceiver.get().values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /**
+   * @return the highest number of outstanding messages of a single receiver
+   */
+  public long getMaxOutstandingMessagesPerReceiver() {
+    return outstandingMessagesPerReceiver.get().values().stream().mapToLong(Long::longValue).max().orElse(0);
+  }
+
+  /**
+   * @return the number of records received and waiting to be polled by the task
+   */
+  public long getQueuedRecords() {
+    return queuedRecords.getAsLong();
+  }
+
+  /**
+   * @return the number of records polled by the task and not yet acknowledged by Kafka
+   */
+  public long getRecordsAwaitingCommit() {
+    return recordsAwaitingCommit.getAsLong();
+  }
+}
@@ -15,12 +15,15 @@
  */
 package io.lenses.streamreactor.connect.azure.servicebus.source;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.kafka.clients.producer.RecordMetadata;
@@ -64,30 +67,84 @@ public class TaskToReceiverBridge {
   }
 
   /**
-   * Polls for Consumer Records from the queue.
+   * Polls for Consumer Records from the queue, waiting for the first one to arrive if the queue is empty.
    *
-   * @return List of {@link SourceRecord} or empty list if no new messages received.
+   * @param maxWait maximum time to wait for a record to arrive.
+   * @return List of {@link SourceRecord} or empty list if no new messages received within {@code maxWait}.
    */
-  public List<SourceRecord> poll() {
-    List<ServiceBusMessageHolder> recordsFromQueue = new ArrayList<>(recordsQueueSize);
+  public List<SourceRecord> poll(Duration maxWait) {
+    final ServiceBusMessageHolder first;
+    try {
+      first = recordsQueue.poll(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      log.trace("Interrupted while waiting for records", e);
+      Thread.currentThread().interrupt();
+      return new ArrayList<>();
+    }
+    if (first == null) {
+      return new ArrayList<>();
+    }
+    List<ServiceBusMessageHolder> recordsFromQueue = new ArrayList<>(recordsQueueSize + 1);
+    recordsFromQueue.add(first);
     recordsQueue.drainTo(recordsFromQueue);
 
-    return recordsFromQueue.stream()
+    return takeRecords(recordsFromQueue);
+  }
+
+  private List<SourceRecord> takeRecords(List<ServiceBusMessageHolder> recordsFromQueue) {
+    final Map<String, Long> takenPerReceiver = new HashMap<>();
+    final List<SourceRecord> records = recordsFromQueue.stream()
         .map(messageHolder -> {
           recordsToCommitMap.put(messageHolder.getOriginalRecord().getMessageId(), messageHolder);
+          takenPerReceiver.merge(messageHolder.getReceiverId(), 1L, Long::sum);
           return messageHolder.getTranslatedRecord();
         }).collect(Collectors.toList());
+
+    takenPerReceiver.forEach((receiverId, taken) -> {
+      final ServiceBusReceiverFacade facade = receivers.get(receiverId);
+      if (facade != null) {
+        facade.requestMessages(taken);
+      }
+    });
+    return records;
   }
 
+  /**
+   * Hands the Service Bus message behind the record over to the completion pipeline of the receiver it came from.
+   *
+   * @param sourceRecord record written to Kafka.
+   * @param metadata     metadata of the record written, null if the record was filtered out.
+   */
   void commitRecordInServiceBus(SourceRecord sourceRecord, RecordMetadata metadata) {
     final String messageId = (String) sourceRecord.key();
-    final ServiceBusMessageHolder holder = recordsToCommitMap.get(messageId);
+    final ServiceBusMessageHolder holder = recordsToCommitMap.remove(messageId);
+    if (holder == null) {
+      log.warn("No message waiting to be completed with messageId {}", messageId);
+      return;
+    }
     final ServiceBusReceiverFacade facade = receivers.get(holder.getReceiverId());
 
-    log.trace("Acknowledging record topic {} partition {} offset {} messageId {}", sourceRecord.topic(), metadata
-        .partition(),
-        metadata.offset(), holder.getOriginalRecord().getMessageId());
+    log.trace("Acknowledging record topic {} messageId {} metadata {}", sourceRecord.topic(), messageId, metadata);
     facade.complete(holder.getOriginalRecord());
-    recordsToCommitMap.remove(messageId);
+  }
+
+  /**
+   * Number of messages not completed yet per receiver.
+   *
+   * @return map of receiverIDs to the number of their outstanding messages.
+   */
+  public Map<String, Long> getOutstandingMessages() {
+    return receivers.values().stream()
+        .collect(Collectors.toMap(ServiceBusReceiverFacade::getReceiverId,
+            ServiceBusReceiverFacade::getOutstandingMessages));
+  }
+
+  /**
+   * Metrics of the messages held by the receivers of the task.
+   *
+   * @return receiver metrics
+   */
+  public ServiceBusReceiverMetrics getReceiverMetrics() {
+    return new ServiceBusReceiverMetrics(this::getOutstandingMessages, recordsQueue::size, recordsToCommitMap::size);
   }
 }
@@ -16,6 +16,7 @@
 package io.lenses.streamreactor.connect.azure.servicebus.sink;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -23,6 +24,7 @@ import static org.mockito.Mockito.when;
 
 import io.lenses.streamreactor.common.util.JarManifest;
 import io.lenses.streamreactor.connect.azure.servicebus.mapping.SinkRecordToServiceBusMapper;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
@@ -90,6 +92,18 @@ class AzureServiceBusSinkTaskTest {
     verify(taskToSenderBridge).initializeSenders(topicPartitionSet);
   }
 
+  @Test
+  void closeShouldForgetPartitionsOnBridge() {
+    //given
+    Set<TopicPartition> topicPartitionSet = Set.of(new TopicPartition(TOPIC1, PARTITION1));
+
+    //when
+    testObj.close(topicPartitionSet);
+
+    //then
+    verify(taskToSenderBridge).closePartitions(topicPartitionSet);
+  }
+
   @Test
   void stopShouldCloseSendersOnBridge() {
     //when
@@ -148,4 +162,21 @@ class AzureServiceBusSinkTaskTest {
     assertEquals(OFFSET10, result.get(topic1partition1).offset());
     assertEquals(OFFSET20, result.get(topic2partition1).offset());
   }
+
+  @Test
+  void preCommitShouldThrowFailuresOfBatchesSentAsynchronously() {
+    //given
+    ServiceBusSendingException failure = new ServiceBusSendingException("Number of retries exhausted. Cause:",
+        new RuntimeException("Bad Times"));
+    when(taskToSenderBridge.pollFailures()).thenReturn(List.of(failure));
+    TopicPartition topic1partition1 = new TopicPartition(TOPIC1, PARTITION1);
+    Map<TopicPartition, OffsetAndMetadata> currentOffsets = Map.of(topic1partition1, new OffsetAndMetadata(OFFSET10));
+
+    //when
+    ServiceBusSendingException thrown =
+        assertThrows(ServiceBusSendingException.class, () -> testObj.preCommit(currentOffsets));
+
+    //then
+    assertEquals(failure, thrown);
+  }
 }
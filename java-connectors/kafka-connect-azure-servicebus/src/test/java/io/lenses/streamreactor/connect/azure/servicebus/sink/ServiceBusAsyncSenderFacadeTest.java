@@ -0,0 +1,267 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.azure.servicebus.sink;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.azure.messaging.servicebus.ServiceBusErrorSource;
+import com.azure.messaging.servicebus.ServiceBusException;
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderAsyncClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ServiceBusAsyncSenderFacadeTest {
+
+  private static final String ORIGINAL_TOPIC_NAME = "KAFKA_TOPIC";
+  private static final int PARTITION = 5;
+  private static final int MAX_IN_FLIGHT_BATCHES = 2;
+  private static final int MAX_RETRIES = 3;
+  private static final Duration RETRY_TIMEOUT = Duration.ofMillis(1);
+  private static final Duration AWAIT_TIMEOUT = Duration.ofSeconds(5);
+  private static final TopicPartition TOPIC_PARTITION = new TopicPartition(ORIGINAL_TOPIC_NAME, PARTITION);
+
+  private ServiceBusSenderAsyncClient senderClient;
+  private ServiceBusSenderMetrics metrics;
+  private Consumer<Map<TopicPartition, OffsetAndMetadata>> consumerFunction;
+
+  @BeforeEach
+  void setUp() {
+    senderClient = mock(ServiceBusSenderAsyncClient.class);
+    consumerFunction = mock(Consumer.class);
+    metrics = new ServiceBusSenderMetrics();
+  }
+
+  @Test
+  void sendMessagesShouldCommitOffsetsOnceBatchIsConfirmed() {
+    //given
+    ServiceBusAsyncSenderFacade testObj = createFacade(true);
+    ServiceBusMessageWrapper composite = mockComposite(101L);
+    ServiceBusMessageBatch senderMessageBatch = mock(ServiceBusMessageBatch.class);
+    when(senderMessageBatch.getCount()).thenReturn(1);
+    when(senderMessageBatch.tryAddMessage(any())).thenReturn(true);
+    when(senderClient.createMessageBatch()).thenReturn(Mono.just(senderMessageBatch));
+    when(senderClient.sendMessages(senderMessageBatch)).thenReturn(Mono.empty());
+
+    //when
+    testObj.sendMessages(List.of(composite));
+
+    //then
+    assertTrue(testObj.awaitInFlightBatches(AWAIT_TIMEOUT));
+    verify(senderMessageBatch).tryAddMessage(composite.getServiceBusMessage().orElseThrow());
+    verify(consumerFunction).accept(argThat(offsetMap -> offsetMap.get(TOPIC_PARTITION).offset() == 101L));
+    assertTrue(testObj.pollFailures().isEmpty());
+    assertEquals(1, metrics.getBatchCount());
+  }
+
+  @Test
+  void sendMessagesShouldSplitMessagesIntoAsManyBatchesAsNeeded() {
+    //given
+    ServiceBusAsyncSenderFacade testObj = createFacade(true);
+    ServiceBusMessageBatch fullBatch = mock(ServiceBusMessageBatch.class);
+    when(fullBatch.tryAddMessage(any())).thenReturn(true, false);
+    when(fullBatch.getCount()).thenReturn(1);
+    ServiceBusMessageBatch secondBatch = mock(ServiceBusMessageBatch.class);
+    when(secondBatch.tryAddMessage(any())).thenReturn(true);
+    when(secondBatch.getCount()).thenReturn(1);
+    when(senderClient.createMessageBatch()).thenReturn(Mono.just(fullBatch), Mono.just(secondBatch));
+    when(senderClient.sendMessages(any(ServiceBusMessageBatch.class))).thenReturn(Mono.empty());
+
+    //when
+    testObj.sendMessages(List.of(mockComposite(1L), mockComposite(2L)));
+
+    //then
+    assertTrue(testObj.awaitInFlightBatches(AWAIT_TIMEOUT));
+    verify(senderClient).sendMessages(fullBatch);
+    verify(senderClient).sendMessages(secondBatch);
+    verify(consumerFunction).accept(argThat(offsetMap -> offsetMap.get(TOPIC_PARTITION).offset() == 2L));
+    assertEquals(2, metrics.getBatchCount());
+    assertEquals(1, metrics.getSplitCount());
+  }
+
+  @Test
+  void sendMessagesShouldFailWhenAMessageDoesNotFitIntoAnEmptyBatch() {
+    //given
+    ServiceBusAsyncSenderFacade testObj = createFacade(true);
+    ServiceBusMessageBatch senderMessageBatch = mock(ServiceBusMessageBatch.class);
+    when(senderMessageBatch.tryAddMessage(any())).thenReturn(false);
+    when(senderClient.createMessageBatch()).thenReturn(Mono.just(senderMessageBatch));
+
+    //when
+    testObj.sendMessages(List.of(mockComposite(1L)));
+
+    //then
+    assertTrue(testObj.awaitInFlightBatches(AWAIT_TIMEOUT));
+    verify(senderClient, never()).sendMessages(any(ServiceBusMessageBatch.class));
+    verify(consumerFunction, never()).accept(any());
+    assertEquals(1, testObj.pollFailures().size());
+  }
+
+  @Test
+  void sendMessagesShouldNotWaitForConfirmationAndCommitOffsetsInSendOrder() {
+    //given
+    ServiceBusAsyncSenderFacade testObj = createFacade(false);
+    Sinks.Empty<Void> firstConfirmation = Sinks.empty();
+    Sinks.Empty<Void> secondConfirmation = Sinks.empty();
+    when(senderClient.sendMessages(anyList())).thenReturn(firstConfirmation.asMono(), secondConfirmation.asMono());
+
+    //when
+    testObj.sendMessages(List.of(mockComposite(1L)));
+    testObj.sendMessages(List.of(mockComposite(2L)));
+
+    //then
+    assertEquals(2, testObj.getInFlightBatches());
+
+    secondConfirmation.tryEmitEmpty();
+    verify(consumerFunction, never()).accept(any());
+
+    firstConfirmation.tryEmitEmpty();
+    InOrder inOrder = inOrder(consumerFunction);
+    inOrder.verify(consumerFunction).accept(argThat(offsetMap -> offsetMap.get(TOPIC_PARTITION).offset() == 1L));
+    inOrder.verify(consumerFunction).accept(argThat(offsetMap -> offsetMap.get(TOPIC_PARTITION).offset() == 2L));
+    assertEquals(0, testObj.getInFlightBatches());
+  }
+
+  @Test
+  void sendMessagesShouldRetryAndReportFailureWithoutCommittingOffsets() {
+    //given
+    ServiceBusAsyncSenderFacade testObj = createFacade(false);
+    ServiceBusException busException =
+        new ServiceBusException(new RuntimeException("Bad Times"), ServiceBusErrorSource.UNKNOWN);
+    when(senderClient.sendMessages(anyList())).thenReturn(Mono.error(busException));
+
+    //when
+    testObj.sendMessages(List.of(mockComposite(101L)));
+
+    //then
+    assertTrue(testObj.awaitInFlightBatches(AWAIT_TIMEOUT));
+    verify(senderClient, times(MAX_RETRIES)).sendMessages(anyList());
+    verify(consumerFunction, never()).accept(any());
+    List<ServiceBusSendingException> failures = testObj.pollFailures();
+    assertEquals(1, failures.size());
+    assertEquals(busException, failures.get(0).getCause());
+    assertTrue(testObj.pollFailures().isEmpty());
+  }
+
+  @Test
+  void sendMessagesShouldBeRejectedOnceABatchFailed() {
+    //given
+    ServiceBusAsyncSenderFacade testObj = createFacade(false);
+    ServiceBusException busException =
+        new ServiceBusException(new RuntimeException("Bad Times"), ServiceBusErrorSource.UNKNOWN);
+    when(senderClient.sendMessages(anyList()))
+        .thenReturn(Mono.error(busException), Mono.error(busException), Mono.error(busException), Mono.empty());
+    testObj.sendMessages(List.of(mockComposite(1L)));
+    assertTrue(testObj.awaitInFlightBatches(AWAIT_TIMEOUT));
+
+    //when
+    ServiceBusSendingException rejection =
+        assertThrows(ServiceBusSendingException.class, () -> testObj.sendMessages(List.of(mockComposite(2L))));
+
+    //then
+    assertEquals(busException, rejection.getCause());
+    verify(senderClient, times(MAX_RETRIES)).sendMessages(anyList());
+    verify(consumerFunction, never()).accept(any());
+    assertEquals(1, testObj.pollFailures().size());
+    assertEquals(0, testObj.getInFlightBatches());
+  }
+
+  @Test
+  void failedBatchShouldBeDroppedWithTheBatchesFollowingItWhileEarlierOnesAreCommitted() {
+    //given
+    ServiceBusAsyncSenderFacade testObj = createFacade(false);
+    Sinks.Empty<Void> firstConfirmation = Sinks.empty();
+    ServiceBusException busException =
+        new ServiceBusException(new RuntimeException("Bad Times"), ServiceBusErrorSource.UNKNOWN);
+    when(senderClient.sendMessages(anyList()))
+        .thenReturn(firstConfirmation.asMono(), Mono.error(busException), Mono.error(busException),
+            Mono.error(busException));
+
+    //when
+    testObj.sendMessages(List.of(mockComposite(1L)));
+    testObj.sendMessages(List.of(mockComposite(2L)));
+    firstConfirmation.tryEmitEmpty();
+
+    //then
+    assertTrue(testObj.awaitInFlightBatches(AWAIT_TIMEOUT));
+    verify(consumerFunction).accept(argThat(offsetMap -> offsetMap.get(TOPIC_PARTITION).offset() == 1L));
+    verify(consumerFunction, never()).accept(argThat(offsetMap -> offsetMap.get(TOPIC_PARTITION).offset() == 2L));
+    assertEquals(1, testObj.pollFailures().size());
+  }
+
+  @Test
+  void closePartitionShouldLeaveSenderWithoutPartitionsOnceAllAreClosed() {
+    //given
+    TopicPartition otherTopicPartition = new TopicPartition(ORIGINAL_TOPIC_NAME, PARTITION + 1);
+    ServiceBusAsyncSenderFacade testObj = createFacade(true);
+    testObj.initializePartition(TOPIC_PARTITION);
+    testObj.initializePartition(otherTopicPartition);
+
+    //when
+    testObj.closePartition(TOPIC_PARTITION);
+    boolean assignedAfterFirstClose = testObj.hasAssignedPartitions();
+    testObj.closePartition(otherTopicPartition);
+
+    //then
+    assertTrue(assignedAfterFirstClose);
+    assertFalse(testObj.hasAssignedPartitions());
+  }
+
+  @Test
+  void closeShouldCloseSender() {
+    //when
+    createFacade(true).close(AWAIT_TIMEOUT);
+
+    //then
+    verify(senderClient).close();
+  }
+
+  private ServiceBusAsyncSenderFacade createFacade(boolean batchEnabled) {
+    return new ServiceBusAsyncSenderFacade(consumerFunction, ORIGINAL_TOPIC_NAME, senderClient, batchEnabled,
+        MAX_IN_FLIGHT_BATCHES, MAX_RETRIES, RETRY_TIMEOUT, metrics);
+  }
+
+  private static ServiceBusMessageWrapper mockComposite(long offset) {
+    ServiceBusMessageWrapper composite = mock(ServiceBusMessageWrapper.class);
+    when(composite.getOriginalKafkaOffset()).thenReturn(offset);
+    when(composite.getOriginalKafkaPartition()).thenReturn(PARTITION);
+    when(composite.getServiceBusMessage()).thenReturn(Optional.of(mock(ServiceBusMessage.class)));
+    return composite;
+  }
+}
@@ -18,11 +18,14 @@ package io.lenses.streamreactor.connect.azure.servicebus.sink;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,6 +41,7 @@ import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 class ServiceBusSenderFacadeTest {
@@ -45,12 +49,15 @@ class ServiceBusSenderFacadeTest {
   private static final String ORIGINAL_TOPIC_NAME = "KAFKA_TOPIC";
   private static final ServiceBusSenderClient SERVICE_BUS_SENDER_CLIENT = mock(ServiceBusSenderClient.class);
   private static Consumer<Map<TopicPartition, OffsetAndMetadata>> consumerFunction;
+  private ServiceBusSenderMetrics metrics;
   private ServiceBusSenderFacade testObj;
 
   @BeforeEach
   void setUp() {
     consumerFunction = mock(Consumer.class);
-    testObj = new ServiceBusSenderFacade(consumerFunction, ORIGINAL_TOPIC_NAME, SERVICE_BUS_SENDER_CLIENT, true);
+    metrics = new ServiceBusSenderMetrics();
+    testObj =
+        new ServiceBusSenderFacade(consumerFunction, ORIGINAL_TOPIC_NAME, SERVICE_BUS_SENDER_CLIENT, true, metrics);
   }
 
   @Test
@@ -91,6 +98,7 @@ class ServiceBusSenderFacadeTest {
 
     ServiceBusMessageBatch senderMessageBatch = mock(ServiceBusMessageBatch.class);
     when(senderMessageBatch.getCount()).thenReturn(1);
+    when(senderMessageBatch.tryAddMessage(busMessage)).thenReturn(true);
     when(SERVICE_BUS_SENDER_CLIENT.createMessageBatch()).thenReturn(senderMessageBatch);
 
     //when
@@ -101,13 +109,15 @@ class ServiceBusSenderFacadeTest {
     verify(senderMessageBatch).tryAddMessage(busMessage);
     verify(SERVICE_BUS_SENDER_CLIENT).sendMessages(senderMessageBatch);
     verify(consumerFunction).accept(argThat(offsetMap -> offsetMap.get(topicPartition).offset() == offset));
+    assertEquals(1, metrics.getBatchCount());
   }
 
   @Test
   void sendMessagesShouldSendSeparatelyAndUpdateOffsetsIfBatchingDisabled() {
     //given
     Mockito.reset(SERVICE_BUS_SENDER_CLIENT);
-    testObj = new ServiceBusSenderFacade(consumerFunction, ORIGINAL_TOPIC_NAME, SERVICE_BUS_SENDER_CLIENT, false);
+    testObj =
+        new ServiceBusSenderFacade(consumerFunction, ORIGINAL_TOPIC_NAME, SERVICE_BUS_SENDER_CLIENT, false, metrics);
 
     final long offset = 101L;
     final int partition = 5;
@@ -172,6 +182,7 @@ class ServiceBusSenderFacadeTest {
     ServiceBusMessageBatch senderMessageBatch = mock(ServiceBusMessageBatch.class);
     when(SERVICE_BUS_SENDER_CLIENT.createMessageBatch()).thenReturn(senderMessageBatch);
     when(senderMessageBatch.getCount()).thenReturn(1);
+    when(senderMessageBatch.tryAddMessage(busMessage)).thenReturn(true);
     doThrow(busException).when(SERVICE_BUS_SENDER_CLIENT).sendMessages(senderMessageBatch);
 
     //when
@@ -180,5 +191,135 @@ class ServiceBusSenderFacadeTest {
     //then
     assertFalse(serviceBusException.isEmpty());
     assertEquals(serviceBusException.get(), busException);
+    verify(consumerFunction, never()).accept(any());
+  }
+
+  @Test
+  void sendMessagesShouldSplitIntoNewBatchWhenCurrentOneIsFull() {
+    //given
+    Mockito.reset(SERVICE_BUS_SENDER_CLIENT);
+    final int partition = 5;
+    final TopicPartition topicPartition = new TopicPartition(ORIGINAL_TOPIC_NAME, partition);
+    ServiceBusMessageWrapper first = mockComposite(partition, 1L);
+    ServiceBusMessageWrapper second = mockComposite(partition, 2L);
+
+    ServiceBusMessageBatch fullBatch = mock(ServiceBusMessageBatch.class);
+    when(fullBatch.getCount()).thenReturn(1);
+    when(fullBatch.tryAddMessage(any())).thenReturn(true, false);
+    ServiceBusMessageBatch secondBatch = mock(ServiceBusMessageBatch.class);
+    when(secondBatch.getCount()).thenReturn(1);
+    when(secondBatch.tryAddMessage(any())).thenReturn(true);
+    when(SERVICE_BUS_SENDER_CLIENT.createMessageBatch()).thenReturn(fullBatch, secondBatch);
+
+    //when
+    Optional<ServiceBusException> serviceBusException = testObj.sendMessages(List.of(first, second));
+
+    //then
+    assertTrue(serviceBusException.isEmpty());
+    InOrder inOrder = inOrder(SERVICE_BUS_SENDER_CLIENT, consumerFunction);
+    inOrder.verify(SERVICE_BUS_SENDER_CLIENT).sendMessages(fullBatch);
+    inOrder.verify(consumerFunction).accept(argThat(offsetMap -> offsetMap.get(topicPartition).offset() == 1L));
+    inOrder.verify(SERVICE_BUS_SENDER_CLIENT).sendMessages(secondBatch);
+    inOrder.verify(consumerFunction).accept(argThat(offsetMap -> offsetMap.get(topicPartition).offset() == 2L));
+    assertEquals(2, metrics.getBatchCount());
+    assertEquals(1, metrics.getSplitCount());
+  }
+
+  @Test
+  void sendMessagesShouldCommitOnlySentBatchesAndNotResendThemOnRetry() {
+    //given
+    Mockito.reset(SERVICE_BUS_SENDER_CLIENT);
+    final int partition = 5;
+    final TopicPartition topicPartition = new TopicPartition(ORIGINAL_TOPIC_NAME, partition);
+    ServiceBusMessageWrapper first = mockComposite(partition, 1L);
+    ServiceBusMessageWrapper second = mockComposite(partition, 2L);
+    ServiceBusException busException = mock(ServiceBusException.class);
+
+    ServiceBusMessageBatch fullBatch = mock(ServiceBusMessageBatch.class);
+    when(fullBatch.getCount()).thenReturn(1);
+    when(fullBatch.tryAddMessage(any())).thenReturn(true, false);
+    ServiceBusMessageBatch failingBatch = mock(ServiceBusMessageBatch.class);
+    when(failingBatch.getCount()).thenReturn(1);
+    when(failingBatch.tryAddMessage(any())).thenReturn(true);
+    ServiceBusMessageBatch retriedBatch = mock(ServiceBusMessageBatch.class);
+    when(retriedBatch.getCount()).thenReturn(1);
+    when(retriedBatch.tryAddMessage(any())).thenReturn(true);
+    when(SERVICE_BUS_SENDER_CLIENT.createMessageBatch()).thenReturn(fullBatch, failingBatch, retriedBatch);
+    doThrow(busException).when(SERVICE_BUS_SENDER_CLIENT).sendMessages(failingBatch);
+
+    //when
+    Optional<ServiceBusException> failure = testObj.sendMessages(List.of(first, second));
+    Optional<ServiceBusException> retry = testObj.sendMessages(List.of(first, second));
+
+    //then
+    assertEquals(Optional.of(busException), failure);
+    assertTrue(retry.isEmpty());
+    verify(consumerFunction).accept(argThat(offsetMap -> offsetMap.get(topicPartition).offset() == 1L));
+    verify(consumerFunction).accept(argThat(offsetMap -> offsetMap.get(topicPartition).offset() == 2L));
+    verify(retriedBatch).tryAddMessage(second.getServiceBusMessage().orElseThrow());
+    verify(retriedBatch, never()).tryAddMessage(first.getServiceBusMessage().orElseThrow());
+  }
+
+  @Test
+  void sendMessagesShouldReturnExceptionIfMessageDoesNotFitIntoAnEmptyBatch() {
+    //given
+    Mockito.reset(SERVICE_BUS_SENDER_CLIENT);
+    ServiceBusMessageBatch emptyBatch = mock(ServiceBusMessageBatch.class);
+    when(emptyBatch.getCount()).thenReturn(0);
+    when(emptyBatch.tryAddMessage(any())).thenReturn(false);
+    when(SERVICE_BUS_SENDER_CLIENT.createMessageBatch()).thenReturn(emptyBatch);
+
+    //when
+    Optional<ServiceBusException> serviceBusException = testObj.sendMessages(List.of(mockComposite(5, 1L)));
+
+    //then
+    assertFalse(serviceBusException.isEmpty());
+    verify(SERVICE_BUS_SENDER_CLIENT, never()).sendMessages(any(ServiceBusMessageBatch.class));
+    verify(consumerFunction, never()).accept(any());
+  }
+
+  @Test
+  void sendMessagesShouldSendAgainMessagesOfAPartitionAssignedAgain() {
+    //given
+    ServiceBusSenderClient senderClient = mock(ServiceBusSenderClient.class);
+    testObj = new ServiceBusSenderFacade(consumerFunction, ORIGINAL_TOPIC_NAME, senderClient, false, metrics);
+    TopicPartition topicPartition = new TopicPartition(ORIGINAL_TOPIC_NAME, 5);
+    ServiceBusMessageWrapper composite = mockComposite(5, 101L);
+    testObj.initializePartition(topicPartition);
+    testObj.sendMessages(List.of(composite));
+
+    //when
+    testObj.initializePartition(topicPartition);
+    testObj.sendMessages(List.of(composite));
+
+    //then
+    verify(senderClient, times(2)).sendMessages(anyList());
+  }
+
+  @Test
+  void sendMessagesShouldSendAgainMessagesOfAClosedPartition() {
+    //given
+    ServiceBusSenderClient senderClient = mock(ServiceBusSenderClient.class);
+    testObj = new ServiceBusSenderFacade(consumerFunction, ORIGINAL_TOPIC_NAME, senderClient, false, metrics);
+    TopicPartition topicPartition = new TopicPartition(ORIGINAL_TOPIC_NAME, 5);
+    ServiceBusMessageWrapper composite = mockComposite(5, 101L);
+    testObj.sendMessages(List.of(composite));
+    testObj.sendMessages(List.of(composite));
+    verify(senderClient, times(1)).sendMessages(anyList());
+
+    //when
+    testObj.closePartition(topicPartition);
+    testObj.sendMessages(List.of(composite));
+
+    //then
+    verify(senderClient, times(2)).sendMessages(anyList());
+  }
+
+  private static ServiceBusMessageWrapper mockComposite(int partition, long offset) {
+    ServiceBusMessageWrapper composite = mock(ServiceBusMessageWrapper.class);
+    when(composite.getOriginalKafkaOffset()).thenReturn(offset);
+    when(composite.getOriginalKafkaPartition()).thenReturn(partition);
+    when(composite.getServiceBusMessage()).thenReturn(Optional.of(mock(ServiceBusMessage.class)));
+    return composite;
   }
 }
@@ -18,9 +18,11 @@ package io.lenses.streamreactor.connect.azure.servicebus.sink;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -32,10 +34,12 @@ import io.lenses.streamreactor.connect.azure.servicebus.config.AzureServiceBusCo
 import io.lenses.streamreactor.connect.azure.servicebus.config.AzureServiceBusSinkConfig;
 import io.lenses.streamreactor.connect.azure.servicebus.mapping.ServiceBusSinkMapping;
 import io.lenses.streamreactor.connect.azure.servicebus.util.ServiceBusKcqlProperties;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
@@ -75,6 +79,7 @@ class TaskToSenderBridgeTest {
 
     when(SINK_CONFIG.getInt(AzureServiceBusConfigConstants.MAX_NUMBER_OF_RETRIES)).thenReturn(MAX_RETRIES);
     when(SINK_CONFIG.getInt(AzureServiceBusConfigConstants.TIMEOUT_BETWEEN_RETRIES)).thenReturn(RETRY_TIMEOUT);
+    when(SINK_CONFIG.getBoolean(AzureServiceBusConfigConstants.SINK_ASYNC_SEND_ENABLED)).thenReturn(false);
     when(SINK_CONFIG.getPassword(AzureServiceBusConfigConstants.CONNECTION_STRING)).thenReturn(new Password(
         CONNECTION_STRING));
 
@@ -218,6 +223,91 @@ class TaskToSenderBridgeTest {
     verify(senderFacade2).sendMessages(argThat(messagesCollection -> messagesCollection.contains(serviceBusRecord2)));
   }
 
+  @Test
+  void sendMessagesShouldDispatchToAsyncSendersWithoutWaitingAndReturnEarlierFailures() {
+    //given
+    ServiceBusAsyncSenderFacade asyncSenderFacade = mock(ServiceBusAsyncSenderFacade.class);
+    ServiceBusAsyncSenderFacade asyncSenderFacade2 = mock(ServiceBusAsyncSenderFacade.class);
+    ServiceBusSendingException earlierFailure =
+        new ServiceBusSendingException(SENDER_EXCEPTION_MSG, new RuntimeException("Bad Times"));
+    when(asyncSenderFacade.pollFailures()).thenReturn(List.of());
+    when(asyncSenderFacade2.pollFailures()).thenReturn(List.of(earlierFailure));
+    when(SINK_CONFIG.getBoolean(AzureServiceBusConfigConstants.SINK_ASYNC_SEND_ENABLED)).thenReturn(true);
+
+    ServiceBusMessageWrapper serviceBusRecord = mockServiceBusRecordComposite(KAFKA_TOPIC);
+    ServiceBusMessageWrapper serviceBusRecord2 = mockServiceBusRecordComposite(KAFKA_TOPIC2);
+
+    testObj =
+        new TaskToSenderBridge(SINK_CONFIG, Map.of(),
+            Map.of(KAFKA_TOPIC, asyncSenderFacade, KAFKA_TOPIC2, asyncSenderFacade2),
+            COMMIT_FUNCTION, Map.of(KAFKA_TOPIC, sinkMapping));
+
+    //when
+    List<ServiceBusSendingException> serviceBusSendingExceptions =
+        testObj.sendMessages(Set.of(serviceBusRecord, serviceBusRecord2));
+
+    //then
+    assertEquals(List.of(earlierFailure), serviceBusSendingExceptions);
+    verify(asyncSenderFacade).sendMessages(argThat(messages -> messages.contains(serviceBusRecord)));
+    verify(asyncSenderFacade2).sendMessages(argThat(messages -> messages.contains(serviceBusRecord2)));
+    verifyNoInteractions(senderFacade);
+  }
+
+  @Test
+  void initializeSendersShouldResetPartitionsOfExistingSenders() {
+    //given
+    TopicPartition topicPartition = new TopicPartition(KAFKA_TOPIC, 3);
+    when(sinkMapping.getInputKafkaTopic()).thenReturn(KAFKA_TOPIC);
+
+    //when
+    Optional<ConfigException> configException = testObj.initializeSenders(Set.of(topicPartition));
+
+    //then
+    assertTrue(configException.isEmpty());
+    verify(senderFacade).initializePartition(topicPartition);
+  }
+
+  @Test
+  void closePartitionsShouldForgetOffsetsOfTheirSenders() {
+    //given
+    TopicPartition topicPartition = new TopicPartition(KAFKA_TOPIC, 3);
+    TopicPartition unknownTopicPartition = new TopicPartition(KAFKA_TOPIC2, 3);
+
+    //when
+    testObj.closePartitions(Set.of(topicPartition, unknownTopicPartition));
+
+    //then
+    verify(senderFacade).closePartition(topicPartition);
+  }
+
+  @Test
+  void closePartitionsShouldCloseAndDropAsyncSendersLeftWithoutPartitions() {
+    //given
+    TopicPartition topicPartition = new TopicPartition(KAFKA_TOPIC, 3);
+    TopicPartition topicPartition2 = new TopicPartition(KAFKA_TOPIC2, 3);
+    ServiceBusAsyncSenderFacade asyncSenderFacade = mock(ServiceBusAsyncSenderFacade.class);
+    ServiceBusAsyncSenderFacade asyncSenderFacade2 = mock(ServiceBusAsyncSenderFacade.class);
+    when(asyncSenderFacade.hasAssignedPartitions()).thenReturn(false);
+    when(asyncSenderFacade2.hasAssignedPartitions()).thenReturn(true);
+    Map<String, ServiceBusAsyncSenderFacade> asyncSendersStore =
+        new ConcurrentHashMap<>(Map.of(KAFKA_TOPIC, asyncSenderFacade, KAFKA_TOPIC2, asyncSenderFacade2));
+    when(SINK_CONFIG.getBoolean(AzureServiceBusConfigConstants.SINK_ASYNC_SEND_ENABLED)).thenReturn(true);
+
+    testObj =
+        new TaskToSenderBridge(SINK_CONFIG, Map.of(), asyncSendersStore, COMMIT_FUNCTION,
+            Map.of(KAFKA_TOPIC, sinkMapping));
+
+    //when
+    testObj.closePartitions(Set.of(topicPartition, topicPartition2));
+
+    //then
+    verify(asyncSenderFacade).closePartition(topicPartition);
+    verify(asyncSenderFacade).close(any(Duration.class));
+    verify(asyncSenderFacade2).closePartition(topicPartition2);
+    verify(asyncSenderFacade2, never()).close(any(Duration.class));
+    assertEquals(Map.of(KAFKA_TOPIC2, asyncSenderFacade2), asyncSendersStore);
+  }
+
   @Test
   void closeSenderClientsShouldCloseEachClient() {
     //when
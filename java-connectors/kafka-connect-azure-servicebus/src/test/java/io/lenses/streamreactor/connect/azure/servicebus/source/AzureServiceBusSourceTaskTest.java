@@ -33,6 +33,7 @@ import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -45,7 +46,7 @@ class AzureServiceBusSourceTaskTest {
     AzureServiceBusSourceTask task = new AzureServiceBusSourceTask();
     task.initialize(taskToReceiverBridge);
     //given
-    when(taskToReceiverBridge.poll()).thenReturn(emptyList());
+    when(taskToReceiverBridge.poll(any(Duration.class))).thenReturn(emptyList());
     List<SourceRecord> poll = task.poll();
 
     //then
@@ -60,13 +61,13 @@ class AzureServiceBusSourceTaskTest {
     //given
     SourceRecord mockedRecord = mock(SourceRecord.class);
     List<SourceRecord> sourceRecords = singletonList(mockedRecord);
-    when(taskToReceiverBridge.poll()).thenReturn(sourceRecords);
+    when(taskToReceiverBridge.poll(any(Duration.class))).thenReturn(sourceRecords);
 
     //when
     List<SourceRecord> poll = task.poll();
 
     //then
-    verify(taskToReceiverBridge).poll();
+    verify(taskToReceiverBridge).poll(any(Duration.class));
     assertNotNull(poll);
     assertEquals(sourceRecords, poll);
   }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.azure.servicebus.source;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageAckTest {
+
+  private final MessageAck messageAck = (mono, msgId) -> mono.subscribe();
+
+  @Test
+  void defaultAcknowledgementShouldCompleteOnlyOnceTheMessageIsAcknowledged() {
+    //given
+    Sinks.Empty<Void> completion = Sinks.empty();
+    AtomicBoolean acknowledged = new AtomicBoolean();
+
+    //when
+    messageAck.acknowledgement(completion.asMono(), "msgId")
+        .doOnTerminate(() -> acknowledged.set(true))
+        .subscribe();
+
+    //then
+    assertFalse(acknowledged.get());
+    completion.tryEmitEmpty();
+    assertTrue(acknowledged.get());
+  }
+
+  @Test
+  void defaultAcknowledgementShouldCompleteWhenAcknowledgingFailed() {
+    //given
+    AtomicBoolean acknowledged = new AtomicBoolean();
+
+    //when
+    messageAck.acknowledgement(Mono.error(new RuntimeException("Failed")), "msgId")
+        .doOnTerminate(() -> acknowledged.set(true))
+        .subscribe();
+
+    //then
+    assertTrue(acknowledged.get());
+  }
+
+  @Test
+  void defaultAcknowledgementShouldNotAcknowledgeUntilSubscribed() {
+    //given
+    AtomicBoolean subscribed = new AtomicBoolean();
+
+    //when
+    Mono<Void> acknowledgement =
+        messageAck.acknowledgement(Mono.<Void>empty().doOnSubscribe(s -> subscribed.set(true)), "msgId");
+
+    //then
+    assertFalse(subscribed.get());
+    acknowledgement.subscribe();
+    assertTrue(subscribed.get());
+  }
+}
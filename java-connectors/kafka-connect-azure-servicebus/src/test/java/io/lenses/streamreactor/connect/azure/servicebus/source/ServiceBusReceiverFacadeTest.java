@@ -29,6 +29,7 @@ import org.apache.kafka.connect.data.Struct;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.util.retry.RetrySpec;
 
 import java.time.Duration;
@@ -40,11 +41,13 @@ import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static io.lenses.streamreactor.connect.azure.servicebus.source.Helper.createMockedServiceBusMessage;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -65,7 +68,7 @@ class ServiceBusReceiverFacadeTest {
 
     //when
     assertThrows(IllegalArgumentException.class, () -> ServiceBusReceiverFacade.buildAsyncClient(kcql,
-        badFormatConnectionString, 1000)
+        badFormatConnectionString, 1000, Duration.ofMinutes(5))
     );
   }
 
@@ -77,7 +80,11 @@ class ServiceBusReceiverFacadeTest {
     ServiceBusReceivedMessage mockedMessage = mock(ServiceBusReceivedMessage.class);
     AtomicReference<Throwable> serviceBusReceiverError = new AtomicReference<>();
     AtomicReference<Integer> ackCounter = new AtomicReference<>(0);
-    MessageAck msgAck = (mono, msgId) -> ackCounter.getAndSet(ackCounter.get() + 1);
+    when(receiverAsyncClient.complete(mockedMessage)).thenReturn(Mono.empty());
+    MessageAck msgAck = (mono, msgId) -> {
+      ackCounter.getAndSet(ackCounter.get() + 1);
+      mono.subscribe();
+    };
     //when
     ServiceBusReceiverFacade serviceBusReceiverFacade =
         new ServiceBusReceiverFacade(SOME_RECEIVER_ID,
@@ -93,6 +100,115 @@ class ServiceBusReceiverFacadeTest {
     assert ackCounter.get() == 1;
   }
 
+  @Test
+  void completionsShouldBeIssuedWithBoundedConcurrency() {
+    //given
+    ServiceBusReceiverAsyncClient receiverAsyncClient = mock(ServiceBusReceiverAsyncClient.class);
+    when(receiverAsyncClient.receiveMessages()).thenReturn(Flux.empty());
+    ServiceBusReceivedMessage message1 = mock(ServiceBusReceivedMessage.class);
+    ServiceBusReceivedMessage message2 = mock(ServiceBusReceivedMessage.class);
+    ServiceBusReceivedMessage message3 = mock(ServiceBusReceivedMessage.class);
+    Sinks.Empty<Void> completion1 = Sinks.empty();
+    when(receiverAsyncClient.complete(message1)).thenReturn(completion1.asMono());
+    when(receiverAsyncClient.complete(message2)).thenReturn(Sinks.<Void>empty().asMono());
+    when(receiverAsyncClient.complete(message3)).thenReturn(Mono.empty());
+    MessageAck msgAck = RetryMessageAck.create(RetrySpec.backoff(3, Duration.ofMillis(100)));
+
+    ServiceBusReceiverFacade serviceBusReceiverFacade =
+        new ServiceBusReceiverFacade(SOME_RECEIVER_ID,
+            receiverAsyncClient,
+            ServiceBusReceiverFacade
+                .onSuccessfulMessage(SOME_RECEIVER_ID, mockedQueue, "from", "to"),
+            ServiceBusReceiverFacade.onError(SOME_RECEIVER_ID, new AtomicReference<>()),
+            msgAck,
+            2,
+            10);
+
+    //when
+    serviceBusReceiverFacade.complete(message1);
+    serviceBusReceiverFacade.complete(message2);
+    serviceBusReceiverFacade.complete(message3);
+
+    //then
+    verify(receiverAsyncClient).complete(message1);
+    verify(receiverAsyncClient).complete(message2);
+    verify(receiverAsyncClient, never()).complete(message3);
+
+    completion1.tryEmitEmpty();
+    verify(receiverAsyncClient).complete(message3);
+  }
+
+  @Test
+  void outstandingMessagesShouldCountReceivedMessagesUntilCompleted() {
+    //given
+    ServiceBusReceiverAsyncClient receiverAsyncClient = mock(ServiceBusReceiverAsyncClient.class);
+    ServiceBusReceivedMessage message1 = mock(ServiceBusReceivedMessage.class);
+    ServiceBusReceivedMessage message2 = mock(ServiceBusReceivedMessage.class);
+    when(receiverAsyncClient.receiveMessages()).thenReturn(Flux.just(message1, message2));
+    when(receiverAsyncClient.complete(message1)).thenReturn(Mono.empty());
+    MessageAck msgAck = RetryMessageAck.create(RetrySpec.backoff(3, Duration.ofMillis(100)));
+
+    ServiceBusReceiverFacade serviceBusReceiverFacade =
+        new ServiceBusReceiverFacade(SOME_RECEIVER_ID,
+            receiverAsyncClient,
+            message -> {
+            },
+            ServiceBusReceiverFacade.onError(SOME_RECEIVER_ID, new AtomicReference<>()),
+            msgAck);
+    assertEquals(2L, serviceBusReceiverFacade.getOutstandingMessages());
+
+    //when
+    serviceBusReceiverFacade.complete(message1);
+
+    //then
+    assertEquals(1L, serviceBusReceiverFacade.getOutstandingMessages());
+  }
+
+  @Test
+  void receiverShouldOnlyPullTheRequestedNumberOfMessages() {
+    //given
+    ServiceBusReceiverAsyncClient receiverAsyncClient = mock(ServiceBusReceiverAsyncClient.class);
+    List<ServiceBusReceivedMessage> messages = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      messages.add(mock(ServiceBusReceivedMessage.class));
+    }
+    when(receiverAsyncClient.receiveMessages()).thenReturn(Flux.fromIterable(messages));
+    List<ServiceBusReceivedMessage> received = new ArrayList<>();
+
+    //when
+    ServiceBusReceiverFacade serviceBusReceiverFacade =
+        new ServiceBusReceiverFacade(SOME_RECEIVER_ID,
+            receiverAsyncClient,
+            received::add,
+            ServiceBusReceiverFacade.onError(SOME_RECEIVER_ID, new AtomicReference<>()),
+            RetryMessageAck.create(RetrySpec.backoff(3, Duration.ofMillis(100))),
+            2,
+            2);
+
+    //then
+    assertEquals(messages.subList(0, 2), received);
+
+    serviceBusReceiverFacade.requestMessages(2);
+    assertEquals(messages.subList(0, 4), received);
+  }
+
+  @Test
+  void onSuccessfulMessageShouldFailWhenTheQueueIsFull() {
+    //given
+    BlockingQueue<ServiceBusMessageHolder> recordsQueue = new ArrayBlockingQueue<>(1);
+    ServiceBusReceivedMessage message1 = createMockedServiceBusMessage(1, OffsetDateTime.now(), Duration.ofSeconds(10));
+    ServiceBusReceivedMessage message2 = createMockedServiceBusMessage(2, OffsetDateTime.now(), Duration.ofSeconds(10));
+    Consumer<ServiceBusReceivedMessage> onMessage =
+        ServiceBusReceiverFacade.onSuccessfulMessage(SOME_RECEIVER_ID, recordsQueue, "inputBus", "outputTopic");
+    onMessage.accept(message1);
+
+    //when
+    assertThrows(IllegalStateException.class, () -> onMessage.accept(message2));
+
+    //then
+    assertEquals(1, recordsQueue.size());
+  }
+
   @Test
   void failingCompleteShouldCallOnError() {
     //given
@@ -16,10 +16,14 @@
 package io.lenses.streamreactor.connect.azure.servicebus.source;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -85,10 +89,126 @@ class TaskToReceiverBridgeTest {
 
     //when
     testObj = new TaskToReceiverBridge(sourceRecordBlockingQueue, receivers);
-    List<SourceRecord> polled = testObj.poll();
+    List<SourceRecord> polled = testObj.poll(Duration.ZERO);
 
     //then
     assertThat(polled).hasSize(arrayBlockingQueueCapacity).containsExactlyElementsOf(allSourceRecords);
+    verify(receiver1).requestMessages(arrayBlockingQueueCapacity);
+  }
+
+  @Test
+  void pollWithWaitShouldReturnRecordsAndRequestAsManyMessages() {
+    //given
+    BlockingQueue<ServiceBusMessageHolder> sourceRecordBlockingQueue = new ArrayBlockingQueue<>(10);
+    ServiceBusReceiverFacade receiver1 = mock(ServiceBusReceiverFacade.class);
+    Map<String, ServiceBusReceiverFacade> receivers = Map.of(RECEIVER_ID_1, receiver1);
+    SourceRecord record1 = createMockedSourceRecord("MSGID1", sourceRecordBlockingQueue);
+    SourceRecord record2 = createMockedSourceRecord("MSGID2", sourceRecordBlockingQueue);
+
+    //when
+    testObj = new TaskToReceiverBridge(sourceRecordBlockingQueue, receivers);
+    List<SourceRecord> polled = testObj.poll(Duration.ofSeconds(5));
+
+    //then
+    assertThat(polled).containsExactly(record1, record2);
+    verify(receiver1).requestMessages(2);
+  }
+
+  @Test
+  void pollWithWaitShouldReturnEmptyListWhenNothingArrives() {
+    //given
+    ServiceBusReceiverFacade receiver1 = mock(ServiceBusReceiverFacade.class);
+    testObj = new TaskToReceiverBridge(new ArrayBlockingQueue<>(10), Map.of(RECEIVER_ID_1, receiver1));
+
+    //when
+    List<SourceRecord> polled = testObj.poll(Duration.ofMillis(10));
+
+    //then
+    assertThat(polled).isEmpty();
+    verify(receiver1, never()).requestMessages(anyLong());
+  }
+
+  @Test
+  void commitRecordShouldCompleteMessageInItsReceiverOnlyOnce() {
+    //given
+    BlockingQueue<ServiceBusMessageHolder> sourceRecordBlockingQueue = new ArrayBlockingQueue<>(10);
+    ServiceBusReceiverFacade receiver1 = mock(ServiceBusReceiverFacade.class);
+    ServiceBusReceiverFacade receiver2 = mock(ServiceBusReceiverFacade.class);
+    Map<String, ServiceBusReceiverFacade> receivers =
+        Map.of(
+            RECEIVER_ID_1, receiver1,
+            RECEIVER_ID_2, receiver2
+        );
+    ServiceBusReceivedMessage busReceivedMessage = mock(ServiceBusReceivedMessage.class);
+    when(busReceivedMessage.getMessageId()).thenReturn("MSGID");
+    SourceRecord sourceRecord = mock(SourceRecord.class);
+    when(sourceRecord.key()).thenReturn("MSGID");
+    sourceRecordBlockingQueue.add(new ServiceBusMessageHolder(busReceivedMessage, sourceRecord, RECEIVER_ID_2));
+
+    testObj = new TaskToReceiverBridge(sourceRecordBlockingQueue, receivers);
+    testObj.poll(Duration.ZERO);
+
+    //when
+    testObj.commitRecordInServiceBus(sourceRecord, null);
+    testObj.commitRecordInServiceBus(sourceRecord, null);
+
+    //then
+    verify(receiver2).complete(busReceivedMessage);
+    verify(receiver1, never()).complete(any());
+  }
+
+  @Test
+  void getOutstandingMessagesShouldReportEachReceiver() {
+    //given
+    ServiceBusReceiverFacade receiver1 = mock(ServiceBusReceiverFacade.class);
+    ServiceBusReceiverFacade receiver2 = mock(ServiceBusReceiverFacade.class);
+    when(receiver1.getReceiverId()).thenReturn(RECEIVER_ID_1);
+    when(receiver1.getOutstandingMessages()).thenReturn(3L);
+    when(receiver2.getReceiverId()).thenReturn(RECEIVER_ID_2);
+    when(receiver2.getOutstandingMessages()).thenReturn(0L);
+    Map<String, ServiceBusReceiverFacade> receivers =
+        Map.of(
+            RECEIVER_ID_1, receiver1,
+            RECEIVER_ID_2, receiver2
+        );
+
+    //when
+    testObj = new TaskToReceiverBridge(blockingQueue, receivers);
+
+    //then
+    assertThat(testObj.getOutstandingMessages()).containsExactlyInAnyOrderEntriesOf(
+        Map.of(RECEIVER_ID_1, 3L, RECEIVER_ID_2, 0L));
+  }
+
+  @Test
+  void receiverMetricsShouldReportMessagesHeldByTheTask() {
+    //given
+    ServiceBusReceiverFacade receiver1 = mock(ServiceBusReceiverFacade.class);
+    ServiceBusReceiverFacade receiver2 = mock(ServiceBusReceiverFacade.class);
+    when(receiver1.getReceiverId()).thenReturn(RECEIVER_ID_1);
+    when(receiver1.getOutstandingMessages()).thenReturn(3L);
+    when(receiver2.getReceiverId()).thenReturn(RECEIVER_ID_2);
+    when(receiver2.getOutstandingMessages()).thenReturn(2L);
+    Map<String, ServiceBusReceiverFacade> receivers =
+        Map.of(
+            RECEIVER_ID_1, receiver1,
+            RECEIVER_ID_2, receiver2
+        );
+    ArrayBlockingQueue<ServiceBusMessageHolder> sourceRecordBlockingQueue = new ArrayBlockingQueue<>(10);
+    testObj = new TaskToReceiverBridge(sourceRecordBlockingQueue, receivers);
+    createMockedSourceRecord("1", sourceRecordBlockingQueue);
+    testObj.poll(Duration.ZERO);
+    createMockedSourceRecord("2", sourceRecordBlockingQueue);
+    createMockedSourceRecord("3", sourceRecordBlockingQueue);
+
+    //when
+    ServiceBusReceiverMetrics metrics = testObj.getReceiverMetrics();
+
+    //then
+    assertThat(metrics.getOutstandingMessages()).isEqualTo(5L);
+    assertThat(metrics.getMaxOutstandingMessagesPerReceiver()).isEqualTo(3L);
+    assertThat(metrics.getQueuedRecords()).isEqualTo(2L);
+    assertThat(metrics.getRecordsAwaitingCommit()).isEqualTo(1L);
   }
 
   private static SourceRecord createMockedSourceRecord(String format,
@@ -100,6 +220,7 @@ class TaskToReceiverBridgeTest {
 
     ServiceBusMessageHolder mockedRecord = mock(ServiceBusMessageHolder.class);
     when(mockedRecord.getOriginalRecord()).thenReturn(busReceivedMessage);
+    when(mockedRecord.getReceiverId()).thenReturn(RECEIVER_ID_1);
     when(mockedRecord.getTranslatedRecord()).thenReturn(sourceRecord);
 
     try {
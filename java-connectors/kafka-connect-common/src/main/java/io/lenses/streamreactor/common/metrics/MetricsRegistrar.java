@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.common.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registers the metrics MBeans of the connectors with the platform MBean server, so they can be read
+ * over JMX next to the metrics of Kafka Connect.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class MetricsRegistrar {
+
+  private static final String SPECIAL_CHARACTERS = ",=:\"*?\n";
+  private static final AtomicInteger TASKS = new AtomicInteger();
+
+  /**
+   * Builds the name of the metrics MBean of a connector, {@code <domain>:type=metrics,name=<connector>}.
+   *
+   * @param domain        domain of the name
+   * @param connectorName name of the connector
+   * @return the name of the MBean
+   */
+  public static ObjectName metricsName(String domain, String connectorName) {
+    Map<String, String> keyProperties = new LinkedHashMap<>();
+    keyProperties.put("type", "metrics");
+    keyProperties.put("name", connectorName);
+    return objectName(domain, keyProperties);
+  }
+
+  /**
+   * Builds the name of the metrics MBean of a connector task,
+   * {@code <domain>:type=metrics,name=<connector>,task=<n>}. The tasks of a connector running in the same
+   * worker are told apart by a sequence number.
+   *
+   * @param domain        domain of the name
+   * @param connectorName name of the connector
+   * @return the name of the MBean
+   */
+  public static ObjectName taskMetricsName(String domain, String connectorName) {
+    Map<String, String> keyProperties = new LinkedHashMap<>();
+    keyProperties.put("type", "metrics");
+    keyProperties.put("name", connectorName);
+    keyProperties.put("task", String.valueOf(TASKS.incrementAndGet()));
+    return objectName(domain, keyProperties);
+  }
+
+  /**
+   * Builds the name of an MBean, quoting the values holding characters an ObjectName does not
+   * accept unquoted, such as a connector name with a comma.
+   *
+   * @param domain        domain of the name
+   * @param keyProperties key properties of the name, in the order they are written
+   * @return the name of the MBean
+   * @throws IllegalArgumentException if the name is not valid
+   */
+  public static ObjectName objectName(String domain, Map<String, String> keyProperties) {
+    String properties =
+        keyProperties.entrySet().stream()
+            .map(property -> property.getKey() + "=" + quoteIfNecessary(property.getValue()))
+            .collect(Collectors.joining(","));
+    try {
+      return new ObjectName(domain + ":" + properties);
+    } catch (JMException e) {
+      throw new IllegalArgumentException("Invalid MBean name " + domain + ":" + properties, e);
+    }
+  }
+
+  /**
+   * Registers the MBean, replacing the one registered under the same name by a task that did not
+   * unregister it. Metrics are not worth failing a task for, so a failure is only logged.
+   *
+   * @param mbean      the MBean
+   * @param objectName name of the MBean
+   */
+  public static void register(Object mbean, ObjectName objectName) {
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (mBeanServer.isRegistered(objectName)) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+      mBeanServer.registerMBean(mbean, objectName);
+    } catch (JMException e) {
+      log.warn("Unable to register metrics MBean {}", objectName, e);
+    }
+  }
+
+  /**
+   * Unregisters the MBean, if it is registered.
+   *
+   * @param objectName name of the MBean
+   */
+  public static void unregister(ObjectName objectName) {
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    } catch (InstanceNotFoundException e) {
+      log.debug("Metrics MBean {} is not registered", objectName);
+    } catch (JMException e) {
+      log.warn("Unable to unregister metrics MBean {}", objectName, e);
+    }
+  }
+
+  private static String quoteIfNecessary(String value) {
+    return value.chars().anyMatch(c -> SPECIAL_CHARACTERS.indexOf(c) >= 0) ? ObjectName.quote(value) : value;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.common.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+class MetricsRegistrarTest {
+
+  private static final String DOMAIN = "io.lenses.streamreactor.common.metrics";
+
+  public interface CounterMBean {
+    long getCount();
+  }
+
+  public static class Counter implements CounterMBean {
+    private final long count;
+
+    Counter(long count) {
+      this.count = count;
+    }
+
+    @Override
+    public long getCount() {
+      return count;
+    }
+  }
+
+  @Test
+  void objectNameShouldQuoteValuesWithSpecialCharacters() {
+    //given
+    Map<String, String> properties = new LinkedHashMap<>();
+    properties.put("type", "metrics");
+    properties.put("name", "my,connector=1");
+
+    //when
+    ObjectName objectName = MetricsRegistrar.objectName(DOMAIN, properties);
+
+    //then
+    assertEquals("type=metrics,name=\"my,connector=1\"", objectName.getKeyPropertyListString());
+    assertEquals("my,connector=1", ObjectName.unquote(objectName.getKeyProperty("name")));
+  }
+
+  @Test
+  void objectNameShouldLeavePlainValuesUnquoted() {
+    //given
+    Map<String, String> properties = Map.of("name", "connector-1");
+
+    //when
+    ObjectName objectName = MetricsRegistrar.objectName(DOMAIN, properties);
+
+    //then
+    assertEquals("connector-1", objectName.getKeyProperty("name"));
+  }
+
+  @Test
+  void taskMetricsNameShouldNumberTheTasksOfAConnector() {
+    //when
+    ObjectName first = MetricsRegistrar.taskMetricsName(DOMAIN, "sink,1");
+    ObjectName second = MetricsRegistrar.taskMetricsName(DOMAIN, "sink,1");
+
+    //then
+    assertEquals("metrics", first.getKeyProperty("type"));
+    assertEquals("sink,1", ObjectName.unquote(first.getKeyProperty("name")));
+    assertEquals(Integer.parseInt(first.getKeyProperty("task")) + 1, Integer.parseInt(second.getKeyProperty("task")));
+  }
+
+  @Test
+  void registerShouldReplaceAnMBeanAlreadyRegisteredUnderTheName() throws Exception {
+    //given
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    ObjectName objectName = MetricsRegistrar.objectName(DOMAIN, Map.of("name", "replaced"));
+    MetricsRegistrar.register(new Counter(1), objectName);
+
+    //when
+    MetricsRegistrar.register(new Counter(2), objectName);
+
+    //then
+    assertEquals(2L, mBeanServer.getAttribute(objectName, "Count"));
+    MetricsRegistrar.unregister(objectName);
+  }
+
+  @Test
+  void unregisterShouldRemoveTheMBeanAndIgnoreAMissingOne() {
+    //given
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    ObjectName objectName = MetricsRegistrar.objectName(DOMAIN, Map.of("name", "removed"));
+    MetricsRegistrar.register(new Counter(1), objectName);
+    assertTrue(mBeanServer.isRegistered(objectName));
+
+    //when
+    MetricsRegistrar.unregister(objectName);
+    MetricsRegistrar.unregister(objectName);
+
+    //then
+    assertFalse(mBeanServer.isRegistered(objectName));
+  }
+}
@@ -28,7 +28,6 @@ import org.apache.kafka.connect.source.SourceRecord;
 import org.apache.kafka.connect.source.SourceTask;
 
 import io.lenses.streamreactor.common.util.JarManifest;
-import io.lenses.streamreactor.common.util.MapUtils;
 import io.lenses.streamreactor.connect.gcp.pubsub.source.admin.PubSubService;
 import io.lenses.streamreactor.connect.gcp.pubsub.source.config.PubSubConfig;
 import io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubConfigSettings;
@@ -47,6 +46,10 @@ import lombok.val;
  */
 public class GCPPubSubSourceTask extends SourceTask {
 
+  private static final String CONNECTOR_NAME = "name";
+
+  private static final String DEFAULT_CONNECTOR_NAME = "gcp-pubsub-source";
+
   private final JarManifest jarManifest = unpackOrThrow(JarManifest.produceFromClass(getClass()));
 
   private final PubSubConfigSettings pubSubConfigSettings = new PubSubConfigSettings();
@@ -79,10 +82,15 @@ public class GCPPubSubSourceTask extends SourceTask {
               converter = new SourceRecordConverter(pubSubConfig.getMappingConfig());
               pubSubSubscriberManager =
                   new PubSubSubscriberManager(
+                      props.getOrDefault(CONNECTOR_NAME, DEFAULT_CONNECTOR_NAME),
                       pubSubService,
                       pubSubConfig.getProjectId(),
                       subscriptionConfigs,
-                      PubSubSubscriber::new);
+                      PubSubSubscriber::new,
+                      pubSubConfig.getPollBatchSize(),
+                      pubSubConfig.getPollMaxLatencyMillis(),
+                      pubSubConfig.getAckBatchSize(),
+                      pubSubConfig.getAckFlushIntervalMillis());
             }
         );
   }
@@ -111,10 +119,9 @@ public class GCPPubSubSourceTask extends SourceTask {
 
   @Override
   public void commitRecord(SourceRecord sourceRecord, RecordMetadata metadata) {
-    val sourcePartition =
-        PubSubSourcePartition.fromMap(MapUtils.castMap(sourceRecord.sourcePartition(), String.class, String.class));
-    val sourceOffset =
-        PubSubSourceOffset.fromMap(MapUtils.castMap(sourceRecord.sourceOffset(), String.class, String.class));
-    pubSubSubscriberManager.commitRecord(sourcePartition, sourceOffset);
+    pubSubSubscriberManager.commitRecord(
+        PubSubSourcePartition.subscriptionIdFrom(sourceRecord.sourcePartition()),
+        PubSubSourceOffset.messageIdFrom(sourceRecord.sourceOffset())
+    );
   }
 }
@@ -56,11 +56,13 @@ public class PubSubService {
 
   public Subscriber createSubscriber(
       final String subscriptionId,
-      final MessageReceiver receiver
+      final MessageReceiver receiver,
+      final SubscriberSettings subscriberSettings
   ) {
     val subscriberBuilder = Subscriber.newBuilder(createProjectSubscriptionName(subscriptionId), receiver);
     Optional.ofNullable(authMode).ifPresent(e -> subscriberBuilder.setCredentialsProvider(e::getCredentials));
-    return subscriberBuilder.build();
+    log.info("Creating subscriber for subscriptionId {} with {}", subscriptionId, subscriberSettings);
+    return subscriberSettings.applyTo(subscriberBuilder).build();
   }
 
   private SubscriptionAdminClient createSubscriptionAdminClient(final AuthMode authMode) throws IOException {
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.gcp.pubsub.source.admin;
+
+import java.util.Optional;
+
+import com.google.api.gax.batching.FlowControlSettings;
+import com.google.api.gax.batching.FlowController;
+import com.google.api.gax.core.InstantiatingExecutorProvider;
+import com.google.cloud.pubsub.v1.Subscriber;
+
+import io.lenses.streamreactor.connect.gcp.pubsub.source.config.BackpressureMode;
+import io.lenses.streamreactor.connect.gcp.pubsub.source.config.PubSubSubscription;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * SubscriberSettings holds the tuning applied to the GCP {@link Subscriber} of a subscription: the number of parallel
+ * streaming pulls, the size of the executor handling the messages and the flow control limits. Anything unset keeps
+ * the GCP client default.
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class SubscriberSettings {
+
+  public static final SubscriberSettings DEFAULT = new SubscriberSettings(null, null, null);
+
+  private final Integer parallelPullCount;
+
+  private final Integer executorThreadCount;
+
+  private final FlowControlSettings flowControlSettings;
+
+  /**
+   * Creates the settings for a subscription. In flow control mode the outstanding messages default to the size of the
+   * subscriber's buffer, as every message held in the buffer is outstanding to GCP until Kafka commits it.
+   *
+   * @param subscription the subscription configuration
+   * @return the subscriber settings
+   */
+  public static SubscriberSettings fromSubscription(PubSubSubscription subscription) {
+    final boolean flowControlMode = subscription.getBackpressureMode() == BackpressureMode.FLOW_CONTROL;
+    final Optional<Long> maxOutstandingElements =
+        Optional.ofNullable(subscription.getMaxOutstandingElements())
+            .or(() -> flowControlMode ? Optional.of(subscription.getQueueMaxEntries().longValue()) : Optional.empty());
+    final Optional<Long> maxOutstandingBytes = Optional.ofNullable(subscription.getMaxOutstandingBytes());
+
+    FlowControlSettings flowControlSettings = null;
+    if (maxOutstandingElements.isPresent() || maxOutstandingBytes.isPresent()) {
+      flowControlSettings =
+          FlowControlSettings.newBuilder()
+              .setMaxOutstandingElementCount(maxOutstandingElements.orElse(null))
+              .setMaxOutstandingRequestBytes(maxOutstandingBytes.orElse(null))
+              .setLimitExceededBehavior(FlowController.LimitExceededBehavior.Block)
+              .build();
+    }
+    return new SubscriberSettings(
+        subscription.getParallelPullCount(),
+        subscription.getExecutorThreadCount(),
+        flowControlSettings
+    );
+  }
+
+  public Optional<Integer> getParallelPullCount() {
+    return Optional.ofNullable(parallelPullCount);
+  }
+
+  public Optional<Integer> getExecutorThreadCount() {
+    return Optional.ofNullable(executorThreadCount);
+  }
+
+  public Optional<FlowControlSettings> getFlowControlSettings() {
+    return Optional.ofNullable(flowControlSettings);
+  }
+
+  /**
+   * Applies the settings to a GCP subscriber builder.
+   *
+   * @param subscriberBuilder the builder to configure
+   * @return the same builder
+   */
+  public Subscriber.Builder applyTo(Subscriber.Builder subscriberBuilder) {
+    getParallelPullCount().ifPresent(subscriberBuilder::setParallelPullCount);
+    getExecutorThreadCount().ifPresent(threads -> subscriberBuilder.setExecutorProvider(
+        InstantiatingExecutorProvider.newBuilder().setExecutorThreadCount(threads).build()));
+    getFlowControlSettings().ifPresent(subscriberBuilder::setFlowControlSettings);
+    return subscriberBuilder;
+  }
+
+}
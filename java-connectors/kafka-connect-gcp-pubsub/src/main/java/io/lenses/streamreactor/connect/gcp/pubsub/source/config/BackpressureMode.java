@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.gcp.pubsub.source.config;
+
+import java.util.Arrays;
+
+import org.apache.kafka.common.config.ConfigException;
+
+/**
+ * BackpressureMode decides what happens to a message received from GCP PubSub when the subscriber's buffer is full.
+ */
+public enum BackpressureMode {
+
+  /**
+   * The message is nacked, so GCP PubSub redelivers it later.
+   */
+  NACK,
+
+  /**
+   * The GCP subscriber is configured with flow control limited to the buffer size, so it stops pulling once the
+   * buffer is full, and the receiver waits for space instead of nacking.
+   */
+  FLOW_CONTROL;
+
+  public static final BackpressureMode DEFAULT_MODE = NACK;
+
+  public static BackpressureMode valueOfCaseInsensitive(String mode) {
+    try {
+      return BackpressureMode.valueOf(mode.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ConfigException(
+          String.format("Unknown backpressure mode %s, expected one of %s", mode, Arrays.toString(values())));
+    }
+  }
+
+}
@@ -24,7 +24,8 @@ import lombok.Getter;
 
 /**
  * PubSubConfig holds the configuration for the PubSub connector.
- * It contains the projectId, authMode and mappingConfig.
+ * It contains the projectId, authMode, mappingConfig, the settings controlling how long a poll waits for messages and
+ * how the acknowledgements are batched.
  */
 @Getter
 @AllArgsConstructor
@@ -36,6 +37,14 @@ public class PubSubConfig {
 
   private final MappingConfig mappingConfig;
 
+  private final int pollBatchSize;
+
+  private final long pollMaxLatencyMillis;
+
+  private final int ackBatchSize;
+
+  private final long ackFlushIntervalMillis;
+
   public Optional<AuthMode> getAuthMode() {
     return Optional.ofNullable(authMode);
   }
@@ -16,8 +16,13 @@
 package io.lenses.streamreactor.connect.gcp.pubsub.source.config;
 
 import static io.lenses.streamreactor.common.util.EitherUtils.combineErrors;
+import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_BACKPRESSURE_MODE;
 import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_BATCH_SIZE;
 import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_CACHE_TTL;
+import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_EXECUTOR_THREADS;
+import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_MAX_OUTSTANDING_BYTES;
+import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_MAX_OUTSTANDING_ELEMENTS;
+import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_PARALLEL_PULL_COUNT;
 import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_QUEUE_MAX;
 
 import java.util.List;
@@ -48,7 +53,12 @@ public class PubSubSourceConfig {
             .map(k -> k.validateKcqlProperties(
                 KCQL_PROP_KEY_BATCH_SIZE,
                 KCQL_PROP_KEY_CACHE_TTL,
-                KCQL_PROP_KEY_QUEUE_MAX
+                KCQL_PROP_KEY_QUEUE_MAX,
+                KCQL_PROP_KEY_BACKPRESSURE_MODE,
+                KCQL_PROP_KEY_PARALLEL_PULL_COUNT,
+                KCQL_PROP_KEY_EXECUTOR_THREADS,
+                KCQL_PROP_KEY_MAX_OUTSTANDING_ELEMENTS,
+                KCQL_PROP_KEY_MAX_OUTSTANDING_BYTES
             )
             )
     );
@@ -20,7 +20,8 @@ import lombok.Getter;
 
 /**
  * PubSubSubscription holds the configuration for the PubSubSubscription.
- * It contains the targetKafkaTopic, sourceTopicId, subscriptionId, batchSize and cacheExpire.
+ * It contains the targetKafkaTopic, sourceTopicId, subscriptionId, batchSize, cacheExpire, queueMaxEntries, the
+ * backpressureMode applied when the queue is full and the optional tuning of the GCP subscriber.
  */
 @Getter
 @Builder
@@ -38,4 +39,14 @@ public class PubSubSubscription {
 
   private final Integer queueMaxEntries;
 
+  private final BackpressureMode backpressureMode;
+
+  private final Integer parallelPullCount;
+
+  private final Integer executorThreadCount;
+
+  private final Long maxOutstandingElements;
+
+  private final Long maxOutstandingBytes;
+
 }
@@ -20,6 +20,7 @@ import org.apache.kafka.common.config.ConfigException;
 import io.lenses.kcql.Kcql;
 import io.lenses.streamreactor.common.config.base.intf.KcqlConverter;
 import io.lenses.streamreactor.connect.gcp.pubsub.source.admin.PubSubService;
+import io.lenses.streamreactor.connect.gcp.pubsub.source.config.BackpressureMode;
 import io.lenses.streamreactor.connect.gcp.pubsub.source.config.PubSubSubscription;
 import lombok.val;
 
@@ -37,6 +38,11 @@ public class PubSubKcqlConverter extends KcqlConverter<PubSubSubscription> {
   public static final String KCQL_PROP_KEY_BATCH_SIZE = "batch.size";
   public static final String KCQL_PROP_KEY_CACHE_TTL = "cache.ttl";
   public static final String KCQL_PROP_KEY_QUEUE_MAX = "queue.max";
+  public static final String KCQL_PROP_KEY_BACKPRESSURE_MODE = "backpressure.mode";
+  public static final String KCQL_PROP_KEY_PARALLEL_PULL_COUNT = "parallel.pull.count";
+  public static final String KCQL_PROP_KEY_EXECUTOR_THREADS = "executor.threads";
+  public static final String KCQL_PROP_KEY_MAX_OUTSTANDING_ELEMENTS = "max.outstanding.elements";
+  public static final String KCQL_PROP_KEY_MAX_OUTSTANDING_BYTES = "max.outstanding.bytes";
 
   private final PubSubService pubSubService;
 
@@ -46,7 +52,9 @@ public class PubSubKcqlConverter extends KcqlConverter<PubSubSubscription> {
 
   public PubSubSubscription convert(Kcql source) throws ConfigException {
     try {
-      source.validateKcqlProperties(KCQL_PROP_KEY_BATCH_SIZE, KCQL_PROP_KEY_CACHE_TTL, KCQL_PROP_KEY_QUEUE_MAX);
+      source.validateKcqlProperties(KCQL_PROP_KEY_BATCH_SIZE, KCQL_PROP_KEY_CACHE_TTL, KCQL_PROP_KEY_QUEUE_MAX,
+          KCQL_PROP_KEY_BACKPRESSURE_MODE, KCQL_PROP_KEY_PARALLEL_PULL_COUNT, KCQL_PROP_KEY_EXECUTOR_THREADS,
+          KCQL_PROP_KEY_MAX_OUTSTANDING_ELEMENTS, KCQL_PROP_KEY_MAX_OUTSTANDING_BYTES);
     } catch (IllegalArgumentException e) {
       throw new ConfigException("Invalid KCQL properties", e);
     }
@@ -61,6 +69,28 @@ public class PubSubKcqlConverter extends KcqlConverter<PubSubSubscription> {
             DEFAULT_CACHE_TTL_MILLIS))
         .queueMaxEntries(source.extractOptionalProperty(KCQL_PROP_KEY_QUEUE_MAX).map(Integer::parseInt).orElse(
             DEFAULT_CACHE_MAX))
+        .backpressureMode(source.extractOptionalProperty(KCQL_PROP_KEY_BACKPRESSURE_MODE).map(
+            BackpressureMode::valueOfCaseInsensitive).orElse(BackpressureMode.DEFAULT_MODE))
+        .parallelPullCount(source.extractOptionalProperty(KCQL_PROP_KEY_PARALLEL_PULL_COUNT).map(
+            v -> parsePositive(KCQL_PROP_KEY_PARALLEL_PULL_COUNT, v).intValue()).orElse(null))
+        .executorThreadCount(source.extractOptionalProperty(KCQL_PROP_KEY_EXECUTOR_THREADS).map(
+            v -> parsePositive(KCQL_PROP_KEY_EXECUTOR_THREADS, v).intValue()).orElse(null))
+        .maxOutstandingElements(source.extractOptionalProperty(KCQL_PROP_KEY_MAX_OUTSTANDING_ELEMENTS).map(
+            v -> parsePositive(KCQL_PROP_KEY_MAX_OUTSTANDING_ELEMENTS, v)).orElse(null))
+        .maxOutstandingBytes(source.extractOptionalProperty(KCQL_PROP_KEY_MAX_OUTSTANDING_BYTES).map(
+            v -> parsePositive(KCQL_PROP_KEY_MAX_OUTSTANDING_BYTES, v)).orElse(null))
         .build();
   }
+
+  private static Long parsePositive(String key, String value) {
+    try {
+      final long parsed = Long.parseLong(value.trim());
+      if (parsed > 0) {
+        return parsed;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new ConfigException(key, value, "Must be a positive number");
+  }
 }
@@ -39,8 +39,20 @@ public class PubSubSettings implements ConfigSettings<PubSubConfig> {
 
   private static final String EMPTY_STRING = "";
 
+  public static final int DEFAULT_POLL_BATCH_SIZE = 1000;
+
+  public static final long DEFAULT_POLL_MAX_LATENCY_MILLIS = 1000L;
+
+  public static final int DEFAULT_ACK_BATCH_SIZE = 1000;
+
+  public static final long DEFAULT_ACK_FLUSH_INTERVAL_MILLIS = 100L;
+
   private final String gcpProjectIdKey;
   private final String outputModeKey;
+  private final String pollBatchSizeKey;
+  private final String pollMaxLatencyKey;
+  private final String ackBatchSizeKey;
+  private final String ackFlushIntervalKey;
 
   private final AuthModeSettings authModeSettings;
 
@@ -52,6 +64,10 @@ public class PubSubSettings implements ConfigSettings<PubSubConfig> {
   public PubSubSettings(ConnectorPrefix connectorPrefix) {
     gcpProjectIdKey = connectorPrefix.prefixKey("gcp.project.id");
     outputModeKey = connectorPrefix.prefixKey("output.mode");
+    pollBatchSizeKey = connectorPrefix.prefixKey("poll.batch.size");
+    pollMaxLatencyKey = connectorPrefix.prefixKey("poll.max.latency.ms");
+    ackBatchSizeKey = connectorPrefix.prefixKey("ack.batch.size");
+    ackFlushIntervalKey = connectorPrefix.prefixKey("ack.flush.interval.ms");
     authModeSettings = new AuthModeSettings(connectorPrefix);
   }
 
@@ -76,7 +92,36 @@ public class PubSubSettings implements ConfigSettings<PubSubConfig> {
                 ConfigDef.Type.STRING,
                 EMPTY_STRING,
                 ConfigDef.Importance.HIGH,
-                "Output Mode (options are DEFAULT or COMPATIBILITY)");
+                "Output Mode (options are DEFAULT or COMPATIBILITY)")
+            .define(
+                pollBatchSizeKey,
+                ConfigDef.Type.INT,
+                DEFAULT_POLL_BATCH_SIZE,
+                ConfigDef.Range.atLeast(1),
+                ConfigDef.Importance.MEDIUM,
+                "Number of messages a poll waits for, across all subscriptions, before returning")
+            .define(
+                pollMaxLatencyKey,
+                ConfigDef.Type.LONG,
+                DEFAULT_POLL_MAX_LATENCY_MILLIS,
+                ConfigDef.Range.atLeast(0),
+                ConfigDef.Importance.MEDIUM,
+                "Maximum time in milliseconds a poll waits for the batch size to be reached before returning the "
+                    + "messages received so far")
+            .define(
+                ackBatchSizeKey,
+                ConfigDef.Type.INT,
+                DEFAULT_ACK_BATCH_SIZE,
+                ConfigDef.Range.atLeast(1),
+                ConfigDef.Importance.LOW,
+                "Number of committed messages that triggers an immediate batch of acknowledgements to GCP")
+            .define(
+                ackFlushIntervalKey,
+                ConfigDef.Type.LONG,
+                DEFAULT_ACK_FLUSH_INTERVAL_MILLIS,
+                ConfigDef.Range.atLeast(1),
+                ConfigDef.Importance.LOW,
+                "Interval in milliseconds at which committed messages are acknowledged to GCP");
 
     return authModeSettings.withSettings(conf);
   }
@@ -87,7 +132,11 @@ public class PubSubSettings implements ConfigSettings<PubSubConfig> {
             authMode -> new PubSubConfig(
                 configSource.getString(gcpProjectIdKey).orElse(null),
                 authMode,
-                MappingConfig.fromOutputMode(configSource.getString(outputModeKey).orElse(OUTPUT_MODE_DEFAULT))
+                MappingConfig.fromOutputMode(configSource.getString(outputModeKey).orElse(OUTPUT_MODE_DEFAULT)),
+                configSource.getInt(pollBatchSizeKey).orElse(DEFAULT_POLL_BATCH_SIZE),
+                configSource.getLong(pollMaxLatencyKey).orElse(DEFAULT_POLL_MAX_LATENCY_MILLIS),
+                configSource.getInt(ackBatchSizeKey).orElse(DEFAULT_ACK_BATCH_SIZE),
+                configSource.getLong(ackFlushIntervalKey).orElse(DEFAULT_ACK_FLUSH_INTERVAL_MILLIS)
             ));
 
   }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.gcp.pubsub.source.subscriber;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AckBatcher collects the messages committed by Kafka Connect and acknowledges them to GCP PubSub in batches.
+ *
+ * <p>Committing a record only queues its message id, so the Connect producer callback does no GCP work. The queue is
+ * flushed on a dedicated thread, either every flush interval or as soon as the batch size has been queued.</p>
+ */
+@Slf4j
+public class AckBatcher implements AutoCloseable {
+
+  @AllArgsConstructor
+  private static class CommittedMessage {
+
+    private final String subscriptionId;
+
+    private final String messageId;
+  }
+
+  private final Map<String, PubSubSubscriber> subscribers;
+
+  private final int batchSize;
+
+  private final ConcurrentLinkedQueue<CommittedMessage> committed = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger committedCount = new AtomicInteger();
+
+  private final ScheduledExecutorService executor;
+
+  @Getter
+  private final AckMetrics metrics = new AckMetrics();
+
+  public AckBatcher(Map<String, PubSubSubscriber> subscribers, int batchSize, long flushIntervalMillis) {
+    this.subscribers = subscribers;
+    this.batchSize = batchSize;
+    this.executor =
+        Executors.newSingleThreadScheduledExecutor(runnable -> {
+          final Thread thread = new Thread(runnable, "pubsub-ack-batcher");
+          thread.setDaemon(true);
+          return thread;
+        });
+    executor.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Queues the message to be acknowledged with the next batch.
+   *
+   * @param subscriptionId the subscription the message was received from
+   * @param messageId      the id of the message
+   */
+  public void add(String subscriptionId, String messageId) {
+    committed.add(new CommittedMessage(subscriptionId, messageId));
+    if (committedCount.incrementAndGet() == batchSize) {
+      scheduleFlush();
+    }
+  }
+
+  /**
+   * Acknowledges up to a batch of the queued messages, grouped by subscription.
+   */
+  public void flush() {
+    acknowledgeBatch();
+  }
+
+  private synchronized int acknowledgeBatch() {
+    final Map<String, List<String>> messageIdsBySubscription = new HashMap<>();
+    int drained = 0;
+    CommittedMessage message;
+    while (drained < batchSize && (message = committed.poll()) != null) {
+      messageIdsBySubscription.computeIfAbsent(message.subscriptionId, k -> new ArrayList<>()).add(message.messageId);
+      drained++;
+    }
+    if (drained == 0) {
+      return 0;
+    }
+    // a full batch may already be queued behind this one
+    if (committedCount.addAndGet(-drained) >= batchSize) {
+      scheduleFlush();
+    }
+    messageIdsBySubscription.forEach(this::acknowledge);
+    metrics.recordFlush();
+    log.debug("Acknowledged {} messages for {} subscriptions", drained, messageIdsBySubscription.size());
+    return drained;
+  }
+
+  private void acknowledge(String subscriptionId, List<String> messageIds) {
+    final PubSubSubscriber subscriber = subscribers.get(subscriptionId);
+    if (subscriber == null) {
+      log.warn("Unable to acknowledge {} messages for unknown subscription {}", messageIds.size(), subscriptionId);
+      return;
+    }
+    subscriber.acknowledge(messageIds, metrics);
+  }
+
+  private void scheduleFlush() {
+    try {
+      executor.execute(this::flush);
+    } catch (RejectedExecutionException e) {
+      // closing, the remaining messages are acknowledged by close
+      log.trace("Flush not scheduled as the batcher is closing");
+    }
+  }
+
+  /**
+   * Stops the flush thread and acknowledges anything still queued.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(500, TimeUnit.MILLISECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    while (acknowledgeBatch() > 0) {
+      log.trace("Acknowledging the messages still queued");
+    }
+    log.info("Stopped acknowledging messages, {}", metrics);
+  }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.gcp.pubsub.source.subscriber;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.ToString;
+
+/**
+ * AckMetrics counts the acknowledgements sent back to GCP PubSub.
+ *
+ * <p>The latency is measured from the moment a message is received from GCP to the moment it is acked, which is the
+ * figure to compare against the subscription's ack deadline. An ack is lost when Kafka commits a message after its
+ * reply consumer has expired from the ack cache; GCP will then redeliver the message.</p>
+ */
+@ToString
+public class AckMetrics implements AckMetricsMBean {
+
+  private final LongAdder ackedCount = new LongAdder();
+
+  private final LongAdder lostCount = new LongAdder();
+
+  private final LongAdder flushCount = new LongAdder();
+
+  private final LongAdder totalLatencyMillis = new LongAdder();
+
+  private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+  void recordAck(long receivedNanos, long ackedNanos) {
+    final long latencyMillis = TimeUnit.NANOSECONDS.toMillis(ackedNanos - receivedNanos);
+    ackedCount.increment();
+    totalLatencyMillis.add(latencyMillis);
+    maxLatencyMillis.accumulateAndGet(latencyMillis, Math::max);
+  }
+
+  void recordLost(int count) {
+    lostCount.add(count);
+  }
+
+  void recordFlush() {
+    flushCount.increment();
+  }
+
+  @Override
+  public long getAckedCount() {
+    return ackedCount.sum();
+  }
+
+  @Override
+  public long getLostCount() {
+    return lostCount.sum();
+  }
+
+  @Override
+  public long getFlushCount() {
+    return flushCount.sum();
+  }
+
+  @Override
+  public long getAverageLatencyMillis() {
+    final long acked = ackedCount.sum();
+    return acked == 0 ? 0 : totalLatencyMillis.sum() / acked;
+  }
+
+  @Override
+  public long getMaxLatencyMillis() {
+    return maxLatencyMillis.get();
+  }
+
+}
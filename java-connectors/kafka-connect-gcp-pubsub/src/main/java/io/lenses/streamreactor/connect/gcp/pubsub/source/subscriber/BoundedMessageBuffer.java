@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.gcp.pubsub.source.subscriber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BoundedMessageBuffer is a fixed capacity buffer between the GCP PubSub receiver threads and the Kafka Connect poll.
+ *
+ * <p>Checking for space is a constant time operation, unlike the size of a ConcurrentLinkedQueue, so it is cheap
+ * enough to be done for every message received. Rather than logging on the message path, the buffer keeps counters of
+ * the accepted, rejected and drained messages, which are read over JMX.</p>
+ *
+ * @param <X> the type of elements held in this buffer
+ */
+public class BoundedMessageBuffer<X> implements BoundedMessageBufferMBean {
+
+  private final ArrayBlockingQueue<X> queue;
+
+  private final int capacity;
+
+  private final LongAdder acceptedCount = new LongAdder();
+
+  private final LongAdder rejectedCount = new LongAdder();
+
+  private final LongAdder drainedCount = new LongAdder();
+
+  /**
+   * Constructs a new BoundedMessageBuffer with the specified capacity.
+   *
+   * @param capacity the maximum number of elements held in the buffer
+   */
+  public BoundedMessageBuffer(int capacity) {
+    this.capacity = capacity;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+  }
+
+  /**
+   * Adds the element if there is space, without waiting.
+   *
+   * @param element the element to add
+   * @return true if the element was added, false if the buffer is full
+   */
+  public boolean offer(X element) {
+    if (queue.offer(element)) {
+      acceptedCount.increment();
+      return true;
+    }
+    rejectedCount.increment();
+    return false;
+  }
+
+  /**
+   * Adds the element, waiting for space if the buffer is full.
+   *
+   * @param element the element to add
+   * @throws InterruptedException if interrupted while waiting for space
+   */
+  public void put(X element) throws InterruptedException {
+    queue.put(element);
+    acceptedCount.increment();
+  }
+
+  /**
+   * Removes up to the specified number of elements from the head of the buffer, without waiting.
+   *
+   * @param maxElements the maximum number of elements to remove
+   * @return the removed elements, in the order they were added
+   */
+  public List<X> drain(int maxElements) {
+    final List<X> drained = new ArrayList<>(Math.min(maxElements, queue.size()));
+    drainedCount.add(queue.drainTo(drained, maxElements));
+    return drained;
+  }
+
+  public int size() {
+    return queue.size();
+  }
+
+  @Override
+  public int getSize() {
+    return size();
+  }
+
+  @Override
+  public int getCapacity() {
+    return capacity;
+  }
+
+  @Override
+  public long getAcceptedCount() {
+    return acceptedCount.sum();
+  }
+
+  @Override
+  public long getRejectedCount() {
+    return rejectedCount.sum();
+  }
+
+  @Override
+  public long getDrainedCount() {
+    return drainedCount.sum();
+  }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.gcp.pubsub.source.subscriber;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * MessageArrivalSignal lets the subscribers wake up a poll waiting for messages.
+ *
+ * <p>Each signal moves a generation counter on. A waiter reads the generation before checking the buffers and only
+ * sleeps while it is unchanged, so a message buffered between the check and the wait is never missed. The lock is only
+ * taken by the subscribers while someone is waiting, keeping the message path cheap.</p>
+ */
+public class MessageArrivalSignal {
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition changed = lock.newCondition();
+
+  private final AtomicLong generation = new AtomicLong();
+
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  /**
+   * Called after messages have been added to a buffer.
+   */
+  public void signal() {
+    generation.incrementAndGet();
+    if (waiters.get() > 0) {
+      lock.lock();
+      try {
+        changed.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Registers the caller as a waiter. It must be called before {@link #generation()} is read and paired with
+   * {@link #unregister()}.
+   */
+  public void register() {
+    waiters.incrementAndGet();
+  }
+
+  public void unregister() {
+    waiters.decrementAndGet();
+  }
+
+  public long generation() {
+    return generation.get();
+  }
+
+  /**
+   * Waits until a signal moves the generation on from the one given, or the timeout expires.
+   *
+   * @param seenGeneration the generation read before the buffers were last checked
+   * @param timeout        the maximum time to wait
+   * @param unit           the unit of the timeout
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void awaitSignal(long seenGeneration, long timeout, TimeUnit unit) throws InterruptedException {
+    long remainingNanos = unit.toNanos(timeout);
+    lock.lock();
+    try {
+      while (generation.get() == seenGeneration && remainingNanos > 0) {
+        remainingNanos = changed.awaitNanos(remainingNanos);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+}
@@ -37,6 +37,13 @@ public class PubSubSourceOffset {
     return new PubSubSourceOffset(sourceLocation.get(KEY_MESSAGE_ID));
   }
 
+  /**
+   * Reads the message id from a source offset map, without building the offset.
+   */
+  public static String messageIdFrom(Map<String, ?> sourceLocation) {
+    return (String) sourceLocation.get(KEY_MESSAGE_ID);
+  }
+
   public Map<String, String> toMap() {
     return Map.of(KEY_MESSAGE_ID, messageId);
   }
@@ -46,6 +46,13 @@ public class PubSubSourcePartition {
     );
   }
 
+  /**
+   * Reads only the subscription id from a source partition map, without building the whole partition.
+   */
+  public static String subscriptionIdFrom(Map<String, ?> sourceLocation) {
+    return (String) sourceLocation.get(KEY_SUBSCRIPTION_ID);
+  }
+
   public Map<String, String> toMap() {
     return Map.of(
         KEY_TOPIC_ID, topicId,
@@ -15,12 +15,12 @@
  */
 package io.lenses.streamreactor.connect.gcp.pubsub.source.subscriber;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
@@ -29,21 +29,23 @@ import com.google.cloud.pubsub.v1.MessageReceiver;
 import com.google.pubsub.v1.PubsubMessage;
 
 import io.lenses.streamreactor.connect.gcp.pubsub.source.admin.PubSubService;
+import io.lenses.streamreactor.connect.gcp.pubsub.source.admin.SubscriberSettings;
+import io.lenses.streamreactor.connect.gcp.pubsub.source.config.BackpressureMode;
 import io.lenses.streamreactor.connect.gcp.pubsub.source.config.PubSubSubscription;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Subscriber is responsible for receiving messages from GCP PubSub and storing them in a queue for processing.
+ * Subscriber is responsible for receiving messages from GCP PubSub and storing them in a buffer for processing.
  */
 @Slf4j
 public class PubSubSubscriber {
 
-  private final LooselyBoundedQueue<PubsubMessage> messageQueue;
+  private final BoundedMessageBuffer<PubsubMessage> messageBuffer;
 
   private final PubSubSourcePartition sourcePartition;
 
-  private final Cache<String, AckReplyConsumer> ackCache;
+  private final Cache<String, PendingAck> ackCache;
 
   private final Integer batchSize;
 
@@ -51,24 +53,35 @@ public class PubSubSubscriber {
 
   private final com.google.cloud.pubsub.v1.Subscriber gcpSubscriber;
 
+  private final MessageArrivalSignal messageArrivalSignal;
+
   public PubSubSubscriber(
       PubSubService pubSubService,
       String projectId,
-      PubSubSubscription subscription
+      PubSubSubscription subscription,
+      MessageArrivalSignal messageArrivalSignal
   ) {
     log.info("Starting PubSubSubscriber for subscription {}", subscription.getSubscriptionId());
+    this.messageArrivalSignal = messageArrivalSignal;
     targetTopicName = subscription.getTargetKafkaTopic();
     batchSize = subscription.getBatchSize();
-    messageQueue = new LooselyBoundedQueue<>(subscription.getQueueMaxEntries());
+    messageBuffer = new BoundedMessageBuffer<>(subscription.getQueueMaxEntries());
     ackCache =
         Caffeine
             .newBuilder()
             .expireAfterWrite(subscription.getCacheExpire(), TimeUnit.MILLISECONDS)
             .build();
 
-    val receiver = createMessageReceiver();
+    val backpressureMode =
+        Optional.ofNullable(subscription.getBackpressureMode()).orElse(BackpressureMode.DEFAULT_MODE);
+    val receiver = createMessageReceiver(backpressureMode);
 
-    gcpSubscriber = pubSubService.createSubscriber(subscription.getSubscriptionId(), receiver);
+    gcpSubscriber =
+        pubSubService.createSubscriber(
+            subscription.getSubscriptionId(),
+            receiver,
+            SubscriberSettings.fromSubscription(subscription)
+        );
     sourcePartition =
         new PubSubSourcePartition(
             projectId,
@@ -82,24 +95,40 @@ public class PubSubSubscriber {
     gcpSubscriber.startAsync();
   }
 
-  private MessageReceiver createMessageReceiver() {
-    return (PubsubMessage message, AckReplyConsumer consumer) -> {
-      if (messageQueue.hasSpareCapacity(1)) {
-        log.info("Spare capacity");
-        messageQueue.add(message);
-        ackCache.put(message.getMessageId(), consumer);
-      } else {
-        log.info("Message rejected from GCP as queue is full");
-        // if the queue is full, let Google know we haven't received it and it will be sent again in the near future
-        consumer.nack();
-      }
-    };
+  private MessageReceiver createMessageReceiver(BackpressureMode backpressureMode) {
+    if (backpressureMode == BackpressureMode.FLOW_CONTROL) {
+      return this::receiveWaitingForSpace;
+    }
+    return this::receiveOrNack;
+  }
+
+  private void receiveOrNack(PubsubMessage message, AckReplyConsumer consumer) {
+    // the consumer is cached first so the message cannot be polled and committed before it can be acknowledged
+    ackCache.put(message.getMessageId(), new PendingAck(consumer, System.nanoTime()));
+    if (messageBuffer.offer(message)) {
+      messageArrivalSignal.signal();
+    } else {
+      ackCache.invalidate(message.getMessageId());
+      // if the buffer is full, let Google know we haven't received it and it will be sent again in the near future
+      consumer.nack();
+    }
+  }
+
+  private void receiveWaitingForSpace(PubsubMessage message, AckReplyConsumer consumer) {
+    ackCache.put(message.getMessageId(), new PendingAck(consumer, System.nanoTime()));
+    try {
+      messageBuffer.put(message);
+      messageArrivalSignal.signal();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      ackCache.invalidate(message.getMessageId());
+      consumer.nack();
+    }
   }
 
   public List<PubSubMessageData> getMessages() {
-    return IntStream.range(0, batchSize)
-        .mapToObj(i -> messageQueue.poll())
-        .filter(Objects::nonNull)
+    return messageBuffer.drain(batchSize)
+        .stream()
         .map(psm -> new PubSubMessageData(
             sourcePartition,
             new PubSubSourceOffset(psm.getMessageId()),
@@ -109,17 +138,62 @@ public class PubSubSubscriber {
         .collect(Collectors.toUnmodifiableList());
   }
 
-  public void acknowledge(String messageId) {
-    log.trace("Sending acknowledgement for {}}", messageId);
-    Optional
-        .ofNullable(ackCache.getIfPresent(messageId))
-        .ifPresent(e -> {
-          e.ack();
-          ackCache.invalidate(messageId);
-        });
+  /**
+   * Acknowledges the messages to GCP. Messages whose reply consumer has already expired from the ack cache are counted
+   * as lost, GCP will redeliver them.
+   *
+   * @param messageIds the ids of the messages committed to Kafka
+   * @param ackMetrics the metrics to record the acknowledgements in
+   */
+  public void acknowledge(Collection<String> messageIds, AckMetrics ackMetrics) {
+    log.trace("Sending acknowledgement for {} messages", messageIds.size());
+    final Map<String, PendingAck> pendingAcks = ackCache.getAllPresent(messageIds);
+    final long ackedNanos = System.nanoTime();
+    pendingAcks.values().forEach(pendingAck -> {
+      pendingAck.getConsumer().ack();
+      ackMetrics.recordAck(pendingAck.getReceivedNanos(), ackedNanos);
+    });
+    ackCache.invalidateAll(pendingAcks.keySet());
+    if (pendingAcks.size() < messageIds.size()) {
+      ackMetrics.recordLost(messageIds.size() - pendingAcks.size());
+    }
+  }
+
+  /**
+   * @return the number of messages waiting in the buffer to be polled
+   */
+  public int getBufferedCount() {
+    return messageBuffer.size();
+  }
+
+  /**
+   * @return the number of messages received from GCP and added to the buffer
+   */
+  public long getReceivedCount() {
+    return messageBuffer.getAcceptedCount();
+  }
+
+  /**
+   * @return the number of messages nacked back to GCP because the buffer was full
+   */
+  public long getRejectedCount() {
+    return messageBuffer.getRejectedCount();
+  }
+
+  /**
+   * @return the counters of the message buffer, to be read over JMX
+   */
+  BoundedMessageBufferMBean getBufferMetrics() {
+    return messageBuffer;
   }
 
   public void stopAsync() {
+    log.info(
+        "Stopping PubSubSubscriber for {}, received {} messages, rejected {} with a full buffer",
+        sourcePartition.getSubscriptionId(),
+        getReceivedCount(),
+        getRejectedCount()
+    );
     gcpSubscriber.stopAsync();
   }
 
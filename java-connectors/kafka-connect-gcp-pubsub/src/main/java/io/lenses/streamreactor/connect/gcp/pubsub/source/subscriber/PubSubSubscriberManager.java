@@ -15,13 +15,18 @@
  */
 package io.lenses.streamreactor.connect.gcp.pubsub.source.subscriber;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import javax.management.ObjectName;
+
+import io.lenses.streamreactor.common.metrics.MetricsRegistrar;
 import io.lenses.streamreactor.connect.gcp.pubsub.source.admin.PubSubService;
 import io.lenses.streamreactor.connect.gcp.pubsub.source.config.PubSubSubscription;
-import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -30,51 +35,122 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PubSubSubscriberManager {
 
+  private static final String METRICS_DOMAIN = "io.lenses.streamreactor.connect.gcp.pubsub.source";
+
   /**
    * Map of Subscribers. The key is the subscriptionId.
    */
   private final Map<String, PubSubSubscriber> subscribers;
 
+  private final MessageArrivalSignal messageArrivalSignal = new MessageArrivalSignal();
+
+  private final int pollBatchSize;
+
+  private final long pollMaxLatencyMillis;
+
+  private final AckBatcher ackBatcher;
+
+  private final ObjectName ackMetricsName;
+
+  private final List<ObjectName> bufferMetricsNames = new ArrayList<>();
+
+  private volatile boolean stopped = false;
+
   public PubSubSubscriberManager(
+      String connectorName,
       PubSubService pubSubService,
       String projectId,
       List<PubSubSubscription> subscriptionConfigs,
-      SubscriberCreator subscriberCreator
+      SubscriberCreator subscriberCreator,
+      int pollBatchSize,
+      long pollMaxLatencyMillis,
+      int ackBatchSize,
+      long ackFlushIntervalMillis
   ) {
     log.info("Starting PubSubSubscriberManager for {} subscriptions", subscriptionConfigs.size());
+    this.pollBatchSize = pollBatchSize;
+    this.pollMaxLatencyMillis = pollMaxLatencyMillis;
     subscribers =
         subscriptionConfigs
             .parallelStream()
             .collect(Collectors.toConcurrentMap(
                 PubSubSubscription::getSubscriptionId,
-                s -> subscriberCreator.createSubscriber(pubSubService, projectId, s)));
+                s -> subscriberCreator.createSubscriber(pubSubService, projectId, s, messageArrivalSignal)));
+    ackBatcher = new AckBatcher(subscribers, ackBatchSize, ackFlushIntervalMillis);
+    ackMetricsName = MetricsRegistrar.taskMetricsName(METRICS_DOMAIN, connectorName);
+    MetricsRegistrar.register(ackBatcher.getMetrics(), ackMetricsName);
+    subscribers.forEach((subscriptionId, subscriber) -> {
+      final ObjectName bufferMetricsName = bufferMetricsName(connectorName, subscriptionId);
+      MetricsRegistrar.register(subscriber.getBufferMetrics(), bufferMetricsName);
+      bufferMetricsNames.add(bufferMetricsName);
+    });
   }
 
+  /**
+   * Collects messages from all the subscribers, waiting up to the poll max latency for at least the poll batch size to
+   * be available. The subscribers signal when they buffer messages, so an idle poll sleeps rather than spinning.
+   *
+   * @return the messages collected, possibly empty if none arrived before the max latency
+   */
   public List<PubSubMessageData> poll() {
     log.trace("Polling messages from all partitions");
-    val subs =
-        subscribers
-            .values()
-            .parallelStream()
-            .flatMap(pubSubSubscriber -> pubSubSubscriber.getMessages().stream())
-            .collect(Collectors.toList());
-    log.debug("Polled {} messages from all partitions", subs.size());
-    return subs;
+    final List<PubSubMessageData> messages = new ArrayList<>();
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pollMaxLatencyMillis);
+    messageArrivalSignal.register();
+    try {
+      while (true) {
+        final long seenGeneration = messageArrivalSignal.generation();
+        subscribers.values().forEach(subscriber -> messages.addAll(subscriber.getMessages()));
+        final long remainingNanos = deadline - System.nanoTime();
+        if (messages.size() >= pollBatchSize || remainingNanos <= 0 || stopped) {
+          break;
+        }
+        messageArrivalSignal.awaitSignal(seenGeneration, remainingNanos, TimeUnit.NANOSECONDS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      messageArrivalSignal.unregister();
+    }
+    log.debug("Polled {} messages from all partitions", messages.size());
+    return messages;
   }
 
   public void commitRecord(
       PubSubSourcePartition sourcePartition,
       PubSubSourceOffset sourceOffset
   ) {
-    log.trace("Committing record for partition {} with offset {}", sourcePartition, sourceOffset);
-    subscribers
-        .get(sourcePartition.getSubscriptionId())
-        .acknowledge(sourceOffset.getMessageId());
+    commitRecord(sourcePartition.getSubscriptionId(), sourceOffset.getMessageId());
+  }
+
+  /**
+   * Queues the message to be acknowledged to GCP with the next batch of acknowledgements.
+   *
+   * @param subscriptionId the subscription the message was received from
+   * @param messageId      the id of the message committed to Kafka
+   */
+  public void commitRecord(String subscriptionId, String messageId) {
+    log.trace("Committing record for subscription {} with message id {}", subscriptionId, messageId);
+    ackBatcher.add(subscriptionId, messageId);
   }
 
   public void stop() {
     log.info("Stopping PubSubSubscriberManager");
+    stopped = true;
+    // wake up any poll waiting for messages
+    messageArrivalSignal.signal();
+    ackBatcher.close();
+    MetricsRegistrar.unregister(ackMetricsName);
+    bufferMetricsNames.forEach(MetricsRegistrar::unregister);
     subscribers.values().forEach(PubSubSubscriber::stopAsync);
   }
 
+  private static ObjectName bufferMetricsName(String connectorName, String subscriptionId) {
+    final Map<String, String> keyProperties = new LinkedHashMap<>();
+    keyProperties.put("type", "buffer");
+    keyProperties.put("name", connectorName);
+    keyProperties.put("subscription", subscriptionId);
+    return MetricsRegistrar.objectName(METRICS_DOMAIN, keyProperties);
+  }
+
 }
@@ -24,6 +24,7 @@ public interface SubscriberCreator {
   PubSubSubscriber createSubscriber(
       PubSubService pubSubService,
       String projectId,
-      PubSubSubscription subscription
+      PubSubSubscription subscription,
+      MessageArrivalSignal messageArrivalSignal
   );
 }
@@ -27,6 +27,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.google.api.gax.batching.FlowControlSettings;
+import com.google.api.gax.batching.FlowController;
 import com.google.cloud.pubsub.v1.MessageReceiver;
 import com.google.cloud.pubsub.v1.SubscriptionAdminClient;
 import com.google.pubsub.v1.ProjectSubscriptionName;
@@ -66,10 +68,25 @@ class PubSubServiceTest {
 
   @Test
   void testCreateSubscriber() {
-    val subscriber = pubSubService.createSubscriber(SUBSCRIPTION_ID, messageReceiver);
+    val subscriber = pubSubService.createSubscriber(SUBSCRIPTION_ID, messageReceiver, SubscriberSettings.DEFAULT);
     assertEquals(PROJECT_SUBSCRIPTION_NAME.toString(), subscriber.getSubscriptionNameString());
   }
 
+  @Test
+  void testCreateSubscriberWithFlowControl() {
+    val flowControlSettings =
+        FlowControlSettings.newBuilder()
+            .setMaxOutstandingElementCount(100L)
+            .setLimitExceededBehavior(FlowController.LimitExceededBehavior.Block)
+            .build();
+
+    val subscriber =
+        pubSubService.createSubscriber(SUBSCRIPTION_ID, messageReceiver, new SubscriberSettings(4, 2,
+            flowControlSettings));
+
+    assertEquals(Long.valueOf(100L), subscriber.getFlowControlSettings().getMaxOutstandingElementCount());
+  }
+
   @Test
   void testTopicNameFor() {
     val subscription = Subscription.newBuilder().setTopic(TOPIC_ID).build();
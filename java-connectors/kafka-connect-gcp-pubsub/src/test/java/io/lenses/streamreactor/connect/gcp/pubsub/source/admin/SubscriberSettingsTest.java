@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.gcp.pubsub.source.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.api.gax.batching.FlowController;
+
+import io.lenses.streamreactor.connect.gcp.pubsub.source.config.BackpressureMode;
+import io.lenses.streamreactor.connect.gcp.pubsub.source.config.PubSubSubscription;
+import lombok.val;
+
+class SubscriberSettingsTest {
+
+  private static final int QUEUE_SIZE = 100;
+
+  @Test
+  void shouldKeepClientDefaultsWhenNothingIsConfigured() {
+    val subscription = subscriptionBuilder(BackpressureMode.NACK).build();
+
+    assertEquals(SubscriberSettings.DEFAULT, SubscriberSettings.fromSubscription(subscription));
+  }
+
+  @Test
+  void shouldLimitOutstandingElementsToQueueSizeInFlowControlMode() {
+    val subscription = subscriptionBuilder(BackpressureMode.FLOW_CONTROL).build();
+
+    val flowControlSettings = SubscriberSettings.fromSubscription(subscription).getFlowControlSettings().orElseThrow();
+
+    assertEquals(Long.valueOf(QUEUE_SIZE), flowControlSettings.getMaxOutstandingElementCount());
+    assertEquals(FlowController.LimitExceededBehavior.Block, flowControlSettings.getLimitExceededBehavior());
+  }
+
+  @Test
+  void shouldPreferConfiguredOutstandingElementsOverQueueSize() {
+    val subscription = subscriptionBuilder(BackpressureMode.FLOW_CONTROL).maxOutstandingElements(50L).build();
+
+    val flowControlSettings = SubscriberSettings.fromSubscription(subscription).getFlowControlSettings().orElseThrow();
+
+    assertEquals(Long.valueOf(50L), flowControlSettings.getMaxOutstandingElementCount());
+  }
+
+  @Test
+  void shouldCarryPullAndExecutorSettings() {
+    val subscription =
+        subscriptionBuilder(BackpressureMode.NACK)
+            .parallelPullCount(4)
+            .executorThreadCount(8)
+            .maxOutstandingBytes(1024L)
+            .build();
+
+    val settings = SubscriberSettings.fromSubscription(subscription);
+
+    assertEquals(Integer.valueOf(4), settings.getParallelPullCount().orElseThrow());
+    assertEquals(Integer.valueOf(8), settings.getExecutorThreadCount().orElseThrow());
+    val flowControlSettings = settings.getFlowControlSettings().orElseThrow();
+    assertEquals(Long.valueOf(1024L), flowControlSettings.getMaxOutstandingRequestBytes());
+    assertNull(flowControlSettings.getMaxOutstandingElementCount());
+  }
+
+  private static PubSubSubscription.PubSubSubscriptionBuilder subscriptionBuilder(BackpressureMode backpressureMode) {
+    return PubSubSubscription.builder()
+        .subscriptionId("subscription-id")
+        .queueMaxEntries(QUEUE_SIZE)
+        .backpressureMode(backpressureMode);
+  }
+}
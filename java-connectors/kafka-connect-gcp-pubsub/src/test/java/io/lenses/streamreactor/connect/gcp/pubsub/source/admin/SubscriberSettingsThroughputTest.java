@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.gcp.pubsub.source.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.core.CredentialsProvider;
+import com.google.api.gax.core.NoCredentialsProvider;
+import com.google.api.gax.grpc.GrpcTransportChannel;
+import com.google.api.gax.rpc.FixedTransportChannelProvider;
+import com.google.api.gax.rpc.TransportChannelProvider;
+import com.google.cloud.pubsub.v1.Publisher;
+import com.google.cloud.pubsub.v1.Subscriber;
+import com.google.cloud.pubsub.v1.SubscriptionAdminClient;
+import com.google.cloud.pubsub.v1.SubscriptionAdminSettings;
+import com.google.cloud.pubsub.v1.TopicAdminClient;
+import com.google.cloud.pubsub.v1.TopicAdminSettings;
+import com.google.protobuf.ByteString;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.PubsubMessage;
+import com.google.pubsub.v1.PushConfig;
+import com.google.pubsub.v1.TopicName;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Measures how the subscriber throughput scales with the number of parallel pulls against the PubSub emulator. Each
+ * message takes a fixed time to handle, as writing it to the records queue would. Both runs use the same number of
+ * executor threads, enough for the parallel pulls, so only the pull count differs between them. Start the emulator
+ * (gcloud beta emulators pubsub start) and export PUBSUB_EMULATOR_HOST to run it.
+ */
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "PUBSUB_EMULATOR_HOST", matches = ".+")
+class SubscriberSettingsThroughputTest {
+
+  private static final String PROJECT_ID = "throughput-project";
+  private static final int MESSAGE_COUNT = 5_000;
+  private static final int PAYLOAD_SIZE = 512;
+  private static final long RECEIVE_TIMEOUT_SECONDS = 120L;
+  private static final long HANDLING_TIME_MILLIS = 1L;
+  private static final int PARALLEL_PULL_COUNT = 4;
+  private static final int EXECUTOR_THREAD_COUNT = PARALLEL_PULL_COUNT * 2;
+  private static final double MIN_SPEEDUP = 1.5;
+
+  private ManagedChannel channel;
+  private TransportChannelProvider channelProvider;
+  private final CredentialsProvider credentialsProvider = NoCredentialsProvider.create();
+
+  @BeforeAll
+  void setUp() {
+    channel = ManagedChannelBuilder.forTarget(System.getenv("PUBSUB_EMULATOR_HOST")).usePlaintext().build();
+    channelProvider = FixedTransportChannelProvider.create(GrpcTransportChannel.create(channel));
+  }
+
+  @AfterAll
+  void tearDown() throws InterruptedException {
+    channel.shutdown().awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void throughputShouldScaleWithParallelPullCount() throws Exception {
+    val singlePull = measureMessagesPerSecond(1);
+    val parallelPulls = measureMessagesPerSecond(PARALLEL_PULL_COUNT);
+
+    log.info("Parallel pull throughput: 1 pull {} msg/s, {} pulls {} msg/s", singlePull, PARALLEL_PULL_COUNT,
+        parallelPulls);
+    assertTrue(parallelPulls >= singlePull * MIN_SPEEDUP,
+        () -> String.format("%d parallel pulls (%d msg/s) are not %.1f times faster than a single pull (%d msg/s)",
+            PARALLEL_PULL_COUNT, parallelPulls, MIN_SPEEDUP, singlePull));
+  }
+
+  private long measureMessagesPerSecond(int parallelPullCount) throws Exception {
+    val suffix = UUID.randomUUID().toString();
+    val topicName = TopicName.of(PROJECT_ID, "topic-" + suffix);
+    val subscriptionName = ProjectSubscriptionName.of(PROJECT_ID, "subscription-" + suffix);
+    createTopicAndSubscription(topicName, subscriptionName);
+    publish(topicName);
+
+    val received = new AtomicInteger();
+    val allReceived = new CountDownLatch(MESSAGE_COUNT);
+    val settings = new SubscriberSettings(parallelPullCount, EXECUTOR_THREAD_COUNT, null);
+    val subscriber =
+        settings.applyTo(
+            Subscriber.newBuilder(subscriptionName, (message, consumer) -> {
+              handle();
+              consumer.ack();
+              received.incrementAndGet();
+              allReceived.countDown();
+            })
+                .setChannelProvider(channelProvider)
+                .setCredentialsProvider(credentialsProvider)
+        ).build();
+
+    val start = System.nanoTime();
+    subscriber.startAsync().awaitRunning();
+    try {
+      assertTrue(allReceived.await(RECEIVE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    } finally {
+      subscriber.stopAsync().awaitTerminated();
+    }
+    val elapsedNanos = System.nanoTime() - start;
+
+    assertEquals(MESSAGE_COUNT, received.get());
+    return MESSAGE_COUNT * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  private static void handle() {
+    try {
+      Thread.sleep(HANDLING_TIME_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void createTopicAndSubscription(TopicName topicName, ProjectSubscriptionName subscriptionName)
+      throws Exception {
+    try (val topicAdminClient =
+        TopicAdminClient.create(
+            TopicAdminSettings.newBuilder()
+                .setTransportChannelProvider(channelProvider)
+                .setCredentialsProvider(credentialsProvider)
+                .build())) {
+      topicAdminClient.createTopic(topicName);
+    }
+    try (val subscriptionAdminClient =
+        SubscriptionAdminClient.create(
+            SubscriptionAdminSettings.newBuilder()
+                .setTransportChannelProvider(channelProvider)
+                .setCredentialsProvider(credentialsProvider)
+                .build())) {
+      subscriptionAdminClient.createSubscription(subscriptionName, topicName, PushConfig.getDefaultInstance(), 60);
+    }
+  }
+
+  private void publish(TopicName topicName) throws Exception {
+    val publisher =
+        Publisher.newBuilder(topicName)
+            .setChannelProvider(channelProvider)
+            .setCredentialsProvider(credentialsProvider)
+            .build();
+    try {
+      val payload = ByteString.copyFrom(new byte[PAYLOAD_SIZE]);
+      final List<ApiFuture<String>> futures = new ArrayList<>(MESSAGE_COUNT);
+      for (int i = 0; i < MESSAGE_COUNT; i++) {
+        futures.add(publisher.publish(PubsubMessage.newBuilder().setData(payload).build()));
+      }
+      ApiFutures.allAsList(futures).get(RECEIVE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } finally {
+      publisher.shutdown();
+      publisher.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+}
@@ -17,13 +17,21 @@ package io.lenses.streamreactor.connect.gcp.pubsub.source.configdef;
 
 import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.DEFAULT_BATCH_SIZE;
 import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.DEFAULT_CACHE_TTL_MILLIS;
+import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_BACKPRESSURE_MODE;
 import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_BATCH_SIZE;
 import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_CACHE_TTL;
+import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_EXECUTOR_THREADS;
+import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_MAX_OUTSTANDING_BYTES;
+import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_MAX_OUTSTANDING_ELEMENTS;
+import static io.lenses.streamreactor.connect.gcp.pubsub.source.configdef.PubSubKcqlConverter.KCQL_PROP_KEY_PARALLEL_PULL_COUNT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
 import java.util.Optional;
 
+import org.apache.kafka.common.config.ConfigException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,6 +40,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import io.lenses.kcql.Kcql;
 import io.lenses.streamreactor.connect.gcp.pubsub.source.admin.PubSubService;
+import io.lenses.streamreactor.connect.gcp.pubsub.source.config.BackpressureMode;
 import io.lenses.streamreactor.connect.gcp.pubsub.source.config.PubSubSubscription;
 
 @ExtendWith(MockitoExtension.class)
@@ -85,6 +94,69 @@ class PubSubKcqlConverterTest {
     assertEquals(DEFAULT_CACHE_TTL_MILLIS, result.getCacheExpire());
   }
 
+  @Test
+  void convertShouldDefaultToNackBackpressureMode() {
+    setUpScenario(Optional.empty(), Optional.empty());
+
+    PubSubSubscription result = pubSubKcqlConverter.convert(kcql);
+
+    assertEquals(BackpressureMode.NACK, result.getBackpressureMode());
+  }
+
+  @Test
+  void convertShouldMapBackpressureModeCaseInsensitively() {
+    setUpScenario(Optional.empty(), Optional.empty());
+    when(kcql.extractOptionalProperty(KCQL_PROP_KEY_BACKPRESSURE_MODE)).thenReturn(Optional.of("flow_control"));
+
+    PubSubSubscription result = pubSubKcqlConverter.convert(kcql);
+
+    assertEquals(BackpressureMode.FLOW_CONTROL, result.getBackpressureMode());
+  }
+
+  @Test
+  void convertShouldRejectUnknownBackpressureMode() {
+    setUpScenario(Optional.empty(), Optional.empty());
+    when(kcql.extractOptionalProperty(KCQL_PROP_KEY_BACKPRESSURE_MODE)).thenReturn(Optional.of("drop"));
+
+    assertThrows(ConfigException.class, () -> pubSubKcqlConverter.convert(kcql));
+  }
+
+  @Test
+  void convertShouldLeaveSubscriberTuningUnsetByDefault() {
+    setUpScenario(Optional.empty(), Optional.empty());
+
+    PubSubSubscription result = pubSubKcqlConverter.convert(kcql);
+
+    assertNull(result.getParallelPullCount());
+    assertNull(result.getExecutorThreadCount());
+    assertNull(result.getMaxOutstandingElements());
+    assertNull(result.getMaxOutstandingBytes());
+  }
+
+  @Test
+  void convertShouldMapSubscriberTuningProperties() {
+    setUpScenario(Optional.empty(), Optional.empty());
+    when(kcql.extractOptionalProperty(KCQL_PROP_KEY_PARALLEL_PULL_COUNT)).thenReturn(Optional.of("4"));
+    when(kcql.extractOptionalProperty(KCQL_PROP_KEY_EXECUTOR_THREADS)).thenReturn(Optional.of("8"));
+    when(kcql.extractOptionalProperty(KCQL_PROP_KEY_MAX_OUTSTANDING_ELEMENTS)).thenReturn(Optional.of("5000"));
+    when(kcql.extractOptionalProperty(KCQL_PROP_KEY_MAX_OUTSTANDING_BYTES)).thenReturn(Optional.of("104857600"));
+
+    PubSubSubscription result = pubSubKcqlConverter.convert(kcql);
+
+    assertEquals(Integer.valueOf(4), result.getParallelPullCount());
+    assertEquals(Integer.valueOf(8), result.getExecutorThreadCount());
+    assertEquals(Long.valueOf(5000L), result.getMaxOutstandingElements());
+    assertEquals(Long.valueOf(104857600L), result.getMaxOutstandingBytes());
+  }
+
+  @Test
+  void convertShouldRejectNonPositiveParallelPullCount() {
+    setUpScenario(Optional.empty(), Optional.empty());
+    when(kcql.extractOptionalProperty(KCQL_PROP_KEY_PARALLEL_PULL_COUNT)).thenReturn(Optional.of("0"));
+
+    assertThrows(ConfigException.class, () -> pubSubKcqlConverter.convert(kcql));
+  }
+
   private void setUpScenario(Optional<String> maybeBatchSize, Optional<String> maybeCacheTtl) {
     when(kcql.getSource()).thenReturn(SUBSCRIPTION_ID);
     when(kcql.getTarget()).thenReturn(TARGET_KAFKA_TOPIC);
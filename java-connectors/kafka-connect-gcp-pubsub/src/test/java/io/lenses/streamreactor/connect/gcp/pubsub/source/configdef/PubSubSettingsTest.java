@@ -59,4 +59,33 @@ class PubSubSettingsTest {
     assertRight(pubSubConfig).hasFieldOrPropertyWithValue("projectId", TEST_PROJECT_ID);
   }
 
+  @Test
+  void shouldParsePollSettingsFromConfigSource() {
+    val configSource =
+        new MapConfigSource(
+            Map.of(
+                "pubsub.test.gcp.project.id", TEST_PROJECT_ID,
+                "pubsub.test.poll.batch.size", 500,
+                "pubsub.test.poll.max.latency.ms", 250L
+            )
+        );
+
+    val pubSubConfig = new PubSubSettings(connectorPrefix).parseFromConfig(configSource);
+
+    assertRight(pubSubConfig)
+        .hasFieldOrPropertyWithValue("pollBatchSize", 500)
+        .hasFieldOrPropertyWithValue("pollMaxLatencyMillis", 250L);
+  }
+
+  @Test
+  void shouldDefaultPollSettings() {
+    val configSource = new MapConfigSource(Map.of("pubsub.test.gcp.project.id", TEST_PROJECT_ID));
+
+    val pubSubConfig = new PubSubSettings(connectorPrefix).parseFromConfig(configSource);
+
+    assertRight(pubSubConfig)
+        .hasFieldOrPropertyWithValue("pollBatchSize", PubSubSettings.DEFAULT_POLL_BATCH_SIZE)
+        .hasFieldOrPropertyWithValue("pollMaxLatencyMillis", PubSubSettings.DEFAULT_POLL_MAX_LATENCY_MILLIS);
+  }
+
 }
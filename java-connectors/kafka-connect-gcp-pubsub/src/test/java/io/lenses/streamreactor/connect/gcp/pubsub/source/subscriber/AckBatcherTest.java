@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.gcp.pubsub.source.subscriber;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AckBatcherTest {
+
+  private static final long NEVER_FLUSH_ON_TIMER = 60_000L;
+
+  @Mock
+  private PubSubSubscriber subscriber1;
+
+  @Mock
+  private PubSubSubscriber subscriber2;
+
+  private AckBatcher ackBatcher;
+
+  @AfterEach
+  void tearDown() {
+    ackBatcher.close();
+  }
+
+  @Test
+  void shouldNotAcknowledgeBeforeTheBatchIsFull() {
+    ackBatcher = new AckBatcher(Map.of("sub1", subscriber1), 3, NEVER_FLUSH_ON_TIMER);
+
+    ackBatcher.add("sub1", "m1");
+    ackBatcher.add("sub1", "m2");
+
+    verify(subscriber1, never()).acknowledge(any(), any());
+  }
+
+  @Test
+  void shouldAcknowledgeOnceTheBatchSizeIsReached() {
+    ackBatcher = new AckBatcher(Map.of("sub1", subscriber1), 3, NEVER_FLUSH_ON_TIMER);
+
+    ackBatcher.add("sub1", "m1");
+    ackBatcher.add("sub1", "m2");
+    ackBatcher.add("sub1", "m3");
+
+    verify(subscriber1, timeout(5000)).acknowledge(eq(List.of("m1", "m2", "m3")), any(AckMetrics.class));
+  }
+
+  @Test
+  void shouldAcknowledgeOnTheFlushInterval() {
+    ackBatcher = new AckBatcher(Map.of("sub1", subscriber1), 100, 10L);
+
+    ackBatcher.add("sub1", "m1");
+
+    verify(subscriber1, timeout(5000)).acknowledge(eq(List.of("m1")), any(AckMetrics.class));
+  }
+
+  @Test
+  void shouldGroupAcknowledgementsBySubscription() {
+    ackBatcher = new AckBatcher(Map.of("sub1", subscriber1, "sub2", subscriber2), 100, NEVER_FLUSH_ON_TIMER);
+
+    ackBatcher.add("sub1", "m1");
+    ackBatcher.add("sub2", "m2");
+    ackBatcher.add("sub1", "m3");
+    ackBatcher.flush();
+
+    verify(subscriber1).acknowledge(eq(List.of("m1", "m3")), any(AckMetrics.class));
+    verify(subscriber2).acknowledge(eq(List.of("m2")), any(AckMetrics.class));
+    assertEquals(1L, ackBatcher.getMetrics().getFlushCount());
+  }
+
+  @Test
+  void closeShouldAcknowledgeEverythingStillQueued() {
+    ackBatcher = new AckBatcher(Map.of("sub1", subscriber1), 2, NEVER_FLUSH_ON_TIMER);
+    ackBatcher.close();
+
+    ackBatcher.add("sub1", "m1");
+    ackBatcher.add("sub1", "m2");
+    ackBatcher.add("sub1", "m3");
+    ackBatcher.close();
+
+    verify(subscriber1).acknowledge(eq(List.of("m1", "m2")), any(AckMetrics.class));
+    verify(subscriber1).acknowledge(eq(List.of("m3")), any(AckMetrics.class));
+  }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017-2024 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.gcp.pubsub.source.subscriber;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import lombok.val;
+
+class BoundedMessageBufferTest {
+
+  @Test
+  void offerShouldRejectWhenFull() {
+    val buffer = new BoundedMessageBuffer<String>(2);
+
+    assertTrue(buffer.offer("a"));
+    assertTrue(buffer.offer("b"));
+    assertFalse(buffer.offer("c"));
+
+    assertEquals(2, buffer.size());
+    assertEquals(2L, buffer.getAcceptedCount());
+    assertEquals(1L, buffer.getRejectedCount());
+  }
+
+  @Test
+  void drainShouldReturnElementsInOrderUpToTheLimit() {
+    val buffer = new BoundedMessageBuffer<String>(5);
+    List.of("a", "b", "c").forEach(buffer::offer);
+
+    assertEquals(List.of("a", "b"), buffer.drain(2));
+    assertEquals(List.of("c"), buffer.drain(2));
+    assertEquals(List.of(), buffer.drain(2));
+    assertEquals(3L, buffer.getDrainedCount());
+  }
+
+  @Test
+  void putShouldWaitForSpace() throws Exception {
+    val buffer = new BoundedMessageBuffer<String>(1);
+    buffer.put("a");
+
+    val blockedPut = CompletableFuture.runAsync(() -> {
+      try {
+        buffer.put("b");
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    assertFalse(blockedPut.isDone());
+    assertEquals(List.of("a"), buffer.drain(1));
+
+    blockedPut.get(5, TimeUnit.SECONDS);
+    assertEquals(List.of("b"), buffer.drain(1));
+    assertEquals(2L, buffer.getAcceptedCount());
+  }
+
+}
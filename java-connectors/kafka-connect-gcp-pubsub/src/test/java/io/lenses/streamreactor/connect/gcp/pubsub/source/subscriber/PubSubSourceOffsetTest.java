@@ -31,6 +31,13 @@ class PubSubSourceOffsetTest {
     assertEquals("messageId1", sourceOffset.getMessageId());
   }
 
+  @Test
+  void testMessageIdFrom() {
+    Map<String, Object> sourceLocation = Map.of("message.id", "messageId1");
+
+    assertEquals("messageId1", PubSubSourceOffset.messageIdFrom(sourceLocation));
+  }
+
   @Test
   void testToMap() {
     PubSubSourceOffset sourceOffset = new PubSubSourceOffset("messageId1");
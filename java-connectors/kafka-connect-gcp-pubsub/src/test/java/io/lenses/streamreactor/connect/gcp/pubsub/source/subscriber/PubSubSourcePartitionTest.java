@@ -38,6 +38,18 @@ class PubSubSourcePartitionTest {
     assertEquals("subscriptionId1", sourcePartition.getSubscriptionId());
   }
 
+  @Test
+  void testSubscriptionIdFrom() {
+    Map<String, Object> sourceLocation =
+        Map.of(
+            "project.id", "projectId1",
+            "topic.id", "topicId1",
+            "subscription.id", "subscriptionId1"
+        );
+
+    assertEquals("subscriptionId1", PubSubSourcePartition.subscriptionIdFrom(sourceLocation));
+  }
+
   @Test
   void testToMap() {
     PubSubSourcePartition sourcePartition = new PubSubSourcePartition("projectId1", "topicId1", "subscriptionId1");
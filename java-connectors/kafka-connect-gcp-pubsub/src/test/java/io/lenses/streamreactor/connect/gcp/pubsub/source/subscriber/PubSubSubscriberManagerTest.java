@@ -16,15 +16,29 @@
 package io.lenses.streamreactor.connect.gcp.pubsub.source.subscriber;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -38,6 +52,7 @@ import lombok.val;
 @ExtendWith(MockitoExtension.class)
 class PubSubSubscriberManagerTest {
 
+  public static final String CONNECTOR_NAME = "myConnector";
   public static final String MESSAGE_ID_PREFIX = "myMessageId";
   public static final String PROJECT_ID = "myProject";
   public static final String TOPIC_ID = "myTopic";
@@ -55,17 +70,19 @@ class PubSubSubscriberManagerTest {
   @Mock
   private SubscriberCreator subscriberCreator;
 
+  private List<PubSubSubscription> subscriptions;
+
   private PubSubSubscriberManager target;
 
   @BeforeEach
   void setUp() {
 
-    final var subscription1 = mockSubscriberCreator(pubSubSubscriber1, "1");
-    final var subscription2 = mockSubscriberCreator(pubSubSubscriber2, "2");
-
-    val subscriptions = List.of(subscription1, subscription2);
+    subscriptions = List.of(
+        mockSubscriberCreator(pubSubSubscriber1, "1"),
+        mockSubscriberCreator(pubSubSubscriber2, "2")
+    );
 
-    target = new PubSubSubscriberManager(pubSubService, PROJECT_ID, subscriptions, subscriberCreator);
+    target = createManager(1, 0L);
   }
 
   @Test
@@ -96,6 +113,100 @@ class PubSubSubscriberManagerTest {
     assertEquals("test message2", messages.get(1).getMessage().getData().toStringUtf8());
   }
 
+  @Test
+  void testPollWaitsForSignalledMessages() {
+    val waitingTarget = createManager(1, 10_000L);
+    val signal = captureMessageArrivalSignal();
+    val testMessage = generateTestMessage("1");
+
+    when(pubSubSubscriber1.getMessages()).thenReturn(List.of(), List.of(testMessage));
+    val scheduler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      scheduler.schedule(signal::signal, 100, TimeUnit.MILLISECONDS);
+
+      val start = System.nanoTime();
+      val messages = waitingTarget.poll();
+      val elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+      assertEquals(1, messages.size());
+      assertTrue(elapsedMillis < 10_000L, "poll should return once signalled");
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  void testIdlePollWaitsForMaxLatencyWithoutSpinning() {
+    val waitingTarget = createManager(1, 200L);
+
+    val start = System.nanoTime();
+    val messages = waitingTarget.poll();
+    val elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertTrue(messages.isEmpty());
+    assertTrue(elapsedMillis >= 200L, "poll should wait for the max latency");
+    verify(pubSubSubscriber1, atMost(2)).getMessages();
+  }
+
+  @Test
+  void testStopWakesUpWaitingPoll() throws Exception {
+    val waitingTarget = createManager(1, 10_000L);
+
+    val poll = CompletableFuture.supplyAsync(waitingTarget::poll);
+    Thread.sleep(100);
+    waitingTarget.stop();
+
+    assertTrue(poll.get(5, TimeUnit.SECONDS).isEmpty());
+  }
+
+  @Test
+  void testAckMetricsAreRegisteredUntilStopped() throws Exception {
+    val mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    val ackMetricsNames =
+        new ObjectName("io.lenses.streamreactor.connect.gcp.pubsub.source:type=metrics,name=" + CONNECTOR_NAME + ",*");
+    val registeredBefore = mBeanServer.queryNames(ackMetricsNames, null);
+
+    val registeringTarget = createManager(1, 0L);
+    val registered = new HashSet<>(mBeanServer.queryNames(ackMetricsNames, null));
+    registered.removeAll(registeredBefore);
+
+    assertEquals(1, registered.size());
+    val ackMetricsName = registered.iterator().next();
+    assertEquals(0L, mBeanServer.getAttribute(ackMetricsName, "AckedCount"));
+
+    registeringTarget.stop();
+
+    assertFalse(mBeanServer.isRegistered(ackMetricsName));
+  }
+
+  @Test
+  void testBufferMetricsAreRegisteredPerSubscriptionUntilStopped() throws Exception {
+    val mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    val bufferMetricsName =
+        new ObjectName("io.lenses.streamreactor.connect.gcp.pubsub.source:type=buffer,name=" + CONNECTOR_NAME
+            + ",subscription=" + SUBSCRIPTION_ID_PREFIX + "1");
+
+    assertTrue(mBeanServer.isRegistered(bufferMetricsName));
+    assertEquals(10, mBeanServer.getAttribute(bufferMetricsName, "Capacity"));
+    assertEquals(0L, mBeanServer.getAttribute(bufferMetricsName, "RejectedCount"));
+
+    target.stop();
+
+    assertFalse(mBeanServer.isRegistered(bufferMetricsName));
+  }
+
+  private PubSubSubscriberManager createManager(int pollBatchSize, long pollMaxLatencyMillis) {
+    return new PubSubSubscriberManager(CONNECTOR_NAME, pubSubService, PROJECT_ID, subscriptions, subscriberCreator,
+        pollBatchSize, pollMaxLatencyMillis, 100, 60_000L);
+  }
+
+  private MessageArrivalSignal captureMessageArrivalSignal() {
+    val signalCaptor = ArgumentCaptor.forClass(MessageArrivalSignal.class);
+    verify(subscriberCreator, atLeastOnce()).createSubscriber(eq(pubSubService), eq(PROJECT_ID), eq(subscriptions.get(
+        0)), signalCaptor.capture());
+    return signalCaptor.getValue();
+  }
+
   private PubSubMessageData generateTestMessage(String id) {
     return new PubSubMessageData(
         sourcePartition(id),
@@ -109,9 +220,11 @@ class PubSubSubscriberManagerTest {
   void testCommitRecord() {
 
     target.commitRecord(sourcePartition("1"), sourceOffset("1"));
+    // acknowledgements are batched, stopping flushes what is left
+    target.stop();
 
-    verify(pubSubSubscriber1).acknowledge(MESSAGE_ID_PREFIX + "1");
-    verifyNoInteractions(pubSubSubscriber2);
+    verify(pubSubSubscriber1).acknowledge(eq(List.of(MESSAGE_ID_PREFIX + "1")), any(AckMetrics.class));
+    verify(pubSubSubscriber2, never()).acknowledge(any(), any());
 
   }
 
@@ -131,8 +244,10 @@ class PubSubSubscriberManagerTest {
             .cacheExpire(1000L)
             .build();
 
-    when(subscriberCreator.createSubscriber(pubSubService, PROJECT_ID, subscription))
+    when(subscriberCreator.createSubscriber(eq(pubSubService), eq(PROJECT_ID), eq(subscription), any(
+        MessageArrivalSignal.class)))
         .thenReturn(pubSubSubscriber);
+    when(pubSubSubscriber.getBufferMetrics()).thenReturn(new BoundedMessageBuffer<PubsubMessage>(10));
 
     return subscription;
   }
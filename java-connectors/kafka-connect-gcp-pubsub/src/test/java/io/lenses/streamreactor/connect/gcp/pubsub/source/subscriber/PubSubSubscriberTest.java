@@ -28,6 +28,7 @@ import static org.mockito.Mockito.when;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -37,14 +38,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.google.api.gax.batching.FlowController;
 import com.google.cloud.pubsub.v1.AckReplyConsumer;
 import com.google.cloud.pubsub.v1.MessageReceiver;
 import com.google.cloud.pubsub.v1.Subscriber;
 import com.google.pubsub.v1.PubsubMessage;
 
 import io.lenses.streamreactor.connect.gcp.pubsub.source.admin.PubSubService;
+import io.lenses.streamreactor.connect.gcp.pubsub.source.admin.SubscriberSettings;
+import io.lenses.streamreactor.connect.gcp.pubsub.source.config.BackpressureMode;
 import io.lenses.streamreactor.connect.gcp.pubsub.source.config.PubSubSubscription;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
@@ -68,10 +73,12 @@ class PubSubSubscriberTest {
   @Mock
   private Subscriber gcpSubscriber;
 
+  private final MessageArrivalSignal messageArrivalSignal = new MessageArrivalSignal();
+
   @BeforeEach
   void setUp() {
 
-    when(pubSubService.createSubscriber(anyString(), any(MessageReceiver.class)))
+    when(pubSubService.createSubscriber(anyString(), any(MessageReceiver.class), any()))
         .thenReturn(gcpSubscriber);
 
     when(subscription.getSubscriptionId()).thenReturn(SUBSCRIPTION_ID);
@@ -80,6 +87,10 @@ class PubSubSubscriberTest {
     when(subscription.getQueueMaxEntries()).thenReturn(QUEUE_SIZE);
     when(subscription.getCacheExpire()).thenReturn(CACHE_EXPIRE);
     when(subscription.getSourceTopicId()).thenReturn(SOURCE_TOPIC_ID);
+    when(subscription.getParallelPullCount()).thenReturn(null);
+    when(subscription.getExecutorThreadCount()).thenReturn(null);
+    when(subscription.getMaxOutstandingElements()).thenReturn(null);
+    when(subscription.getMaxOutstandingBytes()).thenReturn(null);
 
   }
 
@@ -103,6 +114,16 @@ class PubSubSubscriberTest {
     assertEquals(TARGET_TOPIC, messages.get(0).getTargetTopicName());
   }
 
+  @Test
+  void testMessageReceptionSignalsArrival() {
+    createPubSubSubscriber();
+    val generationBefore = messageArrivalSignal.generation();
+
+    messageSend(3);
+
+    assertEquals(generationBefore + 3, messageArrivalSignal.generation());
+  }
+
   @Test
   void testNotAcknoledgeMessageOnFullQueue() {
 
@@ -128,7 +149,51 @@ class PubSubSubscriberTest {
             .collect(Collectors.toList());
 
     assertEquals(QUEUE_SIZE, messages.size());
+    assertEquals(QUEUE_SIZE, subscriber.getReceivedCount());
+    assertEquals(QUEUE_SIZE, subscriber.getRejectedCount());
+
+  }
+
+  @Test
+  void testNackModeCreatesSubscriberWithoutFlowControl() {
+    createPubSubSubscriber();
+
+    verify(pubSubService).createSubscriber(eq(SUBSCRIPTION_ID), any(MessageReceiver.class), eq(
+        SubscriberSettings.DEFAULT));
+  }
+
+  @Test
+  void testSubscriberTuningIsPassedToService() {
+    when(subscription.getParallelPullCount()).thenReturn(4);
+    when(subscription.getExecutorThreadCount()).thenReturn(8);
+    when(subscription.getMaxOutstandingBytes()).thenReturn(1024L);
+
+    createPubSubSubscriber();
 
+    val settingsCaptor = ArgumentCaptor.forClass(SubscriberSettings.class);
+    verify(pubSubService).createSubscriber(eq(SUBSCRIPTION_ID), any(MessageReceiver.class), settingsCaptor.capture());
+    val settings = settingsCaptor.getValue();
+    assertEquals(Optional.of(4), settings.getParallelPullCount());
+    assertEquals(Optional.of(8), settings.getExecutorThreadCount());
+    assertEquals(Long.valueOf(1024L), settings.getFlowControlSettings().orElseThrow().getMaxOutstandingRequestBytes());
+  }
+
+  @Test
+  void testFlowControlModeLimitsOutstandingMessagesToQueueSize() {
+    when(subscription.getBackpressureMode()).thenReturn(BackpressureMode.FLOW_CONTROL);
+
+    val subscriber = createPubSubSubscriber();
+
+    val settingsCaptor = ArgumentCaptor.forClass(SubscriberSettings.class);
+    verify(pubSubService).createSubscriber(eq(SUBSCRIPTION_ID), any(MessageReceiver.class), settingsCaptor.capture());
+    val flowControlSettings = settingsCaptor.getValue().getFlowControlSettings().orElseThrow();
+    assertEquals(Long.valueOf(QUEUE_SIZE), flowControlSettings.getMaxOutstandingElementCount());
+    assertEquals(FlowController.LimitExceededBehavior.Block, flowControlSettings.getLimitExceededBehavior());
+
+    val acks = messageSend(QUEUE_SIZE);
+    acks.forEach(Mockito::verifyNoInteractions);
+    assertEquals(QUEUE_SIZE, subscriber.getBufferedCount());
+    assertEquals(0L, subscriber.getRejectedCount());
   }
 
   @Test
@@ -143,9 +208,11 @@ class PubSubSubscriberTest {
     val subscriber = createPubSubSubscriber();
     val acks = messageSend(QUEUE_SIZE);
 
-    acksIndexes
-        .forEach(i -> subscriber.acknowledge(MESSAGE_ID_PREFIX + i)
-        );
+    val ackMetrics = new AckMetrics();
+    subscriber.acknowledge(
+        acksIndexes.stream().map(i -> MESSAGE_ID_PREFIX + i).collect(Collectors.toList()),
+        ackMetrics
+    );
 
     acksIndexes
         .forEach(i -> verify(acks.get(i)).ack()
@@ -154,6 +221,23 @@ class PubSubSubscriberTest {
     noAcksIndexes.forEach(
         i -> verifyNoInteractions(acks.get(i))
     );
+    assertEquals(acksIndexes.size(), ackMetrics.getAckedCount());
+    assertEquals(0L, ackMetrics.getLostCount());
+  }
+
+  @Test
+  void testAcknowledgeCountsMessagesNoLongerCachedAsLost() {
+    val subscriber = createPubSubSubscriber();
+    val acks = messageSend(1);
+    val ackMetrics = new AckMetrics();
+
+    subscriber.acknowledge(List.of(MESSAGE_ID_PREFIX + 0, "expired-message-id"), ackMetrics);
+    // a second commit of the same message finds nothing left to acknowledge
+    subscriber.acknowledge(List.of(MESSAGE_ID_PREFIX + 0), ackMetrics);
+
+    verify(acks.get(0), times(1)).ack();
+    assertEquals(1L, ackMetrics.getAckedCount());
+    assertEquals(2L, ackMetrics.getLostCount());
   }
 
   @Test
@@ -165,7 +249,7 @@ class PubSubSubscriberTest {
   }
 
   private PubSubSubscriber createPubSubSubscriber() {
-    return new PubSubSubscriber(pubSubService, "project-id", subscription);
+    return new PubSubSubscriber(pubSubService, "project-id", subscription, messageArrivalSignal);
   }
 
   private List<AckReplyConsumer> messageSend(int numMessages) {
@@ -185,7 +269,7 @@ class PubSubSubscriberTest {
 
   private MessageReceiver captureMessageReceiver() {
     val receiverCaptor = ArgumentCaptor.forClass(MessageReceiver.class);
-    verify(pubSubService).createSubscriber(eq(SUBSCRIPTION_ID), receiverCaptor.capture());
+    verify(pubSubService).createSubscriber(eq(SUBSCRIPTION_ID), receiverCaptor.capture(), any());
     return receiverCaptor.getValue();
   }
 
@@ -15,22 +15,21 @@
  */
 package io.lenses.streamreactor.connect.reporting;
 
-import cyclops.control.Option;
 import cyclops.control.Try;
 import io.lenses.streamreactor.connect.reporting.model.ConnectorSpecificRecordData;
 import io.lenses.streamreactor.connect.reporting.model.ReportingRecord;
-import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
-import static java.util.function.Function.identity;
-
 /**
  * @param <C> the type of connector-specific record data
  */
-@AllArgsConstructor
 @Slf4j
 public class ReportHolder<C extends ConnectorSpecificRecordData> {
 
@@ -39,29 +38,49 @@ public class ReportHolder<C extends ConnectorSpecificRecordData> {
 
   private final BlockingQueue<ReportingRecord<C>> pendingReportsQueue;
 
+  @Getter
+  private final ReportingMetrics metrics;
+
+  public ReportHolder(BlockingQueue<ReportingRecord<C>> pendingReportsQueue) {
+    this.pendingReportsQueue = pendingReportsQueue;
+    this.metrics = new ReportingMetrics(pendingReportsQueue::size);
+  }
+
   /**
    * Offers Report to be queued for ReportSender to send. Since reporting is non-critical operation,
-   * if it fails, the connector just leaves it.
+   * if it fails, the connector just leaves it and counts the report as dropped.
    */
   public void enqueueReport(ReportingRecord<C> recordReport) {
-    Try.withCatch(() -> pendingReportsQueue.offer(recordReport, DEFAULT_OFFER_TIME_MILLIS, TimeUnit.MILLISECONDS));
+    final boolean enqueued =
+        Try.withCatch(() -> pendingReportsQueue.offer(recordReport, DEFAULT_OFFER_TIME_MILLIS, TimeUnit.MILLISECONDS),
+            InterruptedException.class)
+            .orElse(false);
+    if (!enqueued) {
+      metrics.recordDropped();
+    }
   }
 
   /**
-   * Polls for report to send.
+   * Waits for at least one report to become available and then drains every other report already queued, up to
+   * {@code maxReports}.
    *
-   * @return Option containing ReportingRecord instance or Option.None if the specified waiting time elapses before an
-   *         element is available
+   * @param maxReports the maximum number of reports to return
+   * @return the drained reports, or an empty list if the waiting time elapses before a report is available
    */
-  public Option<ReportingRecord<C>> pollReport() {
+  public List<ReportingRecord<C>> drainReports(int maxReports) {
     log.debug("Long polling for reports...");
-    return Try.withCatch(
-        () -> Option.ofNullable(pendingReportsQueue.poll(DEFAULT_POLL_TIME_MILLIS, TimeUnit.MILLISECONDS)),
-        InterruptedException.class
-    )
-        .toOption()
-        .peek(e -> log.debug("Report found in ReportHolder"))
-        .flatMap(identity());
+    final ReportingRecord<C> first =
+        Try.withCatch(() -> pendingReportsQueue.poll(DEFAULT_POLL_TIME_MILLIS, TimeUnit.MILLISECONDS),
+            InterruptedException.class)
+            .orElse(null);
+    if (first == null) {
+      return Collections.emptyList();
+    }
+    final List<ReportingRecord<C>> reports = new ArrayList<>();
+    reports.add(first);
+    pendingReportsQueue.drainTo(reports, maxReports - 1);
+    log.debug("{} reports drained from ReportHolder", reports.size());
+    return reports;
   }
 
 }
@@ -18,8 +18,6 @@ package io.lenses.streamreactor.connect.reporting;
 import cyclops.control.Either;
 import cyclops.control.Option;
 import cyclops.control.Try;
-import cyclops.instances.control.OptionInstances;
-import cyclops.typeclasses.Do;
 import io.lenses.streamreactor.common.config.source.ConfigSource;
 import io.lenses.streamreactor.common.config.source.MapConfigSource;
 import io.lenses.streamreactor.common.exception.StreamReactorException;
@@ -43,12 +41,9 @@ import java.time.Duration;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -70,7 +65,6 @@ public class ReportSender<C extends ConnectorSpecificRecordData> {
   private static final String EXCEPTION_WHILE_PRODUCING_MESSAGE =
       "Exception was thrown when sending report, will try again for next reports:";
   private static final int DEFAULT_CLOSE_DURATION_IN_MILLIS = 500;
-  private static final int DEFAULT_QUEUES_SIZE = 1000;
   private static final Integer PARTITION_NOT_DEFINED = -1;
 
   private final String reportingClientId;
@@ -78,49 +72,60 @@ public class ReportSender<C extends ConnectorSpecificRecordData> {
   private final ReportHolder<C> reportHolder;
   private final Producer<byte[], String> producer;
   private final ScheduledExecutorService executorService;
+  private final int maxReportsPerDrain;
+  private final long drainIntervalMillis;
 
   public void enqueue(ReportingRecord<C> report) {
     reportHolder.enqueueReport(report);
   }
 
+  public ReportingMetrics getMetrics() {
+    return reportHolder.getMetrics();
+  }
+
   public void start() {
     log.info("Starting reporting Kafka Producer with clientId:" + reportingClientId);
     executorService.scheduleWithFixedDelay(
-        () -> reportHolder.pollReport().forEach(this::sendReport), 0, 50, TimeUnit.MILLISECONDS);
+        this::drainAndSend, 0, drainIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private void drainAndSend() {
+    reportHolder.drainReports(maxReportsPerDrain).forEach(this::sendReport);
   }
 
   private void sendReport(ReportingRecord<C> report) {
     log.debug("Sending Report");
 
-    logAndDiscardTry(
-        Try.withCatch(() -> recordConverter.convert(report), Exception.class), EXCEPTION_WHILE_PRODUCING_MESSAGE
-    ).flatMap(identity())
-        .forEach3(
-            producerRecord -> logAndDiscardTry(
-                Try.withCatch(() -> producer.send(producerRecord), Exception.class),
-                EXCEPTION_WHILE_PRODUCING_MESSAGE
-            ),
-            (producerRecord, future) -> logAndDiscardTry(
-                resolveFuture(future),
-                EXCEPTION_WHILE_PRODUCING_MESSAGE
-            ),
-            (producerRecord, future, md) -> {
-              log.debug("Report send complete");
-              return md;
-            }
-        );
-
+    val producerRecord =
+        logAndDiscardTry(
+            Try.withCatch(() -> recordConverter.convert(report), Exception.class), EXCEPTION_WHILE_PRODUCING_MESSAGE
+        ).flatMap(identity());
+
+    if (!producerRecord.isPresent()) {
+      getMetrics().recordFailed();
+      return;
+    }
+
+    Try.withCatch(() -> producer.send(producerRecord.orElse(null), this::onSendComplete), Exception.class)
+        .peekFailed(e -> {
+          log.debug("{} {}", EXCEPTION_WHILE_PRODUCING_MESSAGE, e.getMessage());
+          getMetrics().recordFailed();
+        });
   }
 
-  private static Try<RecordMetadata, Exception> resolveFuture(Future<RecordMetadata> fut) {
-    return Try.withCatch(
-        () -> fut.get(5L, TimeUnit.SECONDS), InterruptedException.class, ExecutionException.class,
-        TimeoutException.class
-    );
+  private void onSendComplete(RecordMetadata metadata, Exception exception) {
+    if (exception != null) {
+      log.debug("{} {}", EXCEPTION_WHILE_PRODUCING_MESSAGE, exception.getMessage());
+      getMetrics().recordFailed();
+    } else {
+      log.debug("Report send complete");
+      getMetrics().recordSent();
+    }
   }
 
   public void close() {
     log.info("Stopping reporting Kafka Producer with clientId:" + reportingClientId);
+    executorService.shutdown();
     Try.withCatch(() -> executorService.awaitTermination(DEFAULT_CLOSE_DURATION_IN_MILLIS, TimeUnit.MILLISECONDS));
     producer.close(Duration.ofMillis(DEFAULT_CLOSE_DURATION_IN_MILLIS));
   }
@@ -138,13 +143,31 @@ public class ReportSender<C extends ConnectorSpecificRecordData> {
 
     final String reportingClientId = CLIENT_ID_PREFIX + UUID.randomUUID();
 
+    val queueSize = getPositiveNumber(senderConfig, ReportProducerConfigConst.QUEUE_SIZE)
+        .map(Number::intValue)
+        .orElse(ReportProducerConfigConst.QUEUE_SIZE_DEFAULT);
+    val drainIntervalMillis = getPositiveNumber(senderConfig, ReportProducerConfigConst.DRAIN_INTERVAL_MS)
+        .map(Number::longValue)
+        .orElse(ReportProducerConfigConst.DRAIN_INTERVAL_MS_DEFAULT);
+
     val producer = createKafkaProducer(senderConfig, reportingClientId);
-    val queue = new ArrayBlockingQueue<ReportingRecord<C>>(DEFAULT_QUEUES_SIZE);
+    val queue = new ArrayBlockingQueue<ReportingRecord<C>>(queueSize);
     val reportHolder = new ReportHolder<C>(queue);
     val executorService = Executors.newScheduledThreadPool(1);
 
     return new ReportSender<>(reportingClientId, recordConverter.apply(reportingMessagesConfig), reportHolder, producer,
-        executorService);
+        executorService, queueSize, drainIntervalMillis);
+  }
+
+  /**
+   * Connector originals arrive as Strings whereas parsed configs arrive as Numbers, so both are accepted here.
+   */
+  private static Option<Long> getPositiveNumber(Map<String, Object> senderConfig, String key) {
+    return Option.ofNullable(senderConfig.get(key))
+        .map(Object::toString)
+        .filterNot(StringUtils::isBlank)
+        .flatMap(value -> Try.withCatch(() -> Long.parseLong(value.trim()), NumberFormatException.class).toOption())
+        .filter(value -> value > 0);
   }
 
   private static Either<StreamReactorException, String> getReportTopic(ConfigSource mapConfigSource) {
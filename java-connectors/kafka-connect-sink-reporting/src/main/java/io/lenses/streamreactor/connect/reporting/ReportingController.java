@@ -17,6 +17,7 @@ package io.lenses.streamreactor.connect.reporting;
 
 import cyclops.control.Option;
 import io.lenses.streamreactor.common.config.source.MapConfigSource;
+import io.lenses.streamreactor.common.metrics.MetricsRegistrar;
 import io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst;
 import io.lenses.streamreactor.connect.reporting.config.ReporterConfig;
 import io.lenses.streamreactor.connect.reporting.model.ConnectorSpecificRecordData;
@@ -29,8 +30,10 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.kafka.common.config.AbstractConfig;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
+import javax.management.ObjectName;
 
 /**
  * @param <C> the type of connector-specific record data
@@ -39,6 +42,8 @@ import java.util.function.Function;
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 public class ReportingController<C extends ConnectorSpecificRecordData> {
 
+  private static final String METRICS_DOMAIN = "io.lenses.streamreactor.connect.reporting";
+
   protected Option<ReportSender<C>> reportSender;
 
   public static <C extends ConnectorSpecificRecordData> ReportingController<C> fromConfig(
@@ -68,17 +73,30 @@ public class ReportingController<C extends ConnectorSpecificRecordData> {
 
   /**
    * Allows Kafka Producer to start reading for enqueued Reports then sending them periodically
-   * to Kafka topic (specified in config).
+   * to Kafka topic (specified in config), and registers the report counters of the sender as an MBean.
    */
   public void start() {
-    reportSender.forEach(ReportSender::start);
+    reportSender.forEach(sender -> {
+      sender.start();
+      MetricsRegistrar.register(sender.getMetrics(), metricsName(sender));
+    });
   }
 
   /**
    * This method should be called before Connector closes in order to gracefully close KafkaProducer
    */
   public void close() {
-    reportSender.forEach(ReportSender::close);
+    reportSender.forEach(sender -> {
+      sender.close();
+      MetricsRegistrar.unregister(metricsName(sender));
+    });
+  }
+
+  static ObjectName metricsName(ReportSender<?> sender) {
+    final Map<String, String> keyProperties = new LinkedHashMap<>();
+    keyProperties.put("type", "metrics");
+    keyProperties.put("client", sender.getReportingClientId());
+    return MetricsRegistrar.objectName(METRICS_DOMAIN, keyProperties);
   }
 
   @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.reporting;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Counters describing the state of a reporting pipeline. The queued figure is read live from the pending reports
+ * queue, while dropped, sent and failed are cumulative since the reporter was created.
+ */
+@AllArgsConstructor
+public class ReportingMetrics implements ReportingMetricsMBean {
+
+  private final IntSupplier queuedSupplier;
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+
+  void recordDropped() {
+    dropped.incrementAndGet();
+  }
+
+  void recordSent() {
+    sent.incrementAndGet();
+  }
+
+  void recordFailed() {
+    failed.incrementAndGet();
+  }
+
+  /**
+   * @return the number of reports currently waiting to be sent
+   */
+  public int getQueued() {
+    return queuedSupplier.getAsInt();
+  }
+
+  /**
+   * @return the number of reports which could not be enqueued because the pending reports queue was full
+   */
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  /**
+   * @return the number of reports acknowledged by the reporting Kafka topic
+   */
+  public long getSent() {
+    return sent.get();
+  }
+
+  /**
+   * @return the number of reports which failed conversion or were rejected by the Kafka Producer
+   */
+  public long getFailed() {
+    return failed.get();
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.reporting;
+
+/**
+ * JMX view of {@link ReportingMetrics}, registered per reporter under
+ * {@code io.lenses.streamreactor.connect.reporting:type=metrics,client=<reporting client id>}.
+ */
+public interface ReportingMetricsMBean {
+
+  int getQueued();
+
+  long getDropped();
+
+  long getSent();
+
+  long getFailed();
+}
@@ -51,4 +51,14 @@ public class ReportProducerConfigConst {
   public static final String PARTITION_DOC = "Specifies the topic topic for Reporter to write to";
   public static final int PARTITION_DEFAULT = -1;
 
+  public static final String QUEUE_SIZE = "queue.size";
+  public static final String QUEUE_SIZE_DOC =
+      "Specifies how many reports can be waiting to be sent before further reports are dropped";
+  public static final int QUEUE_SIZE_DEFAULT = 1000;
+
+  public static final String DRAIN_INTERVAL_MS = "drain.interval.ms";
+  public static final String DRAIN_INTERVAL_MS_DOC =
+      "Specifies the delay in milliseconds between the Reporter draining all queued reports and sending them";
+  public static final long DRAIN_INTERVAL_MS_DEFAULT = 50L;
+
 }
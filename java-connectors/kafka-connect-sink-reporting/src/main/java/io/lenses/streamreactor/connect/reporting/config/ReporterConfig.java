@@ -28,10 +28,16 @@ import java.util.function.UnaryOperator;
 
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.BOOTSTRAP_SERVERS_CONFIG;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.BOOTSTRAP_SERVERS_DOC;
+import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.DRAIN_INTERVAL_MS;
+import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.DRAIN_INTERVAL_MS_DEFAULT;
+import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.DRAIN_INTERVAL_MS_DOC;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.OPTIONAL_EMPTY_DEFAULT;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.PARTITION;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.PARTITION_DEFAULT;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.PARTITION_DOC;
+import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.QUEUE_SIZE;
+import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.QUEUE_SIZE_DEFAULT;
+import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.QUEUE_SIZE_DOC;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.REPORTING_ENABLED_CONFIG;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.REPORTING_ENABLED_DEFAULT;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.REPORTING_ENABLED_DOC;
@@ -132,7 +138,27 @@ public class ReporterConfig {
             REPORTING_GROUP,
             7,
             Width.LONG,
-            prefixAppender.apply(PARTITION));
+            prefixAppender.apply(PARTITION))
+        .define(prefixAppender.apply(QUEUE_SIZE),
+            Type.INT,
+            QUEUE_SIZE_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            Importance.LOW,
+            QUEUE_SIZE_DOC,
+            REPORTING_GROUP,
+            8,
+            Width.SHORT,
+            prefixAppender.apply(QUEUE_SIZE))
+        .define(prefixAppender.apply(DRAIN_INTERVAL_MS),
+            Type.LONG,
+            DRAIN_INTERVAL_MS_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            Importance.LOW,
+            DRAIN_INTERVAL_MS_DOC,
+            REPORTING_GROUP,
+            9,
+            Width.SHORT,
+            prefixAppender.apply(DRAIN_INTERVAL_MS));
   }
 
   public static Map<String, Object> getErrorReportingProducerConfig(AbstractConfig config) {
@@ -15,19 +15,18 @@
  */
 package io.lenses.streamreactor.connect.reporting;
 
-import cyclops.control.Option;
 import io.lenses.streamreactor.connect.reporting.model.ReportingRecord;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
-import static io.lenses.streamreactor.test.utils.OptionValues.getValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 class ReportHolderTest {
 
@@ -49,19 +48,51 @@ class ReportHolderTest {
   }
 
   @Test
-  void pollReportShouldCallPollOnQueue() throws InterruptedException {
+  void enqueueReportShouldCountDroppedReportsWhenQueueIsFull() throws InterruptedException {
+    //given
+    BlockingQueue<ReportingRecord> queue = new ArrayBlockingQueue<>(1);
+    ReportingRecord report = mock(ReportingRecord.class);
+
+    //when
+    ReportHolder reportHolder = new ReportHolder(queue);
+    reportHolder.enqueueReport(report);
+    reportHolder.enqueueReport(report);
+
+    //then
+    assertEquals(1, reportHolder.getMetrics().getQueued());
+    assertEquals(1L, reportHolder.getMetrics().getDropped());
+  }
+
+  @Test
+  void drainReportsShouldReturnAllQueuedReportsUpToMax() {
+    //given
+    BlockingQueue<ReportingRecord> queue = new ArrayBlockingQueue<>(10);
+    ReportHolder reportHolder = new ReportHolder(queue);
+    for (int i = 0; i < 5; i++) {
+      reportHolder.enqueueReport(mock(ReportingRecord.class));
+    }
+
+    //when
+    List<ReportingRecord> firstDrain = reportHolder.drainReports(3);
+    List<ReportingRecord> secondDrain = reportHolder.drainReports(3);
+
+    //then
+    assertEquals(3, firstDrain.size());
+    assertEquals(2, secondDrain.size());
+    assertEquals(0, reportHolder.getMetrics().getQueued());
+  }
+
+  @Test
+  void drainReportsShouldReturnEmptyListWhenNothingArrives() throws InterruptedException {
     //given
     BlockingQueue queue = mock(BlockingQueue.class);
-    ReportingRecord reportingRecord = mock(ReportingRecord.class);
-    when(queue.poll(DEFAULT_POLL_TIME_MILLIS, TimeUnit.MILLISECONDS)).thenReturn(reportingRecord);
 
     //when
     ReportHolder reportHolder = new ReportHolder(queue);
-    Option<ReportingRecord> recordReport = reportHolder.pollReport();
+    List<ReportingRecord> reports = reportHolder.drainReports(10);
 
     //then
-    assertTrue(recordReport.isPresent());
-    assertEquals(reportingRecord, getValue(recordReport));
+    assertTrue(reports.isEmpty());
     verify(queue).poll(DEFAULT_POLL_TIME_MILLIS, TimeUnit.MILLISECONDS);
   }
 }
@@ -19,6 +19,7 @@ import cyclops.control.Option;
 import io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst;
 import io.lenses.streamreactor.connect.reporting.model.RecordConverter;
 import io.lenses.streamreactor.connect.reporting.model.ReportingRecord;
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
@@ -26,14 +27,15 @@ import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -41,7 +43,9 @@ import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -51,6 +55,8 @@ class ReportSenderTest {
 
   private static final TopicPartition topicPartition = new TopicPartition("myTopic", 5);
   private static final ReportingMessagesConfig reportTopic = new ReportingMessagesConfig("test-topic", Option.of(1));
+  private static final int MAX_REPORTS_PER_DRAIN = 1000;
+  private static final long DRAIN_INTERVAL_MILLIS = 50L;
 
   @Mock
   private ReportHolder<TestConnectorSpecificRecordDataData> mockReportHolder;
@@ -72,9 +78,15 @@ class ReportSenderTest {
 
   private final Map<String, Object> senderConfig = Map.of(ReportProducerConfigConst.TOPIC, "test-topic");
 
-  @InjectMocks
   private ReportSender<TestConnectorSpecificRecordDataData> reportSender;
 
+  @BeforeEach
+  void setUp() {
+    reportSender =
+        new ReportSender<>("test-client-id", recordConverter, mockReportHolder, mockProducer, mockExecutorService,
+            MAX_REPORTS_PER_DRAIN, DRAIN_INTERVAL_MILLIS);
+  }
+
   @Test
   void testEnqueue() {
     reportSender.enqueue(mockReportingRecord);
@@ -85,28 +97,55 @@ class ReportSenderTest {
   @Test
   void testStart() {
 
-    when(mockReportHolder.pollReport()).thenReturn(Option.of(mockReportingRecord));
+    when(mockReportHolder.drainReports(MAX_REPORTS_PER_DRAIN)).thenReturn(List.of(mockReportingRecord,
+        mockReportingRecord));
     when(recordConverter.convert(mockReportingRecord)).thenReturn(Option.of(producerRecord));
-    when(mockProducer.send(producerRecord)).thenReturn(future);
+    when(mockProducer.send(eq(producerRecord), any(Callback.class))).thenReturn(future);
 
     reportSender.start();
 
     ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
-    verify(mockExecutorService, times(1)).scheduleWithFixedDelay(runnableCaptor.capture(), eq(0L), eq(50L), eq(
-        TimeUnit.MILLISECONDS));
+    verify(mockExecutorService, times(1)).scheduleWithFixedDelay(runnableCaptor.capture(), eq(0L), eq(
+        DRAIN_INTERVAL_MILLIS), eq(TimeUnit.MILLISECONDS));
 
     // Execute the captured runnable
     Runnable capturedRunnable = runnableCaptor.getValue();
     capturedRunnable.run();
 
-    verify(mockReportHolder, times(1)).pollReport();
-    verify(mockProducer, times(1)).send(producerRecord);
+    verify(mockReportHolder, times(1)).drainReports(MAX_REPORTS_PER_DRAIN);
+    verify(mockProducer, times(2)).send(eq(producerRecord), any(Callback.class));
+  }
+
+  @Test
+  void sendCallbacksShouldUpdateMetrics() {
+    ReportingMetrics metrics = new ReportingMetrics(() -> 0);
+    when(mockReportHolder.getMetrics()).thenReturn(metrics);
+    when(mockReportHolder.drainReports(MAX_REPORTS_PER_DRAIN)).thenReturn(List.of(mockReportingRecord,
+        mockReportingRecord));
+    when(recordConverter.convert(mockReportingRecord)).thenReturn(Option.of(producerRecord));
+    when(mockProducer.send(eq(producerRecord), any(Callback.class))).thenReturn(future);
+
+    reportSender.start();
+
+    ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockExecutorService).scheduleWithFixedDelay(runnableCaptor.capture(), eq(0L), eq(DRAIN_INTERVAL_MILLIS),
+        eq(TimeUnit.MILLISECONDS));
+    runnableCaptor.getValue().run();
+
+    ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+    verify(mockProducer, times(2)).send(eq(producerRecord), callbackCaptor.capture());
+    callbackCaptor.getAllValues().get(0).onCompletion(mock(RecordMetadata.class), null);
+    callbackCaptor.getAllValues().get(1).onCompletion(null, new RuntimeException("boom"));
+
+    assertEquals(1L, metrics.getSent());
+    assertEquals(1L, metrics.getFailed());
   }
 
   @Test
   void testClose() throws InterruptedException {
     reportSender.close();
 
+    verify(mockExecutorService, times(1)).shutdown();
     verify(mockExecutorService, times(1)).awaitTermination(500, TimeUnit.MILLISECONDS);
     verify(mockProducer, times(1)).close(Duration.ofMillis(500));
   }
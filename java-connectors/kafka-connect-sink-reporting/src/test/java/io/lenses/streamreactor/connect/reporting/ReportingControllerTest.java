@@ -15,11 +15,17 @@
  */
 package io.lenses.streamreactor.connect.reporting;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import cyclops.control.Option;
 import io.lenses.streamreactor.connect.reporting.model.ReportingRecord;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -52,17 +58,31 @@ public class ReportingControllerTest {
   }
 
   @Test
-  void testStart() {
+  void testStart() throws Exception {
+    when(mockReportSender.getReportingClientId()).thenReturn("test-client-start");
+    when(mockReportSender.getMetrics()).thenReturn(new ReportingMetrics(() -> 3));
+
     reportingController.start();
 
     verify(mockReportSender, times(1)).start();
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    assertEquals(3, mBeanServer.getAttribute(ReportingController.metricsName(mockReportSender), "Queued"));
+    reportingController.close();
   }
 
   @Test
   void testClose() {
+    when(mockReportSender.getReportingClientId()).thenReturn("test-client-close");
+    when(mockReportSender.getMetrics()).thenReturn(new ReportingMetrics(() -> 0));
+    reportingController.start();
+    assertTrue(ManagementFactory.getPlatformMBeanServer()
+        .isRegistered(ReportingController.metricsName(mockReportSender)));
+
     reportingController.close();
 
     verify(mockReportSender, times(1)).close();
+    assertFalse(ManagementFactory.getPlatformMBeanServer()
+        .isRegistered(ReportingController.metricsName(mockReportSender)));
   }
 
 }
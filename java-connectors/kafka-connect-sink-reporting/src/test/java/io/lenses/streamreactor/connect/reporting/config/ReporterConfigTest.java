@@ -16,7 +16,9 @@
 package io.lenses.streamreactor.connect.reporting.config;
 
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.BOOTSTRAP_SERVERS_CONFIG;
+import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.DRAIN_INTERVAL_MS;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.PARTITION;
+import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.QUEUE_SIZE;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.REPORTING_ENABLED_CONFIG;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.SASL_JAAS_CONFIG;
 import static io.lenses.streamreactor.connect.reporting.config.ReportProducerConfigConst.SASL_MECHANISM_CONFIG;
@@ -61,7 +63,8 @@ class ReporterConfigTest {
   private static final Set<String> PRODUCER_PROPERTIES =
       Set.of(REPORTING_ENABLED_CONFIG, SASL_MECHANISM_CONFIG,
           SASL_JAAS_CONFIG, SECURITY_PROTOCOL_CONFIG,
-          BOOTSTRAP_SERVERS_CONFIG, TOPIC, PARTITION);
+          BOOTSTRAP_SERVERS_CONFIG, TOPIC, PARTITION,
+          QUEUE_SIZE, DRAIN_INTERVAL_MS);
   private static final Integer PRODUCER_PROPERTIES_SIZE = PRODUCER_PROPERTIES.size();
 
   @Test
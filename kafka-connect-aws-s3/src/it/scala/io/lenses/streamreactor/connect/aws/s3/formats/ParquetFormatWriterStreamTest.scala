@@ -34,6 +34,7 @@ import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodecName.L
 import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodecName.LZO
 import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodecName.UNCOMPRESSED
 import io.lenses.streamreactor.connect.cloud.common.model.location.FileUtils.toBufferedOutputStream
+import io.lenses.streamreactor.connect.cloud.common.sink.config.ParquetWriterOptions
 import io.lenses.streamreactor.connect.cloud.common.sink.conversion.ArraySinkData
 import io.lenses.streamreactor.connect.cloud.common.sink.conversion.MapSinkData
 import io.lenses.streamreactor.connect.cloud.common.sink.conversion.NullSinkData
@@ -139,6 +140,28 @@ class ParquetFormatWriterStreamTest
     ).left.value.getMessage should be("Schema-less data is not supported for Avro/Parquet")
   }
 
+  "convert" should "write records across several row groups" in {
+
+    val blobStream = new BuildLocalOutputStream(toBufferedOutputStream(localFile), topicPartition)
+    val parquetFormatWriter =
+      new ParquetFormatWriter(blobStream, ParquetWriterOptions(rowGroupSize = 1024L, pageSize = 512))(compressionCodec)
+    (1 to 1000).foreach { i =>
+      parquetFormatWriter.write(MessageDetail(NullSinkData(None),
+                                              StructSinkData(users(i % users.size)),
+                                              Map.empty,
+                                              None,
+                                              topic,
+                                              1,
+                                              Offset(i.toLong),
+      )) should be(Right(()))
+    }
+    parquetFormatWriter.complete() should be(Right(()))
+
+    val genericRecords = parquetFormatReader.read(localFileAsBytes(localFile))
+    genericRecords.size should be(1000)
+    checkRecord(genericRecords(9), "sam", "mr", 100.43)
+  }
+
   "convert" should "throw an exception when trying to write map values" in {
 
     val mapSchema = SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.INT32_SCHEMA)
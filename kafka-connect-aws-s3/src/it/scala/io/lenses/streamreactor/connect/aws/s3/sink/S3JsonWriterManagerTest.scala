@@ -23,6 +23,7 @@ import io.lenses.streamreactor.common.errors.ErrorPolicyEnum
 import io.lenses.streamreactor.connect.aws.s3.config._
 import io.lenses.streamreactor.connect.aws.s3.model.location.S3LocationValidator
 import io.lenses.streamreactor.connect.aws.s3.sink.config.S3SinkConfig
+import io.lenses.streamreactor.connect.aws.s3.storage.AwsS3StorageInterface
 import io.lenses.streamreactor.connect.aws.s3.storage.S3FileMetadata
 import io.lenses.streamreactor.connect.aws.s3.utils.S3ProxyContainerTest
 import io.lenses.streamreactor.connect.cloud.common.config.AvroFormatSelection
@@ -43,6 +44,7 @@ import io.lenses.streamreactor.connect.cloud.common.sink.config.LocalStagingArea
 import io.lenses.streamreactor.connect.cloud.common.sink.config.IndexOptions
 import io.lenses.streamreactor.connect.cloud.common.sink.config.PartitionDisplay.Values
 import io.lenses.streamreactor.connect.cloud.common.sink.config.PartitionSelection.defaultPartitionSelection
+import io.lenses.streamreactor.connect.cloud.common.sink.config.StreamingUploadOptions
 import io.lenses.streamreactor.connect.cloud.common.sink.config.padding.LeftPadPaddingStrategy
 import io.lenses.streamreactor.connect.cloud.common.sink.config.padding.NoOpPaddingStrategy
 import io.lenses.streamreactor.connect.cloud.common.sink.config.padding.PaddingService
@@ -138,6 +140,73 @@ class S3JsonWriterManagerTest extends AnyFlatSpec with Matchers with S3ProxyCont
     )
   }
 
+  "json sink" should "stream a json record to its final key" in {
+
+    val bucketAndPrefix = CloudLocation(BucketName, PathPrefix.some)
+    val config = S3SinkConfig(
+      S3ConnectionConfig(
+        None,
+        Some(s3Container.identity.identity),
+        Some(s3Container.identity.credential),
+        AuthMode.Credentials,
+      ),
+      bucketOptions = Seq(
+        CloudSinkBucketOptions(
+          TopicName.some,
+          bucketAndPrefix,
+          commitPolicy    = CommitPolicy(Count(1)),
+          formatSelection = JsonFormatSelection,
+          keyNamer = new CloudKeyNamer(
+            JsonFormatSelection,
+            defaultPartitionSelection(Values),
+            new OffsetFileNamer(
+              identity[String],
+              JsonFormatSelection.extension,
+            ),
+            new PaddingService(Map[String, PaddingStrategy](
+              "partition" -> NoOpPaddingStrategy,
+              "offset"    -> LeftPadPaddingStrategy(12, 0),
+            )),
+          ),
+          localStagingArea = LocalStagingArea(localRoot),
+          dataStorage      = DataStorageSettings.disabled,
+          streamingUpload  = StreamingUploadOptions(StreamingUploadOptions.MinPartSize).some,
+        ), // JsonS3Format
+      ),
+      indexOptions = IndexOptions(5, ".indexes").some,
+      compressionCodec,
+      batchDelete          = true,
+      errorPolicy          = ErrorPolicy(ErrorPolicyEnum.THROW),
+      connectorRetryConfig = new RetryConfig(1, 1L, 1.0),
+      logMetrics           = false,
+      schemaChangeDetector = schemaChangeDetector,
+    )
+
+    val sink   = writerManagerCreator.from(config)._2
+    val topic  = Topic(TopicName)
+    val offset = Offset(1)
+    sink.write(
+      TopicPartitionOffset(topic, 1, offset),
+      MessageDetail(
+        NullSinkData(None),
+        StructSinkData(users.head),
+        Map.empty[String, SinkData],
+        Some(Instant.ofEpochMilli(111L)),
+        topic,
+        1,
+        offset,
+      ),
+    )
+    sink.close()
+
+    listBucketPath(BucketName, "streamReactorBackups/myTopic/1/").size should be(1)
+    listBucketPath(BucketName, s"$PathPrefix/${AwsS3StorageInterface.StreamingUploadsDirectory}/") should be(empty)
+
+    remoteFileAsString(BucketName, "streamReactorBackups/myTopic/1/1_111_111.json") should be(
+      """{"name":"sam","title":"mr","salary":100.43}""",
+    )
+  }
+
   "json sink" should "write schemas to json" in {
 
     val bucketAndPrefix = CloudLocation(BucketName, PathPrefix.some)
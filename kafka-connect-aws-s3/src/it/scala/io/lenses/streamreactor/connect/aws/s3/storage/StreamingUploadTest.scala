@@ -0,0 +1,83 @@
+
+import cats.implicits.catsSyntaxOptionId
+import io.lenses.streamreactor.connect.aws.s3.model.location.S3LocationValidator
+import io.lenses.streamreactor.connect.aws.s3.utils.S3ProxyContainerTest
+import io.lenses.streamreactor.connect.cloud.common.model.Topic
+import io.lenses.streamreactor.connect.cloud.common.model.UploadableFile
+import io.lenses.streamreactor.connect.cloud.common.model.location.CloudLocation
+import io.lenses.streamreactor.connect.cloud.common.sink.config.StreamingUploadOptions
+import org.scalatest.EitherValues
+import org.scalatest.OptionValues
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest
+
+import java.io.File
+import java.nio.file.Files
+import scala.util.Random
+
+class StreamingUploadTest
+    extends AnyFlatSpec
+    with Matchers
+    with EitherValues
+    with OptionValues
+    with S3ProxyContainerTest {
+
+  private val location       = CloudLocation(BucketName, "prefix".some)(S3LocationValidator)
+  private val topicPartition = Topic("topic").withPartition(1)
+  private val partSize       = StreamingUploadOptions.MinPartSize
+
+  // spans three parts, the last one shorter
+  private val content: Array[Byte] = Random.nextBytes(2 * partSize.toInt + 1024)
+
+  "streamingOutputStream" should "upload a file larger than a part as a multipart upload moved to its final key" in {
+    val stagingFile = tempFile()
+
+    writeStreamed(stagingFile).complete().value should be(())
+    listBucketPath(BucketName, stagingPrefix) should be(List(stagingPrefix + stagingFile.getName))
+
+    storageInterface.uploadFile(UploadableFile(stagingFile), BucketName, "prefix/topic/1/1.bin").value should be(())
+
+    remoteFileAsBytes(BucketName, "prefix/topic/1/1.bin") should be(content)
+    listBucketPath(BucketName, stagingPrefix) should be(empty)
+    multipartUploads() should be(empty)
+  }
+
+  it should "copy a streamed object to its final key with UploadPartCopy" in {
+    val stagingFile = tempFile()
+    writeStreamed(stagingFile).complete().value should be(())
+    val streamedKey = stagingPrefix + stagingFile.getName
+
+    val copied =
+      storageInterface.copyInParts(BucketName, streamedKey, content.length.toLong, BucketName, "prefix/topic/1/2.bin")
+    copied.value should be(())
+
+    remoteFileAsBytes(BucketName, "prefix/topic/1/2.bin") should be(content)
+    listBucketPath(BucketName, stagingPrefix) should be(empty)
+    multipartUploads() should be(empty)
+  }
+
+  it should "leave neither an object nor a multipart upload behind when aborted" in {
+    writeStreamed(tempFile()).abort()
+
+    listBucketPath(BucketName, stagingPrefix) should be(empty)
+    listBucketPath(BucketName, "prefix/topic/") should be(empty)
+    multipartUploads() should be(empty)
+  }
+
+  private def writeStreamed(stagingFile: File) = {
+    val stream = storageInterface.streamingOutputStream(stagingFile, location, topicPartition, partSize).value
+    stream.write(content)
+    stream
+  }
+
+  private def stagingPrefix: String =
+    s"prefix/${AwsS3StorageInterface.StreamingUploadsDirectory}/${connectorTaskId.name}/${connectorTaskId.taskNo}/"
+
+  private def multipartUploads(): List[String] = {
+    val response = client.listMultipartUploads(ListMultipartUploadsRequest.builder().bucket(BucketName).build())
+    List.from(response.uploads().toArray).map(_.toString)
+  }
+
+  private def tempFile(): File = Files.createTempFile("staging", ".bin").toFile
+}
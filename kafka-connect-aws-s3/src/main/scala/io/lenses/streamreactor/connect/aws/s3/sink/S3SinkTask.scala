@@ -50,10 +50,12 @@ class S3SinkTask
     config:          S3SinkConfig,
     cloudClient:     S3Client,
   ): AwsS3StorageInterface =
-    new AwsS3StorageInterface(connectorTaskId = connectorTaskId,
-                              s3Client        = cloudClient,
-                              batchDelete     = config.batchDelete,
-                              extensionFilter = Option.empty,
+    new AwsS3StorageInterface(
+      connectorTaskId     = connectorTaskId,
+      s3Client            = cloudClient,
+      batchDelete         = config.batchDelete,
+      extensionFilter     = Option.empty,
+      streamingBufferSize = config.streamingBufferSize,
     )
 
   override def createClient(config: S3ConnectionConfig): Either[Throwable, S3Client] =
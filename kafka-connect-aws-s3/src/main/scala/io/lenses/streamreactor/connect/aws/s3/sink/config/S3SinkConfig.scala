@@ -27,6 +27,7 @@ import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodec
 import io.lenses.streamreactor.connect.cloud.common.model.location.CloudLocationValidator
 import io.lenses.streamreactor.connect.cloud.common.sink.config.CloudSinkBucketOptions
 import io.lenses.streamreactor.connect.cloud.common.sink.config.IndexOptions
+import io.lenses.streamreactor.connect.cloud.common.sink.config.StreamingUploadOptions
 
 import scala.util.Try
 
@@ -66,6 +67,8 @@ object S3SinkConfig extends PropsToConfigConverter[S3SinkConfig] {
       connectorRetryConfig = s3ConfigDefBuilder.getRetryConfig,
       logMetrics           = logMetrics,
       schemaChangeDetector = schemaChangeDetector,
+      uploadConcurrency    = s3ConfigDefBuilder.uploadConcurrency(),
+      streamingBufferSize  = s3ConfigDefBuilder.streamingBufferSize(),
     )
 
 }
@@ -80,4 +83,6 @@ case class S3SinkConfig(
   connectorRetryConfig: RetryConfig,
   logMetrics:           Boolean,
   schemaChangeDetector: SchemaChangeDetector,
+  uploadConcurrency:    Int = 0,
+  streamingBufferSize:  Int = StreamingUploadOptions.DefaultBufferSize,
 ) extends CloudSinkConfig[S3ConnectionConfig]
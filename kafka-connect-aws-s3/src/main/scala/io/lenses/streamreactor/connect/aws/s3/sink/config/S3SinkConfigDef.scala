@@ -23,6 +23,7 @@ import io.lenses.streamreactor.connect.cloud.common.config.IndexConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.FlushConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.LocalStagingAreaConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.SchemaChangeConfigKeys
+import io.lenses.streamreactor.connect.cloud.common.sink.config.UploadPipelineConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.padding.PaddingStrategyConfigKeys
 import org.apache.kafka.common.config.ConfigDef
 import org.apache.kafka.common.config.ConfigDef.Importance
@@ -34,7 +35,9 @@ object S3SinkConfigDef
     with LocalStagingAreaConfigKeys
     with PaddingStrategyConfigKeys
     with IndexConfigKeys
-    with SchemaChangeConfigKeys {
+    with SchemaChangeConfigKeys
+    with UploadPipelineConfigKeys
+    with StreamingBufferConfigKeys {
 
   override def connectorPrefix: String = CONNECTOR_PREFIX
 
@@ -51,6 +54,8 @@ object S3SinkConfigDef
     addLocalStagingAreaToConfigDef(configDef)
     addPaddingToConfigDef(configDef)
     addIndexSettingsToConfigDef(configDef)
+    withUploadPipelineConfig(configDef)
+    withStreamingBufferConfig(configDef)
     withSchemaChangeConfig(configDef)
   }
 
@@ -27,7 +27,8 @@ case class S3SinkConfigDefBuilder(props: Map[String, AnyRef])
     with CloudSinkConfigDefBuilder
     with ErrorPolicySettings
     with RetryConfigSettings
-    with DeleteModeSettings {
+    with DeleteModeSettings
+    with StreamingBufferSettings {
 
   def getParsedValues: Map[String, _] = values().asScala.toMap
 
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.aws.s3.sink.config
+
+import io.lenses.streamreactor.common.config.base.traits.BaseSettings
+import io.lenses.streamreactor.common.config.base.traits.WithConnectorPrefix
+import io.lenses.streamreactor.connect.cloud.common.sink.config.StreamingUploadOptions
+import org.apache.kafka.common.config.ConfigDef
+import org.apache.kafka.common.config.ConfigDef.Importance
+import org.apache.kafka.common.config.ConfigDef.Type
+
+trait StreamingBufferConfigKeys extends WithConnectorPrefix {
+
+  protected def STREAMING_BUFFER_BYTES = s"$connectorPrefix.upload.streaming.buffer.bytes"
+
+  private val STREAMING_BUFFER_BYTES_DOC =
+    "The memory, in bytes, the part buffers of the files streamed by a task can hold, for the KCQL statements " +
+      "with 'upload.streaming' enabled. A file opened once it is used up is staged on the local disk instead. " +
+      "Each task of the worker holds its own buffers."
+
+  def withStreamingBufferConfig(configDef: ConfigDef): ConfigDef =
+    configDef.define(
+      STREAMING_BUFFER_BYTES,
+      Type.INT,
+      StreamingUploadOptions.DefaultBufferSize,
+      ConfigDef.Range.atLeast(0),
+      Importance.LOW,
+      STREAMING_BUFFER_BYTES_DOC,
+      "Upload",
+      2,
+      ConfigDef.Width.MEDIUM,
+      STREAMING_BUFFER_BYTES,
+    )
+}
+
+trait StreamingBufferSettings extends BaseSettings with StreamingBufferConfigKeys {
+
+  def streamingBufferSize(): Int =
+    getInt(STREAMING_BUFFER_BYTES)
+
+}
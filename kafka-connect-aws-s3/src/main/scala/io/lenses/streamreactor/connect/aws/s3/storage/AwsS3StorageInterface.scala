@@ -18,8 +18,11 @@ import cats.implicits._
 import com.typesafe.scalalogging.LazyLogging
 import io.lenses.streamreactor.connect.cloud.common.config.ConnectorTaskId
 import io.lenses.streamreactor.connect.cloud.common.config.ObjectMetadata
+import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
 import io.lenses.streamreactor.connect.cloud.common.model.UploadableFile
 import io.lenses.streamreactor.connect.cloud.common.model.UploadableString
+import io.lenses.streamreactor.connect.cloud.common.model.location.CloudLocation
+import io.lenses.streamreactor.connect.cloud.common.sink.config.StreamingUploadOptions
 import io.lenses.streamreactor.connect.cloud.common.storage.ExtensionFilter
 import io.lenses.streamreactor.connect.cloud.common.storage.FileCreateError
 import io.lenses.streamreactor.connect.cloud.common.storage.FileDeleteError
@@ -32,29 +35,58 @@ import io.lenses.streamreactor.connect.cloud.common.storage.ListResponse
 import io.lenses.streamreactor.connect.cloud.common.storage.StorageInterface
 import io.lenses.streamreactor.connect.cloud.common.storage.UploadError
 import io.lenses.streamreactor.connect.cloud.common.storage.UploadFailedError
+import io.lenses.streamreactor.connect.cloud.common.stream.CloudOutputStream
 import org.apache.commons.io.IOUtils
 import software.amazon.awssdk.core.ResponseInputStream
 import software.amazon.awssdk.core.sync.RequestBody
 import software.amazon.awssdk.services.s3.S3Client
 import software.amazon.awssdk.services.s3.model._
 
+import java.io.File
 import java.io.InputStream
 import java.nio.charset.Charset
 import java.time.Instant
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Semaphore
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.atomic.AtomicInteger
+import scala.concurrent.ExecutionContext
+import scala.jdk.CollectionConverters.IterableHasAsScala
 import scala.jdk.CollectionConverters.IteratorHasAsScala
 import scala.jdk.CollectionConverters.ListHasAsScala
+import scala.jdk.CollectionConverters.MapHasAsScala
+import scala.jdk.CollectionConverters.SeqHasAsJava
 import scala.util.Failure
 import scala.util.Success
 import scala.util.Try
 
 class AwsS3StorageInterface(
-  connectorTaskId: ConnectorTaskId,
-  s3Client:        S3Client,
-  batchDelete:     Boolean,
-  extensionFilter: Option[ExtensionFilter],
+  connectorTaskId:     ConnectorTaskId,
+  s3Client:            S3Client,
+  batchDelete:         Boolean,
+  extensionFilter:     Option[ExtensionFilter],
+  streamingBufferSize: Int = StreamingUploadOptions.DefaultBufferSize,
 ) extends StorageInterface[S3FileMetadata]
     with LazyLogging {
 
+  import AwsS3StorageInterface._
+
+  // objects streamed for staging files, moved to their final path once the staging file is uploaded
+  private val streamedObjects = new ConcurrentHashMap[File, StreamedObject]()
+
+  // the buckets and staging prefixes the objects left over by a previous run of the task have been cleaned from
+  private val cleanedLocations = ConcurrentHashMap.newKeySet[(String, String)]()
+
+  // the memory, in bytes, the buffers of all the streams of the task can hold
+  private val bufferBudget = new Semaphore(streamingBufferSize)
+
+  private val partUploadExecutor: ExecutorService =
+    Executors.newFixedThreadPool(PartUploadThreads, partUploadThreadFactory)
+
+  private val partUploadContext: ExecutionContext = ExecutionContext.fromExecutorService(partUploadExecutor)
+
   override def list(
     bucket:     String,
     prefix:     Option[String],
@@ -136,7 +168,139 @@ class AwsS3StorageInterface(
     }
   }
 
-  override def uploadFile(source: UploadableFile, bucket: String, path: String): Either[UploadError, Unit] = {
+  override def streamingOutputStream(
+    stagingFile:     File,
+    bucketAndPrefix: CloudLocation,
+    topicPartition:  TopicPartition,
+    partSize:        Long,
+  ): Option[CloudOutputStream] =
+    if (!bufferBudget.tryAcquire(partSize.toInt)) {
+      logger.warn(s"[{}] Streaming buffers are full, staging file {} on the local disk",
+                  connectorTaskId.show,
+                  stagingFile,
+      )
+      None
+    } else {
+      val bucket        = bucketAndPrefix.bucket
+      val stagingPrefix = streamingUploadsPrefix(bucketAndPrefix.prefix)
+      if (cleanedLocations.add((bucket, stagingPrefix))) cleanStreamingUploads(bucket, stagingPrefix)
+      val key = stagingPrefix + stagingFile.getName
+      logger.debug(s"[{}] Streaming staging file {} to s3 {}:{}", connectorTaskId.show, stagingFile, bucket, key)
+      new S3MultipartOutputStream(
+        s3Client,
+        bucket,
+        key,
+        partSize.toInt,
+        bufferBudget,
+        topicPartition,
+        size => { val _ = streamedObjects.put(stagingFile, StreamedObject(bucket, key, size)) },
+      )(connectorTaskId, partUploadContext).some
+    }
+
+  override def uploadFile(source: UploadableFile, bucket: String, path: String): Either[UploadError, Unit] =
+    Option(streamedObjects.get(source.file)) match {
+      case Some(streamed) =>
+        logger.debug(s"[{}] AWS Moving streamed file {} to s3 {}:{}", connectorTaskId.show, source, bucket, path)
+        val moved =
+          if (streamed.size > MaxCopyObjectSize) copyInParts(streamed.bucket, streamed.key, streamed.size, bucket, path)
+          else mvFile(streamed.bucket, streamed.key, bucket, path)
+        moved.map { _ =>
+          val _ = streamedObjects.remove(source.file)
+        }
+      case None => putFile(source, bucket, path)
+    }
+
+  /**
+    * The streamed objects are staged under the prefix the sink writes to, in a directory of their own for each task.
+    * Whatever is found there when the task starts using the prefix was left over by a previous run of the task, which
+    * failed before moving or aborting it: the objects are deleted and the multipart uploads aborted.
+    */
+  private def cleanStreamingUploads(bucket: String, prefix: String): Unit = {
+    listKeysRecursive(bucket, prefix.some)
+      .flatMap(_.fold(().asRight[UploadError])(response => deleteFiles(bucket, response.files)))
+      .left
+      .foreach(e =>
+        logger.warn(s"[{}] Failed to delete leftover streamed files: {}", connectorTaskId.show, e.message()),
+      )
+    Try {
+      s3Client
+        .listMultipartUploadsPaginator(ListMultipartUploadsRequest.builder().bucket(bucket).prefix(prefix).build())
+        .uploads()
+        .asScala
+        .foreach { upload =>
+          logger.info(s"[{}] Aborting leftover multipart upload to s3 {}:{}",
+                      connectorTaskId.show,
+                      bucket,
+                      upload.key(),
+          )
+          s3Client.abortMultipartUpload(
+            AbortMultipartUploadRequest.builder().bucket(bucket).key(upload.key()).uploadId(upload.uploadId()).build(),
+          )
+        }
+    }.failed.foreach(ex =>
+      logger.warn(s"[{}] Failed to abort leftover multipart uploads in {}", connectorTaskId.show, bucket, ex),
+    )
+  }
+
+  private def streamingUploadsPrefix(prefix: Option[String]): String =
+    prefix.fold("")(p => s"$p/") + s"$StreamingUploadsDirectory/${connectorTaskId.name}/${connectorTaskId.taskNo}/"
+
+  /**
+    * A single copy object request is limited to 5GB, larger streamed objects are copied in ranges with a multipart
+    * upload.
+    */
+  private[storage] def copyInParts(
+    sourceBucket: String,
+    sourceKey:    String,
+    size:         Long,
+    bucket:       String,
+    path:         String,
+  ): Either[FileMoveError, Unit] =
+    for {
+      uploadId <- Try(
+        s3Client.createMultipartUpload(
+          CreateMultipartUploadRequest.builder().bucket(bucket).key(path).build(),
+        ).uploadId(),
+      ).toEither.leftMap(FileMoveError(_, sourceKey, path))
+      _ <- Try {
+        val parts = (0L until size by CopyPartSize).zipWithIndex.map {
+          case (start, index) =>
+            val end = math.min(start + CopyPartSize, size) - 1
+            val response = s3Client.uploadPartCopy(
+              UploadPartCopyRequest.builder()
+                .sourceBucket(sourceBucket)
+                .sourceKey(sourceKey)
+                .destinationBucket(bucket)
+                .destinationKey(path)
+                .uploadId(uploadId)
+                .partNumber(index + 1)
+                .copySourceRange(s"bytes=$start-$end")
+                .build(),
+            )
+            CompletedPart.builder().partNumber(index + 1).eTag(response.copyPartResult().eTag()).build()
+        }
+        s3Client.completeMultipartUpload(
+          CompleteMultipartUploadRequest.builder()
+            .bucket(bucket)
+            .key(path)
+            .uploadId(uploadId)
+            .multipartUpload(CompletedMultipartUpload.builder().parts(parts.asJava).build())
+            .build(),
+        )
+      }.toEither.leftMap { ex =>
+        Try(
+          s3Client.abortMultipartUpload(
+            AbortMultipartUploadRequest.builder().bucket(bucket).key(path).uploadId(uploadId).build(),
+          ),
+        )
+        FileMoveError(ex, sourceKey, path)
+      }
+      _ <- Try(
+        s3Client.deleteObject(DeleteObjectRequest.builder().bucket(sourceBucket).key(sourceKey).build()),
+      ).toEither.leftMap(FileMoveError(_, sourceKey, path))
+    } yield ()
+
+  private def putFile(source: UploadableFile, bucket: String, path: String): Either[UploadError, Unit] = {
     logger.debug(s"[{}] AWS Uploading file from local {} to s3 {}:{}", connectorTaskId.show, source, bucket, path)
     for {
       file <- source.validate.toEither
@@ -199,7 +363,28 @@ class AwsS3StorageInterface(
       ObjectMetadata(response.contentLength(), response.lastModified())
     }.toEither.leftMap(ex => FileLoadError(ex, path))
 
-  override def close(): Unit = s3Client.close()
+  override def close(): Unit = {
+    streamedObjects.asScala.values.groupMap(_.bucket)(_.key).foreach {
+      case (bucket, keys) =>
+        deleteFiles(bucket, keys.toSeq).left.foreach(e =>
+          logger.warn(s"[{}] Failed to delete streamed files: {}", connectorTaskId.show, e.message()),
+        )
+    }
+    streamedObjects.clear()
+    partUploadExecutor.shutdown()
+    s3Client.close()
+  }
+
+  private def partUploadThreadFactory: ThreadFactory =
+    new ThreadFactory {
+      private val threadCount = new AtomicInteger(0)
+
+      override def newThread(runnable: Runnable): Thread = {
+        val thread = new Thread(runnable, s"${connectorTaskId.show}-s3-parts-${threadCount.incrementAndGet()}")
+        thread.setDaemon(true)
+        thread
+      }
+    }
 
   private def batchDeleteFiles(bucket: String, files: Seq[String]): Either[FileDeleteError, Unit] = Try {
     s3Client.deleteObjects(
@@ -360,3 +545,22 @@ class AwsS3StorageInterface(
     .leftMap(ex => FileCreateError(ex, "empty object file"))
 
 }
+
+object AwsS3StorageInterface {
+
+  /**
+    * The directory under the KCQL prefix the streamed files are uploaded to, under the connector name and task number,
+    * before being moved to their final path once their last offset is known. Multipart uploads left incomplete there
+    * by a task which is not restarted are only removed by a lifecycle rule on the bucket.
+    */
+  val StreamingUploadsDirectory: String = ".uploads"
+
+  private val PartUploadThreads = 4
+
+  // the largest object a single copy object request accepts
+  private val MaxCopyObjectSize: Long = 5L * 1024 * 1024 * 1024
+
+  private val CopyPartSize: Long = 1024L * 1024 * 1024
+
+  private case class StreamedObject(bucket: String, key: String, size: Long)
+}
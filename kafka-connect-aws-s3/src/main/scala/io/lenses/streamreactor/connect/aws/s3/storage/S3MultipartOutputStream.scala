@@ -0,0 +1,257 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.aws.s3.storage
+
+import cats.implicits._
+import com.typesafe.scalalogging.LazyLogging
+import io.lenses.streamreactor.connect.cloud.common.config.ConnectorTaskId
+import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
+import io.lenses.streamreactor.connect.cloud.common.sink.FatalCloudSinkError
+import io.lenses.streamreactor.connect.cloud.common.sink.SinkError
+import io.lenses.streamreactor.connect.cloud.common.stream.CloudOutputStream
+import software.amazon.awssdk.core.sync.RequestBody
+import software.amazon.awssdk.services.s3.S3Client
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload
+import software.amazon.awssdk.services.s3.model.CompletedPart
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest
+import software.amazon.awssdk.services.s3.model.PutObjectRequest
+import software.amazon.awssdk.services.s3.model.UploadPartRequest
+
+import java.io.ByteArrayInputStream
+import java.io.IOException
+import java.util.concurrent.Semaphore
+import scala.collection.mutable
+import scala.concurrent.Await
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.duration.Duration
+import scala.jdk.CollectionConverters.SeqHasAsJava
+import scala.util.Failure
+import scala.util.Try
+
+/**
+  * Uploads the bytes written to it straight to S3 as the parts of a multipart upload, instead of staging them on the
+  * local disk to be put once the file is complete. Full parts are uploaded in the background while the next one is
+  * filled.
+  *
+  * The memory held by the stream is accounted for in `bufferBudget`, shared by all the streams of a task, in bytes.
+  * The permits for the buffer being filled are reserved by the caller before the stream is created and held by the
+  * stream until it is completed or aborted, the buffer itself is only allocated on the first write. A full part is
+  * uploaded in the background only if the permits for it can be taken from the budget without waiting, otherwise it is
+  * uploaded on the task thread and its buffer filled again. The stream never waits for permits, so it cannot be
+  * starved by the buffers of other streams which only the task thread could fill.
+  *
+  * A stream completed before its first part is full is sent with a single put object request. If any request fails
+  * the multipart upload is aborted and the error is returned on [[complete]]. A stream aborted before it is completed
+  * aborts its multipart upload, so nothing written to it is left in the bucket.
+  *
+  * This class is not thread safe, it is expected to be written to from the task thread only.
+  *
+  * @param bufferBudget the permits, in bytes, shared by the buffers of the streams. `partSize` permits are expected
+  *                     to be held for this stream when it is created
+  * @param onUploaded   invoked with the size of the object once it has been written to S3
+  */
+class S3MultipartOutputStream(
+  s3Client:       S3Client,
+  bucket:         String,
+  key:            String,
+  partSize:       Int,
+  bufferBudget:   Semaphore,
+  topicPartition: TopicPartition,
+  onUploaded:     Long => Unit,
+)(
+  implicit
+  connectorTaskId:  ConnectorTaskId,
+  executionContext: ExecutionContext,
+) extends CloudOutputStream
+    with LazyLogging {
+
+  import S3MultipartOutputStream._
+
+  private val parts = mutable.ArrayBuffer.empty[Future[CompletedPart]]
+
+  private var uploadId:  Option[String]      = None
+  private var buffer:    Option[Array[Byte]] = None
+  private var hasPermit: Boolean             = true
+  private var position:  Int                 = 0
+  private var pointer:   Long                = 0L
+  private var completed: Boolean             = false
+
+  override def write(b: Int): Unit = {
+    val bytes = currentBuffer()
+    bytes(position) = b.toByte
+    position += 1
+    pointer  += 1
+    if (position == partSize) uploadPart()
+  }
+
+  override def write(bytes: Array[Byte], startOffset: Int, numberOfBytes: Int): Unit = {
+    var offset    = startOffset
+    var remaining = numberOfBytes
+    while (remaining > 0) {
+      val length = math.min(remaining, partSize - position)
+      System.arraycopy(bytes, offset, currentBuffer(), position, length)
+      position  += length
+      pointer   += length
+      offset    += length
+      remaining -= length
+      if (position == partSize) uploadPart()
+    }
+  }
+
+  override def getPointer: Long = pointer
+
+  override def complete(): Either[SinkError, Unit] =
+    if (completed) {
+      ().asRight
+    } else {
+      completed = true
+      Try {
+        uploadId match {
+          case None if pointer == 0L => releaseBuffer()
+          case None =>
+            val bytes = buffer.getOrElse(Array.emptyByteArray)
+            s3Client.putObject(
+              PutObjectRequest.builder().bucket(bucket).key(key).contentLength(position.toLong).build(),
+              RequestBody.fromInputStream(new ByteArrayInputStream(bytes, 0, position), position.toLong),
+            )
+            releaseBuffer()
+            onUploaded(pointer)
+          case Some(id) =>
+            if (position > 0) uploadPart()
+            val completedParts = Await.result(Future.sequence(parts.toSeq), Duration.Inf)
+            s3Client.completeMultipartUpload(
+              CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(id)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts.asJava).build())
+                .build(),
+            )
+            logger.debug(s"[{}] Completed multipart upload of {} parts to s3 {}:{}",
+                         connectorTaskId.show,
+                         completedParts.size,
+                         bucket,
+                         key,
+            )
+            releaseBuffer()
+            onUploaded(pointer)
+        }
+      }.toEither.leftMap { ex =>
+        logger.error(s"[{}] Failed streaming upload to s3 {}:{}", connectorTaskId.show, bucket, key, ex)
+        abortUpload()
+        FatalCloudSinkError(ex.getMessage, topicPartition)
+      }
+    }
+
+  override def abort(): Unit =
+    if (!completed) {
+      completed = true
+      logger.debug(s"[{}] Aborting streaming upload to s3 {}:{}", connectorTaskId.show, bucket, key)
+      abortUpload()
+    }
+
+  private def currentBuffer(): Array[Byte] = {
+    if (completed) throw new IOException(s"Stream to s3 $bucket:$key is already completed")
+    buffer.getOrElse {
+      val allocated = new Array[Byte](partSize)
+      buffer = allocated.some
+      allocated
+    }
+  }
+
+  private def uploadPart(): Unit = {
+    parts.find(_.value.exists(_.isFailure)).flatMap(_.value).foreach {
+      case Failure(ex) => throw new IOException(s"Upload of a part to s3 $bucket:$key failed", ex)
+      case _           => ()
+    }
+    if (parts.size >= MaxParts) {
+      throw new IOException(
+        s"Stream to s3 $bucket:$key reached the limit of $MaxParts parts of $partSize bytes, increase the part size",
+      )
+    }
+    val id = uploadId.getOrElse {
+      val created = s3Client.createMultipartUpload(
+        CreateMultipartUploadRequest.builder().bucket(bucket).key(key).build(),
+      ).uploadId()
+      uploadId = created.some
+      created
+    }
+    val partNumber = parts.size + 1
+    val bytes      = buffer.getOrElse(Array.emptyByteArray)
+    val length     = position
+    position = 0
+
+    if (bufferBudget.tryAcquire(partSize)) {
+      // the part holds permits of its own until it is uploaded, the stream keeps its permits for a new buffer
+      buffer = None
+      parts += Future {
+        try {
+          sendPart(id, partNumber, bytes, length)
+        } finally {
+          bufferBudget.release(partSize)
+        }
+      }
+    } else {
+      // no memory to spare for another buffer, the part is uploaded before its buffer is filled again
+      parts += Future.fromTry(Try(sendPart(id, partNumber, bytes, length)))
+    }
+  }
+
+  private def sendPart(uploadId: String, partNumber: Int, bytes: Array[Byte], length: Int): CompletedPart = {
+    val response = s3Client.uploadPart(
+      UploadPartRequest.builder()
+        .bucket(bucket)
+        .key(key)
+        .uploadId(uploadId)
+        .partNumber(partNumber)
+        .contentLength(length.toLong)
+        .build(),
+      RequestBody.fromInputStream(new ByteArrayInputStream(bytes, 0, length), length.toLong),
+    )
+    CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build()
+  }
+
+  private def releaseBuffer(): Unit = {
+    buffer = None
+    if (hasPermit) {
+      hasPermit = false
+      bufferBudget.release(partSize)
+    }
+  }
+
+  private def abortUpload(): Unit = {
+    releaseBuffer()
+    uploadId.foreach { id =>
+      parts.foreach(part => Try(Await.ready(part, Duration.Inf)))
+      Try(
+        s3Client.abortMultipartUpload(
+          AbortMultipartUploadRequest.builder().bucket(bucket).key(key).uploadId(id).build(),
+        ),
+      ).failed.foreach(ex =>
+        logger.warn(s"[{}] Failed to abort multipart upload to s3 {}:{}", connectorTaskId.show, bucket, key, ex),
+      )
+    }
+  }
+}
+
+object S3MultipartOutputStream {
+
+  // the most parts S3 accepts for a multipart upload
+  val MaxParts: Int = 10000
+}
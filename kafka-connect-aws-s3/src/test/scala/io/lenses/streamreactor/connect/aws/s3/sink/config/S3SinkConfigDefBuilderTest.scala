@@ -21,7 +21,11 @@ import io.lenses.streamreactor.connect.cloud.common.config.DataStorageSettings
 import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEnum.FlushCount
 import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEnum.FlushInterval
 import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEnum.FlushSize
+import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEnum.ParquetPageSize
+import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEnum.ParquetRowGroupSize
 import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEnum.PartitionIncludeKeys
+import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEnum.UploadPartSize
+import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEnum.UploadStreaming
 import io.lenses.streamreactor.connect.cloud.common.model.location.CloudLocationValidator
 import io.lenses.streamreactor.connect.cloud.common.sink.commit.Count
 import io.lenses.streamreactor.connect.cloud.common.sink.commit.FileSize
@@ -29,6 +33,8 @@ import io.lenses.streamreactor.connect.cloud.common.sink.commit.Interval
 import io.lenses.streamreactor.connect.cloud.common.sink.config
 import io.lenses.streamreactor.connect.cloud.common.sink.config.FlushSettings
 import io.lenses.streamreactor.connect.cloud.common.sink.config.CloudSinkBucketOptions
+import io.lenses.streamreactor.connect.cloud.common.sink.config.ParquetWriterOptions
+import io.lenses.streamreactor.connect.cloud.common.sink.config.StreamingUploadOptions
 import org.mockito.MockitoSugar
 import org.scalatest.EitherValues
 import org.scalatest.flatspec.AnyFlatSpec
@@ -242,4 +248,58 @@ class S3SinkConfigDefBuilderTest extends AnyFlatSpec with MockitoSugar with Matc
     )
   }
 
+  "S3SinkConfigDefBuilder" should "not stream uploads by default" in {
+    val props = Map(
+      "connect.s3.kcql" -> s"insert into $BucketName:$PrefixName select * from $TopicName STOREAS `JSON`",
+    )
+
+    config.CloudSinkBucketOptions(connectorTaskId, S3SinkConfigDefBuilder(props)).value.map(
+      _.streamingUpload,
+    ) should be(List(None))
+  }
+
+  "S3SinkConfigDefBuilder" should "stream uploads with the part size configured" in {
+    val props = Map(
+      "connect.s3.kcql" -> s"insert into $BucketName:$PrefixName select * from $TopicName STOREAS `JSON` PROPERTIES('${UploadStreaming.entryName}'=true, '${UploadPartSize.entryName}'=10485760)",
+    )
+
+    config.CloudSinkBucketOptions(connectorTaskId, S3SinkConfigDefBuilder(props)).value.map(
+      _.streamingUpload,
+    ) should be(List(Some(StreamingUploadOptions(10485760L))))
+  }
+
+  "S3SinkConfigDefBuilder" should "error when the upload part size is below the minimum" in {
+    val props = Map(
+      "connect.s3.kcql" -> s"insert into $BucketName:$PrefixName select * from $TopicName STOREAS `JSON` PROPERTIES('${UploadStreaming.entryName}'=true, '${UploadPartSize.entryName}'=1024)",
+    )
+
+    config.CloudSinkBucketOptions(connectorTaskId,
+                                  S3SinkConfigDefBuilder(props),
+    ).left.value.getMessage should startWith(
+      s"Invalid value for configuration [${UploadPartSize.entryName}]",
+    )
+  }
+
+  "S3SinkConfigDefBuilder" should "use the configured parquet row group and page sizes" in {
+    val props = Map(
+      "connect.s3.kcql" -> s"insert into $BucketName:$PrefixName select * from $TopicName STOREAS `PARQUET` PROPERTIES('${ParquetRowGroupSize.entryName}'=16777216, '${ParquetPageSize.entryName}'=65536)",
+    )
+
+    config.CloudSinkBucketOptions(connectorTaskId, S3SinkConfigDefBuilder(props)).value.map(
+      _.parquetOptions,
+    ) should be(List(ParquetWriterOptions(16777216L, 65536)))
+  }
+
+  "S3SinkConfigDefBuilder" should "error when the parquet page size is larger than the row group size" in {
+    val props = Map(
+      "connect.s3.kcql" -> s"insert into $BucketName:$PrefixName select * from $TopicName STOREAS `PARQUET` PROPERTIES('${ParquetRowGroupSize.entryName}'=1024, '${ParquetPageSize.entryName}'=2048)",
+    )
+
+    config.CloudSinkBucketOptions(connectorTaskId,
+                                  S3SinkConfigDefBuilder(props),
+    ).left.value.getMessage should startWith(
+      s"Invalid value for configuration [${ParquetPageSize.entryName}]",
+    )
+  }
+
 }
@@ -15,28 +15,67 @@
  */
 package io.lenses.streamreactor.connect.aws.s3.storage
 
+import cats.implicits.catsSyntaxOptionId
+import io.lenses.streamreactor.connect.aws.s3.model.location.S3LocationValidator
 import io.lenses.streamreactor.connect.cloud.common.config.ConnectorTaskId
+import io.lenses.streamreactor.connect.cloud.common.model.Topic
+import io.lenses.streamreactor.connect.cloud.common.model.UploadableFile
+import io.lenses.streamreactor.connect.cloud.common.model.location.CloudLocation
+import io.lenses.streamreactor.connect.cloud.common.sink.config.StreamingUploadOptions
 import io.lenses.streamreactor.connect.cloud.common.storage.FileMoveError
+import org.mockito.ArgumentCaptor
 import org.mockito.ArgumentMatchersSugar
 import org.mockito.MockitoSugar
 import org.scalatest.EitherValues
+import org.scalatest.OptionValues
 import org.scalatest.flatspec.AnyFlatSpecLike
 import org.scalatest.matchers.should.Matchers
+import software.amazon.awssdk.core.sync.RequestBody
 import software.amazon.awssdk.services.s3.S3Client
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse
 import software.amazon.awssdk.services.s3.model.CopyObjectRequest
 import software.amazon.awssdk.services.s3.model.CopyObjectResponse
+import software.amazon.awssdk.services.s3.model.CopyPartResult
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest
 import software.amazon.awssdk.services.s3.model.DeleteObjectResponse
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest
 import software.amazon.awssdk.services.s3.model.HeadObjectResponse
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsResponse
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response
+import software.amazon.awssdk.services.s3.model.MultipartUpload
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException
+import software.amazon.awssdk.services.s3.model.PutObjectRequest
+import software.amazon.awssdk.services.s3.model.PutObjectResponse
+import software.amazon.awssdk.services.s3.model.S3Object
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest
+import software.amazon.awssdk.services.s3.model.UploadPartCopyResponse
+import software.amazon.awssdk.services.s3.model.UploadPartRequest
+import software.amazon.awssdk.services.s3.model.UploadPartResponse
+import software.amazon.awssdk.services.s3.paginators.ListMultipartUploadsIterable
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable
+
+import java.io.File
+import java.nio.file.Files
+import java.time.Instant
+import scala.concurrent.Await
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.duration.DurationInt
+import scala.jdk.CollectionConverters.ListHasAsScala
 
 class AwsS3StorageInterfaceTest
     extends AnyFlatSpecLike
     with Matchers
     with MockitoSugar
     with ArgumentMatchersSugar
-    with EitherValues {
+    with EitherValues
+    with OptionValues {
 
   "mvFile" should "move a file from one bucket to another successfully" in {
     val s3Client         = mock[S3Client]
@@ -97,4 +136,201 @@ class AwsS3StorageInterfaceTest
     verify(s3Client, never).copyObject(any[CopyObjectRequest])
     verify(s3Client, never).deleteObject(any[DeleteObjectRequest])
   }
+
+  "uploadFile" should "move the object streamed for a staging file to its final path" in {
+    val s3Client         = streamingS3Client()
+    val storageInterface =
+      new AwsS3StorageInterface(ConnectorTaskId("connector", 1, 0), s3Client, batchDelete = false, None)
+    val stagingFile = Files.createTempFile("staging", ".json").toFile
+
+    when(s3Client.headObject(any[HeadObjectRequest])).thenAnswer(HeadObjectResponse.builder().build())
+    when(s3Client.copyObject(any[CopyObjectRequest])).thenAnswer(CopyObjectResponse.builder().build())
+
+    val stream =
+      storageInterface.streamingOutputStream(stagingFile, location, Topic("topic").withPartition(1), 1024L).value
+    stream.write("data".getBytes)
+    stream.complete().value should be(())
+
+    storageInterface.uploadFile(UploadableFile(stagingFile), "bucket", "prefix/topic/1/1.json") should be(Right(()))
+
+    val streamedKey = s"prefix/${AwsS3StorageInterface.StreamingUploadsDirectory}/connector/0/${stagingFile.getName}"
+    verify(s3Client).copyObject(
+      CopyObjectRequest.builder().sourceKey(streamedKey).destinationKey("prefix/topic/1/1.json").sourceBucket(
+        "bucket",
+      ).destinationBucket("bucket").build(),
+    )
+    verify(s3Client).deleteObject(DeleteObjectRequest.builder().bucket("bucket").key(streamedKey).build())
+  }
+
+  "copyInParts" should "copy an object larger than a single copy request accepts in ranges" in {
+    val s3Client         = streamingS3Client()
+    val storageInterface =
+      new AwsS3StorageInterface(ConnectorTaskId("connector", 1, 0), s3Client, batchDelete = false, None)
+    val gigabyte = 1024L * 1024 * 1024
+    val size     = 5 * gigabyte + 1024
+
+    when(s3Client.createMultipartUpload(any[CreateMultipartUploadRequest])).thenReturn(
+      CreateMultipartUploadResponse.builder().uploadId("upload-id").build(),
+    )
+    when(s3Client.completeMultipartUpload(any[CompleteMultipartUploadRequest])).thenReturn(
+      CompleteMultipartUploadResponse.builder().build(),
+    )
+    when(s3Client.uploadPartCopy(any[UploadPartCopyRequest])).thenAnswer { (request: UploadPartCopyRequest) =>
+      UploadPartCopyResponse.builder().copyPartResult(
+        CopyPartResult.builder().eTag(s"etag-${request.partNumber()}").build(),
+      ).build()
+    }
+
+    storageInterface.copyInParts("bucket", "streamed", size, "bucket", "prefix/topic/1/1.json") should be(Right(()))
+
+    val copyRequests: ArgumentCaptor[UploadPartCopyRequest] = ArgumentCaptor.forClass(classOf[UploadPartCopyRequest])
+    verify(s3Client, times(6)).uploadPartCopy(copyRequests.capture())
+    copyRequests.getAllValues.asScala.map(_.copySourceRange()).toList should be(
+      (0L until 5L).map(i => s"bytes=${i * gigabyte}-${(i + 1) * gigabyte - 1}").toList :+
+        s"bytes=${5 * gigabyte}-${size - 1}",
+    )
+    val completeRequest: ArgumentCaptor[CompleteMultipartUploadRequest] =
+      ArgumentCaptor.forClass(classOf[CompleteMultipartUploadRequest])
+    verify(s3Client).completeMultipartUpload(completeRequest.capture())
+    completeRequest.getValue.multipartUpload().parts().asScala.map(_.eTag()).toList should be(
+      (1 to 6).map(i => s"etag-$i").toList,
+    )
+    verify(s3Client, never).copyObject(any[CopyObjectRequest])
+    verify(s3Client).deleteObject(DeleteObjectRequest.builder().bucket("bucket").key("streamed").build())
+  }
+
+  it should "abort the copy and keep the streamed object when a range fails to copy" in {
+    val s3Client         = streamingS3Client()
+    val storageInterface =
+      new AwsS3StorageInterface(ConnectorTaskId("connector", 1, 0), s3Client, batchDelete = false, None)
+
+    when(s3Client.createMultipartUpload(any[CreateMultipartUploadRequest])).thenReturn(
+      CreateMultipartUploadResponse.builder().uploadId("upload-id").build(),
+    )
+    when(s3Client.uploadPartCopy(any[UploadPartCopyRequest])).thenThrow(new RuntimeException("copy failed"))
+
+    storageInterface.copyInParts("bucket", "streamed", 6L * 1024 * 1024 * 1024, "bucket", "path")
+      .left.value shouldBe a[FileMoveError]
+
+    verify(s3Client).abortMultipartUpload(any[AbortMultipartUploadRequest])
+    verify(s3Client, never).completeMultipartUpload(any[CompleteMultipartUploadRequest])
+    verify(s3Client, never).deleteObject(any[DeleteObjectRequest])
+  }
+
+  "streamingOutputStream" should "clean the objects left over by a previous run of the task once per prefix" in {
+    val s3Client         = streamingS3Client()
+    val storageInterface =
+      new AwsS3StorageInterface(ConnectorTaskId("connector", 1, 0), s3Client, batchDelete = false, None)
+    val leftoverKey = s"prefix/${AwsS3StorageInterface.StreamingUploadsDirectory}/connector/0/leftover"
+
+    when(s3Client.listObjectsV2(any[ListObjectsV2Request])).thenReturn(
+      ListObjectsV2Response.builder().isTruncated(false).contents(
+        S3Object.builder().key(leftoverKey).size(10L).lastModified(Instant.now()).build(),
+      ).build(),
+    )
+    when(s3Client.listMultipartUploads(any[ListMultipartUploadsRequest])).thenReturn(
+      ListMultipartUploadsResponse.builder().isTruncated(false).uploads(
+        MultipartUpload.builder().key(s"$leftoverKey-upload").uploadId("upload-id").build(),
+      ).build(),
+    )
+
+    val topicPartition = Topic("topic").withPartition(1)
+    storageInterface.streamingOutputStream(tempFile(), location, topicPartition, 1024L).value.abort()
+    storageInterface.streamingOutputStream(tempFile(), location, topicPartition, 1024L).value.abort()
+
+    val listRequest: ArgumentCaptor[ListObjectsV2Request] = ArgumentCaptor.forClass(classOf[ListObjectsV2Request])
+    verify(s3Client).listObjectsV2(listRequest.capture())
+    listRequest.getValue.prefix() should be(s"prefix/${AwsS3StorageInterface.StreamingUploadsDirectory}/connector/0/")
+    verify(s3Client).deleteObject(DeleteObjectRequest.builder().bucket("bucket").key(leftoverKey).build())
+    verify(s3Client).abortMultipartUpload(
+      AbortMultipartUploadRequest.builder().bucket("bucket").key(s"$leftoverKey-upload").uploadId("upload-id").build(),
+    )
+  }
+
+  it should "fall back to the local staging file once the streaming buffers are full" in {
+    val s3Client = streamingS3Client()
+    val storageInterface =
+      new AwsS3StorageInterface(
+        ConnectorTaskId("connector", 1, 0),
+        s3Client,
+        batchDelete         = false,
+        extensionFilter     = None,
+        streamingBufferSize = 2 * StreamingUploadOptions.MinPartSize.toInt,
+      )
+    val topicPartition = Topic("topic").withPartition(1)
+    val partSize       = StreamingUploadOptions.MinPartSize
+
+    val first  = storageInterface.streamingOutputStream(tempFile(), location, topicPartition, partSize).value
+    val second = storageInterface.streamingOutputStream(tempFile(), location, topicPartition, partSize).value
+    storageInterface.streamingOutputStream(tempFile(), location, topicPartition, partSize) should be(None)
+
+    first.abort()
+    storageInterface.streamingOutputStream(tempFile(), location, topicPartition, partSize) should not be None
+    second.abort()
+  }
+
+  it should "keep writing every stream when more files are opened than the buffers allow" in {
+    val s3Client = streamingS3Client()
+    val storageInterface =
+      new AwsS3StorageInterface(
+        ConnectorTaskId("connector", 1, 0),
+        s3Client,
+        batchDelete         = false,
+        extensionFilter     = None,
+        streamingBufferSize = 2048,
+      )
+    val topicPartition = Topic("topic").withPartition(1)
+    val part           = new Array[Byte](1024)
+
+    when(s3Client.createMultipartUpload(any[CreateMultipartUploadRequest])).thenReturn(
+      CreateMultipartUploadResponse.builder().uploadId("upload-id").build(),
+    )
+    when(s3Client.uploadPart(any[UploadPartRequest], any[RequestBody])).thenReturn(
+      UploadPartResponse.builder().eTag("etag").build(),
+    )
+    when(s3Client.completeMultipartUpload(any[CompleteMultipartUploadRequest])).thenReturn(
+      CompleteMultipartUploadResponse.builder().build(),
+    )
+
+    val written = Future {
+      val first  = storageInterface.streamingOutputStream(tempFile(), location, topicPartition, 1024L)
+      val second = storageInterface.streamingOutputStream(tempFile(), location, topicPartition, 1024L)
+      first.foreach(_.write(part))
+      second.foreach(_.write(part))
+      // opened while the first parts are uploaded, it must not take the memory the open streams need to go on
+      val third   = storageInterface.streamingOutputStream(tempFile(), location, topicPartition, 1024L)
+      val streams = Seq(first, second, third).flatten
+      (1 to 3).foreach(_ => streams.foreach(_.write(part)))
+      streams.map(_.complete())
+    }(ExecutionContext.global)
+
+    val results = Await.result(written, 30.seconds)
+    results.size should be(2)
+    results.foreach(_.value should be(()))
+    // every buffer has been given back
+    storageInterface.streamingOutputStream(tempFile(), location, topicPartition, 2048L).value.abort()
+  }
+
+  private val location = CloudLocation("bucket", "prefix".some)(S3LocationValidator)
+
+  private def tempFile(): File = Files.createTempFile("staging", ".json").toFile
+
+  private def streamingS3Client(): S3Client = {
+    val s3Client = mock[S3Client]
+    when(s3Client.listObjectsV2Paginator(any[ListObjectsV2Request])).thenAnswer { (request: ListObjectsV2Request) =>
+      new ListObjectsV2Iterable(s3Client, request)
+    }
+    when(s3Client.listObjectsV2(any[ListObjectsV2Request])).thenReturn(
+      ListObjectsV2Response.builder().isTruncated(false).build(),
+    )
+    when(s3Client.listMultipartUploadsPaginator(any[ListMultipartUploadsRequest])).thenAnswer {
+      (request: ListMultipartUploadsRequest) => new ListMultipartUploadsIterable(s3Client, request)
+    }
+    when(s3Client.listMultipartUploads(any[ListMultipartUploadsRequest])).thenReturn(
+      ListMultipartUploadsResponse.builder().isTruncated(false).build(),
+    )
+    when(s3Client.putObject(any[PutObjectRequest], any[RequestBody])).thenReturn(PutObjectResponse.builder().build())
+    when(s3Client.deleteObject(any[DeleteObjectRequest])).thenAnswer(DeleteObjectResponse.builder().build())
+    s3Client
+  }
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.aws.s3.storage
+
+import io.lenses.streamreactor.connect.cloud.common.config.ConnectorTaskId
+import io.lenses.streamreactor.connect.cloud.common.model.Topic
+import io.lenses.streamreactor.connect.cloud.common.sink.FatalCloudSinkError
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchersSugar
+import org.mockito.MockitoSugar
+import org.scalatest.EitherValues
+import org.scalatest.flatspec.AnyFlatSpecLike
+import org.scalatest.matchers.should.Matchers
+import software.amazon.awssdk.core.sync.RequestBody
+import software.amazon.awssdk.services.s3.S3Client
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse
+import software.amazon.awssdk.services.s3.model.PutObjectRequest
+import software.amazon.awssdk.services.s3.model.PutObjectResponse
+import software.amazon.awssdk.services.s3.model.UploadPartRequest
+import software.amazon.awssdk.services.s3.model.UploadPartResponse
+
+import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Semaphore
+import java.util.concurrent.atomic.AtomicLong
+import scala.concurrent.ExecutionContext
+import scala.jdk.CollectionConverters.ListHasAsScala
+
+class S3MultipartOutputStreamTest
+    extends AnyFlatSpecLike
+    with Matchers
+    with MockitoSugar
+    with ArgumentMatchersSugar
+    with EitherValues {
+
+  private implicit val connectorTaskId:  ConnectorTaskId  = ConnectorTaskId("connector", 1, 0)
+  private implicit val executionContext: ExecutionContext = ExecutionContext.global
+
+  private val topicPartition = Topic("topic").withPartition(1)
+
+  "S3MultipartOutputStream" should "upload the bytes written as the parts of a multipart upload" in {
+    val s3Client      = mock[S3Client]
+    val uploadedParts = new ConcurrentHashMap[Integer, String]()
+    val uploaded      = new AtomicLong(-1L)
+
+    when(s3Client.createMultipartUpload(any[CreateMultipartUploadRequest])).thenReturn(
+      CreateMultipartUploadResponse.builder().uploadId("upload-id").build(),
+    )
+    when(s3Client.uploadPart(any[UploadPartRequest], any[RequestBody])).thenAnswer {
+      (request: UploadPartRequest, body: RequestBody) =>
+        uploadedParts.put(request.partNumber(), new String(body.contentStreamProvider().newStream().readAllBytes()))
+        UploadPartResponse.builder().eTag(s"etag-${request.partNumber()}").build()
+    }
+    when(s3Client.completeMultipartUpload(any[CompleteMultipartUploadRequest])).thenReturn(
+      CompleteMultipartUploadResponse.builder().build(),
+    )
+
+    val budget = new Semaphore(0)
+    val stream = new S3MultipartOutputStream(s3Client, "bucket", "key", 4, budget, topicPartition, uploaded.set)
+    stream.write("abcdefghij".getBytes)
+    stream.getPointer should be(10L)
+    stream.complete().value should be(())
+
+    uploadedParts.get(1) should be("abcd")
+    uploadedParts.get(2) should be("efgh")
+    uploadedParts.get(3) should be("ij")
+    uploaded.get() should be(10L)
+    budget.availablePermits() should be(4)
+
+    val completeRequest: ArgumentCaptor[CompleteMultipartUploadRequest] =
+      ArgumentCaptor.forClass(classOf[CompleteMultipartUploadRequest])
+    verify(s3Client).completeMultipartUpload(completeRequest.capture())
+    completeRequest.getValue.uploadId() should be("upload-id")
+    val completedParts = completeRequest.getValue.multipartUpload().parts().asScala
+    completedParts.map(p => p.partNumber().intValue() -> p.eTag()) should be(
+      Seq(1 -> "etag-1", 2 -> "etag-2", 3 -> "etag-3"),
+    )
+    verify(s3Client, never).putObject(any[PutObjectRequest], any[RequestBody])
+  }
+
+  it should "put the object in a single request when the first part is not filled" in {
+    val s3Client = mock[S3Client]
+    val uploaded = new AtomicLong(-1L)
+
+    when(s3Client.putObject(any[PutObjectRequest], any[RequestBody])).thenReturn(PutObjectResponse.builder().build())
+
+    val budget = new Semaphore(0)
+    val stream = new S3MultipartOutputStream(s3Client, "bucket", "key", 8, budget, topicPartition, uploaded.set)
+    stream.write("abc".getBytes)
+    stream.complete().value should be(())
+
+    val putRequest: ArgumentCaptor[PutObjectRequest] = ArgumentCaptor.forClass(classOf[PutObjectRequest])
+    verify(s3Client).putObject(putRequest.capture(), any[RequestBody])
+    putRequest.getValue.key() should be("key")
+    putRequest.getValue.contentLength() should be(3L)
+    uploaded.get() should be(3L)
+    budget.availablePermits() should be(8)
+    verify(s3Client, never).createMultipartUpload(any[CreateMultipartUploadRequest])
+  }
+
+  it should "abort the multipart upload when a part fails to upload" in {
+    val s3Client = mock[S3Client]
+    val uploaded = new AtomicLong(-1L)
+
+    when(s3Client.createMultipartUpload(any[CreateMultipartUploadRequest])).thenReturn(
+      CreateMultipartUploadResponse.builder().uploadId("upload-id").build(),
+    )
+    when(s3Client.uploadPart(any[UploadPartRequest], any[RequestBody])).thenThrow(new RuntimeException("part failed"))
+
+    val budget = new Semaphore(0)
+    val stream = new S3MultipartOutputStream(s3Client, "bucket", "key", 4, budget, topicPartition, uploaded.set)
+    stream.write("abcdef".getBytes)
+    stream.complete().left.value shouldBe a[FatalCloudSinkError]
+
+    uploaded.get() should be(-1L)
+    budget.availablePermits() should be(4)
+    verify(s3Client).abortMultipartUpload(any[AbortMultipartUploadRequest])
+    verify(s3Client, never).completeMultipartUpload(any[CompleteMultipartUploadRequest])
+  }
+
+  it should "abort the multipart upload instead of completing it when aborted" in {
+    val s3Client = mock[S3Client]
+    val uploaded = new AtomicLong(-1L)
+
+    when(s3Client.createMultipartUpload(any[CreateMultipartUploadRequest])).thenReturn(
+      CreateMultipartUploadResponse.builder().uploadId("upload-id").build(),
+    )
+    when(s3Client.uploadPart(any[UploadPartRequest], any[RequestBody])).thenReturn(
+      UploadPartResponse.builder().eTag("etag").build(),
+    )
+
+    val budget = new Semaphore(0)
+    val stream = new S3MultipartOutputStream(s3Client, "bucket", "key", 4, budget, topicPartition, uploaded.set)
+    stream.write("abcdef".getBytes)
+    stream.abort()
+
+    val abortRequest: ArgumentCaptor[AbortMultipartUploadRequest] =
+      ArgumentCaptor.forClass(classOf[AbortMultipartUploadRequest])
+    verify(s3Client).abortMultipartUpload(abortRequest.capture())
+    abortRequest.getValue.uploadId() should be("upload-id")
+    verify(s3Client, never).completeMultipartUpload(any[CompleteMultipartUploadRequest])
+    uploaded.get() should be(-1L)
+    budget.availablePermits() should be(4)
+    stream.complete().value should be(())
+    verify(s3Client, never).putObject(any[PutObjectRequest], any[RequestBody])
+  }
+
+  it should "not allocate its buffer nor send any request until it is written to" in {
+    val s3Client = mock[S3Client]
+    val budget   = new Semaphore(0)
+
+    val stream = new S3MultipartOutputStream(s3Client, "bucket", "key", 4, budget, topicPartition, _ => ())
+    stream.abort()
+
+    budget.availablePermits() should be(4)
+    verifyZeroInteractions(s3Client)
+  }
+
+  it should "fail once the upload reaches the limit of parts" in {
+    val s3Client = mock[S3Client]
+
+    when(s3Client.createMultipartUpload(any[CreateMultipartUploadRequest])).thenReturn(
+      CreateMultipartUploadResponse.builder().uploadId("upload-id").build(),
+    )
+    when(s3Client.uploadPart(any[UploadPartRequest], any[RequestBody])).thenReturn(
+      UploadPartResponse.builder().eTag("etag").build(),
+    )
+
+    val stream = new S3MultipartOutputStream(s3Client, "bucket", "key", 1, new Semaphore(0), topicPartition, _ => ())
+    stream.write(new Array[Byte](S3MultipartOutputStream.MaxParts))
+    an[IOException] should be thrownBy stream.write(1)
+    stream.complete().left.value shouldBe a[FatalCloudSinkError]
+
+    verify(s3Client).abortMultipartUpload(any[AbortMultipartUploadRequest])
+  }
+}
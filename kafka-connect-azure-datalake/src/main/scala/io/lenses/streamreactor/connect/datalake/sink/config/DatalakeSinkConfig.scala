@@ -61,6 +61,7 @@ object DatalakeSinkConfig extends PropsToConfigConverter[DatalakeSinkConfig] {
       s3ConfigDefBuilder.getRetryConfig,
       logMetrics,
       schemaChangeDetector,
+      s3ConfigDefBuilder.uploadConcurrency(),
     )
 
 }
@@ -74,4 +75,5 @@ case class DatalakeSinkConfig(
   connectorRetryConfig: RetryConfig,
   logMetrics:           Boolean,
   schemaChangeDetector: SchemaChangeDetector,
+  uploadConcurrency:    Int = 0,
 ) extends CloudSinkConfig[AzureConnectionConfig]
@@ -20,6 +20,7 @@ import io.lenses.streamreactor.connect.cloud.common.config.IndexConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.FlushConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.LocalStagingAreaConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.SchemaChangeConfigKeys
+import io.lenses.streamreactor.connect.cloud.common.sink.config.UploadPipelineConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.padding.PaddingStrategyConfigKeys
 import io.lenses.streamreactor.connect.datalake.config.AzureConfigSettings._
 import io.lenses.streamreactor.connect.datalake.config._
@@ -33,7 +34,8 @@ object DatalakeSinkConfigDef
     with LocalStagingAreaConfigKeys
     with PaddingStrategyConfigKeys
     with IndexConfigKeys
-    with SchemaChangeConfigKeys {
+    with SchemaChangeConfigKeys
+    with UploadPipelineConfigKeys {
 
   override def connectorPrefix: String = CONNECTOR_PREFIX
 
@@ -60,6 +62,7 @@ object DatalakeSinkConfigDef
     addLocalStagingAreaToConfigDef(configDef)
     addPaddingToConfigDef(configDef)
     addIndexSettingsToConfigDef(configDef)
+    withUploadPipelineConfig(configDef)
     withSchemaChangeConfig(configDef)
   }
 
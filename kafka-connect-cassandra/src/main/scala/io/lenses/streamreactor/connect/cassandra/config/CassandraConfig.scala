@@ -430,6 +430,30 @@ object CassandraConfigSource {
       ConfigDef.Width.LONG,
       CassandraConfigConstants.BUCKET_TIME_SERIES_FIELD_NAME,
     )
+    .define(
+      CassandraConfigConstants.TOKEN_RANGE_SPLITS,
+      Type.INT,
+      CassandraConfigConstants.TOKEN_RANGE_SPLITS_DEFAULT,
+      ConfigDef.Range.atLeast(0),
+      Importance.LOW,
+      CassandraConfigConstants.TOKEN_RANGE_SPLITS_DOC,
+      "Import",
+      14,
+      ConfigDef.Width.SHORT,
+      CassandraConfigConstants.TOKEN_RANGE_SPLITS,
+    )
+    .define(
+      CassandraConfigConstants.TOKEN_RANGE_PARALLELISM,
+      Type.INT,
+      CassandraConfigConstants.TOKEN_RANGE_PARALLELISM_DEFAULT,
+      ConfigDef.Range.atLeast(1),
+      Importance.LOW,
+      CassandraConfigConstants.TOKEN_RANGE_PARALLELISM_DOC,
+      "Import",
+      15,
+      ConfigDef.Width.SHORT,
+      CassandraConfigConstants.TOKEN_RANGE_PARALLELISM,
+    )
 
 }
 
@@ -523,6 +547,41 @@ object CassandraConfigSink {
       ConfigDef.Width.MEDIUM,
       CassandraConfigConstants.DEFAULT_VALUE_SERVE_STRATEGY_DISPLAY,
     )
+    .define(
+      CassandraConfigConstants.MAX_CONCURRENT_REQUESTS,
+      Type.INT,
+      CassandraConfigConstants.MAX_CONCURRENT_REQUESTS_DEFAULT,
+      ConfigDef.Range.atLeast(1),
+      Importance.MEDIUM,
+      CassandraConfigConstants.MAX_CONCURRENT_REQUESTS_DOC,
+      "Import",
+      9,
+      ConfigDef.Width.MEDIUM,
+      CassandraConfigConstants.MAX_CONCURRENT_REQUESTS_DISPLAY,
+    )
+    .define(
+      CassandraConfigConstants.UNLOGGED_BATCH_ENABLED,
+      Type.BOOLEAN,
+      CassandraConfigConstants.UNLOGGED_BATCH_ENABLED_DEFAULT,
+      Importance.LOW,
+      CassandraConfigConstants.UNLOGGED_BATCH_ENABLED_DOC,
+      "Import",
+      10,
+      ConfigDef.Width.MEDIUM,
+      CassandraConfigConstants.UNLOGGED_BATCH_ENABLED_DISPLAY,
+    )
+    .define(
+      CassandraConfigConstants.UNLOGGED_BATCH_SIZE,
+      Type.INT,
+      CassandraConfigConstants.UNLOGGED_BATCH_SIZE_DEFAULT,
+      ConfigDef.Range.atLeast(1),
+      Importance.LOW,
+      CassandraConfigConstants.UNLOGGED_BATCH_SIZE_DOC,
+      "Import",
+      11,
+      ConfigDef.Width.MEDIUM,
+      CassandraConfigConstants.UNLOGGED_BATCH_SIZE_DISPLAY,
+    )
 
 }
 
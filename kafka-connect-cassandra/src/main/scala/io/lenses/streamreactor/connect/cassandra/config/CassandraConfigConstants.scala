@@ -109,6 +109,20 @@ object CassandraConfigConstants {
   val ALLOW_FILTERING_DOC     = "Enable ALLOW FILTERING in incremental selects."
   val ALLOW_FILTERING_DEFAULT = true
 
+  val TOKEN_RANGE_SPLITS = s"$CONNECTOR_PREFIX.token.range.splits"
+  val TOKEN_RANGE_SPLITS_DOC =
+    """
+      |Bulk mode only. When greater than zero, the token ring is divided into this many sub-ranges which are read
+      |concurrently, each recording its own progress in the source offsets so a restarted task resumes every range
+      |where it stopped. Changing the value discards the recorded progress. Requires the Murmur3Partitioner.
+    """.stripMargin
+  val TOKEN_RANGE_SPLITS_DEFAULT = 0
+
+  val TOKEN_RANGE_PARALLELISM = s"$CONNECTOR_PREFIX.token.range.parallelism"
+  val TOKEN_RANGE_PARALLELISM_DOC =
+    "The number of token sub-ranges of a table read at once when connect.cassandra.token.range.splits is set."
+  val TOKEN_RANGE_PARALLELISM_DEFAULT = 4
+
   //for the source task, the connector will set this for the each source task
   val ASSIGNED_TABLES     = s"$CONNECTOR_PREFIX.assigned.tables"
   val ASSIGNED_TABLES_DOC = "The tables a task has been assigned."
@@ -141,9 +155,8 @@ object CassandraConfigConstants {
   val THREAD_POOL_CONFIG = s"$CONNECTOR_PREFIX.$THREAD_POLL_PROP_SUFFIX"
   val THREAD_POOL_DOC =
     """
-      |The sink inserts all the data concurrently. To fail fast in case of an error, the sink has its own thread pool.
-      |Set the value to zero and the threadpool will default to 4* NO_OF_CPUs. Set a value greater than 0
-      |and that would be the size of this threadpool.""".stripMargin
+      |Not used by the sink any longer, which writes asynchronously with at most
+      |connect.cassandra.max.concurrent.requests requests in flight.""".stripMargin
   val THREAD_POOL_DISPLAY = "Thread pool size"
   val THREAD_POOL_DEFAULT = 0
 
@@ -218,6 +231,29 @@ object CassandraConfigConstants {
   val DEFAULT_VALUE_SERVE_STRATEGY_DEFAULT = ""
   val DEFAULT_VALUE_SERVE_STRATEGY_DISPLAY = "Default value serve strategy"
 
+  val MAX_CONCURRENT_REQUESTS = s"$CONNECTOR_PREFIX.max.concurrent.requests"
+  val MAX_CONCURRENT_REQUESTS_DOC =
+    """
+      |The maximum number of write requests the sink task has in flight at once. The task waits for a request to
+      |complete before sending another one beyond it, and for all of them at the end of each put.
+    """.stripMargin
+  val MAX_CONCURRENT_REQUESTS_DEFAULT = 128
+  val MAX_CONCURRENT_REQUESTS_DISPLAY = "Maximum concurrent requests"
+
+  val UNLOGGED_BATCH_ENABLED = s"$CONNECTOR_PREFIX.unlogged.batch.enabled"
+  val UNLOGGED_BATCH_ENABLED_DOC =
+    """
+      |Groups the inserts of a put by table and partition key and sends each group as an UNLOGGED batch, so a partition
+      |is written in one request. Rows repeated within a group go to the next batch, so the last write still wins.
+    """.stripMargin
+  val UNLOGGED_BATCH_ENABLED_DEFAULT = false
+  val UNLOGGED_BATCH_ENABLED_DISPLAY = "Enable unlogged batches"
+
+  val UNLOGGED_BATCH_SIZE         = s"$CONNECTOR_PREFIX.unlogged.batch.size"
+  val UNLOGGED_BATCH_SIZE_DOC     = "The maximum number of inserts in an UNLOGGED batch."
+  val UNLOGGED_BATCH_SIZE_DEFAULT = 100
+  val UNLOGGED_BATCH_SIZE_DISPLAY = "Unlogged batch size"
+
   val LOAD_BALANCING_POLICY = s"$CONNECTOR_PREFIX.load.balancing.policy"
   val LOAD_BALANCING_POLICY_DOC =
     "Cassandra Load balancing policy. ROUND_ROBIN, TOKEN_AWARE, LATENCY_AWARE or DC_AWARE_ROUND_ROBIN. TOKEN_AWARE and LATENCY_AWARE use DC_AWARE_ROUND_ROBIN"
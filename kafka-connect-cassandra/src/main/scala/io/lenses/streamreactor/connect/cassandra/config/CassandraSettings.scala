@@ -72,22 +72,26 @@ case class CassandraSourceSetting(
   bucketMode:              BucketMode,
   bucketFormat:            String,
   bucketFieldName:         String,
+  tokenRangeSplits:        Int            = CassandraConfigConstants.TOKEN_RANGE_SPLITS_DEFAULT,
+  tokenRangeParallelism:   Int            = CassandraConfigConstants.TOKEN_RANGE_PARALLELISM_DEFAULT,
 ) extends CassandraSetting
 
 case class CassandraSinkSetting(
-  keySpace:             String,
-  kcqls:                Seq[Kcql],
-  fields:               Map[String, Seq[Field]],
-  ignoreField:          Map[String, Seq[Field]],
-  errorPolicy:          ErrorPolicy,
-  threadPoolSize:       Int,
-  consistencyLevel:     Option[ConsistencyLevel],
-  taskRetries:          Int                               = CassandraConfigConstants.NBR_OF_RETIRES_DEFAULT,
-  enableProgress:       Boolean                           = CassandraConfigConstants.PROGRESS_COUNTER_ENABLED_DEFAULT,
-  deleteEnabled:        Boolean                           = CassandraConfigConstants.DELETE_ROW_ENABLED_DEFAULT,
-  deleteStatement:      String                            = CassandraConfigConstants.DELETE_ROW_STATEMENT_DEFAULT,
-  deleteStructFields:   Seq[String]                       = Seq.empty,
-  defaultValueStrategy: Option[DefaultValueServeStrategy] = None,
+  keySpace:              String,
+  kcqls:                 Seq[Kcql],
+  fields:                Map[String, Seq[Field]],
+  ignoreField:           Map[String, Seq[Field]],
+  errorPolicy:           ErrorPolicy,
+  threadPoolSize:        Int,
+  consistencyLevel:      Option[ConsistencyLevel],
+  taskRetries:           Int                               = CassandraConfigConstants.NBR_OF_RETIRES_DEFAULT,
+  enableProgress:        Boolean                           = CassandraConfigConstants.PROGRESS_COUNTER_ENABLED_DEFAULT,
+  deleteEnabled:         Boolean                           = CassandraConfigConstants.DELETE_ROW_ENABLED_DEFAULT,
+  deleteStatement:       String                            = CassandraConfigConstants.DELETE_ROW_STATEMENT_DEFAULT,
+  deleteStructFields:    Seq[String]                       = Seq.empty,
+  defaultValueStrategy:  Option[DefaultValueServeStrategy] = None,
+  maxConcurrentRequests: Int                               = CassandraConfigConstants.MAX_CONCURRENT_REQUESTS_DEFAULT,
+  unloggedBatchSize:     Option[Int]                       = None,
 ) extends CassandraSetting
 
 /**
@@ -121,6 +125,9 @@ object CassandraSettings extends StrictLogging {
     val connectTimeout = config.getInt(CassandraConfigConstants.CONNECT_TIMEOUT)
     val readTimeout    = config.getInt(CassandraConfigConstants.READ_TIMEOUT)
 
+    val tokenRangeSplits      = config.getInt(CassandraConfigConstants.TOKEN_RANGE_SPLITS)
+    val tokenRangeParallelism = config.getInt(CassandraConfigConstants.TOKEN_RANGE_PARALLELISM)
+
     kcqls.map { r =>
       val tCols = primaryKeyCols(r.getSource)
       val timestampType = Try(TimestampType.withName(incrementalModes(r.getSource).toUpperCase)) match {
@@ -166,6 +173,8 @@ object CassandraSettings extends StrictLogging {
         readTimeout             = readTimeout,
         bucketFormat            = bucketFormat,
         bucketFieldName         = bucketFieldName,
+        tokenRangeSplits        = tokenRangeSplits,
+        tokenRangeParallelism   = tokenRangeParallelism,
       )
     }.toSeq
   }
@@ -195,6 +204,11 @@ object CassandraSettings extends StrictLogging {
     val defaultValueStrategy =
       DefaultValueServeStrategy.of(config.getString(CassandraConfigConstants.DEFAULT_VALUE_SERVE_STRATEGY_PROPERTY))
 
+    val unloggedBatchSize =
+      if (config.getBoolean(CassandraConfigConstants.UNLOGGED_BATCH_ENABLED))
+        Some(config.getInt(CassandraConfigConstants.UNLOGGED_BATCH_SIZE).toInt)
+      else None
+
     CassandraSinkSetting(
       keySpace,
       kcqls,
@@ -209,6 +223,8 @@ object CassandraSettings extends StrictLogging {
       deleteStmt,
       structFlds.asScala.toSeq,
       defaultValueStrategy,
+      config.getInt(CassandraConfigConstants.MAX_CONCURRENT_REQUESTS),
+      unloggedBatchSize,
     )
   }
 
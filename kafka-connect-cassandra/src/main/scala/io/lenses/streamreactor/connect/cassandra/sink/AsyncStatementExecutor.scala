@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cassandra.sink
+
+import com.datastax.driver.core.ResultSet
+import com.datastax.driver.core.Session
+import com.datastax.driver.core.Statement
+import com.google.common.util.concurrent.FutureCallback
+import com.google.common.util.concurrent.Futures
+import com.google.common.util.concurrent.MoreExecutors
+import io.lenses.streamreactor.connect.cassandra.sink.metrics.CassandraSinkMetricsMBean
+
+import java.util.concurrent.Semaphore
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+  * Sends statements to Cassandra asynchronously, keeping at most `maxInFlight` requests outstanding.
+  * The driver's client side timestamps are taken when a statement is sent, so statements sent one after the other
+  * are applied in the same order even when their responses arrive out of order.
+  *
+  * Only the first failure is kept; once a statement failed no further statements should be sent.
+  *
+  * @param maxInFlight the maximum number of requests waiting for a response
+  * @param metrics     records the requests in flight and their latency
+  */
+class AsyncStatementExecutor(maxInFlight: Int, metrics: CassandraSinkMetricsMBean) {
+  private val permits      = new Semaphore(maxInFlight)
+  private val firstFailure = new AtomicReference[Throwable](null)
+
+  /**
+    * Send the statement, blocking while `maxInFlight` requests are outstanding.
+    *
+    * @param onError maps the driver error to the one reported by [[await]]
+    */
+  def execute(session: Session, statement: Statement)(onError: Throwable => Throwable): Unit = {
+    permits.acquire()
+    metrics.requestStarted()
+    val start = System.nanoTime()
+    val future =
+      try session.executeAsync(statement)
+      catch {
+        case t: Throwable =>
+          completed(start, failed = true)
+          throw onError(t)
+      }
+    Futures.addCallback(
+      future,
+      new FutureCallback[ResultSet] {
+        //we don't care about the ResultSet here
+        def onSuccess(r: ResultSet): Unit = completed(start, failed = false)
+
+        def onFailure(t: Throwable): Unit = {
+          val _ = firstFailure.compareAndSet(null, onError(t))
+          completed(start, failed = true)
+        }
+      },
+      MoreExecutors.directExecutor(),
+    )
+  }
+
+  def failed: Boolean = firstFailure.get() != null
+
+  /**
+    * Wait for all outstanding requests and throw the first failure, if any.
+    */
+  def await(): Unit = {
+    permits.acquire(maxInFlight)
+    permits.release(maxInFlight)
+    Option(firstFailure.getAndSet(null)).foreach(e => throw e)
+  }
+
+  private def completed(start: Long, failed: Boolean): Unit = {
+    metrics.requestCompleted((System.nanoTime() - start) / 1000000, failed)
+    permits.release()
+  }
+}
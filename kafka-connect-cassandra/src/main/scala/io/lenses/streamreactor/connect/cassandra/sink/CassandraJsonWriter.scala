@@ -16,14 +16,14 @@
 package io.lenses.streamreactor.connect.cassandra.sink
 
 import io.lenses.kcql.Kcql
-import io.lenses.streamreactor.common.concurrent.ExecutorExtension._
-import io.lenses.streamreactor.common.concurrent.FutureAwaitWithFailFastFn
 import io.lenses.streamreactor.common.converters.FieldConverter
 import io.lenses.streamreactor.common.converters.ToJsonWithProjections
 import io.lenses.streamreactor.common.errors.ErrorHandler
 import io.lenses.streamreactor.connect.cassandra.CassandraConnection
 import io.lenses.streamreactor.connect.cassandra.config.CassandraSinkSetting
 import io.lenses.streamreactor.connect.cassandra.config.DefaultValueServeStrategy
+import io.lenses.streamreactor.connect.cassandra.sink.metrics.CassandraSinkMetrics
+import io.lenses.streamreactor.connect.cassandra.sink.metrics.CassandraSinkMetricsMBean
 import io.lenses.streamreactor.connect.cassandra.utils.CassandraUtils
 import io.lenses.streamreactor.connect.cassandra.utils.KeyUtils
 import com.datastax.driver.core.exceptions.InvalidQueryException
@@ -31,14 +31,11 @@ import com.datastax.driver.core.exceptions.SyntaxError
 import com.datastax.driver.core.PreparedStatement
 import com.datastax.driver.core.Session
 import com.typesafe.scalalogging.StrictLogging
-import org.apache.kafka.common.TopicPartition
 import org.apache.kafka.connect.data.Schema
 import org.apache.kafka.connect.data.Struct
 import org.apache.kafka.connect.sink.SinkRecord
 
-import java.util.concurrent.Executors
 import scala.annotation.nowarn
-import scala.concurrent.duration._
 import scala.jdk.CollectionConverters.ListHasAsScala
 import scala.util.Failure
 import scala.util.Success
@@ -49,8 +46,11 @@ import scala.util.Try
   * Cassandra Json writer for Kafka connect
   * Writes a list of Kafka connect sink records to Cassandra using the JSON support.
   */
-class CassandraJsonWriter(connection: CassandraConnection, settings: CassandraSinkSetting)
-    extends StrictLogging
+class CassandraJsonWriter(
+  connection: CassandraConnection,
+  settings:   CassandraSinkSetting,
+  metrics:    CassandraSinkMetricsMBean = new CassandraSinkMetrics(),
+) extends StrictLogging
     with ErrorHandler {
 
   logger.info("Initialising Cassandra writer.")
@@ -67,6 +67,11 @@ class CassandraJsonWriter(connection: CassandraConnection, settings: CassandraSi
 
   private val deleteStructFields = settings.deleteStructFields
 
+  //shared by all the writes, it bounds the requests waiting on Cassandra
+  private val executor = new AsyncStatementExecutor(settings.maxConcurrentRequests, metrics)
+
+  private lazy val tableKeys = cacheTableKeys
+
   /**
     * Get a connection to cassandra based on the config
     */
@@ -102,6 +107,22 @@ class CassandraJsonWriter(connection: CassandraConnection, settings: CassandraSi
       Some(session.prepare(settings.deleteStatement))
     else None
 
+  /**
+    * Cache the partition and primary key columns of the target tables, used to group the inserts into batches.
+    *
+    * @return A Map of table->keys.
+    */
+  private def cacheTableKeys: Map[String, TableKeys] = {
+    val keyspace = session.getCluster.getMetadata.getKeyspace(session.getLoggedKeyspace)
+    settings.kcqls.map(_.getTarget).distinct.map { table =>
+      val metadata = keyspace.getTable(table)
+      table -> TableKeys(
+        metadata.getPartitionKey.asScala.map(_.getName).toSeq,
+        metadata.getPrimaryKey.asScala.map(_.getName).toSeq,
+      )
+    }.toMap
+  }
+
   /**
     * Build a preparedStatement for the given topic.
     *
@@ -126,7 +147,7 @@ class CassandraJsonWriter(connection: CassandraConnection, settings: CassandraSi
   }
 
   /**
-    * Write SinkRecords to Cassandra (aSync per topic partition) in Json.
+    * Write SinkRecords to Cassandra (aSync) in Json.
     *
     * @param records A list of SinkRecords from Kafka Connect to write.
     */
@@ -143,48 +164,52 @@ class CassandraJsonWriter(connection: CassandraConnection, settings: CassandraSi
         preparedCache = cachePreparedStatements
       }
 
-      val _ = write(records.groupBy(r => new TopicPartition(r.topic(), r.kafkaPartition())))
+      val _ = send(records)
     }
 
   /**
-    * Write SinkRecords to Cassandra (aSync) in Json
+    * Send SinkRecords to Cassandra (aSync) in Json, in the order they were received, and wait for all of them to be
+    * acknowledged.
+    * The driver stamps each request with a client side timestamp when it is sent, so a later record for the same row
+    * wins even if the requests complete out of order.
     *
-    * @param records A Map of [[TopicPartition]] -> [[SinkRecord]] from Kafka Connect to write.
+    * @param records A list of SinkRecords from Kafka Connect to write.
     * @return boolean indication successful write.
     */
-  private def write(records: Map[TopicPartition, Seq[SinkRecord]]) = {
-    val executor = Executors.newFixedThreadPool(settings.threadPoolSize)
+  private def send(records: Seq[SinkRecord]) =
     try {
-      //This is a conscious decision to use a thread pool here in order to have more control. As we create multiple
-      //futures to insert a record in Cassandra we want to fail immediately rather than waiting on all to finish.
-      //If the error occurs it would be down to the error handler to do its thing.
+      val batches = settings.unloggedBatchSize.map(unloggedBatches)
+      //stop sending as soon as a request failed, it would be down to the error handler to do its thing.
       // NOOP should never be used!! otherwise data could be lost
-
-      val futures = records.map {
-        case (_, _records) =>
-          executor.submit(
-            _records.foreach { record =>
-              if (Option(record.value()).isDefined)
-                insert(record)
-              else
-                delete(record)
-            },
-          )
-      }.toSeq
-
-      //when the call returns the pool is shutdown
-      FutureAwaitWithFailFastFn(executor, futures, 1.hours)
-      logger.debug(s"Processed ${futures.size} records.")
+      records.iterator.takeWhile(_ => !executor.failed).foreach { record =>
+        if (Option(record.value()).isDefined)
+          insert(record, batches)
+        else {
+          //the delete must not overtake the inserts still waiting in a batch
+          batches.foreach(_.flush())
+          delete(record)
+        }
+      }
+      //the pending batches follow the failed request, they must not be sent either
+      if (!executor.failed) batches.foreach(_.flush())
+      executor.await()
+      logger.debug(s"Processed ${records.size} records.")
       handleTry(Success(())).nonEmpty
     } catch {
       case t: Throwable =>
         logger.error(s"There was an error writing the records ${t.getMessage}", t)
+        //wait for the requests already sent before handing over to the error policy
+        val _ = Try(executor.await())
         handleTry(Failure(t)).nonEmpty
     }
-  }
+
+  private def unloggedBatches(maxSize: Int): UnloggedBatches =
+    new UnloggedBatches(maxSize, tableKeys(_), settings.consistencyLevel)((table, rows, statement) =>
+      executor.execute(session, statement)(insertError(table, rows)),
+    )
 
   @nowarn
-  private def insert(record: SinkRecord) = {
+  private def insert(record: SinkRecord, batches: Option[UnloggedBatches]): Unit = {
     val tables = preparedCache.getOrElse(
       record.topic(),
       throw new IllegalArgumentException(s"Topic ${record.topic()} doesn't have a KCQL setup"),
@@ -196,57 +221,57 @@ class CassandraJsonWriter(connection: CassandraConnection, settings: CassandraSi
           record.valueSchema(),
           record.value(),
           kcql.hasRetainStructure(),
-        ).toString
-
-        try {
-          val bound = statement.bind(json)
-          session.execute(bound)
-          //we don't care about the ResultSet here
-          ()
-        } catch {
-          case e: SyntaxError =>
-            logger.error(s"Syntax error inserting <$json> into table <$table>", e)
-            throw e;
-          case e: InvalidQueryException =>
-            logger.error(s"Invalid query inserting <$json> into table <$table>", e)
-            throw new InvalidQueryException(e.getEndPoint, s"${e.getMessage} (table: $table)", e)
+        )
+        val bound = statement.bind(json.toString)
+        batches match {
+          case Some(b) => b.add(table, json, bound)
+          case None    => executor.execute(session, bound)(insertError(table, s"<$json>"))
         }
     }
   }
 
+  private def insertError(table: String, rows: String)(error: Throwable): Throwable =
+    error match {
+      case e: SyntaxError =>
+        logger.error(s"Syntax error inserting $rows into table <$table>", e)
+        e
+      case e: InvalidQueryException =>
+        logger.error(s"Invalid query inserting $rows into table <$table>", e)
+        new InvalidQueryException(e.getEndPoint, s"${e.getMessage} (table: $table)", e)
+      case e => e
+    }
+
   private def delete(record: SinkRecord): Unit =
-    try {
-      deleteCache match {
-        case Some(d) =>
-          val bindingFields = {
-            if (record.keySchema() == null) {
-              throw new IllegalArgumentException("Missing key schema.")
-            } else {
-              val key    = record.key()
-              val schema = record.keySchema()
-              if (schema.`type`().isPrimitive) {
-                if (schema.`type`() == Schema.Type.STRING && deleteStructFields.nonEmpty) {
-                  // treat key string as JSON
-                  logger.trace("key schema is a String type and deleteStructFields non empty, treat it like JSON...")
-                  KeyUtils.keysFromJson(key.toString, deleteStructFields)
-                } else {
-                  logger.trace("key schema is a primitive type, this is easy...")
-                  Seq(record.key())
-                }
+    deleteCache match {
+      case Some(d) =>
+        val bindingFields = {
+          if (record.keySchema() == null) {
+            throw new IllegalArgumentException("Missing key schema.")
+          } else {
+            val key    = record.key()
+            val schema = record.keySchema()
+            if (schema.`type`().isPrimitive) {
+              if (schema.`type`() == Schema.Type.STRING && deleteStructFields.nonEmpty) {
+                // treat key string as JSON
+                logger.trace("key schema is a String type and deleteStructFields non empty, treat it like JSON...")
+                KeyUtils.keysFromJson(key.toString, deleteStructFields)
               } else {
-                logger.trace("key schema is a STRUCT, dig into the key...")
-                KeyUtils.keysFromStruct(key.asInstanceOf[Struct], schema, deleteStructFields)
+                logger.trace("key schema is a primitive type, this is easy...")
+                Seq(record.key())
               }
+            } else {
+              logger.trace("key schema is a STRUCT, dig into the key...")
+              KeyUtils.keysFromStruct(key.asInstanceOf[Struct], schema, deleteStructFields)
             }
           }
-          session.execute(d.bind(bindingFields: _*))
-          ()
-        case None => throw new IllegalArgumentException("Sink is missing delete statement.")
-      }
-    } catch {
-      case e: SyntaxError =>
-        logger.error("Syntax error deleting record.", e)
-        throw e
+        }
+        executor.execute(session, d.bind(bindingFields: _*)) {
+          case e: SyntaxError =>
+            logger.error("Syntax error deleting record.", e)
+            e
+          case e => e
+        }
+      case None => throw new IllegalArgumentException("Sink is missing delete statement.")
     }
 
   /**
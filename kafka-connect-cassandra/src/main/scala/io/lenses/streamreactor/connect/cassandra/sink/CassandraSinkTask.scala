@@ -15,13 +15,16 @@
  */
 package io.lenses.streamreactor.connect.cassandra.sink
 
+import io.lenses.streamreactor.common.metrics.MetricsRegistrar
 import io.lenses.streamreactor.common.util.AsciiArtPrinter.printAsciiHeader
 import io.lenses.streamreactor.common.utils.JarManifestProvided
 import io.lenses.streamreactor.common.utils.ProgressCounter
 
 import java.util
+import javax.management.ObjectName
 import io.lenses.streamreactor.connect.cassandra.config.CassandraConfigSink
 import io.lenses.streamreactor.connect.cassandra.config.CassandraSettings
+import io.lenses.streamreactor.connect.cassandra.sink.metrics.CassandraSinkMetrics
 import com.typesafe.scalalogging.StrictLogging
 import org.apache.kafka.clients.consumer.OffsetAndMetadata
 import org.apache.kafka.common.TopicPartition
@@ -45,6 +48,8 @@ class CassandraSinkTask extends SinkTask with StrictLogging with JarManifestProv
   private var writer: Option[CassandraJsonWriter] = None
   private val progressCounter = new ProgressCounter
   private var enableProgress: Boolean = false
+  private val metrics = new CassandraSinkMetrics()
+  private var metricsName: Option[ObjectName] = None
   logger.info("Task initialising")
 
   /**
@@ -63,7 +68,11 @@ class CassandraSinkTask extends SinkTask with StrictLogging with JarManifestProv
     val sinkSettings = CassandraSettings.configureSink(taskConfig)
     enableProgress = sinkSettings.enableProgress
 
-    writer = Some(CassandraWriter(connectorConfig = taskConfig, context = context))
+    writer = Some(CassandraWriter(connectorConfig = taskConfig, context = context, metrics = metrics))
+    val name =
+      MetricsRegistrar.taskMetricsName(CassandraSinkMetrics.Domain, config.asScala.getOrElse("name", "cassandra-sink"))
+    MetricsRegistrar.register(metrics, name)
+    metricsName = Some(name)
   }
 
   /**
@@ -84,10 +93,16 @@ class CassandraSinkTask extends SinkTask with StrictLogging with JarManifestProv
   override def stop(): Unit = {
     logger.info("Stopping Cassandra sink.")
     writer.foreach(w => w.close())
+    metricsName.foreach(MetricsRegistrar.unregister)
+    metricsName = None
     if (enableProgress) {
       progressCounter.empty()
     }
   }
 
-  override def flush(map: util.Map[TopicPartition, OffsetAndMetadata]): Unit = {}
+  /**
+    * Every put waits for its writes to be acknowledged, so there is nothing left to flush.
+    * The write latency percentiles are published per flush interval.
+    */
+  override def flush(map: util.Map[TopicPartition, OffsetAndMetadata]): Unit = metrics.resetWriteLatency()
 }
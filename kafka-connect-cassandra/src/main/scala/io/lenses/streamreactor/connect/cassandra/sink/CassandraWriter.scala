@@ -20,6 +20,8 @@ import io.lenses.streamreactor.connect.cassandra.CassandraConnection
 import io.lenses.streamreactor.connect.cassandra.config.CassandraConfigConstants
 import io.lenses.streamreactor.connect.cassandra.config.CassandraConfigSink
 import io.lenses.streamreactor.connect.cassandra.config.CassandraSettings
+import io.lenses.streamreactor.connect.cassandra.sink.metrics.CassandraSinkMetrics
+import io.lenses.streamreactor.connect.cassandra.sink.metrics.CassandraSinkMetricsMBean
 import com.typesafe.scalalogging.StrictLogging
 import org.apache.kafka.connect.errors.ConnectException
 import org.apache.kafka.connect.sink.SinkTaskContext
@@ -30,7 +32,11 @@ import scala.util.Try
 
 //Factory to build
 object CassandraWriter extends StrictLogging {
-  def apply(connectorConfig: CassandraConfigSink, context: SinkTaskContext): CassandraJsonWriter = {
+  def apply(
+    connectorConfig: CassandraConfigSink,
+    context:         SinkTaskContext,
+    metrics:         CassandraSinkMetricsMBean = new CassandraSinkMetrics(),
+  ): CassandraJsonWriter = {
 
     val connection = Try(CassandraConnection(connectorConfig)) match {
       case Success(s) => s
@@ -45,6 +51,6 @@ object CassandraWriter extends StrictLogging {
       case _ =>
     }
 
-    new CassandraJsonWriter(connection, settings)
+    new CassandraJsonWriter(connection, settings, metrics)
   }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cassandra.sink
+
+import com.datastax.driver.core.BatchStatement
+import com.datastax.driver.core.ConsistencyLevel
+import com.datastax.driver.core.Statement
+import com.fasterxml.jackson.databind.JsonNode
+
+import scala.collection.mutable
+import scala.jdk.CollectionConverters.IteratorHasAsScala
+
+/**
+  * Groups the inserts of one write into unlogged batches, one per table and partition, so no batch spans
+  * partitions. A batch is sent once it holds `maxSize` rows, or before it would hold the same row twice:
+  * all the statements of a batch share one timestamp, so the later insert is sent in the next batch to keep winning.
+  *
+  * @param execute sends a statement, given the table and a description of the rows it writes for the errors
+  */
+private[sink] class UnloggedBatches(
+  maxSize:          Int,
+  tableKeys:        String => TableKeys,
+  consistencyLevel: Option[ConsistencyLevel],
+)(execute: (String, String, Statement) => Unit) {
+  private val pending = mutable.LinkedHashMap.empty[(String, Seq[String]), PendingBatch]
+
+  def add(table: String, json: JsonNode, statement: Statement): Unit = {
+    val keys = tableKeys(table)
+    (keyValues(json, keys.partition), keyValues(json, keys.primary)) match {
+      case (Some(partition), Some(row)) =>
+        val batch = pending.getOrElseUpdate((table, partition), new PendingBatch(table))
+        if (batch.rows.contains(row)) {
+          send(batch)
+          pending.update((table, partition), new PendingBatch(table).add(row, statement))
+        } else if (batch.add(row, statement).rows.size >= maxSize) {
+          send(batch)
+          val _ = pending.remove((table, partition))
+        }
+      case _ =>
+        //Cassandra will reject the row, send it on its own so the error names it
+        flush()
+        execute(table, s"<$json>", statement)
+    }
+  }
+
+  def flush(): Unit = {
+    pending.values.foreach(send)
+    pending.clear()
+  }
+
+  private def send(batch: PendingBatch): Unit =
+    execute(batch.table, s"a batch of ${batch.rows.size} rows", batch.statement)
+
+  /**
+    * The values of the key columns, matched case insensitively as Cassandra does for unquoted JSON keys.
+    */
+  private def keyValues(json: JsonNode, columns: Seq[String]): Option[Seq[String]] =
+    Option(json).filter(_.isObject).flatMap { node =>
+      val fields = node.fieldNames().asScala.map(f => f.toLowerCase -> node.get(f)).toMap
+      val values = columns.flatMap(c => fields.get(c.toLowerCase).filterNot(_.isNull).map(_.toString))
+      Option.when(values.size == columns.size)(values)
+    }
+
+  private class PendingBatch(val table: String) {
+    val statement: BatchStatement = new BatchStatement(BatchStatement.Type.UNLOGGED)
+    consistencyLevel.foreach(statement.setConsistencyLevel)
+    val rows: mutable.Set[Seq[String]] = mutable.Set.empty
+
+    def add(row: Seq[String], bound: Statement): PendingBatch = {
+      val _ = statement.add(bound)
+      rows += row
+      this
+    }
+  }
+}
+
+private[sink] case class TableKeys(partition: Seq[String], primary: Seq[String])
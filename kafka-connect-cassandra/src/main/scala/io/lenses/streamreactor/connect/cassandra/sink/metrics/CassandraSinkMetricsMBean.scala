@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cassandra.sink.metrics
+
+import org.HdrHistogram.Recorder
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.LongAdder
+
+trait CassandraSinkMetricsMBean {
+
+  /**
+    * Mark a write request as sent, it stays in flight until [[requestCompleted]] is called
+    */
+  def requestStarted(): Unit
+
+  /**
+    * Mark an in flight write request as completed and record the time it took
+    */
+  def requestCompleted(millis: Long, failed: Boolean): Unit
+
+  /**
+    * Reset the write latency histogram and calculate the percentiles
+    */
+  def resetWriteLatency(): Unit
+
+  def getRequestsCount:       Long
+  def getFailedRequestsCount: Long
+  def getInFlightRequests:    Long
+
+  /**
+    * The highest number of write requests in flight at the same time since the last reset of the latency histogram
+    */
+  def getMaxInFlightRequests: Long
+
+  def getP50WriteLatencyMs: Long
+  def getP95WriteLatencyMs: Long
+  def getP99WriteLatencyMs: Long
+}
+
+object CassandraSinkMetrics {
+
+  /**
+    * Domain of the MBean, registered per task as `type=metrics,name=<sink name>,task=<n>`
+    */
+  val Domain = "io.lenses.streamreactor.connect.cassandra.sink"
+}
+
+class CassandraSinkMetrics extends CassandraSinkMetricsMBean {
+  private val requests       = new LongAdder()
+  private val failedRequests = new LongAdder()
+
+  private val inFlightRequests    = new AtomicLong(0L)
+  private val maxInFlightRequests = new AtomicLong(0L)
+
+  private val p50WriteLatencyMs = new AtomicLong(0L)
+  private val p95WriteLatencyMs = new AtomicLong(0L)
+  private val p99WriteLatencyMs = new AtomicLong(0L)
+
+  // a write taking longer than an hour is reported as an hour
+  private val MaxValueMillis = 60 * 60 * 1000L
+  private val recorder       = new Recorder(MaxValueMillis, 3)
+
+  override def requestStarted(): Unit = {
+    val inFlight = inFlightRequests.incrementAndGet()
+    maxInFlightRequests.accumulateAndGet(inFlight, (current, candidate) => math.max(current, candidate))
+    ()
+  }
+
+  override def requestCompleted(millis: Long, failed: Boolean): Unit = {
+    inFlightRequests.decrementAndGet()
+    requests.increment()
+    if (failed) failedRequests.increment()
+    recorder.recordValue(math.min(millis, MaxValueMillis))
+  }
+
+  override def resetWriteLatency(): Unit = {
+    val histogram = recorder.getIntervalHistogram()
+    p50WriteLatencyMs.set(histogram.getValueAtPercentile(50.0))
+    p95WriteLatencyMs.set(histogram.getValueAtPercentile(95.0))
+    p99WriteLatencyMs.set(histogram.getValueAtPercentile(99.0))
+    maxInFlightRequests.set(inFlightRequests.get())
+  }
+
+  override def getRequestsCount:       Long = requests.sum()
+  override def getFailedRequestsCount: Long = failedRequests.sum()
+  override def getInFlightRequests:    Long = inFlightRequests.get()
+  override def getMaxInFlightRequests: Long = maxInFlightRequests.get()
+
+  override def getP50WriteLatencyMs: Long = p50WriteLatencyMs.get()
+  override def getP95WriteLatencyMs: Long = p95WriteLatencyMs.get()
+  override def getP99WriteLatencyMs: Long = p99WriteLatencyMs.get()
+}
@@ -33,6 +33,7 @@ import org.json4s.native.Json
 
 import java.text.SimpleDateFormat
 import java.time.Instant
+import java.util
 import java.util.concurrent.atomic.AtomicBoolean
 import java.util.concurrent.LinkedBlockingQueue
 import java.util.concurrent.TimeUnit
@@ -97,14 +98,16 @@ class CassandraTableReader(
   private val sourcePartition = Collections.singletonMap(CassandraConfigConstants.ASSIGNED_TABLES, table)
   private val schemaName      = s"$keySpace.$table".replace('-', '.')
   private val bulk            = if (setting.timestampColType.equals(TimestampType.NONE)) true else false
-  private var schema: Option[Schema] = None
-  private val ignoreList       = config.getIgnoredFields.asScala.map(_.getName).toSet
+  @volatile private var schema: Option[Schema] = None
+  private val tokenRangeReader = getTokenRangeReader
+  private val ignoreList =
+    config.getIgnoredFields.asScala.map(_.getName).toSet ++ tokenRangeReader.map(_ => TokenRangeSplit.TokenColumn)
   private val isTokenBased     = cqlGenerator.isTokenBased()
   private val isDSESearchBased = cqlGenerator.isDSESearchBased()
   private val isBucketBased    = cqlGenerator.isBucketBased()
   private val cassandraTypeConverter: CassandraTypeConverter =
     new CassandraTypeConverter(session.getCluster.getConfiguration.getCodecRegistry, setting)
-  private var structColDefs: List[ColumnDefinitions.Definition] = _
+  @volatile private var structColDefs: List[ColumnDefinitions.Definition] = _
 
   /**
     * Build a map of table to offset.
@@ -121,6 +124,21 @@ class CassandraTableReader(
     cqlGenerator.getDefaultOffsetValue(offset)
   }
 
+  /**
+    * Read the table by token ranges when they are configured, only bulk mode reads the whole table.
+    *
+    * @return The token range reader.
+    */
+  private def getTokenRangeReader: Option[TokenRangeReader] =
+    if (setting.tokenRangeSplits <= 0) None
+    else if (!bulk) {
+      logger.warn(s"Connector $name ignores ${CassandraConfigConstants.TOKEN_RANGE_SPLITS} for $table in this mode.")
+      None
+    } else {
+      logger.info(s"Connector $name reads $keySpace.$table in ${setting.tokenRangeSplits} token ranges.")
+      Some(new TokenRangeReader(name, session, setting, context))
+    }
+
   /**
     * Build a preparedStatement for the given table.
     *
@@ -144,7 +162,15 @@ class CassandraTableReader(
     * Fires Cassandra queries and increments the timestamp
     * Every Row returned from query is put into the queue for processing.
     */
-  def read(): Unit = if (!stop.get() && !querying.get()) query()
+  def read(): Unit = if (!stop.get() && !querying.get()) tokenRangeReader.fold(query())(queryTokenRanges)
+
+  /**
+    * Read the token ranges, the query completes once every range was read.
+    */
+  private def queryTokenRanges(reader: TokenRangeReader): Unit = {
+    querying.set(true)
+    reader.read(stop, enqueueRow, () => reset(None))
+  }
 
   private def query(): Unit = {
     // we are going to execute the query
@@ -349,12 +375,6 @@ class CassandraTableReader(
     * @param row The Cassandra row to process.
     */
   private def processRow(row: Row): Boolean = {
-    // convert the cassandra row to a struct
-    if (structColDefs == null) {
-      structColDefs = cassandraTypeConverter.getStructColumns(row, ignoreList)
-    }
-    val struct = cassandraTypeConverter.convert(row, schemaName, structColDefs, schema)
-
     // get the offset for this value
     val offset: String = if (isTokenBased) {
       extractUuid(row).getOrElse("")
@@ -364,6 +384,23 @@ class CassandraTableReader(
     }
     logger.debug(s"Connector $name processing row with offset: $offset")
 
+    enqueueRow(row, sourcePartition, Map(primaryKeyCol -> offset).asJava)
+  }
+
+  /**
+    * Convert a Cassandra row to a SourceRecord and put in queue
+    *
+    * @param row       The Cassandra row to process.
+    * @param partition The source partition of the record.
+    * @param offset    The source offset of the record.
+    */
+  private def enqueueRow(row: Row, partition: util.Map[String, String], offset: util.Map[String, String]): Boolean = {
+    // convert the cassandra row to a struct
+    if (structColDefs == null) {
+      structColDefs = cassandraTypeConverter.getStructColumns(row, ignoreList)
+    }
+    val struct = cassandraTypeConverter.convert(row, schemaName, structColDefs, schema)
+
     // create source record
     val record = if (config.isUnwrapping) {
       if (config.getFormatType == FormatType.JSON) {
@@ -371,16 +408,16 @@ class CassandraTableReader(
         val v           = structColDefs.map(d => d.getName -> row.getObject(d.getName)).toMap
         val structValue = Json(DefaultFormats).write(v)
         if (keys.isEmpty) {
-          new SourceRecord(sourcePartition,
-                           Map(primaryKeyCol -> offset).asJava,
+          new SourceRecord(partition,
+                           offset,
                            topic,
                            Schema.STRING_SCHEMA,
                            structValue,
           )
         } else {
           val keyValue = keys.asScala.map(k => row.getObject(k)).mkString(",")
-          new SourceRecord(sourcePartition,
-                           Map(primaryKeyCol -> offset).asJava,
+          new SourceRecord(partition,
+                           offset,
                            topic,
                            Schema.STRING_SCHEMA,
                            keyValue,
@@ -390,13 +427,13 @@ class CassandraTableReader(
         }
       } else {
         val structValue = structColDefs.map(d => d.getName).map(name => row.getObject(name)).mkString(",")
-        new SourceRecord(sourcePartition, Map(primaryKeyCol -> offset).asJava, topic, Schema.STRING_SCHEMA, structValue)
+        new SourceRecord(partition, offset, topic, Schema.STRING_SCHEMA, structValue)
       }
     } else {
       if (schema.isEmpty) {
         schema = Some(struct.schema())
       }
-      new SourceRecord(sourcePartition, Map(primaryKeyCol -> offset).asJava, topic, struct.schema(), struct)
+      new SourceRecord(partition, offset, topic, struct.schema(), struct)
     }
 
     // add source record to queue
@@ -452,6 +489,7 @@ class CassandraTableReader(
   def close(): Unit = {
     logger.info(s"Connector $name shutting down queries.")
     stopQuerying()
+    tokenRangeReader.foreach(_.close())
     logger.info(s"Connector $name all stopped.")
   }
 
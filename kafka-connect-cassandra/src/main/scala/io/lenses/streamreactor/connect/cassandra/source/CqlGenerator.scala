@@ -86,6 +86,24 @@ class CqlGenerator(private val setting: CassandraSourceSetting) extends StrictLo
     selectStatement
   }
 
+  /**
+    * Build the CQL reading one token range of the table in bulk mode, selecting the token of each row as well.
+    *
+    * @param columns      all the columns of the table, selected when the KCQL selects *
+    * @param partitionKey the partition key columns of the table
+    * @return the CQL statement (as a String)
+    */
+  def getCqlStatementForTokenRange(columns: Seq[String], partitionKey: Seq[String]): String = {
+    val token = s"token(${partitionKey.mkString(",")})"
+    // CQL does not allow * next to another selector
+    val columnsAndToken =
+      (if (selectColumns.contentEquals("*")) columns.mkString(",") else selectColumns) +
+        s",$token AS ${TokenRangeSplit.TokenColumn}"
+    val selectStatement = s"SELECT $columnsAndToken FROM $keySpace.$table WHERE $token > ? AND $token <= ?"
+    logger.info(s"Generated CQL: $selectStatement")
+    selectStatement
+  }
+
   def getDefaultOffsetValue(offset: Option[String]): Option[String] =
     incrementMode match {
       case TimestampType.TIMESTAMP | TimestampType.DSESEARCHTIMESTAMP | TimestampType.BUCKETTIMESERIES |
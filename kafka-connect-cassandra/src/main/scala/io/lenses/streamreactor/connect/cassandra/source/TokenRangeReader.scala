@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cassandra.source
+
+import io.lenses.streamreactor.connect.cassandra.config.CassandraConfigConstants
+import io.lenses.streamreactor.connect.cassandra.config.CassandraSourceSetting
+import com.datastax.driver.core.Metadata
+import com.datastax.driver.core.PreparedStatement
+import com.datastax.driver.core.Row
+import com.datastax.driver.core.Session
+import com.typesafe.scalalogging.StrictLogging
+import org.apache.kafka.common.config.ConfigException
+import org.apache.kafka.connect.source.SourceTaskContext
+
+import java.util
+import java.util.Collections
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import scala.collection.concurrent.TrieMap
+import scala.jdk.CollectionConverters.ListHasAsScala
+import scala.jdk.CollectionConverters.MapHasAsJava
+import scala.jdk.CollectionConverters.SeqHasAsJava
+
+/**
+  * Reads a table in bulk mode by dividing the token ring into sub-ranges which are queried concurrently.
+  * Every range is its own source partition and its offset holds the token of the last row read, so a restarted task
+  * resumes each range where it stopped. All the rows of a Cassandra partition share its token, so a range resumes
+  * from the start of the partition of the last row read and the rows of that partition already read are read again.
+  *
+  * A range fetches its next page while the current one is put on the queue, so it is at most one page ahead.
+  */
+class TokenRangeReader(
+  private val name:    String,
+  private val session: Session,
+  private val setting: CassandraSourceSetting,
+  private val context: SourceTaskContext,
+) extends StrictLogging {
+
+  private val keySpace  = setting.keySpace
+  private val table     = setting.kcql.getSource
+  private val ranges    = TokenRangeSplit.split(setting.tokenRangeSplits)
+  private val statement = getPreparedStatement
+  private val progress  = recoverProgress()
+  private val executor: ExecutorService = Executors.newFixedThreadPool(setting.tokenRangeParallelism)
+
+  private def getPreparedStatement: PreparedStatement = {
+    val metadata = session.getCluster.getMetadata
+    if (metadata.getPartitioner != TokenRangeSplit.Partitioner)
+      throw new ConfigException(
+        s"${CassandraConfigConstants.TOKEN_RANGE_SPLITS} requires the ${TokenRangeSplit.Partitioner}, " +
+          s"the cluster uses ${metadata.getPartitioner}",
+      )
+    val tableMetadata = metadata.getKeyspace(keySpace).getTable(table)
+    val cql = new CqlGenerator(setting).getCqlStatementForTokenRange(
+      tableMetadata.getColumns.asScala.map(c => Metadata.quoteIfNecessary(c.getName)).toSeq,
+      tableMetadata.getPartitionKey.asScala.map(c => Metadata.quoteIfNecessary(c.getName)).toSeq,
+    )
+    val prepared = session.prepare(cql)
+    setting.consistencyLevel.foreach(prepared.setConsistencyLevel)
+    prepared
+  }
+
+  /**
+    * Recover the last token read for each range. Ranges recorded with a different number of splits are not found,
+    * so changing the number of splits starts the table over.
+    *
+    * @return A map of range to the last token read.
+    */
+  private def recoverProgress(): TrieMap[TokenRangeSplit, Long] = {
+    val partitions = ranges.map(r => r -> sourcePartition(r))
+    val offsets    = context.offsetStorageReader().offsets(partitions.map(_._2).asJava)
+    val recovered = partitions.flatMap {
+      case (range, partition) =>
+        Option(offsets.get(partition)).flatMap(o => Option(o.get(TokenRangeReader.OffsetKey))).map { token =>
+          range -> token.toString.toLong
+        }
+    }
+    logger.info(s"Connector $name recovered offsets for ${recovered.size} of ${ranges.size} token ranges of $table")
+    TrieMap.from(recovered)
+  }
+
+  def sourcePartition(range: TokenRangeSplit): util.Map[String, String] =
+    Map(
+      CassandraConfigConstants.ASSIGNED_TABLES -> table,
+      TokenRangeReader.PartitionKey            -> range.id,
+    ).asJava
+
+  /**
+    * Read every range, at most `tokenRangeParallelism` at once, handing each row over with its source partition and
+    * offset. A range that is fully read starts from its beginning on the next call.
+    *
+    * @param stop   tells the ranges to stop reading
+    * @param emit   puts the row on the queue, returns false if it was not
+    * @param onDone called once every range was read
+    */
+  def read(stop: AtomicBoolean, emit: TokenRangeReader.Emit, onDone: () => Unit): Unit = {
+    val remaining = new AtomicInteger(ranges.size)
+    ranges.foreach { range =>
+      executor.execute { () =>
+        try readRange(range, stop, emit)
+        catch {
+          case t: Throwable =>
+            logger.warn(s"Connector $name error reading token range ${range.id} of $keySpace.$table.", t)
+        } finally if (remaining.decrementAndGet() == 0) onDone()
+      }
+    }
+  }
+
+  private def readRange(range: TokenRangeSplit, stop: AtomicBoolean, emit: TokenRangeReader.Emit): Unit =
+    if (!stop.get()) {
+      // the statement reads the tokens after `from`, a partition only partly read is read again from its first row
+      val from  = progress.get(range).fold(range.start)(_ - 1)
+      val bound = statement.bind(Long.box(from), Long.box(range.end))
+      logger.debug(s"Connector $name query ${statement.getQueryString} executing with bindings ($from, ${range.end}).")
+      bound.setFetchSize(setting.fetchSize)
+
+      val rs        = session.executeAsync(bound).getUninterruptibly
+      val iter      = rs.iterator()
+      val partition = sourcePartition(range)
+      var counter   = 0
+      while (iter.hasNext && !stop.get()) {
+        // this is asynchronous
+        if ((rs.getAvailableWithoutFetching == setting.fetchSize / 2) && !rs.isFullyFetched) rs.fetchMoreResults
+
+        val row   = iter.next()
+        val token = row.getLong(TokenRangeSplit.TokenColumn)
+        if (emit(row, partition, Collections.singletonMap(TokenRangeReader.OffsetKey, token.toString))) {
+          progress.update(range, token)
+          counter += 1
+        }
+      }
+      logger.debug(s"Connector $name processed $counter row(-s) from token range ${range.id} of $table")
+      if (!stop.get()) {
+        val _ = progress.remove(range)
+      }
+    }
+
+  /**
+    * Stop the range readers, waiting for those in flight to finish.
+    */
+  def close(): Unit = {
+    executor.shutdown()
+    val _ = executor.awaitTermination(30, TimeUnit.SECONDS)
+  }
+}
+
+object TokenRangeReader {
+  type Emit = (Row, util.Map[String, String], util.Map[String, String]) => Boolean
+
+  val PartitionKey = "token.range"
+  val OffsetKey    = "token"
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cassandra.source
+
+/**
+  * A sub-range (start, end] of the Murmur3Partitioner token ring.
+  */
+case class TokenRangeSplit(start: Long, end: Long) {
+  def id: String = s"$start:$end"
+}
+
+object TokenRangeSplit {
+  val Partitioner = "org.apache.cassandra.dht.Murmur3Partitioner"
+
+  // the alias of the token selected next to the table columns
+  val TokenColumn = "kc_token"
+
+  /**
+    * Divide the whole ring into contiguous sub-ranges of about the same size.
+    * No partition key hashes to Long.MinValue, so (Long.MinValue, Long.MaxValue] holds every row.
+    *
+    * @param splits the number of sub-ranges
+    * @return the sub-ranges, in token order
+    */
+  def split(splits: Int): Seq[TokenRangeSplit] = {
+    require(splits > 0, "The token ring must be divided into at least one range")
+    val min    = BigInt(Long.MinValue)
+    val size   = BigInt(Long.MaxValue) - min
+    val bounds = (0 to splits).map(i => (min + size * i / splits).toLong)
+    bounds.zip(bounds.tail).map { case (start, end) => TokenRangeSplit(start, end) }
+  }
+}
@@ -89,6 +89,30 @@ class TestCassandraSinkSettings extends AnyWordSpec with Matchers with MockitoSu
     settings.threadPoolSize shouldBe 4 * Runtime.getRuntime.availableProcessors()
   }
 
+  "CassandraSettings should default to unbatched writes with 128 requests in flight for a sink" in {
+    val settings = CassandraSettings.configureSink(CassandraConfigSink(getCassandraConfigSinkPropsRetry))
+    settings.maxConcurrentRequests shouldBe 128
+    settings.unloggedBatchSize shouldBe None
+  }
+
+  "CassandraSettings should allow enabling unlogged batches and bounding the requests in flight for a sink" in {
+    val map = getCassandraConfigSinkPropsRetry ++ Map(
+      CassandraConfigConstants.MAX_CONCURRENT_REQUESTS -> "16",
+      CassandraConfigConstants.UNLOGGED_BATCH_ENABLED  -> "true",
+      CassandraConfigConstants.UNLOGGED_BATCH_SIZE     -> "50",
+    )
+    val settings = CassandraSettings.configureSink(CassandraConfigSink(map))
+    settings.maxConcurrentRequests shouldBe 16
+    settings.unloggedBatchSize shouldBe Some(50)
+  }
+
+  "CassandraSettings should throw an exception if the sink requests in flight are not positive" in {
+    val map = getCassandraConfigSinkPropsRetry + (CassandraConfigConstants.MAX_CONCURRENT_REQUESTS -> "0")
+    intercept[ConfigException] {
+      CassandraSettings.configureSink(CassandraConfigSink(map))
+    }
+  }
+
   "CassandraSettings should throw an exception if the consistency level is not valid for a source" in {
 
     val props = Map(
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cassandra.sink
+
+import com.datastax.driver.core.ResultSet
+import com.datastax.driver.core.Session
+import com.datastax.driver.core.SimpleStatement
+import com.datastax.driver.core.Statement
+import io.lenses.streamreactor.connect.cassandra.sink.metrics.CassandraSinkMetrics
+import org.mockito.ArgumentMatchersSugar
+import org.mockito.MockitoSugar
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class AsyncStatementExecutorTest extends AnyWordSpec with Matchers with MockitoSugar with ArgumentMatchersSugar {
+
+  private val mapError: Throwable => Throwable = t => new IllegalStateException("mapped", t)
+
+  "AsyncStatementExecutor" should {
+    "block a statement while maxInFlight requests are outstanding" in {
+      val first   = new TestResultSetFuture
+      val second  = new TestResultSetFuture
+      val session = mock[Session]
+      val third   = TestResultSetFuture.succeeded(mock[ResultSet])
+      when(session.executeAsync(any[Statement])).thenReturn(first, second, third)
+      val metrics  = new CassandraSinkMetrics()
+      val executor = new AsyncStatementExecutor(2, metrics)
+
+      executor.execute(session, new SimpleStatement("1"))(mapError)
+      executor.execute(session, new SimpleStatement("2"))(mapError)
+      metrics.getInFlightRequests shouldBe 2
+
+      val sent = new CountDownLatch(1)
+      val thread = new Thread(() => {
+        executor.execute(session, new SimpleStatement("3"))(mapError)
+        sent.countDown()
+      })
+      thread.start()
+
+      sent.await(200, TimeUnit.MILLISECONDS) shouldBe false
+      verify(session, times(2)).executeAsync(any[Statement])
+
+      first.succeed(mock[ResultSet])
+      sent.await(5, TimeUnit.SECONDS) shouldBe true
+      second.succeed(mock[ResultSet])
+      executor.await()
+
+      verify(session, times(3)).executeAsync(any[Statement])
+      metrics.getInFlightRequests shouldBe 0
+      metrics.getMaxInFlightRequests shouldBe 2
+    }
+
+    "report the first failure only, mapped by the error handler" in {
+      val firstError  = new RuntimeException("first")
+      val secondError = new RuntimeException("second")
+      val pending     = new TestResultSetFuture
+      val session     = mock[Session]
+      when(session.executeAsync(any[Statement])).thenReturn(
+        TestResultSetFuture.failed(firstError),
+        TestResultSetFuture.failed(secondError),
+        pending,
+      )
+      val metrics  = new CassandraSinkMetrics()
+      val executor = new AsyncStatementExecutor(3, metrics)
+
+      executor.execute(session, new SimpleStatement("1"))(mapError)
+      executor.failed shouldBe true
+      executor.execute(session, new SimpleStatement("2"))(mapError)
+      executor.execute(session, new SimpleStatement("3"))(mapError)
+
+      pending.succeed(mock[ResultSet])
+      val error = intercept[IllegalStateException](executor.await())
+
+      error.getCause shouldBe firstError
+      metrics.getInFlightRequests shouldBe 0
+      metrics.getFailedRequestsCount shouldBe 2
+    }
+
+    "reset the failure once await reported it" in {
+      val session = mock[Session]
+      when(session.executeAsync(any[Statement])).thenReturn(
+        TestResultSetFuture.failed(new RuntimeException("boom")),
+        TestResultSetFuture.succeeded(mock[ResultSet]),
+      )
+      val executor = new AsyncStatementExecutor(1, new CassandraSinkMetrics())
+
+      executor.execute(session, new SimpleStatement("1"))(mapError)
+      intercept[IllegalStateException](executor.await())
+
+      executor.failed shouldBe false
+      executor.execute(session, new SimpleStatement("2"))(mapError)
+      noException should be thrownBy executor.await()
+    }
+
+    "release the permit of a statement the driver refused to send" in {
+      val session = mock[Session]
+      when(session.executeAsync(any[Statement])).thenThrow(new RuntimeException("refused"))
+      val metrics  = new CassandraSinkMetrics()
+      val executor = new AsyncStatementExecutor(1, metrics)
+
+      val error = intercept[IllegalStateException](executor.execute(session, new SimpleStatement("1"))(mapError))
+
+      error.getCause.getMessage shouldBe "refused"
+      metrics.getInFlightRequests shouldBe 0
+      noException should be thrownBy executor.await()
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cassandra.sink
+
+import com.datastax.driver.core.BatchStatement
+import com.datastax.driver.core.BoundStatement
+import com.datastax.driver.core.Cluster
+import com.datastax.driver.core.ColumnMetadata
+import com.datastax.driver.core.KeyspaceMetadata
+import com.datastax.driver.core.Metadata
+import com.datastax.driver.core.PreparedStatement
+import com.datastax.driver.core.ResultSet
+import com.datastax.driver.core.ResultSetFuture
+import com.datastax.driver.core.Session
+import com.datastax.driver.core.Statement
+import com.datastax.driver.core.TableMetadata
+import io.lenses.kcql.Kcql
+import io.lenses.streamreactor.common.errors.NoopErrorPolicy
+import io.lenses.streamreactor.connect.cassandra.CassandraConnection
+import io.lenses.streamreactor.connect.cassandra.config.CassandraSinkSetting
+import org.apache.kafka.connect.data.Schema
+import org.apache.kafka.connect.data.SchemaBuilder
+import org.apache.kafka.connect.data.Struct
+import org.apache.kafka.connect.sink.SinkRecord
+import org.mockito.ArgumentMatchersSugar
+import org.mockito.MockitoSugar
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.util
+import scala.collection.mutable.ListBuffer
+
+class CassandraJsonWriterTest extends AnyWordSpec with Matchers with MockitoSugar with ArgumentMatchersSugar {
+
+  private val Topic       = "orders_topic"
+  private val ValueSchema = SchemaBuilder.struct()
+    .field("customer", Schema.INT32_SCHEMA)
+    .field("id", Schema.INT32_SCHEMA)
+    .build()
+
+  "CassandraJsonWriter" should {
+    "send the inserts waiting in a batch before a delete" in {
+      val cassandra = new Cassandra(_ => TestResultSetFuture.succeeded(mock[ResultSet]))
+
+      cassandra.writer.write(Seq(insert(1, 1, 0), delete(1, 1), insert(1, 2, 2)))
+
+      cassandra.executed.map(describe) shouldBe Seq("batch of 1", "delete", "batch of 1")
+    }
+
+    "not send the pending batches once a request failed" in {
+      val cassandra = new Cassandra(statements =>
+        if (statements == 1) TestResultSetFuture.failed(new RuntimeException("boom"))
+        else TestResultSetFuture.succeeded(mock[ResultSet]),
+      )
+
+      //the second insert writes the row again, so the first one is sent on its own and fails
+      cassandra.writer.write(Seq(insert(1, 1, 0), insert(1, 1, 1), insert(2, 1, 2)))
+
+      cassandra.executed.map(describe) shouldBe Seq("batch of 1")
+    }
+  }
+
+  private def insert(customer: Int, id: Int, offset: Long): SinkRecord = {
+    val value = new Struct(ValueSchema).put("customer", customer).put("id", id)
+    new SinkRecord(Topic, 0, Schema.STRING_SCHEMA, customer.toString, ValueSchema, value, offset)
+  }
+
+  private def delete(customer: Int, offset: Long): SinkRecord =
+    new SinkRecord(Topic, 0, Schema.STRING_SCHEMA, customer.toString, null, null, offset)
+
+  private def describe(statement: Statement): String = statement match {
+    case batch: BatchStatement => s"batch of ${batch.size()}"
+    case _                     => "delete"
+  }
+
+  /**
+    * A Cassandra holding the orders table, keyed by customer and id, answering the n-th request with `answer(n)`.
+    */
+  private class Cassandra(answer: Int => ResultSetFuture) {
+    val executed: ListBuffer[Statement] = ListBuffer.empty
+
+    private val session: Session = {
+      val session        = mock[Session]
+      val cluster        = mock[Cluster]
+      val metadata       = mock[Metadata]
+      val keyspace       = mock[KeyspaceMetadata]
+      val table          = mock[TableMetadata]
+      val customerColumn = mock[ColumnMetadata]
+      val idColumn       = mock[ColumnMetadata]
+      val insertPrepared = mock[PreparedStatement]
+      val deletePrepared = mock[PreparedStatement]
+
+      when(customerColumn.getName).thenReturn("customer")
+      when(idColumn.getName).thenReturn("id")
+      when(table.getName).thenReturn("orders")
+      when(table.getPartitionKey).thenReturn(util.List.of(customerColumn))
+      when(table.getPrimaryKey).thenReturn(util.List.of(customerColumn, idColumn))
+      when(keyspace.getTables).thenReturn(util.List.of(table))
+      when(keyspace.getTable("orders")).thenReturn(table)
+      when(metadata.getKeyspace("sales")).thenReturn(keyspace)
+      when(cluster.getMetadata).thenReturn(metadata)
+      when(cluster.connect("sales")).thenReturn(session)
+      when(session.getCluster).thenReturn(cluster)
+      when(session.getLoggedKeyspace).thenReturn("sales")
+      when(session.prepare(startsWith("INSERT"))).thenReturn(insertPrepared)
+      when(session.prepare(startsWith("DELETE"))).thenReturn(deletePrepared)
+      when(insertPrepared.bind(any[AnyRef])).thenAnswer((_: AnyRef) => mock[BoundStatement])
+      when(deletePrepared.bind(any[AnyRef])).thenAnswer((_: AnyRef) => mock[BoundStatement])
+      when(session.executeAsync(any[Statement])).thenAnswer { (statement: Statement) =>
+        executed += statement
+        answer(executed.size)
+      }
+      session
+    }
+
+    val writer: CassandraJsonWriter = new CassandraJsonWriter(
+      CassandraConnection(session.getCluster, session),
+      CassandraSinkSetting(
+        "sales",
+        Seq(Kcql.parse(s"INSERT INTO orders SELECT * FROM $Topic")),
+        Map.empty,
+        Map.empty,
+        NoopErrorPolicy(),
+        1,
+        None,
+        deleteEnabled     = true,
+        deleteStatement   = "DELETE FROM orders WHERE customer = ?",
+        unloggedBatchSize = Some(10),
+      ),
+    )
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cassandra.sink
+
+import com.datastax.driver.core.ResultSet
+import com.datastax.driver.core.ResultSetFuture
+import com.google.common.util.concurrent.AbstractFuture
+import com.google.common.util.concurrent.Uninterruptibles
+
+import java.util.concurrent.TimeUnit
+
+/**
+  * A [[ResultSetFuture]] the test completes, standing for a request Cassandra has not answered yet.
+  */
+class TestResultSetFuture extends AbstractFuture[ResultSet] with ResultSetFuture {
+
+  override def getUninterruptibly: ResultSet = Uninterruptibles.getUninterruptibly(this)
+
+  override def getUninterruptibly(timeout: Long, unit: TimeUnit): ResultSet =
+    Uninterruptibles.getUninterruptibly(this, timeout, unit)
+
+  def succeed(resultSet: ResultSet): Unit = {
+    val _ = set(resultSet)
+  }
+
+  def fail(error: Throwable): Unit = {
+    val _ = setException(error)
+  }
+}
+
+object TestResultSetFuture {
+  def succeeded(resultSet: ResultSet): TestResultSetFuture = {
+    val future = new TestResultSetFuture
+    future.succeed(resultSet)
+    future
+  }
+
+  def failed(error: Throwable): TestResultSetFuture = {
+    val future = new TestResultSetFuture
+    future.fail(error)
+    future
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cassandra.sink
+
+import com.datastax.driver.core.BatchStatement
+import com.datastax.driver.core.ConsistencyLevel
+import com.datastax.driver.core.SimpleStatement
+import com.datastax.driver.core.Statement
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import scala.collection.mutable.ListBuffer
+import scala.jdk.CollectionConverters.CollectionHasAsScala
+
+class UnloggedBatchesTest extends AnyWordSpec with Matchers {
+
+  private val mapper    = new ObjectMapper()
+  private val tableKeys = Map("orders" -> TableKeys(Seq("customer"), Seq("customer", "id")))
+
+  private class Fixture(maxSize: Int) {
+    val executed = ListBuffer.empty[(String, String, Statement)]
+    val batches  = new UnloggedBatches(maxSize, tableKeys, Some(ConsistencyLevel.QUORUM)) { (table, rows, statement) =>
+      val _ = executed += ((table, rows, statement))
+    }
+
+    def add(customer: Int, id: Int): Statement = {
+      val statement = new SimpleStatement(s"insert $customer-$id")
+      batches.add("orders", row(s"""{"Customer":$customer,"id":$id}"""), statement)
+      statement
+    }
+
+    def sentStatements: Seq[Seq[Statement]] = executed.toSeq.map {
+      case (_, _, batch: BatchStatement) => batch.getStatements.asScala.toSeq
+      case (_, _, statement)             => Seq(statement)
+    }
+  }
+
+  private def row(json: String): JsonNode = mapper.readTree(json)
+
+  "UnloggedBatches" should {
+    "group the inserts of a partition into one batch" in new Fixture(10) {
+      val first  = add(1, 1)
+      val other  = add(2, 1)
+      val second = add(1, 2)
+      executed shouldBe empty
+
+      batches.flush()
+
+      sentStatements shouldBe Seq(Seq(first, second), Seq(other))
+      executed.map(_._2) shouldBe Seq("a batch of 2 rows", "a batch of 1 rows")
+      executed.foreach {
+        case (table, _, batch) =>
+          table shouldBe "orders"
+          batch.asInstanceOf[BatchStatement].getConsistencyLevel shouldBe ConsistencyLevel.QUORUM
+      }
+    }
+
+    "send a batch once it holds maxSize rows" in new Fixture(2) {
+      val first  = add(1, 1)
+      val second = add(1, 2)
+
+      sentStatements shouldBe Seq(Seq(first, second))
+
+      batches.flush()
+      executed should have size 1
+    }
+
+    "send the pending batch before it would hold the same row twice" in new Fixture(10) {
+      val first  = add(1, 1)
+      val update = add(1, 1)
+
+      sentStatements shouldBe Seq(Seq(first))
+
+      batches.flush()
+      sentStatements shouldBe Seq(Seq(first), Seq(update))
+    }
+
+    "send a row missing a key column on its own, after the pending batches" in new Fixture(10) {
+      val first     = add(1, 1)
+      val statement = new SimpleStatement("insert without key")
+      batches.add("orders", row("""{"id":2}"""), statement)
+
+      sentStatements shouldBe Seq(Seq(first), Seq(statement))
+      executed.last._2 shouldBe """<{"id":2}>"""
+    }
+  }
+}
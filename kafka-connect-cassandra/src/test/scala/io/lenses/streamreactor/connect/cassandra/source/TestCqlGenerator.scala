@@ -79,6 +79,15 @@ class TestCqlGenerator extends AnyWordSpec with Matchers with MockitoSugar with
     cqlStatement shouldBe "SELECT string_field,the_pk_field FROM test.cassandra-table LIMIT 200"
   }
 
+  "CqlGenerator should generate token range CQL statement based on KCQL" in {
+
+    val cqlGenerator = new CqlGenerator(configureMe(""))
+    val cqlStatement =
+      cqlGenerator.getCqlStatementForTokenRange(Seq("the_pk_field", "string_field"), Seq("the_pk_field"))
+
+    cqlStatement shouldBe "SELECT string_field,the_pk_field,token(the_pk_field) AS kc_token FROM test.cassandra-table WHERE token(the_pk_field) > ? AND token(the_pk_field) <= ?"
+  }
+
   "CqlGenerator should generate format type json CQL statement based on KCQL" in {
 
     val cqlGenerator = new CqlGenerator(configureJSON())
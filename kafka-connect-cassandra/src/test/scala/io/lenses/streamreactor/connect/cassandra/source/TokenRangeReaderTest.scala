@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cassandra.source
+
+import com.datastax.driver.core.BoundStatement
+import com.datastax.driver.core.Cluster
+import com.datastax.driver.core.ColumnMetadata
+import com.datastax.driver.core.KeyspaceMetadata
+import com.datastax.driver.core.Metadata
+import com.datastax.driver.core.PreparedStatement
+import com.datastax.driver.core.ResultSet
+import com.datastax.driver.core.ResultSetFuture
+import com.datastax.driver.core.Row
+import com.datastax.driver.core.Session
+import com.datastax.driver.core.Statement
+import com.datastax.driver.core.TableMetadata
+import io.lenses.streamreactor.connect.cassandra.config.CassandraConfigConstants
+import io.lenses.streamreactor.connect.cassandra.config.CassandraConfigSource
+import io.lenses.streamreactor.connect.cassandra.config.CassandraSettings
+import io.lenses.streamreactor.connect.cassandra.config.CassandraSourceSetting
+import org.apache.kafka.connect.source.SourceTaskContext
+import org.apache.kafka.connect.storage.OffsetStorageReader
+import org.mockito.ArgumentMatchersSugar
+import org.mockito.MockitoSugar
+import org.mockito.invocation.InvocationOnMock
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+import java.util
+import java.util.Collections
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import scala.collection.mutable.ListBuffer
+import scala.jdk.CollectionConverters.IteratorHasAsJava
+import scala.jdk.CollectionConverters.MapHasAsJava
+
+class TokenRangeReaderTest extends AnyWordSpec with Matchers with MockitoSugar with ArgumentMatchersSugar {
+
+  private val range = TokenRangeSplit(Long.MinValue, Long.MaxValue)
+
+  // two partitions of two rows each, a row is (token, name)
+  private val rows = Seq(10L -> "a1", 10L -> "a2", 20L -> "b1", 20L -> "b2")
+
+  "TokenRangeReader" should {
+    "read the whole partition of the last row read again when a stopped range resumes" in {
+      val table  = new Table(rows)
+      val reader = new TokenRangeReader("connector", table.session, setting, context(None))
+
+      val stop  = new AtomicBoolean(false)
+      val first = read(reader, stop, row => if (row == "b1") stop.set(true))
+      first.map(_._1) shouldBe Seq("a1", "a2", "b1")
+      first.last._2 shouldBe "20"
+
+      read(reader, new AtomicBoolean(false), _ => ()).map(_._1) shouldBe Seq("b1", "b2")
+      table.bindings.toSeq shouldBe Seq(Long.MinValue -> Long.MaxValue, 19L -> Long.MaxValue)
+      reader.close()
+    }
+
+    "resume a range from the start of the partition of the recovered offset" in {
+      val table  = new Table(rows)
+      val reader = new TokenRangeReader("connector", table.session, setting, context(Some("20")))
+
+      read(reader, new AtomicBoolean(false), _ => ()).map(_._1) shouldBe Seq("b1", "b2")
+      table.bindings.toSeq shouldBe Seq(19L -> Long.MaxValue)
+      reader.close()
+    }
+
+    "read a fully read range from its start again" in {
+      val table  = new Table(rows)
+      val reader = new TokenRangeReader("connector", table.session, setting, context(None))
+
+      read(reader, new AtomicBoolean(false), _ => ()).map(_._1) shouldBe Seq("a1", "a2", "b1", "b2")
+      read(reader, new AtomicBoolean(false), _ => ()).map(_._1) shouldBe Seq("a1", "a2", "b1", "b2")
+      table.bindings.toSeq shouldBe Seq(Long.MinValue -> Long.MaxValue, Long.MinValue -> Long.MaxValue)
+      reader.close()
+    }
+  }
+
+  /**
+    * Reads every range, returning the name and offset of each row emitted.
+    */
+  private def read(reader: TokenRangeReader, stop: AtomicBoolean, onRow: String => Unit): Seq[(String, String)] = {
+    val emitted = ListBuffer.empty[(String, String)]
+    val done    = new CountDownLatch(1)
+    reader.read(
+      stop,
+      (row: Row, _: util.Map[String, String], offset: util.Map[String, String]) => {
+        val name = row.getString("name")
+        emitted.synchronized(emitted += name -> offset.get(TokenRangeReader.OffsetKey))
+        onRow(name)
+        true
+      },
+      () => done.countDown(),
+    )
+    done.await(10, TimeUnit.SECONDS) shouldBe true
+    emitted.synchronized(emitted.toSeq)
+  }
+
+  private def setting: CassandraSourceSetting = {
+    val configSource = new CassandraConfigSource(
+      Map(
+        CassandraConfigConstants.KEY_SPACE       -> "test",
+        CassandraConfigConstants.KCQL            -> "INSERT INTO kafka-topic SELECT * FROM cassandra-table PK name",
+        CassandraConfigConstants.ASSIGNED_TABLES -> "cassandra-table",
+        CassandraConfigConstants.POLL_INTERVAL   -> "1000",
+      ),
+    )
+    CassandraSettings.configureSource(configSource).head.copy(tokenRangeSplits = 1, tokenRangeParallelism = 1)
+  }
+
+  private def context(offset: Option[String]): SourceTaskContext = {
+    val offsetReader = mock[OffsetStorageReader]
+    val offsets = offset.map { token =>
+      Map[util.Map[String, String], util.Map[String, Object]](
+        Map(
+          CassandraConfigConstants.ASSIGNED_TABLES -> "cassandra-table",
+          TokenRangeReader.PartitionKey            -> range.id,
+        ).asJava -> Collections.singletonMap[String, Object](TokenRangeReader.OffsetKey, token),
+      ).asJava
+    }.getOrElse(Collections.emptyMap[util.Map[String, String], util.Map[String, Object]]())
+    when(offsetReader.offsets(any[util.Collection[util.Map[String, String]]])).thenReturn(offsets)
+    val context = mock[SourceTaskContext]
+    when(context.offsetStorageReader()).thenReturn(offsetReader)
+    context
+  }
+
+  /**
+    * A table whose rows are returned for the tokens bound to the token range statement.
+    */
+  private class Table(rows: Seq[(Long, String)]) {
+    val bindings: ListBuffer[(Long, Long)] = ListBuffer.empty
+    private val bounds = new ConcurrentHashMap[Statement, (Long, Long)]()
+
+    val session: Session = {
+      val session   = mock[Session]
+      val cluster   = mock[Cluster]
+      val metadata  = mock[Metadata]
+      val keyspace  = mock[KeyspaceMetadata]
+      val tableMeta = mock[TableMetadata]
+      val column    = mock[ColumnMetadata]
+      val statement = mock[PreparedStatement]
+
+      when(column.getName).thenReturn("name")
+      when(tableMeta.getColumns).thenReturn(util.List.of(column))
+      when(tableMeta.getPartitionKey).thenReturn(util.List.of(column))
+      when(keyspace.getTable("cassandra-table")).thenReturn(tableMeta)
+      when(metadata.getKeyspace("test")).thenReturn(keyspace)
+      when(metadata.getPartitioner).thenReturn(TokenRangeSplit.Partitioner)
+      when(cluster.getMetadata).thenReturn(metadata)
+      when(session.getCluster).thenReturn(cluster)
+      when(session.prepare(any[String])).thenReturn(statement)
+      when(statement.bind(any[AnyRef], any[AnyRef])).thenAnswer { (invocation: InvocationOnMock) =>
+        val from  = invocation.getArgument[java.lang.Long](0).longValue()
+        val to    = invocation.getArgument[java.lang.Long](1).longValue()
+        val bound = mock[BoundStatement]
+        bindings.synchronized(bindings += from -> to)
+        bounds.put(bound, from -> to)
+        bound
+      }
+      when(session.executeAsync(any[Statement])).thenAnswer { (bound: Statement) =>
+        val (from, to) = bounds.get(bound)
+        val selected   = rows.filter { case (token, _) => token > from && token <= to }
+        val resultSet  = mock[ResultSet]
+        when(resultSet.iterator()).thenReturn(selected.map { case (token, name) => row(token, name) }.iterator.asJava)
+        when(resultSet.getAvailableWithoutFetching).thenReturn(selected.size)
+        when(resultSet.isFullyFetched).thenReturn(true)
+        val future = mock[ResultSetFuture]
+        when(future.getUninterruptibly).thenReturn(resultSet)
+        future
+      }
+      session
+    }
+
+    private def row(token: Long, name: String): Row = {
+      val row = mock[Row]
+      when(row.getLong(TokenRangeSplit.TokenColumn)).thenReturn(token)
+      when(row.getString("name")).thenReturn(name)
+      row
+    }
+  }
+}
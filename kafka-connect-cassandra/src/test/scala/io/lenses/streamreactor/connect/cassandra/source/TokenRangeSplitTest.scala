@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cassandra.source
+
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class TokenRangeSplitTest extends AnyWordSpec with Matchers {
+
+  "TokenRangeSplit" should {
+    "cover the whole ring with a single range" in {
+      TokenRangeSplit.split(1) shouldBe Seq(TokenRangeSplit(Long.MinValue, Long.MaxValue))
+    }
+
+    "divide the ring into contiguous ranges of about the same size" in {
+      val ranges = TokenRangeSplit.split(4)
+      ranges.size shouldBe 4
+      ranges.head.start shouldBe Long.MinValue
+      ranges.last.end shouldBe Long.MaxValue
+      ranges.zip(ranges.tail).foreach { case (previous, next) => previous.end shouldBe next.start }
+      ranges.map(_.end) shouldBe Seq(-4611686018427387905L, -1L, 4611686018427387903L, Long.MaxValue)
+    }
+
+    "give the same ranges for the same number of splits" in {
+      TokenRangeSplit.split(16).map(_.id) shouldBe TokenRangeSplit.split(16).map(_.id)
+    }
+
+    "reject dividing the ring into no ranges" in {
+      an[IllegalArgumentException] should be thrownBy TokenRangeSplit.split(0)
+    }
+  }
+}
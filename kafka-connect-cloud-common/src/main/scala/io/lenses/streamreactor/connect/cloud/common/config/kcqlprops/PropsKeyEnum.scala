@@ -61,6 +61,14 @@ object PropsKeyEnum extends Enum[PropsKeyEntry] {
 
   case object FlushInterval extends PropsKeyEntry("flush.interval")
 
+  case object UploadStreaming extends PropsKeyEntry("upload.streaming")
+
+  case object UploadPartSize extends PropsKeyEntry("upload.part.size")
+
+  case object ParquetRowGroupSize extends PropsKeyEntry("parquet.row.group.size")
+
+  case object ParquetPageSize extends PropsKeyEntry("parquet.page.size")
+
   // enum - copy, move, delete, tag, execute lambda trigger
   case object PostProcessAction extends PropsKeyEntry("post.process.action")
 
@@ -75,6 +75,13 @@ trait CloudSinkConfig[CC] extends CloudConfig {
 
   def schemaChangeDetector: SchemaChangeDetector
 
+  /**
+    * Retrieves the number of files uploaded concurrently in the background.
+    *
+    * @return The number of concurrent uploads, 0 when the files are uploaded on the task thread.
+    */
+  def uploadConcurrency: Int
+
 }
 
 /**
@@ -81,6 +81,8 @@ class AvroFormatWriter(
 
   override def getPointer: Long = avroWriterState.fold(0L)(_.pointer)
 
+  override def abort(): Unit = outputStream.abort()
+
   private class AvroWriterState(outputStream: CloudOutputStream, connectSchema: Option[ConnectSchema]) {
     private val schema: Schema = connectSchema.map(ToAvroDataConverter.convertSchema).getOrElse(
       throw new IllegalArgumentException("Schema-less data is not supported for Avro/Parquet"),
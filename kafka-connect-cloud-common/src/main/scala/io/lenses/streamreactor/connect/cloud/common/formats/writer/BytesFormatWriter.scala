@@ -66,4 +66,6 @@ class BytesFormatWriter(outputStream: CloudOutputStream) extends FormatWriter wi
 
   override def getPointer: Long = outputStream.getPointer
 
+  override def abort(): Unit = outputStream.abort()
+
 }
@@ -68,6 +68,8 @@ class CsvFormatWriter(
 
   override def getPointer: Long = outputStream.getPointer
 
+  override def abort(): Unit = outputStream.abort()
+
   private def writeFields(schema: Schema): Unit = {
     fields = schema.fields().asScala.map(_.name()).toArray
     if (writeHeaders) {
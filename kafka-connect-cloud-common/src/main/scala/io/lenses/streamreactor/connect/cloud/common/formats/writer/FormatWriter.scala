@@ -24,7 +24,9 @@ import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodec
 import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
 import io.lenses.streamreactor.connect.cloud.common.sink.NonFatalCloudSinkError
 import io.lenses.streamreactor.connect.cloud.common.sink.SinkError
+import io.lenses.streamreactor.connect.cloud.common.sink.config.ParquetWriterOptions
 import io.lenses.streamreactor.connect.cloud.common.stream.BuildLocalOutputStream
+import io.lenses.streamreactor.connect.cloud.common.stream.CloudOutputStream
 
 import java.nio.file.Path
 import scala.util.Try
@@ -33,29 +35,39 @@ object FormatWriter {
 
   def apply(
     formatSelection: FormatSelection,
+    parquetOptions:  ParquetWriterOptions,
     path:            Path,
     topicPartition:  TopicPartition,
   )(
     implicit
     compressionCodec: CompressionCodec,
-  ): Either[SinkError, FormatWriter] = {
-    for {
-      outputStream <- Try(new BuildLocalOutputStream(toBufferedOutputStream(path.toFile), topicPartition))
-      writer <- Try {
-        formatSelection match {
-          case ParquetFormatSelection =>
-            new ParquetFormatWriter(outputStream)
-          case JsonFormatSelection    => new JsonFormatWriter(outputStream)
-          case AvroFormatSelection    => new AvroFormatWriter(outputStream)
-          case TextFormatSelection(_) => new TextFormatWriter(outputStream)
-          case CsvFormatSelection(formatOptions) =>
-            new CsvFormatWriter(outputStream, formatOptions.contains(WithHeaders))
-          case BytesFormatSelection => new BytesFormatWriter(outputStream)
-          case _                    => throw FormatWriterException(s"Unsupported cloud format $formatSelection.format")
-        }
+  ): Either[SinkError, FormatWriter] =
+    Try(new BuildLocalOutputStream(toBufferedOutputStream(path.toFile), topicPartition))
+      .toEither
+      .leftMap(ex => new NonFatalCloudSinkError(ex.getMessage, ex.some))
+      .flatMap(outputStream => apply(formatSelection, parquetOptions, outputStream))
+
+  def apply(
+    formatSelection: FormatSelection,
+    parquetOptions:  ParquetWriterOptions,
+    outputStream:    CloudOutputStream,
+  )(
+    implicit
+    compressionCodec: CompressionCodec,
+  ): Either[SinkError, FormatWriter] =
+    Try {
+      formatSelection match {
+        case ParquetFormatSelection =>
+          new ParquetFormatWriter(outputStream, parquetOptions)
+        case JsonFormatSelection    => new JsonFormatWriter(outputStream)
+        case AvroFormatSelection    => new AvroFormatWriter(outputStream)
+        case TextFormatSelection(_) => new TextFormatWriter(outputStream)
+        case CsvFormatSelection(formatOptions) =>
+          new CsvFormatWriter(outputStream, formatOptions.contains(WithHeaders))
+        case BytesFormatSelection => new BytesFormatWriter(outputStream)
+        case _                    => throw FormatWriterException(s"Unsupported cloud format $formatSelection.format")
       }
-    } yield writer
-  }.toEither.leftMap(ex => new NonFatalCloudSinkError(ex.getMessage, ex.some))
+    }.toEither.leftMap(ex => new NonFatalCloudSinkError(ex.getMessage, ex.some))
 
 }
 
@@ -76,4 +88,9 @@ trait FormatWriter extends AutoCloseable {
 
   def close(): Unit = { val _ = complete() }
 
+  /**
+    * Drops the file being written instead of completing it, used when the writer is closed before committing.
+    */
+  def abort(): Unit
+
 }
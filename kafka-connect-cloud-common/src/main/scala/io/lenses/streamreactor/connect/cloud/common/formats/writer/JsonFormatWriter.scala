@@ -91,6 +91,8 @@ class JsonFormatWriter(outputStream: CloudOutputStream)(implicit compressionCode
 
   override def getPointer: Long = outputStream.getPointer
 
+  override def abort(): Unit = outputStream.abort()
+
 }
 
 object JsonFormatWriter {
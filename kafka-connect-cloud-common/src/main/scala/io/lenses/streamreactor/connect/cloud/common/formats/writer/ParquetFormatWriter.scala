@@ -17,6 +17,8 @@ package io.lenses.streamreactor.connect.cloud.common.formats.writer
 
 import com.typesafe.scalalogging.LazyLogging
 import io.lenses.streamreactor.connect.cloud.common.formats.writer.parquet.ParquetOutputFile
+import io.lenses.streamreactor.connect.cloud.common.formats.writer.parquet.ParquetSchema
+import io.lenses.streamreactor.connect.cloud.common.formats.writer.parquet.SinkDataWriteSupport
 import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodec
 import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodecName.BROTLI
 import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodecName.GZIP
@@ -26,20 +28,23 @@ import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodecName.S
 import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodecName.UNCOMPRESSED
 import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodecName.ZSTD
 import io.lenses.streamreactor.connect.cloud.common.sink.SinkError
-import io.lenses.streamreactor.connect.cloud.common.sink.conversion.ToAvroDataConverter
+import io.lenses.streamreactor.connect.cloud.common.sink.config.ParquetWriterOptions
+import io.lenses.streamreactor.connect.cloud.common.sink.conversion.SinkData
 import io.lenses.streamreactor.connect.cloud.common.stream.CloudOutputStream
-import org.apache.avro.Schema
 import org.apache.kafka.connect.data.{ Schema => ConnectSchema }
-import org.apache.parquet.avro.AvroParquetWriter
 import org.apache.parquet.hadoop.ParquetWriter
-import org.apache.parquet.hadoop.ParquetWriter.DEFAULT_BLOCK_SIZE
-import org.apache.parquet.hadoop.ParquetWriter.DEFAULT_PAGE_SIZE
 import org.apache.parquet.hadoop.metadata.{ CompressionCodecName => ParquetCompressionCodecName }
 
 import scala.util.Try
 
+/**
+  * Writes records to a Parquet file. Parquet buffers the rows of a row group in memory and only writes them out to the
+  * output stream once the row group is full or the file is completed, so the stream is not flushed per record. Structs
+  * are written straight to Parquet, without converting them to Avro records first; see [[SinkDataWriteSupport]].
+  */
 class ParquetFormatWriter(
   outputStream: CloudOutputStream,
+  options:      ParquetWriterOptions = ParquetWriterOptions.Default,
 )(
   implicit
   compressionCodec: CompressionCodec,
@@ -59,22 +64,20 @@ class ParquetFormatWriter(
     }
   }
 
-  private var writer: ParquetWriter[Any] = _
+  private var writer: ParquetWriter[SinkData] = _
 
   override def write(messageDetail: MessageDetail): Either[Throwable, Unit] =
     Try {
 
       logger.debug("ParquetFormatWriter - write")
 
-      val genericRecord = ToAvroDataConverter.convertToGenericRecord(messageDetail.value)
       createWriterIfNoWriter(
         messageDetail.value.schema().getOrElse(
           throw new IllegalArgumentException("Schema-less data is not supported for Avro/Parquet"),
         ),
       )
 
-      writer.write(genericRecord)
-      outputStream.flush()
+      writer.write(messageDetail.value)
     }.toEither
 
   private def createWriterIfNoWriter(connectSchema: ConnectSchema): Unit =
@@ -82,16 +85,15 @@ class ParquetFormatWriter(
       writer = init(connectSchema)
     }
 
-  private def init(connectSchema: ConnectSchema): ParquetWriter[Any] = {
-    val schema: Schema = ToAvroDataConverter.convertSchema(connectSchema)
+  private def init(connectSchema: ConnectSchema): ParquetWriter[SinkData] = {
+    val schema = ParquetSchema(connectSchema)
 
     val outputFile = new ParquetOutputFile(outputStream)
 
-    AvroParquetWriter
-      .builder[Any](outputFile)
-      .withRowGroupSize(DEFAULT_BLOCK_SIZE.toLong)
-      .withPageSize(DEFAULT_PAGE_SIZE)
-      .withSchema(schema)
+    SinkDataWriteSupport
+      .builder(outputFile, schema)
+      .withRowGroupSize(options.rowGroupSize)
+      .withPageSize(options.pageSize)
       .withCompressionCodec(parquetCompressionCodec)
       .build()
 
@@ -108,4 +110,6 @@ class ParquetFormatWriter(
 
   override def getPointer: Long = writer.getDataSize
 
+  override def abort(): Unit = outputStream.abort()
+
 }
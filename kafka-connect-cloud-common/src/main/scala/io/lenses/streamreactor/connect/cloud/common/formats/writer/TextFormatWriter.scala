@@ -60,4 +60,6 @@ class TextFormatWriter(outputStream: CloudOutputStream) extends FormatWriter {
 
   override def getPointer: Long = outputStream.getPointer
 
+  override def abort(): Unit = outputStream.abort()
+
 }
@@ -37,6 +37,11 @@ class ParquetOutputFile(multipartBlobStoreOutputStream: CloudOutputStream) exten
 
     override def write(b: Int): Unit = multipartBlobStoreOutputStream.write(b)
 
+    override def write(bytes: Array[Byte], offset: Int, length: Int): Unit =
+      if (length > 0) multipartBlobStoreOutputStream.write(bytes, offset, length)
+
+    override def flush(): Unit = multipartBlobStoreOutputStream.flush()
+
   }
 
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cloud.common.formats.writer.parquet
+
+import io.lenses.streamreactor.connect.cloud.common.sink.conversion.ToAvroDataConverter
+import org.apache.avro.{ Schema => AvroSchema }
+import org.apache.kafka.connect.data.Struct
+import org.apache.kafka.connect.data.{ Schema => ConnectSchema }
+import org.apache.parquet.avro.AvroSchemaConverter
+import org.apache.parquet.schema.MessageType
+
+import java.util
+import java.util.Collections
+
+/**
+  * The Parquet schema of a Connect schema, converted through its Avro schema as
+  * [[org.apache.parquet.avro.AvroParquetWriter]] does, with the writer of its structs.
+  *
+  * @param structWriter writes the structs of the schema natively, None when the records go through Avro
+  */
+case class ParquetSchema(
+  connectSchema: ConnectSchema,
+  avroSchema:    AvroSchema,
+  messageType:   MessageType,
+  structWriter:  Option[StructWriter],
+) {
+
+  def writerFor(struct: Struct): Option[StructWriter] =
+    structWriter.filter(_ => (struct.schema() eq connectSchema) || struct.schema() == connectSchema)
+}
+
+object ParquetSchema {
+
+  private val MaxCachedSchemas = 100
+
+  private val cache: util.Map[ConnectSchema, ParquetSchema] = Collections.synchronizedMap(
+    new util.LinkedHashMap[ConnectSchema, ParquetSchema](16, 0.75f, true) {
+      override def removeEldestEntry(eldest: util.Map.Entry[ConnectSchema, ParquetSchema]): Boolean =
+        size() > MaxCachedSchemas
+    },
+  )
+
+  /**
+    * Converts the Connect schema, reusing the conversion of an equal schema seen before. Every file rolls over on a
+    * schema change, so the conversion would otherwise be repeated for each file written.
+    */
+  def apply(connectSchema: ConnectSchema): ParquetSchema =
+    cache.computeIfAbsent(connectSchema, convert)
+
+  private def convert(connectSchema: ConnectSchema): ParquetSchema = {
+    val avroSchema  = ToAvroDataConverter.convertSchema(connectSchema)
+    val messageType = new AvroSchemaConverter().convert(avroSchema)
+    val structWriter =
+      if (connectSchema.`type`() == ConnectSchema.Type.STRUCT) StructWriter(connectSchema, messageType) else None
+    ParquetSchema(connectSchema, avroSchema, messageType, structWriter)
+  }
+}
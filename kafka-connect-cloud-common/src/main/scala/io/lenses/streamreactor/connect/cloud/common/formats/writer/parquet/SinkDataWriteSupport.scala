@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cloud.common.formats.writer.parquet
+
+import io.lenses.streamreactor.connect.cloud.common.sink.conversion.SinkData
+import io.lenses.streamreactor.connect.cloud.common.sink.conversion.StructSinkData
+import io.lenses.streamreactor.connect.cloud.common.sink.conversion.ToAvroDataConverter
+import org.apache.avro.specific.SpecificData
+import org.apache.hadoop.conf.Configuration
+import org.apache.parquet.avro.AvroWriteSupport
+import org.apache.parquet.conf.ParquetConfiguration
+import org.apache.parquet.hadoop.ParquetWriter
+import org.apache.parquet.hadoop.api.WriteSupport
+import org.apache.parquet.hadoop.api.WriteSupport.FinalizedWriteContext
+import org.apache.parquet.hadoop.api.WriteSupport.WriteContext
+import org.apache.parquet.io.OutputFile
+import org.apache.parquet.io.api.RecordConsumer
+
+/**
+  * Writes [[SinkData]] to Parquet. Structs of the file schema are walked straight into the [[RecordConsumer]], anything
+  * else, or a schema the native writers do not cover, is converted to Avro and written by the [[AvroWriteSupport]] the
+  * Avro Parquet writer uses. The file schema and footer metadata are those of the Avro writer either way, so readers
+  * cannot tell the two apart.
+  */
+class SinkDataWriteSupport(schema: ParquetSchema) extends WriteSupport[SinkData] {
+
+  private val avroWriteSupport =
+    new AvroWriteSupport[Any](schema.messageType, schema.avroSchema, SpecificData.get())
+
+  private var recordConsumer: RecordConsumer = _
+
+  override def getName: String = avroWriteSupport.getName
+
+  override def init(configuration: Configuration): WriteContext = avroWriteSupport.init(configuration)
+
+  override def init(configuration: ParquetConfiguration): WriteContext = avroWriteSupport.init(configuration)
+
+  override def prepareForWrite(recordConsumer: RecordConsumer): Unit = {
+    this.recordConsumer = recordConsumer
+    avroWriteSupport.prepareForWrite(recordConsumer)
+  }
+
+  override def write(record: SinkData): Unit =
+    record match {
+      case StructSinkData(struct) =>
+        schema.writerFor(struct) match {
+          case Some(structWriter) =>
+            recordConsumer.startMessage()
+            structWriter.writeFields(recordConsumer, struct)
+            recordConsumer.endMessage()
+          case None => writeAvro(record)
+        }
+      case other => writeAvro(other)
+    }
+
+  private def writeAvro(record: SinkData): Unit =
+    avroWriteSupport.write(ToAvroDataConverter.convertToGenericRecord(record))
+
+  override def finalizeWrite(): FinalizedWriteContext = avroWriteSupport.finalizeWrite()
+}
+
+object SinkDataWriteSupport {
+
+  def builder(outputFile: OutputFile, schema: ParquetSchema): Builder = new Builder(outputFile, schema)
+
+  class Builder(outputFile: OutputFile, schema: ParquetSchema)
+      extends ParquetWriter.Builder[SinkData, Builder](outputFile) {
+
+    override protected def self(): Builder = this
+
+    override protected def getWriteSupport(conf: Configuration): WriteSupport[SinkData] =
+      new SinkDataWriteSupport(schema)
+
+    override protected def getWriteSupport(conf: ParquetConfiguration): WriteSupport[SinkData] =
+      new SinkDataWriteSupport(schema)
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cloud.common.formats.writer.parquet
+
+import cats.implicits._
+import org.apache.kafka.connect.data.Date
+import org.apache.kafka.connect.data.Decimal
+import org.apache.kafka.connect.data.Field
+import org.apache.kafka.connect.data.Struct
+import org.apache.kafka.connect.data.Time
+import org.apache.kafka.connect.data.Timestamp
+import org.apache.kafka.connect.data.{ Schema => ConnectSchema }
+import org.apache.kafka.connect.errors.DataException
+import org.apache.parquet.io.api.Binary
+import org.apache.parquet.io.api.RecordConsumer
+import org.apache.parquet.schema.GroupType
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName
+import org.apache.parquet.schema.Type
+import org.apache.parquet.schema.Type.Repetition
+
+import java.nio.ByteBuffer
+import scala.jdk.CollectionConverters.ListHasAsScala
+
+/**
+  * Writes a value of a Connect schema to a Parquet [[RecordConsumer]], in the layout
+  * [[org.apache.parquet.avro.AvroWriteSupport]] produces for the Avro schema the value would be converted to. Writers
+  * are built once per schema, so writing a record walks its values without building an Avro record first.
+  */
+trait ValueWriter {
+  def write(consumer: RecordConsumer, value: Any): Unit
+}
+
+object ValueWriter {
+
+  // the name of the repeated field of a list in the two level structure the Avro schema converter writes by default
+  private val ListRepeatedName = "array"
+
+  /**
+    * Builds the writer of the values of a Connect schema for the Parquet type converted from it.
+    *
+    * @return None when the Parquet type has a layout the writers do not cover, such as Avro unions
+    */
+  def apply(schema: ConnectSchema, parquetType: Type): Option[ValueWriter] =
+    Option(schema.name()) match {
+      case Some(Decimal.LOGICAL_NAME) =>
+        primitive(parquetType, PrimitiveTypeName.BINARY) { (consumer, value) =>
+          consumer.addBinary(
+            Binary.fromConstantByteArray(Decimal.fromLogical(schema, value.asInstanceOf[java.math.BigDecimal])),
+          )
+        }
+      case Some(Date.LOGICAL_NAME) =>
+        primitive(parquetType, PrimitiveTypeName.INT32) { (consumer, value) =>
+          consumer.addInteger(Date.fromLogical(schema, value.asInstanceOf[java.util.Date]))
+        }
+      case Some(Time.LOGICAL_NAME) =>
+        primitive(parquetType, PrimitiveTypeName.INT32) { (consumer, value) =>
+          consumer.addInteger(Time.fromLogical(schema, value.asInstanceOf[java.util.Date]))
+        }
+      case Some(Timestamp.LOGICAL_NAME) =>
+        primitive(parquetType, PrimitiveTypeName.INT64) { (consumer, value) =>
+          consumer.addLong(Timestamp.fromLogical(schema, value.asInstanceOf[java.util.Date]))
+        }
+      case _ => forType(schema, parquetType)
+    }
+
+  private def forType(schema: ConnectSchema, parquetType: Type): Option[ValueWriter] =
+    schema.`type`() match {
+      case ConnectSchema.Type.INT8 | ConnectSchema.Type.INT16 | ConnectSchema.Type.INT32 =>
+        primitive(parquetType, PrimitiveTypeName.INT32) { (consumer, value) =>
+          consumer.addInteger(value.asInstanceOf[Number].intValue())
+        }
+      case ConnectSchema.Type.INT64 =>
+        primitive(parquetType, PrimitiveTypeName.INT64) { (consumer, value) =>
+          consumer.addLong(value.asInstanceOf[Number].longValue())
+        }
+      case ConnectSchema.Type.FLOAT32 =>
+        primitive(parquetType, PrimitiveTypeName.FLOAT) { (consumer, value) =>
+          consumer.addFloat(value.asInstanceOf[Number].floatValue())
+        }
+      case ConnectSchema.Type.FLOAT64 =>
+        primitive(parquetType, PrimitiveTypeName.DOUBLE) { (consumer, value) =>
+          consumer.addDouble(value.asInstanceOf[Number].doubleValue())
+        }
+      case ConnectSchema.Type.BOOLEAN =>
+        primitive(parquetType, PrimitiveTypeName.BOOLEAN) { (consumer, value) =>
+          consumer.addBoolean(value.asInstanceOf[java.lang.Boolean].booleanValue())
+        }
+      case ConnectSchema.Type.STRING =>
+        primitive(parquetType, PrimitiveTypeName.BINARY) { (consumer, value) =>
+          consumer.addBinary(Binary.fromString(value.toString))
+        }
+      case ConnectSchema.Type.BYTES =>
+        primitive(parquetType, PrimitiveTypeName.BINARY) { (consumer, value) =>
+          value match {
+            case bytes:  Array[Byte] => consumer.addBinary(Binary.fromReusedByteArray(bytes))
+            case buffer: ByteBuffer  => consumer.addBinary(Binary.fromReusedByteBuffer(buffer))
+            case other => throw new DataException(s"Unexpected value of type ${other.getClass.getName} for bytes")
+          }
+        }
+      case ConnectSchema.Type.STRUCT =>
+        group(parquetType).flatMap(StructWriter(schema, _)).map[ValueWriter](structWriter =>
+          (consumer, value) => {
+            consumer.startGroup()
+            structWriter.writeFields(consumer, value.asInstanceOf[Struct])
+            consumer.endGroup()
+          },
+        )
+      case ConnectSchema.Type.ARRAY =>
+        for {
+          listType      <- group(parquetType)
+          repeatedType  <- singleRepeatedField(listType).filter(_.getName == ListRepeatedName)
+          elementWriter <- ValueWriter(schema.valueSchema(), repeatedType)
+        } yield new ListWriter(repeatedType.getName, elementWriter)
+      case ConnectSchema.Type.MAP =>
+        // string keyed maps are Avro maps, the others arrays of key and value records: both have the same layout
+        for {
+          mapType     <- group(parquetType)
+          entryType   <- singleRepeatedField(mapType).flatMap(group).filter(_.getFieldCount == 2)
+          keyWriter   <- ValueWriter(schema.keySchema(), entryType.getType(0))
+          valueWriter <- ValueWriter(schema.valueSchema(), entryType.getType(1))
+        } yield new MapWriter(entryType, keyWriter, valueWriter)
+      case _ => None
+    }
+
+  private def primitive(
+    parquetType:       Type,
+    primitiveTypeName: PrimitiveTypeName,
+  )(writer:            ValueWriter,
+  ): Option[ValueWriter] =
+    Option.when(parquetType.isPrimitive && parquetType.asPrimitiveType().getPrimitiveTypeName == primitiveTypeName)(
+      writer,
+    )
+
+  private def group(parquetType: Type): Option[GroupType] =
+    Option.when(!parquetType.isPrimitive)(parquetType.asGroupType())
+
+  private def singleRepeatedField(groupType: GroupType): Option[Type] =
+    Option.when(groupType.getFieldCount == 1 && groupType.getType(0).isRepetition(Repetition.REPEATED))(
+      groupType.getType(0),
+    )
+}
+
+/**
+  * Writes the fields of a Connect [[Struct]] to the fields of the Parquet group converted from its schema.
+  */
+class StructWriter(fields: Array[FieldWriter]) {
+
+  def writeFields(consumer: RecordConsumer, struct: Struct): Unit = {
+    var i = 0
+    while (i < fields.length) {
+      fields(i).write(consumer, struct)
+      i += 1
+    }
+  }
+}
+
+object StructWriter {
+
+  def apply(schema: ConnectSchema, groupType: GroupType): Option[StructWriter] = {
+    val fields = schema.fields().asScala.toList
+    if (fields.size != groupType.getFieldCount) {
+      None
+    } else {
+      fields.zipWithIndex.traverse {
+        case (field, index) =>
+          val parquetField = groupType.getType(index)
+          ValueWriter(field.schema(), parquetField)
+            .filter(_ => parquetField.getName == field.name())
+            .map(FieldWriter(field, index, parquetField.isRepetition(Repetition.REQUIRED), _))
+      }.map(fieldWriters => new StructWriter(fieldWriters.toArray))
+    }
+  }
+}
+
+case class FieldWriter(field: Field, index: Int, required: Boolean, writer: ValueWriter) {
+
+  private val name = field.name()
+
+  def write(consumer: RecordConsumer, struct: Struct): Unit = {
+    // like the Avro conversion, a missing value falls back to the default of the field
+    val value = struct.get(field)
+    if (value != null) {
+      consumer.startField(name, index)
+      writer.write(consumer, value)
+      consumer.endField(name, index)
+    } else if (required) {
+      throw new DataException(s"Null-value for required field: $name")
+    }
+  }
+}
+
+class ListWriter(repeatedName: String, elementWriter: ValueWriter) extends ValueWriter {
+
+  override def write(consumer: RecordConsumer, value: Any): Unit = {
+    val elements = value.asInstanceOf[java.util.Collection[_]]
+    consumer.startGroup()
+    if (!elements.isEmpty) {
+      consumer.startField(repeatedName, 0)
+      val iterator = elements.iterator()
+      while (iterator.hasNext) {
+        val element = iterator.next()
+        if (element == null) throw new DataException("Array contains a null element")
+        elementWriter.write(consumer, element)
+      }
+      consumer.endField(repeatedName, 0)
+    }
+    consumer.endGroup()
+  }
+}
+
+class MapWriter(entryType: GroupType, keyWriter: ValueWriter, valueWriter: ValueWriter)
+    extends ValueWriter {
+
+  private val repeatedName  = entryType.getName
+  private val keyName       = entryType.getType(0).getName
+  private val keyRequired   = entryType.getType(0).isRepetition(Repetition.REQUIRED)
+  private val valueName     = entryType.getType(1).getName
+  private val valueRequired = entryType.getType(1).isRepetition(Repetition.REQUIRED)
+
+  override def write(consumer: RecordConsumer, value: Any): Unit = {
+    val entries = value.asInstanceOf[java.util.Map[_, _]]
+    consumer.startGroup()
+    if (!entries.isEmpty) {
+      consumer.startField(repeatedName, 0)
+      val iterator = entries.entrySet().iterator()
+      while (iterator.hasNext) {
+        val entry = iterator.next()
+        consumer.startGroup()
+        writeEntryField(consumer, keyName, 0, keyRequired, keyWriter, entry.getKey)
+        writeEntryField(consumer, valueName, 1, valueRequired, valueWriter, entry.getValue)
+        consumer.endGroup()
+      }
+      consumer.endField(repeatedName, 0)
+    }
+    consumer.endGroup()
+  }
+
+  private def writeEntryField(
+    consumer: RecordConsumer,
+    name:     String,
+    index:    Int,
+    required: Boolean,
+    writer:   ValueWriter,
+    value:    Any,
+  ): Unit =
+    if (value != null) {
+      consumer.startField(name, index)
+      writer.write(consumer, value)
+      consumer.endField(name, index)
+    } else if (required) {
+      throw new DataException(s"Null-value for required map entry field: $name")
+    }
+}
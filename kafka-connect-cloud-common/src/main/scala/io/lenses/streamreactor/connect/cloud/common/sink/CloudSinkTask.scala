@@ -267,7 +267,7 @@ abstract class CloudSinkTask[MD <: FileMetadata, C <: CloudSinkConfig[CC], CC <:
   override def stop(): Unit = {
     logger.debug("[{}] Stop", Option(connectorTaskId).map(_.show).getOrElse("Unnamed"))
 
-    Option(writerManager).foreach(_.close())
+    Option(writerManager).foreach(_.stop())
     writerManager = null
   }
 
@@ -35,6 +35,7 @@ import io.lenses.streamreactor.connect.cloud.common.sink.seek.IndexManager
 import io.lenses.streamreactor.connect.cloud.common.sink.transformers.TopicsTransformers
 import io.lenses.streamreactor.connect.cloud.common.sink.writer.WriterIndexer
 import io.lenses.streamreactor.connect.cloud.common.sink.writer.WriterManager
+import io.lenses.streamreactor.connect.cloud.common.sink.writer.WriterUploader
 import io.lenses.streamreactor.connect.cloud.common.storage.FileMetadata
 import io.lenses.streamreactor.connect.cloud.common.storage.StorageInterface
 
@@ -111,13 +112,27 @@ class WriterManagerCreator[MD <: FileMetadata, SC <: CloudSinkConfig[_]] extends
       (topicPartition: TopicPartition, stagingFilename) =>
         bucketOptsForTopic(config, topicPartition.topic) match {
           case Some(bucketOptions) =>
-            for {
-              formatWriter <- formats.writer.FormatWriter(
-                bucketOptions.formatSelection,
-                stagingFilename.toPath,
-                topicPartition,
-              )(config.compressionCodec)
-            } yield formatWriter
+            bucketOptions.streamingUpload.flatMap { streamingUpload =>
+              storageInterface.streamingOutputStream(stagingFilename,
+                                                     bucketOptions.bucketAndPrefix,
+                                                     topicPartition,
+                                                     streamingUpload.partSize,
+              )
+            } match {
+              case Some(outputStream) =>
+                formats.writer.FormatWriter(
+                  bucketOptions.formatSelection,
+                  bucketOptions.parquetOptions,
+                  outputStream,
+                )(config.compressionCodec)
+              case None =>
+                formats.writer.FormatWriter(
+                  bucketOptions.formatSelection,
+                  bucketOptions.parquetOptions,
+                  stagingFilename.toPath,
+                  topicPartition,
+                )(config.compressionCodec)
+            }
           case None => FatalCloudSinkError("Can't find format choice in config", topicPartition).asLeft
         }
 
@@ -141,6 +156,7 @@ class WriterManagerCreator[MD <: FileMetadata, SC <: CloudSinkConfig[_]] extends
       writerIndexer,
       transformers.transform,
       config.schemaChangeDetector,
+      Option(config.uploadConcurrency).filter(_ > 0).map(new WriterUploader(_)),
     )
     (indexManager, writerManager)
   }
@@ -74,6 +74,8 @@ object CloudSinkBucketOptions extends LazyLogging {
         partitionSelection <- PartitionSelection(kcql, sinkProps)
         paddingService     <- PaddingService.fromConfig(config, sinkProps)
         storageSettings    <- DataStorageSettings.from(sinkProps)
+        streamingUpload    <- StreamingUploadOptions.from(sinkProps)
+        parquetOptions     <- ParquetWriterOptions.from(sinkProps)
         fileNamer          <- getFileNamer(storageSettings, fileExtension, partitionSelection, paddingService)
         keyNamer            = CloudKeyNamer(formatSelection, partitionSelection, fileNamer, paddingService)
         stagingArea        <- config.getLocalStagingArea()(connectorTaskId)
@@ -91,6 +93,8 @@ object CloudSinkBucketOptions extends LazyLogging {
           commitPolicy     = commitPolicy,
           localStagingArea = stagingArea,
           dataStorage      = storageSettings,
+          streamingUpload  = streamingUpload,
+          parquetOptions   = parquetOptions,
         )
       }
     }.toSeq.traverse(identity)
@@ -179,4 +183,6 @@ case class CloudSinkBucketOptions(
   commitPolicy:     CommitPolicy = CloudCommitPolicy.Default,
   localStagingArea: LocalStagingArea,
   dataStorage:      DataStorageSettings,
+  streamingUpload:  Option[StreamingUploadOptions] = None,
+  parquetOptions:   ParquetWriterOptions           = ParquetWriterOptions.Default,
 ) extends WithTransformableDataStorage
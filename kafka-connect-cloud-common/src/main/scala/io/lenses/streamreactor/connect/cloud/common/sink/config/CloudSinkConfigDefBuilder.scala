@@ -27,4 +27,5 @@ trait CloudSinkConfigDefBuilder
     with PaddingStrategySettings
     with CompressionCodecSettings
     with IndexSettings
-    with SchemaChangeSettings {}
+    with SchemaChangeSettings
+    with UploadPipelineSettings {}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cloud.common.sink.config
+
+import cats.implicits._
+import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEntry
+import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEnum
+import io.lenses.streamreactor.connect.config.kcqlprops.KcqlProperties
+import org.apache.kafka.common.config.ConfigException
+import org.apache.parquet.hadoop.ParquetWriter.DEFAULT_BLOCK_SIZE
+import org.apache.parquet.hadoop.ParquetWriter.DEFAULT_PAGE_SIZE
+
+/**
+  * Sizes used when writing Parquet files. The bytes of a row group are buffered in memory and written out to the
+  * output stream once the row group is full.
+  *
+  * @param rowGroupSize the size in bytes of a row group
+  * @param pageSize     the size in bytes of a page within a column chunk
+  */
+case class ParquetWriterOptions(rowGroupSize: Long, pageSize: Int)
+
+object ParquetWriterOptions {
+
+  val Default: ParquetWriterOptions = ParquetWriterOptions(DEFAULT_BLOCK_SIZE.toLong, DEFAULT_PAGE_SIZE)
+
+  def from(
+    properties: KcqlProperties[PropsKeyEntry, PropsKeyEnum.type],
+  ): Either[ConfigException, ParquetWriterOptions] = {
+    val rowGroupSize = properties.getOptionalLong(PropsKeyEnum.ParquetRowGroupSize).getOrElse(Default.rowGroupSize)
+    val pageSize     = properties.getOptionalInt(PropsKeyEnum.ParquetPageSize).getOrElse(Default.pageSize)
+    if (rowGroupSize <= 0) {
+      invalidValue(PropsKeyEnum.ParquetRowGroupSize).asLeft
+    } else if (pageSize <= 0 || pageSize > rowGroupSize) {
+      invalidValue(PropsKeyEnum.ParquetPageSize).asLeft
+    } else {
+      ParquetWriterOptions(rowGroupSize, pageSize).asRight
+    }
+  }
+
+  private def invalidValue(key: PropsKeyEntry): ConfigException =
+    new ConfigException(
+      s"Invalid value for configuration [${key.entryName}]. The value must be a positive number of bytes, with the page size not larger than the row group size.",
+    )
+}
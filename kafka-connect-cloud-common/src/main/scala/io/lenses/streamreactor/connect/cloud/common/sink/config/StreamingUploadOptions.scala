@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cloud.common.sink.config
+
+import cats.implicits._
+import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEntry
+import io.lenses.streamreactor.connect.cloud.common.config.kcqlprops.PropsKeyEnum
+import io.lenses.streamreactor.connect.config.kcqlprops.KcqlProperties
+import org.apache.kafka.common.config.ConfigException
+
+/**
+  * Streams the files written for a KCQL statement straight to the bucket, for the storage systems supporting it,
+  * instead of staging them on the local disk and uploading them once they are flushed. The memory held by the buffers
+  * of a task is bounded, the files opened once it is used up are staged on the local disk as usual.
+  *
+  * @param partSize the number of bytes buffered in memory before they are uploaded
+  */
+case class StreamingUploadOptions(partSize: Long)
+
+object StreamingUploadOptions {
+
+  // the smallest part S3 accepts for a multipart upload, except for the last one
+  val MinPartSize: Long = 5L * 1024 * 1024
+
+  val MaxPartSize: Long = 1024L * 1024 * 1024
+
+  val DefaultPartSize: Long = 8L * 1024 * 1024
+
+  // the memory the buffers of the streams of a task hold by default, in bytes
+  val DefaultBufferSize: Int = 64 * 1024 * 1024
+
+  def from(
+    properties: KcqlProperties[PropsKeyEntry, PropsKeyEnum.type],
+  ): Either[ConfigException, Option[StreamingUploadOptions]] =
+    for {
+      enabled <- properties.getBooleanOrDefault(PropsKeyEnum.UploadStreaming, default = false)
+      partSize = properties.getOptionalLong(PropsKeyEnum.UploadPartSize).getOrElse(DefaultPartSize)
+      _ <- Either.cond(
+        partSize >= MinPartSize && partSize <= MaxPartSize,
+        (),
+        new ConfigException(
+          s"Invalid value for configuration [${PropsKeyEnum.UploadPartSize.entryName}]. The value must be between $MinPartSize and $MaxPartSize bytes.",
+        ),
+      )
+    } yield Option.when(enabled)(StreamingUploadOptions(partSize))
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cloud.common.sink.config
+
+import io.lenses.streamreactor.common.config.base.traits.BaseSettings
+import io.lenses.streamreactor.common.config.base.traits.WithConnectorPrefix
+import org.apache.kafka.common.config.ConfigDef
+import org.apache.kafka.common.config.ConfigDef.Importance
+import org.apache.kafka.common.config.ConfigDef.Type
+
+trait UploadPipelineConfigKeys extends WithConnectorPrefix {
+
+  protected def UPLOAD_CONCURRENCY = s"$connectorPrefix.upload.concurrency"
+
+  private val UPLOAD_CONCURRENCY_DOC =
+    "The number of flushed files uploaded concurrently in the background while the task keeps writing records. " +
+      "Offsets are only committed once the upload of their file completes. " +
+      "With 0 the files are uploaded on the task thread."
+  private val UPLOAD_CONCURRENCY_DEFAULT: Int = 0
+
+  def withUploadPipelineConfig(configDef: ConfigDef): ConfigDef =
+    configDef.define(
+      UPLOAD_CONCURRENCY,
+      Type.INT,
+      UPLOAD_CONCURRENCY_DEFAULT,
+      ConfigDef.Range.atLeast(0),
+      Importance.LOW,
+      UPLOAD_CONCURRENCY_DOC,
+      "Upload",
+      1,
+      ConfigDef.Width.SHORT,
+      UPLOAD_CONCURRENCY,
+    )
+}
+
+trait UploadPipelineSettings extends BaseSettings with UploadPipelineConfigKeys {
+
+  def uploadConcurrency(): Int =
+    getInt(UPLOAD_CONCURRENCY)
+
+}
@@ -39,6 +39,10 @@ object SinkPropsSchema {
     FlushCount            -> LongPropsSchema,
     FlushSize             -> LongPropsSchema,
     FlushInterval         -> IntPropsSchema,
+    UploadStreaming       -> BooleanPropsSchema,
+    UploadPartSize        -> LongPropsSchema,
+    ParquetRowGroupSize   -> LongPropsSchema,
+    ParquetPageSize       -> IntPropsSchema,
   )
 
   val schema: KcqlPropsSchema[PropsKeyEntry, PropsKeyEnum.type] =
@@ -24,10 +24,15 @@ import java.io.File
 
 sealed abstract class WriteState(commitState: CommitState) {
   def getCommitState: CommitState = commitState
+
+  def withCommittedOffset(offset: Offset): WriteState
 }
 
 case class NoWriter(commitState: CommitState) extends WriteState(commitState) with LazyLogging {
 
+  override def withCommittedOffset(offset: Offset): NoWriter =
+    copy(commitState = commitState.withCommittedOffset(offset))
+
   def toWriting(
     formatWriter:      FormatWriter,
     file:              File,
@@ -50,6 +55,9 @@ case class Writing(
 ) extends WriteState(commitState)
     with LazyLogging {
 
+  override def withCommittedOffset(offset: Offset): Writing =
+    copy(commitState = commitState.withCommittedOffset(offset))
+
   def update(o: Offset, recordTimestamp: Long, schema: Option[Schema]): WriteState = {
     logger.debug(
       s"state update: Uncommitted offset update $uncommittedOffset => $o, earliest record timestamp $earliestRecordTimestamp => $recordTimestamp",
@@ -81,6 +89,9 @@ case class Uploading(
 ) extends WriteState(commitState)
     with LazyLogging {
 
+  override def withCommittedOffset(offset: Offset): Uploading =
+    copy(commitState = commitState.withCommittedOffset(offset))
+
   def toNoWriter: NoWriter = {
     logger.debug("state transition: Uploading => NoWriter")
     NoWriter(commitState.withCommittedOffset(uncommittedOffset))
@@ -34,6 +34,7 @@ import io.lenses.streamreactor.connect.cloud.common.storage._
 import org.apache.kafka.connect.data.Schema
 
 import java.io.File
+import scala.concurrent.Future
 import scala.math.Ordered.orderingToOrdered
 import scala.util.Try
 
@@ -45,6 +46,7 @@ class Writer[SM <: FileMetadata](
   objectKeyBuilder:     ObjectKeyBuilder,
   formatWriterFn:       File => Either[SinkError, FormatWriter],
   schemaChangeDetector: SchemaChangeDetector,
+  uploader:             Option[WriterUploader] = None,
 )(
   implicit
   connectorTaskId:  ConnectorTaskId,
@@ -55,6 +57,9 @@ class Writer[SM <: FileMetadata](
 
   var writeState: WriteState = NoWriter(CommitState(topicPartition, lastSeekedOffset))
 
+  // a file handed over to the uploader, its offset is committed once the upload has completed successfully
+  private var pendingUpload: Option[PendingUpload] = None
+
   def write(messageDetail: MessageDetail): Either[SinkError, Unit] = {
 
     def innerMessageWrite(writingState: Writing): Either[NonFatalCloudSinkError, Unit] =
@@ -101,7 +106,71 @@ class Writer[SM <: FileMetadata](
     }
   }
 
-  def commit: Either[SinkError, Unit] = {
+  def commit: Either[SinkError, Unit] =
+    (uploader, writeState) match {
+      case (Some(writerUploader), _: Writing | _: NoWriter) => commitAsync(writerUploader)
+      case _                                                 => commitAndUpload()
+    }
+
+  /**
+    * Completes the file being written and hands it over to the uploader, so further records can be written to a new
+    * staging file while it is uploaded. The previous upload of the writer has to complete first; if it failed it is
+    * retried and the error is returned.
+    */
+  private def commitAsync(writerUploader: WriterUploader): Either[SinkError, Unit] =
+    writeState match {
+      case writingState: Writing =>
+        for {
+          _ <- awaitPendingUpload(writerUploader)
+          _ <- writingState.formatWriter.complete()
+        } yield {
+          val uploadState = writingState.toUploading
+          writeState    = NoWriter(uploadState.commitState)
+          pendingUpload = PendingUpload(uploadState, submitUpload(writerUploader, uploadState)).some
+        }
+      case _ if pendingUpload.exists(_.failed) =>
+        awaitPendingUpload(writerUploader)
+      case _ =>
+        completeFinishedUpload()
+        ().asRight
+    }
+
+  private def awaitPendingUpload(writerUploader: WriterUploader): Either[SinkError, Unit] =
+    pendingUpload match {
+      case Some(PendingUpload(uploadState, result)) =>
+        writerUploader.await(result) match {
+          case Right(_) =>
+            completeUpload(uploadState)
+            ().asRight
+          case Left(error) =>
+            logger.warn(s"[{}] Upload of ${uploadState.file} failed, retrying", connectorTaskId.show)
+            pendingUpload = PendingUpload(uploadState, submitUpload(writerUploader, uploadState)).some
+            error.asLeft
+        }
+      case None => ().asRight
+    }
+
+  private def submitUpload(writerUploader: WriterUploader, uploadState: Uploading): Future[Either[SinkError, Unit]] =
+    writerUploader.submit(topicPartition) {
+      upload(uploadState).flatMap { _ =>
+        Try(uploadState.file.delete()).toEither.leftMap(e => FatalCloudSinkError(e.getMessage, topicPartition)).void
+      }
+    }
+
+  private def completeUpload(uploadState: Uploading): Unit = {
+    pendingUpload = None
+    writeState    = writeState.withCommittedOffset(uploadState.uncommittedOffset)
+    logger.debug(s"[{}] Writer.completeUpload: New state $writeState", connectorTaskId.show)
+  }
+
+  /**
+    * Commits the offset of the file handed over to the uploader if its upload has already completed successfully.
+    * Does not wait for the upload.
+    */
+  def completeFinishedUpload(): Unit =
+    pendingUpload.filter(_.succeeded).foreach(p => completeUpload(p.uploadState))
+
+  private def commitAndUpload(): Either[SinkError, Unit] = {
 
     writeState match {
       case writingState: Writing =>
@@ -118,29 +187,9 @@ class Writer[SM <: FileMetadata](
     }
 
     writeState match {
-      case uploadState @ Uploading(commitState,
-                                   file,
-                                   uncommittedOffset,
-                                   earliestRecordTimestamp,
-                                   latestRecordTimestamp,
-          ) =>
+      case uploadState @ Uploading(commitState, file, _, _, _) =>
         for {
-          key  <- objectKeyBuilder.build(uncommittedOffset, earliestRecordTimestamp, latestRecordTimestamp)
-          path <- key.path.toRight(NonFatalCloudSinkError("No path exists within cloud location"))
-          maybeIndexFileName: Option[String] <- writerIndexer.writeIndex(topicPartition,
-                                                                         key.bucket,
-                                                                         uncommittedOffset,
-                                                                         path,
-          )
-          _ <- storageInterface.uploadFile(UploadableFile(file), key.bucket, path)
-            .recover {
-              case _: NonExistingFileError => ()
-              case _: ZeroByteFileError    => ()
-            }
-            .leftMap {
-              case UploadFailedError(exception, _) => NonFatalCloudSinkError(exception.getMessage, exception.some)
-            }
-          _ <- writerIndexer.cleanIndex(topicPartition, key, maybeIndexFileName)
+          _ <- upload(uploadState)
           stateReset <- Try {
             logger.debug(s"[{}] Writer.resetState: Resetting state $writeState", connectorTaskId.show)
             writeState = uploadState.toNoWriter
@@ -154,17 +203,53 @@ class Writer[SM <: FileMetadata](
     }
   }
 
-  def close(): Unit =
+  /**
+    * Writes the index, uploads the file and cleans the index. Does not change the state of the writer, so it can run
+    * on the uploader threads.
+    */
+  private def upload(uploadState: Uploading): Either[SinkError, Unit] = {
+    val Uploading(_, file, uncommittedOffset, earliestRecordTimestamp, latestRecordTimestamp) = uploadState
+    for {
+      key  <- objectKeyBuilder.build(uncommittedOffset, earliestRecordTimestamp, latestRecordTimestamp)
+      path <- key.path.toRight(NonFatalCloudSinkError("No path exists within cloud location"))
+      maybeIndexFileName: Option[String] <- writerIndexer.writeIndex(topicPartition,
+                                                                     key.bucket,
+                                                                     uncommittedOffset,
+                                                                     path,
+      )
+      _ <- storageInterface.uploadFile(UploadableFile(file), key.bucket, path)
+        .recover {
+          case _: NonExistingFileError => ()
+          case _: ZeroByteFileError    => ()
+        }
+        .leftMap {
+          case UploadFailedError(exception, _) => NonFatalCloudSinkError(exception.getMessage, exception.some)
+          case other                           => NonFatalCloudSinkError(other.message(), None)
+        }
+      _ <- writerIndexer.cleanIndex(topicPartition, key, maybeIndexFileName)
+    } yield ()
+  }
+
+  def close(): Unit = {
+    pendingUpload.foreach {
+      case PendingUpload(uploadState, result) =>
+        // let the upload in flight finish before its file is removed
+        uploader.foreach(u => Try(u.await(result)))
+        Try(uploadState.file.delete())
+    }
+    pendingUpload = None
     writeState = writeState match {
       case state @ NoWriter(_) => state
       case Writing(commitState, formatWriter, file, _, _, _) =>
-        Try(formatWriter.close())
+        // the file is dropped uncommitted, so nothing written for it should reach the bucket
+        Try(formatWriter.abort())
         Try(file.delete())
         NoWriter(commitState.reset())
       case Uploading(commitState, file, _, _, _) =>
         Try(file.delete())
         NoWriter(commitState.reset())
     }
+  }
 
   def getCommittedOffset: Option[Offset] = writeState.getCommitState.committedOffset
 
@@ -225,7 +310,10 @@ class Writer[SM <: FileMetadata](
 
       writeState match {
         case NoWriter(commitState) =>
-          shouldSkipInternal(currentOffset, commitState.committedOffset)
+          shouldSkipInternal(
+            currentOffset,
+            (commitState.committedOffset.toList ++ pendingUpload.map(_.uploadState.uncommittedOffset)).maxOption,
+          )
         case Uploading(commitState, _, uncommittedOffset, _, _) =>
           shouldSkipInternal(currentOffset, Option(largestOffset(commitState.committedOffset, uncommittedOffset)))
         case Writing(commitState, _, _, uncommittedOffset, _, _) =>
@@ -236,7 +324,7 @@ class Writer[SM <: FileMetadata](
   def hasPendingUpload: Boolean =
     writeState match {
       case _: Uploading => true
-      case _ => false
+      case _ => pendingUpload.exists(_.failed)
     }
 
   def shouldRollover(schema: Schema): Boolean =
@@ -51,6 +51,9 @@ case class MapKey(topicPartition: TopicPartition, partitionValues: immutable.Map
   *
   * This class is not thread safe as it is not designed to be shared between concurrent
   * sinks, since file handles cannot be safely shared without considerable overhead.
+  *
+  * When an uploader is provided the flushed files are uploaded in the background and their
+  * offsets are only returned from [[preCommit]] once the upload and the index cleanup succeeded.
   */
 class WriterManager[SM <: FileMetadata](
   commitPolicyFn:       TopicPartition => Either[SinkError, CommitPolicy],
@@ -62,6 +65,7 @@ class WriterManager[SM <: FileMetadata](
   writerIndexer:        WriterIndexer[SM],
   transformerF:         MessageDetail => Either[RuntimeException, MessageDetail],
   schemaChangeDetector: SchemaChangeDetector,
+  uploader:             Option[WriterUploader] = None,
 )(
   implicit
   connectorTaskId:  ConnectorTaskId,
@@ -89,6 +93,11 @@ class WriterManager[SM <: FileMetadata](
     writers.clear()
   }
 
+  def stop(): Unit = {
+    close()
+    uploader.foreach(_.shutdown())
+  }
+
   def write(topicPartitionOffset: TopicPartitionOffset, messageDetail: MessageDetail): Either[SinkError, Unit] = {
 
     logger.debug(
@@ -180,13 +189,15 @@ class WriterManager[SM <: FileMetadata](
         objKeyBuilderFn(topicPartition, partitionValues),
         formatWriterFn.curried(topicPartition),
         schemaChangeDetector,
+        uploader,
       )
     }
   }
 
   def preCommit(
     currentOffsets: immutable.Map[TopicPartition, OffsetAndMetadata],
-  ): immutable.Map[TopicPartition, OffsetAndMetadata] =
+  ): immutable.Map[TopicPartition, OffsetAndMetadata] = {
+    writers.values.foreach(_.completeFinishedUpload())
     currentOffsets
       .map {
         case (tp, offAndMeta) => (tp, getOffsetAndMeta(tp, offAndMeta))
@@ -194,6 +205,7 @@ class WriterManager[SM <: FileMetadata](
       .collect {
         case (k, v) if v.nonEmpty => (k, v.get)
       }
+  }
 
   private def writerForTopicPartitionWithMaxOffset(topicPartition: TopicPartition): Option[Writer[SM]] =
     Try(
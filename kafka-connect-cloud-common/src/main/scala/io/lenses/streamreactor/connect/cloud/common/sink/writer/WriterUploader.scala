@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cloud.common.sink.writer
+
+import cats.implicits._
+import com.typesafe.scalalogging.LazyLogging
+import io.lenses.streamreactor.connect.cloud.common.config.ConnectorTaskId
+import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
+import io.lenses.streamreactor.connect.cloud.common.sink.NonFatalCloudSinkError
+import io.lenses.streamreactor.connect.cloud.common.sink.SinkError
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.atomic.AtomicInteger
+import scala.collection.mutable
+import scala.concurrent.Await
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.duration.Duration
+import scala.util.Success
+import scala.util.Try
+
+/**
+  * An upload handed over to the [[WriterUploader]] by a [[Writer]]. The offsets of the file are only committed once
+  * the result completes successfully.
+  *
+  * @param uploadState the state of the file being uploaded
+  * @param result      the outcome of the upload, including the index cleanup
+  */
+case class PendingUpload(uploadState: Uploading, result: Future[Either[SinkError, Unit]]) {
+
+  def succeeded: Boolean = result.value.contains(Success(().asRight))
+
+  def failed: Boolean = result.isCompleted && !succeeded
+}
+
+/**
+  * Runs the uploads of the files flushed by the [[Writer]]s on a bounded pool of threads, so the task can keep
+  * writing records to new staging files while the flushed ones are uploaded.
+  *
+  * The uploads of a topic partition run one after another in the order they were submitted, since the index of a
+  * topic partition only retains its most recent entry. Uploads of different topic partitions run concurrently.
+  *
+  * This class is not thread safe, uploads are expected to be submitted from the task thread.
+  *
+  * @param concurrency the maximum number of uploads running at the same time
+  */
+class WriterUploader(concurrency: Int)(implicit connectorTaskId: ConnectorTaskId) extends LazyLogging {
+
+  private val executorService: ExecutorService = Executors.newFixedThreadPool(concurrency, uploaderThreadFactory)
+
+  private implicit val executionContext: ExecutionContext = ExecutionContext.fromExecutorService(executorService)
+
+  private val lastUploads = mutable.Map.empty[TopicPartition, Future[Either[SinkError, Unit]]]
+
+  def submit(topicPartition: TopicPartition)(upload: => Either[SinkError, Unit]): Future[Either[SinkError, Unit]] = {
+    val previous = lastUploads.getOrElse(topicPartition, Future.successful(().asRight))
+    val next     = previous.transformWith(_ => Future(upload))
+    lastUploads.put(topicPartition, next)
+    next
+  }
+
+  def await(result: Future[Either[SinkError, Unit]]): Either[SinkError, Unit] =
+    Try(Await.result(result, Duration.Inf)).toEither
+      .leftMap(ex => NonFatalCloudSinkError(ex.getMessage, ex.some))
+      .flatten
+
+  def shutdown(): Unit = {
+    logger.debug("[{}] Shutting down the uploader", connectorTaskId.show)
+    lastUploads.clear()
+    executorService.shutdown()
+  }
+
+  private def uploaderThreadFactory: ThreadFactory =
+    new ThreadFactory {
+      private val threadCount = new AtomicInteger(0)
+
+      override def newThread(runnable: Runnable): Thread = {
+        val thread = new Thread(runnable, s"${connectorTaskId.show}-uploader-${threadCount.incrementAndGet()}")
+        thread.setDaemon(true)
+        thread
+      }
+    }
+}
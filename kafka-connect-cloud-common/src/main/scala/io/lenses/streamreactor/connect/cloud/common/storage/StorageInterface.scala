@@ -16,9 +16,13 @@
 package io.lenses.streamreactor.connect.cloud.common.storage
 
 import io.lenses.streamreactor.connect.cloud.common.config.ObjectMetadata
+import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
 import io.lenses.streamreactor.connect.cloud.common.model.UploadableFile
 import io.lenses.streamreactor.connect.cloud.common.model.UploadableString
+import io.lenses.streamreactor.connect.cloud.common.model.location.CloudLocation
+import io.lenses.streamreactor.connect.cloud.common.stream.CloudOutputStream
 
+import java.io.File
 import java.io.InputStream
 import java.time.Instant
 
@@ -32,6 +36,24 @@ trait StorageInterface[SM <: FileMetadata] extends ResultProcessors {
 
   def uploadFile(source: UploadableFile, bucket: String, path: String): Either[UploadError, Unit]
 
+  /**
+    * Opens a stream uploading the contents of a staging file to the bucket while they are written, rather than once
+    * the file is complete. Once the stream is completed, [[uploadFile]] of the staging file moves the object already
+    * uploaded to its final path instead of uploading the local file.
+    *
+    * @param stagingFile     the staging file the stream stands in for, it is left empty on the local disk
+    * @param bucketAndPrefix the location the file is written to
+    * @param topicPartition  the topic partition the file is written for
+    * @param partSize        the number of bytes buffered in memory before they are uploaded
+    * @return None when the storage system does not support streaming uploads, or cannot buffer another stream
+    */
+  def streamingOutputStream(
+    stagingFile:     File,
+    bucketAndPrefix: CloudLocation,
+    topicPartition:  TopicPartition,
+    partSize:        Long,
+  ): Option[CloudOutputStream] = None
+
   def close(): Unit
 
   def pathExists(bucket: String, path: String): Either[FileLoadError, Boolean]
@@ -40,8 +40,8 @@ class BuildLocalOutputStream(outputStream: BufferedOutputStream, topicPartition:
         validateRange(endOffset, bytes.length),
     )
 
-    outputStream.write(bytes.slice(startOffset, endOffset))
-    pointer += endOffset - startOffset
+    outputStream.write(bytes, startOffset, numberOfBytes)
+    pointer += numberOfBytes
   }
 
   override def write(b: Int): Unit = {
@@ -59,6 +59,10 @@ class BuildLocalOutputStream(outputStream: BufferedOutputStream, topicPartition:
       FatalCloudSinkError(to.getMessage, topicPartition)
   }
 
+  override def abort(): Unit = {
+    val _ = Try(outputStream.close())
+  }
+
   private def validateRange(startOffset: Int, numberOfBytes: Int) = startOffset >= 0 && startOffset <= numberOfBytes
 
   override def getPointer: Long = pointer.toLong
@@ -24,4 +24,9 @@ trait CloudOutputStream extends OutputStream {
 
   def getPointer: Long
 
+  /**
+    * Discards the bytes written so far without completing the stream, nothing written to it is made visible.
+    */
+  def abort(): Unit = close()
+
 }
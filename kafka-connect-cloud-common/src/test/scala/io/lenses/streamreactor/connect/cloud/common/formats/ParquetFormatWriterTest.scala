@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cloud.common.formats
+
+import io.lenses.streamreactor.connect.cloud.common.formats.reader.ParquetFormatReader
+import io.lenses.streamreactor.connect.cloud.common.formats.writer.MessageDetail
+import io.lenses.streamreactor.connect.cloud.common.formats.writer.ParquetFormatWriter
+import io.lenses.streamreactor.connect.cloud.common.formats.writer.parquet.ParquetOutputFile
+import io.lenses.streamreactor.connect.cloud.common.formats.writer.parquet.ParquetSchema
+import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodec
+import io.lenses.streamreactor.connect.cloud.common.model.CompressionCodecName.UNCOMPRESSED
+import io.lenses.streamreactor.connect.cloud.common.model.Offset
+import io.lenses.streamreactor.connect.cloud.common.sink.conversion.NullSinkData
+import io.lenses.streamreactor.connect.cloud.common.sink.conversion.StructSinkData
+import io.lenses.streamreactor.connect.cloud.common.sink.conversion.ToAvroDataConverter
+import io.lenses.streamreactor.connect.cloud.common.stream.CloudByteArrayOutputStream
+import io.lenses.streamreactor.connect.cloud.common.utils.SampleData.topic
+import org.apache.kafka.connect.data.Date
+import org.apache.kafka.connect.data.Decimal
+import org.apache.kafka.connect.data.Schema
+import org.apache.kafka.connect.data.SchemaBuilder
+import org.apache.kafka.connect.data.Struct
+import org.apache.kafka.connect.data.Timestamp
+import org.apache.parquet.avro.AvroParquetWriter
+import org.scalatest.EitherValues
+import org.scalatest.flatspec.AnyFlatSpec
+import org.scalatest.matchers.should.Matchers
+
+import java.time.Instant
+import scala.jdk.CollectionConverters.MapHasAsJava
+import scala.jdk.CollectionConverters.SeqHasAsJava
+
+class ParquetFormatWriterTest extends AnyFlatSpec with Matchers with EitherValues {
+  private implicit val compressionCodec: CompressionCodec = UNCOMPRESSED.toCodec()
+
+  private val parquetFormatReader = new ParquetFormatReader()
+
+  private val addressSchema = SchemaBuilder.struct()
+    .name("address")
+    .field("street", Schema.STRING_SCHEMA)
+    .field("number", Schema.OPTIONAL_INT32_SCHEMA)
+    .build()
+
+  private val schema = SchemaBuilder.struct()
+    .name("customer")
+    .field("id", Schema.INT64_SCHEMA)
+    .field("name", Schema.OPTIONAL_STRING_SCHEMA)
+    .field("active", Schema.BOOLEAN_SCHEMA)
+    .field("score", Schema.FLOAT64_SCHEMA)
+    .field("ratio", Schema.OPTIONAL_FLOAT32_SCHEMA)
+    .field("level", Schema.INT8_SCHEMA)
+    .field("avatar", Schema.OPTIONAL_BYTES_SCHEMA)
+    .field("balance", Decimal.schema(2))
+    .field("birthday", Date.SCHEMA)
+    .field("updated", Timestamp.builder().optional().build())
+    .field("address", addressSchema)
+    .field("tags", SchemaBuilder.array(Schema.STRING_SCHEMA).build())
+    .field("attributes", SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.OPTIONAL_INT64_SCHEMA).build())
+    .field("ranks", SchemaBuilder.map(Schema.INT32_SCHEMA, Schema.STRING_SCHEMA).optional().build())
+    .build()
+
+  private def customer(id: Long, optionalsSet: Boolean): Struct = {
+    val struct = new Struct(schema)
+      .put("id", id)
+      .put("active", id % 2 == 0)
+      .put("score", id * 1.5)
+      .put("level", id.toByte)
+      .put("balance", new java.math.BigDecimal(s"$id.25"))
+      .put("birthday", java.util.Date.from(Instant.parse("2024-03-01T00:00:00Z")))
+      .put("address", new Struct(addressSchema).put("street", s"street $id"))
+      .put("tags", List("a", s"tag $id").asJava)
+      .put("attributes", Map[String, java.lang.Long]("x" -> id, "y" -> null).asJava)
+    if (optionalsSet) {
+      struct
+        .put("name", s"customer $id")
+        .put("ratio", id / 3.0f)
+        .put("avatar", Array[Byte](1, 2, id.toByte))
+        .put("updated", java.util.Date.from(Instant.ofEpochMilli(1700000000000L + id)))
+        .put("address", new Struct(addressSchema).put("street", s"street $id").put("number", id.toInt))
+        .put("tags", List.empty[String].asJava)
+        .put("ranks", Map[Integer, String](Int.box(1) -> "first", Int.box(2) -> "second").asJava)
+    } else struct
+  }
+
+  private val customers = (1L to 10L).map(id => customer(id, optionalsSet = id % 3 != 0)).toList
+
+  private def messageDetail(struct: Struct, offset: Long) =
+    MessageDetail(NullSinkData(None), StructSinkData(struct), Map.empty, Some(Instant.now()), topic, 0, Offset(offset))
+
+  private def writeThroughAvro(structs: List[Struct]): Array[Byte] = {
+    val outputStream = new CloudByteArrayOutputStream()
+    val writer = AvroParquetWriter
+      .builder[Any](new ParquetOutputFile(outputStream))
+      .withSchema(ToAvroDataConverter.convertSchema(schema))
+      .build()
+    structs.foreach(struct => writer.write(ToAvroDataConverter.convertToGenericRecord(StructSinkData(struct))))
+    writer.close()
+    outputStream.toByteArray
+  }
+
+  "write" should "write structs to the same records the Avro Parquet writer does" in {
+    val outputStream        = new CloudByteArrayOutputStream()
+    val parquetFormatWriter = new ParquetFormatWriter(outputStream)
+    customers.zipWithIndex.foreach {
+      case (struct, offset) => parquetFormatWriter.write(messageDetail(struct, offset.toLong)).value
+    }
+    parquetFormatWriter.complete().value
+
+    val records = parquetFormatReader.read(outputStream.toByteArray)
+
+    records.size should be(customers.size)
+    records should be(parquetFormatReader.read(writeThroughAvro(customers)))
+  }
+
+  "write" should "fail on a null value for a required field" in {
+    val parquetFormatWriter = new ParquetFormatWriter(new CloudByteArrayOutputStream())
+    val struct              = customer(1L, optionalsSet = false).put("address", new Struct(addressSchema))
+
+    parquetFormatWriter.write(messageDetail(struct, 0L)).left.value.getMessage should be(
+      "Null-value for required field: street",
+    )
+  }
+
+  "ParquetSchema" should "reuse the conversion of an equal schema" in {
+    val copy = SchemaBuilder.struct()
+      .name("address")
+      .field("street", Schema.STRING_SCHEMA)
+      .field("number", Schema.OPTIONAL_INT32_SCHEMA)
+      .build()
+
+    ParquetSchema(copy) should be theSameInstanceAs ParquetSchema(addressSchema)
+    ParquetSchema(schema).structWriter should not be empty
+  }
+}
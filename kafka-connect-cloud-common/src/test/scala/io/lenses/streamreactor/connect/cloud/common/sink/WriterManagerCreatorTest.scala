@@ -50,6 +50,7 @@ class WriterManagerCreatorTest extends AnyFunSuite with Matchers with MockitoSug
     errorPolicy:          NoopErrorPolicy,
     logMetrics:           Boolean              = false,
     schemaChangeDetector: SchemaChangeDetector = DefaultSchemaChangeDetector,
+    uploadConcurrency:    Int                  = 0,
   ) extends CloudSinkConfig[FakeConnectionConfig]
 
   case class FakeFileMetadata(file: String, lastModified: Instant) extends FileMetadata
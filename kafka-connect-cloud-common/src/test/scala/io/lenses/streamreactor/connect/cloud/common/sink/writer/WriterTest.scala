@@ -15,17 +15,26 @@
  */
 package io.lenses.streamreactor.connect.cloud.common.sink.writer
 
+import cats.implicits._
 import io.lenses.streamreactor.connect.cloud.common.config.ConnectorTaskId
 import io.lenses.streamreactor.connect.cloud.common.formats.writer.FormatWriter
 import io.lenses.streamreactor.connect.cloud.common.formats.writer.schema.SchemaChangeDetector
 import io.lenses.streamreactor.connect.cloud.common.model.Offset
 import io.lenses.streamreactor.connect.cloud.common.model.Topic
 import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
+import io.lenses.streamreactor.connect.cloud.common.model.UploadableFile
+import io.lenses.streamreactor.connect.cloud.common.model.location.CloudLocation
+import io.lenses.streamreactor.connect.cloud.common.model.location.CloudLocationValidator
+import io.lenses.streamreactor.connect.cloud.common.sink.NonFatalCloudSinkError
 import io.lenses.streamreactor.connect.cloud.common.sink.SinkError
 import io.lenses.streamreactor.connect.cloud.common.sink.commit.CommitPolicy
 import io.lenses.streamreactor.connect.cloud.common.sink.naming.ObjectKeyBuilder
 import io.lenses.streamreactor.connect.cloud.common.storage.FileMetadata
+import io.lenses.streamreactor.connect.cloud.common.storage.FileMoveError
 import io.lenses.streamreactor.connect.cloud.common.storage.StorageInterface
+import io.lenses.streamreactor.connect.cloud.common.storage.UploadError
+import io.lenses.streamreactor.connect.cloud.common.storage.UploadFailedError
+import io.lenses.streamreactor.connect.cloud.common.utils.SampleData
 import org.apache.kafka.connect.data.Schema
 import org.mockito.Answers
 import org.mockito.MockitoSugar
@@ -33,6 +42,7 @@ import org.scalatest.funsuite.AnyFunSuiteLike
 import org.scalatest.matchers.should.Matchers
 
 import java.io.File
+import java.util.concurrent.CountDownLatch
 
 class WriterTest extends AnyFunSuiteLike with Matchers with MockitoSugar {
 
@@ -47,6 +57,8 @@ class WriterTest extends AnyFunSuiteLike with Matchers with MockitoSugar {
   private val topicPartition:            TopicPartition                          = Topic("test-topic").withPartition(0)
   private val schemaChangeDetector:      SchemaChangeDetector                    = mock[SchemaChangeDetector]
 
+  private implicit val cloudLocationValidator: CloudLocationValidator = SampleData.cloudLocationValidator
+
   test("shouldSkip should return false when indexing is disabled") {
     when(writerIndexer.indexingEnabled()).thenReturn(false)
     when(writerIndexer.getSeekedOffsetForTopicPartition(topicPartition)).thenReturn(None)
@@ -298,4 +310,120 @@ class WriterTest extends AnyFunSuiteLike with Matchers with MockitoSugar {
 
     writer.schemaHasChanged(schema) shouldBe false
   }
+
+  test("commit with an uploader should hand the file over and only commit its offset once the upload completed") {
+    val latch = new CountDownLatch(1)
+    stubUpload()
+    when(storageInterface.uploadFile(any[UploadableFile], any[String], any[String])).thenAnswer {
+      (_: UploadableFile, _: String, _: String) =>
+        latch.await()
+        ().asRight[UploadError]
+    }
+    val uploader = new WriterUploader(2)
+    val writer   = asyncWriter(uploader)
+    writer.writeState =
+      Writing(CommitState(topicPartition, Some(Offset(10))), formatWriter, new File("f1"), Offset(20), 1L, 1L)
+
+    writer.commit shouldBe Right(())
+    writer.writeState shouldBe a[NoWriter]
+    writer.getCommittedOffset shouldBe Some(Offset(10))
+    writer.shouldSkip(Offset(20)) shouldBe true
+    writer.hasPendingUpload shouldBe false
+
+    latch.countDown()
+    writer.writeState =
+      Writing(writer.writeState.getCommitState, formatWriter, new File("f2"), Offset(30), 1L, 1L)
+    writer.commit shouldBe Right(())
+    writer.getCommittedOffset shouldBe Some(Offset(20))
+    uploader.shutdown()
+  }
+
+  test("commit with an uploader should return the error of a failed upload and retry it") {
+    stubUpload()
+    val uploadError = UploadFailedError(new RuntimeException("upload failed"), new File("f1"))
+    when(storageInterface.uploadFile(any[UploadableFile], any[String], any[String]))
+      .thenReturn(uploadError.asLeft[Unit], ().asRight[UploadError], ().asRight[UploadError])
+    val uploader = new WriterUploader(2)
+    val writer   = asyncWriter(uploader)
+    writer.writeState =
+      Writing(CommitState(topicPartition, Some(Offset(10))), formatWriter, new File("f1"), Offset(20), 1L, 1L)
+
+    writer.commit shouldBe Right(())
+    writer.writeState =
+      Writing(writer.writeState.getCommitState, formatWriter, new File("f2"), Offset(30), 1L, 1L)
+
+    writer.commit.isLeft shouldBe true
+    writer.getCommittedOffset shouldBe Some(Offset(10))
+    writer.writeState shouldBe a[Writing]
+
+    writer.commit shouldBe Right(())
+    writer.getCommittedOffset shouldBe Some(Offset(20))
+    writer.writeState shouldBe a[NoWriter]
+    uploader.shutdown()
+  }
+
+  test("commit should return a non fatal error when moving the uploaded file fails") {
+    stubUpload()
+    val moveError = FileMoveError(new RuntimeException("copy failed"), "bucket/.uploads/connector/0/f1", "bucket/path")
+    when(storageInterface.uploadFile(any[UploadableFile], any[String], any[String])).thenReturn(moveError.asLeft[Unit])
+    val writer = new Writer[FileMetadata](topicPartition,
+                                          commitPolicy,
+                                          writerIndexer,
+                                          stagingFilenameFn,
+                                          objectKeyBuilder,
+                                          formatWriterFn,
+                                          schemaChangeDetector,
+    )
+    writer.writeState =
+      Writing(CommitState(topicPartition, Some(Offset(10))), formatWriter, new File("f1"), Offset(20), 1L, 1L)
+
+    writer.commit match {
+      case Left(error: NonFatalCloudSinkError) => error.message should include("copy failed")
+      case other                               => fail(s"Expected a non fatal error, got $other")
+    }
+    writer.getCommittedOffset shouldBe Some(Offset(10))
+  }
+
+  test("close should abort the file being written instead of completing it") {
+    val formatWriter = mock[FormatWriter]
+    val writer = new Writer[FileMetadata](topicPartition,
+                                          commitPolicy,
+                                          writerIndexer,
+                                          stagingFilenameFn,
+                                          objectKeyBuilder,
+                                          formatWriterFn,
+                                          schemaChangeDetector,
+    )
+    writer.writeState =
+      Writing(CommitState(topicPartition, Some(Offset(10))), formatWriter, new File("f1"), Offset(20), 1L, 1L)
+
+    writer.close()
+
+    verify(formatWriter).abort()
+    verify(formatWriter, never).complete()
+    writer.writeState shouldBe a[NoWriter]
+  }
+
+  private def stubUpload(): Unit = {
+    reset(storageInterface)
+    when(writerIndexer.getSeekedOffsetForTopicPartition(topicPartition)).thenReturn(None)
+    when(writerIndexer.indexingEnabled()).thenReturn(true)
+    when(writerIndexer.writeIndex(any[TopicPartition], any[String], any[Offset], any[String])).thenReturn(Right(None))
+    when(writerIndexer.cleanIndex(any[TopicPartition], any[CloudLocation], any[Option[String]])).thenReturn(Right(None))
+    when(objectKeyBuilder.build(any[Offset], any[Long], any[Long]))
+      .thenReturn(Right(CloudLocation("bucket", path = Some("path"))))
+    when(formatWriter.complete()).thenReturn(Right(()))
+    ()
+  }
+
+  private def asyncWriter(uploader: WriterUploader): Writer[FileMetadata] =
+    new Writer[FileMetadata](topicPartition,
+                             commitPolicy,
+                             writerIndexer,
+                             stagingFilenameFn,
+                             objectKeyBuilder,
+                             formatWriterFn,
+                             schemaChangeDetector,
+                             Some(uploader),
+    )
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.cloud.common.sink.writer
+
+import cats.implicits._
+import io.lenses.streamreactor.connect.cloud.common.config.ConnectorTaskId
+import io.lenses.streamreactor.connect.cloud.common.model.Topic
+import io.lenses.streamreactor.connect.cloud.common.sink.SinkError
+import org.scalatest.BeforeAndAfterEach
+import org.scalatest.funsuite.AnyFunSuiteLike
+import org.scalatest.matchers.should.Matchers
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import scala.jdk.CollectionConverters._
+
+class WriterUploaderTest extends AnyFunSuiteLike with Matchers with BeforeAndAfterEach {
+
+  private implicit val connectorTaskId: ConnectorTaskId = ConnectorTaskId("test-connector", 1, 1)
+
+  private var uploader: WriterUploader = _
+
+  override def beforeEach(): Unit = uploader = new WriterUploader(2)
+
+  override def afterEach(): Unit = uploader.shutdown()
+
+  test("uploads of the same topic partition should run in the order they were submitted") {
+    val topicPartition = Topic("topic").withPartition(0)
+    val latch          = new CountDownLatch(1)
+    val completed      = new ConcurrentLinkedQueue[String]()
+
+    val first = uploader.submit(topicPartition) {
+      latch.await()
+      completed.add("first")
+      ().asRight[SinkError]
+    }
+    val second = uploader.submit(topicPartition) {
+      completed.add("second")
+      ().asRight[SinkError]
+    }
+    latch.countDown()
+
+    uploader.await(second) shouldBe Right(())
+    first.isCompleted shouldBe true
+    completed.asScala.toList shouldBe List("first", "second")
+  }
+
+  test("uploads of different topic partitions should run concurrently") {
+    val latch = new CountDownLatch(1)
+
+    val blocked = uploader.submit(Topic("topic").withPartition(0)) {
+      latch.await()
+      ().asRight[SinkError]
+    }
+    val other = uploader.submit(Topic("topic").withPartition(1))(().asRight[SinkError])
+
+    uploader.await(other) shouldBe Right(())
+    blocked.isCompleted shouldBe false
+    latch.countDown()
+    uploader.await(blocked) shouldBe Right(())
+  }
+
+  test("await should return the error of a failed upload") {
+    val failed = uploader.submit(Topic("topic").withPartition(0))(throw new IllegalStateException("boom"))
+
+    uploader.await(failed).left.map(_.message()) shouldBe Left("boom")
+  }
+}
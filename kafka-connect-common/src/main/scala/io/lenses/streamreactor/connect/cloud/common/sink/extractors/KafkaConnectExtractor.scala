@@ -37,13 +37,33 @@ object KafkaConnectExtractor extends LazyLogging {
   def extractFromValue(sinkRecord: SinkRecord, path: Option[String]): Either[Throwable, AnyRef] =
     extract(sinkRecord.value(), Option(sinkRecord.valueSchema()), path)
 
+  /**
+    * Variant of [[extractFromKey]] for callers which split the path once up front and reuse it for every record.
+    */
+  def extractPathFromKey(sinkRecord: SinkRecord, maybePnp: Option[PartitionNamePath]): Either[Throwable, AnyRef] =
+    extractPath(sinkRecord.key(), Option(sinkRecord.keySchema()), maybePnp)
+
+  /**
+    * Variant of [[extractFromValue]] for callers which split the path once up front and reuse it for every record.
+    */
+  def extractPathFromValue(sinkRecord: SinkRecord, maybePnp: Option[PartitionNamePath]): Either[Throwable, AnyRef] =
+    extractPath(sinkRecord.value(), Option(sinkRecord.valueSchema()), maybePnp)
+
+  def toPartitionNamePath(path: String): PartitionNamePath =
+    PartitionNamePath(path.split('.').toIndexedSeq: _*)
+
   private[extractors] def extract(
     extractFrom:   AnyRef,
     extractSchema: Option[Schema],
     maybePath:     Option[String],
-  ): Either[Throwable, AnyRef] = {
+  ): Either[Throwable, AnyRef] =
+    extractPath(extractFrom, extractSchema, maybePath.map(toPartitionNamePath))
 
-    val maybePnp: Option[PartitionNamePath] = maybePath.map(path => PartitionNamePath(path.split('.').toIndexedSeq: _*))
+  private def extractPath(
+    extractFrom:   AnyRef,
+    extractSchema: Option[Schema],
+    maybePnp:      Option[PartitionNamePath],
+  ): Either[Throwable, AnyRef] =
     (extractFrom, maybePnp) match {
       case (shortVal: lang.Short, _) => shortVal.asRight
       case (boolVal: lang.Boolean, _) => boolVal.asRight
@@ -70,6 +90,5 @@ object KafkaConnectExtractor extends LazyLogging {
           ).getOrElse("undefined")}', path: `${rightVal.getOrElse("Empty")}`",
         ).asLeft
     }
-  }
 
 }
@@ -20,6 +20,7 @@ import io.lenses.streamreactor.connect.cloud.common.config.IndexConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.FlushConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.LocalStagingAreaConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.SchemaChangeConfigKeys
+import io.lenses.streamreactor.connect.cloud.common.sink.config.UploadPipelineConfigKeys
 import io.lenses.streamreactor.connect.cloud.common.sink.config.padding.PaddingStrategyConfigKeys
 import io.lenses.streamreactor.connect.gcp.storage.config.GCPConfigSettings.CONNECTOR_PREFIX
 import io.lenses.streamreactor.connect.gcp.storage.config.GCPConfigSettings.LOG_METRICS_CONFIG
@@ -35,7 +36,8 @@ object GCPStorageSinkConfigDef
     with PaddingStrategyConfigKeys
     with UploadConfigKeys
     with IndexConfigKeys
-    with SchemaChangeConfigKeys {
+    with SchemaChangeConfigKeys
+    with UploadPipelineConfigKeys {
 
   override def connectorPrefix: String = CONNECTOR_PREFIX
 
@@ -59,6 +61,7 @@ object GCPStorageSinkConfigDef
     addPaddingToConfigDef(configDef)
     addUploadSettingsToConfigDef(configDef)
     addIndexSettingsToConfigDef(configDef)
+    withUploadPipelineConfig(configDef)
     withSchemaChangeConfig(configDef)
   }
 
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.http.sink
+
+import cats.data.NonEmptySeq
+import io.lenses.streamreactor.connect.http.sink.commit.HttpCommitContext
+import io.lenses.streamreactor.connect.http.sink.tpl.RenderedRecord
+
+import scala.collection.mutable
+
+/**
+  * Accumulates a batch of records, keeping the record count, the rendered byte size and the highest offset per
+  * partition as running totals in the commit context. Evaluating a candidate record therefore costs O(1) rather than
+  * re-scanning the whole batch, so assembling a batch of N records is O(N).
+  *
+  * @param initialContext the commit context the batch starts from; its committed offsets are carried forward while
+  *                       the count and file size start from zero.
+  */
+class BatchBuilder(initialContext: HttpCommitContext) {
+
+  private val records = mutable.ArrayBuffer[RenderedRecord]()
+  private var context = initialContext.copy(count = 0L, fileSize = 0L)
+
+  /**
+    * Computes the commit context as it would be if the record were appended, without modifying the batch.
+    *
+    * @param record the candidate record
+    * @return the commit context to evaluate the batch policy against
+    */
+  def contextWith(record: RenderedRecord): HttpCommitContext = {
+    val tp     = record.topicPartitionOffset.toTopicPartition
+    val offset = record.topicPartitionOffset.offset
+    val committedOffsets = context.committedOffsets.get(tp) match {
+      case Some(existingOffset) if existingOffset.value >= offset.value => context.committedOffsets
+      case _                                                            => context.committedOffsets.updated(tp, offset)
+    }
+    context.copy(
+      committedOffsets = committedOffsets,
+      count            = context.count + 1,
+      fileSize         = context.fileSize + record.recordRendered.length,
+    )
+  }
+
+  /**
+    * Appends the record to the batch.
+    *
+    * @param record         the record to append
+    * @param updatedContext the context previously returned by [[contextWith]] for this record
+    */
+  def add(record: RenderedRecord, updatedContext: HttpCommitContext): Unit = {
+    records.addOne(record)
+    context = updatedContext
+  }
+
+  def currentContext: HttpCommitContext = context
+
+  def result: Option[NonEmptySeq[RenderedRecord]] = NonEmptySeq.fromSeq(records.toSeq)
+
+}
@@ -22,6 +22,7 @@ import cats.effect.IO
 import cats.effect.Ref
 import cats.effect.unsafe.IORuntime
 import com.typesafe.scalalogging.LazyLogging
+import io.lenses.streamreactor.common.metrics.MetricsRegistrar
 import io.lenses.streamreactor.common.util.AsciiArtPrinter.printAsciiHeader
 import io.lenses.streamreactor.connect.cloud.common.model.Offset
 import io.lenses.streamreactor.connect.cloud.common.model.Topic
@@ -37,7 +38,6 @@ import org.apache.kafka.connect.sink.SinkTask
 import cats.syntax.all._
 import io.lenses.streamreactor.common.utils.JarManifestProvided
 import io.lenses.streamreactor.connect.http.sink.metrics.HttpSinkMetrics
-import io.lenses.streamreactor.connect.http.sink.metrics.MetricsRegistrar
 
 import java.util
 import scala.jdk.CollectionConverters.IterableHasAsScala
@@ -71,7 +71,8 @@ class HttpSinkTask extends SinkTask with LazyLogging with JarManifestProvided {
     (for {
       config        <- IO.fromEither(HttpSinkConfig.from(propsAsScala))
       metrics       <- IO(new HttpSinkMetrics())
-      _             <- IO(MetricsRegistrar.registerMetricsMBean(metrics, sinkName))
+      metricsName    = MetricsRegistrar.metricsName(HttpSinkMetrics.Domain, sinkName)
+      _             <- IO(MetricsRegistrar.register(metrics, metricsName))
       template       = RawTemplate(config.endpoint, config.content, config.headers, config.nullPayloadHandler)
       writerManager <- HttpWriterManager.apply(sinkName, config, template, deferred, metrics)
       _             <- writerManager.start(refUpdateCallback)
@@ -18,9 +18,12 @@ package io.lenses.streamreactor.connect.http.sink
 import cats.data.NonEmptySeq
 import cats.effect.IO
 import cats.effect.Ref
+import cats.implicits.catsSyntaxParallelTraverse1
+import cats.implicits.toFoldableOps
 import com.typesafe.scalalogging.LazyLogging
 import io.lenses.streamreactor.common.utils.CyclopsToScalaOption.convertToCyclopsOption
 import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
+import io.lenses.streamreactor.connect.http.sink.OffsetMergeUtils.mergeOffsets
 import io.lenses.streamreactor.connect.http.sink.OffsetMergeUtils.updateCommitContextPostCommit
 import io.lenses.streamreactor.connect.http.sink.client.HttpRequestSender
 import io.lenses.streamreactor.connect.http.sink.client.HttpResponseFailure
@@ -46,53 +49,92 @@ class HttpWriter(
   errorReporter:    ReportingController[HttpFailureConnectorSpecificRecordData],
   successReporter:  ReportingController[HttpSuccessConnectorSpecificRecordData],
   commitContextRef: Ref[IO, HttpCommitContext],
+  maxInFlight:      Int,
 ) extends LazyLogging {
 
   // TODO: feedback to kafka a warning if the queue gets too large
 
+  // set once an error goes over the threshold; the batches dequeued after it are never sent again
+  private val failure: Ref[IO, Option[Throwable]] = Ref.unsafe[IO, Option[Throwable]](None)
+
   // adds records to the queue.  Returns immediately - processing occurs asynchronously.
   def add(newRecords: NonEmptySeq[RenderedRecord]): IO[Unit] =
     recordsQueue.enqueueAll(newRecords)
 
-  def process(): IO[Unit] = {
+  /**
+    * Takes up to `maxInFlight` batches from the queue and sends them concurrently.
+    *
+    * The responses are then applied in queue order: a batch only moves the committed offsets forward once every
+    * batch taken before it has been acknowledged, so `preCommit` never reports an offset beyond a gap.
+    *
+    * Once an error goes over the threshold the batches of the round after it are neither committed nor re-queued,
+    * and every later call fails with that error without taking further batches. The committed offsets therefore stay
+    * before the failed batch and the records are delivered again when the failed task restarts.
+    */
+  def process(): IO[Unit] =
+    failure.get.flatMap {
+      case Some(error) => IO.raiseError(error)
+      case None =>
+        takeBatches(maxInFlight, Vector.empty).attempt.flatMap {
+          case Left(error)    => handleError(error)
+          case Right(batches) => IO.whenA(batches.nonEmpty)(processBatches(batches))
+        }
+    }
+
+  private def handleError(e: Throwable): IO[Unit] =
     for {
-      batchInfo <- recordsQueue.popBatch()
-      _ <- batchInfo match {
+      uniqueError: Option[Throwable] <- addErrorToCommitContext(e)
+      _ <- if (uniqueError.nonEmpty) {
+        failure.set(Some(e)) *> IO(logger.error("Error in HttpWriter", e)) *> IO.raiseError(e)
+      } else {
+        IO(logger.error("Error in HttpWriter but not reached threshold so ignoring", e)) *> IO.unit
+      }
+    } yield ()
+
+  private def takeBatches(
+    remaining: Int,
+    taken:     Vector[NonEmptyBatchInfo],
+  ): IO[Vector[NonEmptyBatchInfo]] =
+    if (remaining <= 0) {
+      IO.pure(taken)
+    } else {
+      recordsQueue.popBatch().flatMap {
         case EmptyBatchInfo(totalQueueSize) =>
-          IO(logger.debug(s"[$sinkName] No batch yet, queue size: $totalQueueSize"))
+          IO(logger.debug(s"[$sinkName] No batch yet, queue size: $totalQueueSize")).as(taken)
         case nonEmptyBatchInfo @ NonEmptyBatchInfo(batch, _, totalQueueSize) =>
-          processBatch(nonEmptyBatchInfo, batch, totalQueueSize)
+          for {
+            _ <- IO(
+              logger.debug(s"[$sinkName] HttpWriter.process, batch of ${batch.length}, queue size: $totalQueueSize"),
+            )
+            // remove the batch from the queue before any of the operation
+            _      <- recordsQueue.dequeue(batch)
+            result <- takeBatches(remaining - 1, taken :+ nonEmptyBatchInfo)
+          } yield result
       }
-    } yield ()
-  }.handleErrorWith {
-    e =>
-      for {
-        uniqueError: Option[Throwable] <- addErrorToCommitContext(e)
-        _ <- if (uniqueError.nonEmpty) {
-          IO(logger.error("Error in HttpWriter", e)) *> IO.raiseError(e)
-        } else {
-          IO(logger.error("Error in HttpWriter but not reached threshold so ignoring", e)) *> IO.unit
-        }
-      } yield ()
-  }
+    }
 
-  private def processBatch(
-    nonEmptyBatchInfo: NonEmptyBatchInfo,
-    batch:             NonEmptySeq[RenderedRecord],
-    totalQueueSize:    Int,
-  ): IO[Unit] =
+  private def processBatches(batches: Vector[NonEmptyBatchInfo]): IO[Unit] =
     for {
-      _ <- IO(
-        logger.debug(s"[$sinkName] HttpWriter.process, batch of ${batch.length}, queue size: $totalQueueSize"),
-      )
-      // remove the batch from the queue before any of the operation
-      _                   <- recordsQueue.dequeue(batch)
-      _                   <- IO.delay(logger.trace(s"[$sinkName] modifyCommitContext for batch of ${nonEmptyBatchInfo.batch.length}"))
-      _                   <- flush(nonEmptyBatchInfo.batch)
-      updatedCommitContext = updateCommitContextPostCommit(nonEmptyBatchInfo.updatedCommitContext)
-      _                   <- IO.delay(logger.trace(s"[$sinkName] Updating sink context to: $updatedCommitContext"))
-      _                   <- commitContextRef.set(updatedCommitContext)
+      _ <- IO.delay(logger.trace(s"[$sinkName] Sending ${batches.length} batch(es) concurrently"))
+      results <- batches.parTraverse(batchInfo => flush(batchInfo.batch).attempt)
+      // acknowledge in queue order; a failure over the error threshold stops the later batches being committed
+      _ <- batches.zip(results).traverse_ {
+        case (batchInfo, Right(_)) => acknowledge(batchInfo)
+        case (_, Left(error))      => handleError(error)
+      }
+    } yield ()
 
+  private def acknowledge(nonEmptyBatchInfo: NonEmptyBatchInfo): IO[Unit] =
+    for {
+      _ <- IO.delay(logger.trace(s"[$sinkName] modifyCommitContext for batch of ${nonEmptyBatchInfo.batch.length}"))
+      updatedCommitContext <- commitContextRef.updateAndGet { current =>
+        updateCommitContextPostCommit(
+          current.copy(committedOffsets =
+            mergeOffsets(current.committedOffsets, nonEmptyBatchInfo.updatedCommitContext.committedOffsets),
+          ),
+        )
+      }
+      _ <- IO.delay(logger.trace(s"[$sinkName] Updating sink context to: $updatedCommitContext"))
       _ <- resetErrorsInCommitContext()
     } yield ()
 
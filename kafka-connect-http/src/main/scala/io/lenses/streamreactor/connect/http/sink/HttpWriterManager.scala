@@ -26,7 +26,6 @@ import com.typesafe.scalalogging.LazyLogging
 import com.typesafe.scalalogging.StrictLogging
 import io.lenses.streamreactor.common.util.EitherUtils.unpackOrThrow
 import io.lenses.streamreactor.common.utils.CyclopsToScalaOption.convertToScalaOption
-import io.lenses.streamreactor.connect.cloud.common.model.Offset
 import io.lenses.streamreactor.connect.cloud.common.model.Topic
 import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
 import io.lenses.streamreactor.connect.http.sink.client.HttpRequestSender
@@ -38,7 +37,6 @@ import io.lenses.streamreactor.connect.http.sink.metrics.HttpSinkMetricsMBean
 import io.lenses.streamreactor.connect.http.sink.metrics.MetricsResetter
 import io.lenses.streamreactor.connect.http.sink.reporter.model.HttpFailureConnectorSpecificRecordData
 import io.lenses.streamreactor.connect.http.sink.reporter.model.HttpSuccessConnectorSpecificRecordData
-import io.lenses.streamreactor.connect.http.sink.tpl.RenderedRecord
 import io.lenses.streamreactor.connect.http.sink.tpl.TemplateType
 import io.lenses.streamreactor.connect.reporting.ReportingController
 import org.apache.kafka.clients.consumer.OffsetAndMetadata
@@ -51,7 +49,6 @@ import org.http4s.jdkhttpclient.JdkHttpClient
 
 import java.net.http.HttpClient
 import java.time.Duration
-import scala.collection.immutable.Queue
 import scala.concurrent.duration.DurationInt
 import scala.concurrent.duration.FiniteDuration
 
@@ -135,6 +132,7 @@ object HttpWriterManager extends StrictLogging {
       config.successReportingController,
       config.maxQueueSize,
       config.maxQueueOfferTimeout,
+      config.maxInFlightRequests,
     )
   }
 
@@ -169,6 +167,9 @@ object HttpWriterManager extends StrictLogging {
   * @param tidyJson Whether to tidy JSON.
   * @param errorReportingController The error reporting controller.
   * @param successReportingController The success reporting controller.
+  * @param maxQueueSize The maximum number of records queued per writer.
+  * @param maxQueueOfferTimeout How long to wait for space in a writer queue.
+  * @param maxInFlightRequests The maximum number of batches each writer sends concurrently.
   * @param t An implicit `Temporal` instance.
   */
 class HttpWriterManager(
@@ -186,6 +187,7 @@ class HttpWriterManager(
   successReportingController: ReportingController[HttpSuccessConnectorSpecificRecordData],
   maxQueueSize:               Int,
   maxQueueOfferTimeout:       FiniteDuration,
+  maxInFlightRequests:        Int,
 )(
   implicit
   t: Temporal[IO],
@@ -198,26 +200,19 @@ class HttpWriterManager(
     */
   private def createNewHttpWriter(): IO[HttpWriter] =
     for {
-      recordsQueueRef  <- Ref.of[IO, Queue[RenderedRecord]](Queue.empty)
       commitContextRef <- Ref.of[IO, HttpCommitContext](HttpCommitContext.default(sinkName))
-      offsetsRef       <- Ref.of[IO, Map[TopicPartition, Offset]](Map.empty)
+      recordsQueue     <- RecordsQueue(commitContextRef, batchPolicy, maxQueueSize, maxQueueOfferTimeout)
     } yield new HttpWriter(
-      sinkName = sinkName,
-      sender   = httpRequestSender,
-      template = template,
-      recordsQueue =
-        new RecordsQueue(recordsQueueRef,
-                         commitContextRef,
-                         batchPolicy,
-                         maxQueueSize,
-                         maxQueueOfferTimeout,
-                         offsetsRef,
-        ),
+      sinkName         = sinkName,
+      sender           = httpRequestSender,
+      template         = template,
+      recordsQueue     = recordsQueue,
       errorThreshold   = errorThreshold,
       tidyJson         = tidyJson,
       errorReporter    = errorReportingController,
       successReporter  = successReportingController,
       commitContextRef = commitContextRef,
+      maxInFlight      = maxInFlightRequests,
     )
 
   /**
@@ -17,40 +17,62 @@ package io.lenses.streamreactor.connect.http.sink
 import cats.data.NonEmptySeq
 import cats.effect.IO
 import cats.effect.Ref
+import cats.effect.std.Semaphore
 import com.typesafe.scalalogging.LazyLogging
 import io.lenses.streamreactor.connect.http.sink.RecordsQueueBatcher.takeBatch
 import io.lenses.streamreactor.connect.http.sink.commit.BatchPolicy
 import io.lenses.streamreactor.connect.http.sink.commit.HttpCommitContext
 import io.lenses.streamreactor.connect.http.sink.tpl.RenderedRecord
-import cats.implicits.toFoldableOps
-import io.lenses.streamreactor.connect.cloud.common.model.Offset
-import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
 import org.apache.kafka.connect.errors.RetriableException
 
-import scala.collection.immutable.Queue
-import scala.concurrent.duration.DurationInt
 import scala.concurrent.duration.FiniteDuration
 
+object RecordsQueue {
+
+  /**
+    * Creates a `RecordsQueue` backed by a [[RecordsRingBuffer]] of `maxSize` records.
+    *
+    * @param commitContextRef A reference to the current commit context.
+    * @param batchPolicy The policy that determines when a batch of records should be committed.
+    * @param maxSize The maximum number of records the queue can hold.
+    * @param offerTimeout How long `enqueueAll` waits for space before failing.
+    * @return An `IO` action that creates the queue.
+    */
+  def apply(
+    commitContextRef: Ref[IO, HttpCommitContext],
+    batchPolicy:      BatchPolicy,
+    maxSize:          Int,
+    offerTimeout:     FiniteDuration,
+  ): IO[RecordsQueue] =
+    for {
+      freeSlots <- Semaphore[IO](maxSize.toLong)
+    } yield new RecordsQueue(new RecordsRingBuffer(maxSize), freeSlots, commitContextRef, batchPolicy, offerTimeout)
+}
+
 /**
-  * The `RecordsQueue` class manages a queue of `RenderedRecord` objects and handles the logic for
+  * The `RecordsQueue` class manages a bounded queue of `RenderedRecord` objects and handles the logic for
   * enqueuing, dequeuing, and processing batches of records based on a commit policy.
   *
-  * @param recordsQueue The mutable queue holding the `RenderedRecord` objects.
+  * Back-pressure is provided by a semaphore holding one permit per free slot: enqueuing suspends the calling fiber
+  * until the writer dequeues a batch and releases its slots, rather than polling for space.
+  *
+  * @param recordsBuffer The ring buffer holding the `RenderedRecord` objects.
+  * @param freeSlots A semaphore with one permit per free slot in the buffer.
   * @param commitContextRef A reference to the current commit context.
-  * @param commitPolicy The policy that determines when a batch of records should be committed.
+  * @param batchPolicy The policy that determines when a batch of records should be committed.
+  * @param offerTimeout How long `enqueueAll` waits for space before failing.
   */
 class RecordsQueue(
-  val recordsQueue: Ref[IO, Queue[RenderedRecord]],
+  recordsBuffer:    RecordsRingBuffer,
+  freeSlots:        Semaphore[IO],
   commitContextRef: Ref[IO, HttpCommitContext],
   batchPolicy:      BatchPolicy,
-  maxSize:          Int,
   offerTimeout:     FiniteDuration,
-  offsetMapRef:     Ref[IO, Map[TopicPartition, Offset]],
 ) extends LazyLogging {
 
   /**
     * Enqueues a sequence of `RenderedRecord` objects into the queue, with a maximum size limit.
-    * If the queue is full, it retries adding the remaining records within the specified timeout.
+    * If the queue is full, it waits for space to be released by `dequeue`, adding records as space becomes available.
     * If after the timeout records remain, it throws a RetriableException.
     * Also, it discards any records for which the offset was already queued.
     *
@@ -59,67 +81,30 @@ class RecordsQueue(
     */
   def enqueueAll(records: NonEmptySeq[RenderedRecord]): IO[Unit] = {
 
-    // Filter out records with offsets that have already been processed
-    def filterDuplicates(records: List[RenderedRecord], offsetMap: Map[TopicPartition, Offset]): List[RenderedRecord] =
-      records.filter { record =>
-        val tp = record.topicPartitionOffset.toTopicPartition
-        offsetMap.get(tp) match {
-          case Some(lastOffset) if record.topicPartitionOffset.offset.value <= lastOffset.value =>
-            // Offset already processed, discard this record
-            false
-          case _ =>
-            true
-        }
-      }
-
-    def attemptEnqueue(remainingRecords: List[RenderedRecord], startTime: Long): IO[Unit] =
+    def attemptEnqueue(remainingRecords: List[RenderedRecord]): IO[Unit] =
       if (remainingRecords.isEmpty) {
         IO.unit
       } else {
-        for {
-          currentTime <- IO.realTime.map(_.toMillis)
-          elapsedTime  = currentTime - startTime
-          _ <- if (elapsedTime >= offerTimeout.toMillis) {
-            IO.raiseError(new RetriableException("Enqueue timed out and records remain"))
-          } else {
-            for {
-              (recordsToAdd, recordsRemaining) <- recordsQueue.modify { queue =>
-                val queueSize        = queue.size
-                val spaceAvailable   = maxSize - queueSize
-                val recordsToAdd     = remainingRecords.take(spaceAvailable)
-                val recordsRemaining = remainingRecords.drop(spaceAvailable)
-                val newQueue         = queue.enqueueAll(recordsToAdd)
-                (newQueue, (recordsToAdd, recordsRemaining))
-              }
-              _ <- if (recordsToAdd.nonEmpty) {
-                // Update the offset map with the offsets of the records that were actually enqueued
-                offsetMapRef.update { offsetMap =>
-                  recordsToAdd.foldLeft(offsetMap) { (accOffsets, record) =>
-                    val tp     = record.topicPartitionOffset.toTopicPartition
-                    val offset = record.topicPartitionOffset.offset
-                    // Only update if the new offset is greater
-                    val updatedOffset: Offset = accOffsets.get(tp) match {
-                      case Some(existingOffset) if existingOffset.value >= offset.value => existingOffset
-                      case _                                                            => offset
-                    }
-                    accOffsets.updated(tp, updatedOffset)
-                  }
-                }
-              } else IO.unit
-              _ <- if (recordsRemaining.nonEmpty) {
-                IO.sleep(5.millis) *>
-                  attemptEnqueue(recordsRemaining, startTime)
-              } else IO.unit
-            } yield ()
-          }
-        } yield ()
+        IO.uncancelable { poll =>
+          for {
+            // suspends until at least one slot is free
+            _         <- poll(freeSlots.acquire)
+            available <- freeSlots.available
+            extra      = math.min(available, (remainingRecords.size - 1).toLong)
+            acquired  <- if (extra > 0) freeSlots.tryAcquireN(extra) else IO.pure(false)
+            slots      = if (acquired) extra.toInt + 1 else 1
+            (recordsToAdd, recordsRemaining) = remainingRecords.splitAt(slots)
+            _         <- IO(recordsBuffer.appendAll(recordsToAdd))
+          } yield recordsRemaining
+        }.flatMap(attemptEnqueue)
       }
 
     for {
-      offsetMap    <- offsetMapRef.get
-      uniqueRecords = filterDuplicates(records.toList, offsetMap)
-      startTime    <- IO.realTime.map(_.toMillis)
-      _            <- attemptEnqueue(uniqueRecords, startTime)
+      uniqueRecords <- IO(recordsBuffer.filterNew(records.toList))
+      _ <- attemptEnqueue(uniqueRecords).timeoutTo(
+        offerTimeout,
+        IO.raiseError(new RetriableException("Enqueue timed out and records remain")),
+      )
     } yield ()
   }
 
@@ -131,31 +116,31 @@ class RecordsQueue(
   def popBatch(): IO[BatchInfo] =
     for {
       initialContext <- commitContextRef.get
-      queueState <- recordsQueue.get.map { records =>
-        takeBatch(batchPolicy, initialContext, records)
-      }
+      queueState     <- IO(recordsBuffer.withRecords(records => takeBatch(batchPolicy, initialContext, records)))
       _ <- queueState match {
-        case EmptyBatchInfo(queueSize) => IO.delay(logger.debug(s"no records taken from ($queueSize) $recordsQueue"))
+        case EmptyBatchInfo(queueSize) => IO.delay(logger.debug(s"no records taken from ($queueSize) records queued"))
         case NonEmptyBatchInfo(batch, _, queueSize) =>
-          IO.delay(logger.debug(s"${batch.length} records taken from ($queueSize) $recordsQueue"))
+          IO.delay(logger.debug(s"${batch.length} records taken from ($queueSize) records queued"))
       }
     } yield queueState
 
   /**
-    * Dequeues a non-empty batch of `RenderedRecord` objects from the queue.
+    * Dequeues a non-empty batch of `RenderedRecord` objects from the head of the queue and releases their slots.
+    * The batch must be the one most recently returned by `popBatch`, which is always a prefix of the queue.
     *
     * @param nonEmptyBatch The batch of records to be dequeued.
     * @return An `IO` action that dequeues the records.
     */
   def dequeue(nonEmptyBatch: NonEmptySeq[RenderedRecord]): IO[Unit] =
-    recordsQueue.access.flatMap {
-      case (records, updater) =>
-        val lookup = nonEmptyBatch.toSeq.toSet
-        for {
-          newQueue <- IO(records.dropWhile(lookup.contains))
-          _        <- updater(newQueue)
-          _        <- IO.delay(logger.debug("Queue before: {}, after: {}", records, newQueue))
-        } yield ()
-    }
+    for {
+      removed <- IO(recordsBuffer.dropFirst(nonEmptyBatch.length))
+      _       <- IO.whenA(removed > 0)(freeSlots.releaseN(removed.toLong))
+      _       <- IO.delay(logger.debug(s"Dequeued $removed records, ${recordsBuffer.size} remain"))
+    } yield ()
+
+  /**
+    * @return the records currently queued, oldest first.
+    */
+  def queuedRecords: IO[List[RenderedRecord]] = IO(recordsBuffer.toList)
 
 }
@@ -15,64 +15,62 @@
  */
 package io.lenses.streamreactor.connect.http.sink
 
-import cats.data.NonEmptySeq
 import com.typesafe.scalalogging.LazyLogging
-import io.lenses.streamreactor.connect.http.sink.OffsetMergeUtils.createCommitContextForEvaluation
 import io.lenses.streamreactor.connect.http.sink.commit.BatchPolicy
 import io.lenses.streamreactor.connect.http.sink.commit.HttpCommitContext
 import io.lenses.streamreactor.connect.http.sink.tpl.RenderedRecord
 
-import scala.collection.immutable.Queue
-import scala.collection.mutable
-
 object RecordsQueueBatcher extends LazyLogging {
 
   /**
     * Iterates through the queue until the records trigger a commit based on the commit policy.
-    * Uses `foldM` to fold over the queue and stop at the first record that triggers a commit.
-    * If the commit policy is met, it returns a `Left` with the batch of records and the updated commit context.
-    * If the commit policy is not met, it returns a `Right` with the batch of records and the updated commit context.
+    * Each record is evaluated against a commit context derived incrementally by a [[BatchBuilder]], so the cost of
+    * taking a batch is linear in the number of records examined.
+    * The batch is always a contiguous prefix of the queue: evaluation stops at the first record which does not fit, so
+    * the batch can be dequeued by count and no record is sent ahead of an earlier one.
+    * If the commit policy is met, it returns a `NonEmptyBatchInfo` with the batch of records and the updated commit context.
+    * If the commit policy is not met, it returns an `EmptyBatchInfo`.
     *
-    * @param commitPolicy The commit policy.
+    * @param batchPolicy The batch policy.
     * @param initialContext The initial commit context.
     * @param records The queue of records to be processed.
-    * @return Either a tuple of the batch of records and the updated commit context, or the same tuple if the commit policy is not met.
+    * @return The batch of records and the updated commit context, or an empty batch if the commit policy is not met.
     */
   def takeBatch(
     batchPolicy:    BatchPolicy,
     initialContext: HttpCommitContext,
-    records:        Queue[RenderedRecord],
+    records:        Iterable[RenderedRecord],
   ): BatchInfo = {
 
-    val batch          = mutable.Buffer[RenderedRecord]()
-    var currentContext = initialContext
+    val queueSize = records.size
+    val builder   = new BatchBuilder(initialContext)
 
     var greedyTriggerReached = false
     var triggerReached       = false
-    records.takeWhile {
-      record =>
-        val updatedRecords = batch.toSeq :+ record
-        val updatedContext = createCommitContextForEvaluation(updatedRecords, currentContext)
-        val addToBatch     = batchPolicy.shouldBatch(updatedContext)
-        triggerReached       = addToBatch.triggerReached
-        greedyTriggerReached = addToBatch.greedyTriggerReached
-        logger.debug(
-          s"Trigger Reached: $triggerReached, Greedy trigger Reached: $greedyTriggerReached, Fits in batch: ${addToBatch.fitsInBatch}",
-        )
+    var fitsInBatch          = true
+    val iterator             = records.iterator
+    while (!triggerReached && fitsInBatch && iterator.hasNext) {
+      val record         = iterator.next()
+      val updatedContext = builder.contextWith(record)
+      val addToBatch     = batchPolicy.shouldBatch(updatedContext)
+      triggerReached       = addToBatch.triggerReached
+      greedyTriggerReached = addToBatch.greedyTriggerReached
+      logger.debug(
+        s"Trigger Reached: $triggerReached, Greedy trigger Reached: $greedyTriggerReached, Fits in batch: ${addToBatch.fitsInBatch}",
+      )
 
-        if (addToBatch.fitsInBatch) {
-          batch.addOne(record)
-          currentContext = updatedContext
-        }
-        !triggerReached || (!triggerReached && greedyTriggerReached)
+      fitsInBatch = addToBatch.fitsInBatch
+      if (fitsInBatch) {
+        builder.add(record, updatedContext)
+      }
     }
 
-    if (triggerReached || (!triggerReached && greedyTriggerReached)) {
-      NonEmptySeq.fromSeq(batch.toSeq)
-        .map(value => NonEmptyBatchInfo(value, currentContext, records.size))
-        .getOrElse(EmptyBatchInfo(records.size))
+    if (triggerReached || greedyTriggerReached) {
+      builder.result
+        .map(value => NonEmptyBatchInfo(value, builder.currentContext, queueSize))
+        .getOrElse(EmptyBatchInfo(queueSize))
     } else {
-      EmptyBatchInfo(records.size)
+      EmptyBatchInfo(queueSize)
     }
   }
 
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.http.sink
+
+import io.lenses.streamreactor.connect.cloud.common.model.Offset
+import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
+import io.lenses.streamreactor.connect.http.sink.tpl.RenderedRecord
+
+import scala.collection.mutable
+
+/**
+  * A fixed-capacity FIFO ring buffer of `RenderedRecord` objects.
+  *
+  * Appending and removing records by count are O(records moved), and the highest offset appended per partition is
+  * tracked inline as records are appended so that duplicates can be discarded without a separate pass.
+  *
+  * The buffer never blocks: callers are expected to reserve capacity before appending (see [[RecordsQueue]]).
+  * All operations are synchronized, so the buffer can be shared between the task thread and the writer fiber.
+  *
+  * @param capacity the maximum number of records the buffer can hold.
+  */
+class RecordsRingBuffer(capacity: Int) {
+
+  require(capacity > 0, "capacity must be greater than zero")
+
+  private val elements   = new Array[RenderedRecord](capacity)
+  private val maxOffsets = mutable.Map.empty[TopicPartition, Offset]
+  private var head       = 0
+  private var count      = 0
+
+  def size: Int = synchronized(count)
+
+  /**
+    * Discards the records whose offset is not greater than the highest offset already appended for their partition.
+    *
+    * @param records the candidate records.
+    * @return the records which have not been seen before, in their original order.
+    */
+  def filterNew(records: List[RenderedRecord]): List[RenderedRecord] = synchronized {
+    records.filter { record =>
+      maxOffsets.get(record.topicPartitionOffset.toTopicPartition) match {
+        case Some(lastOffset) => record.topicPartitionOffset.offset.value > lastOffset.value
+        case None             => true
+      }
+    }
+  }
+
+  /**
+    * Appends the records to the tail of the buffer, updating the highest offset per partition as it goes.
+    *
+    * @param records the records to append; the caller must have reserved space for all of them.
+    */
+  def appendAll(records: Seq[RenderedRecord]): Unit = synchronized {
+    require(count + records.size <= capacity, s"Cannot append ${records.size} records, only ${capacity - count} free")
+    records.foreach { record =>
+      elements((head + count) % capacity) = record
+      count += 1
+      val tp     = record.topicPartitionOffset.toTopicPartition
+      val offset = record.topicPartitionOffset.offset
+      maxOffsets.get(tp) match {
+        case Some(existingOffset) if existingOffset.value >= offset.value => ()
+        case _                                                            => maxOffsets.update(tp, offset)
+      }
+    }
+  }
+
+  /**
+    * Applies the function to a view of the buffered records, oldest first, while holding the buffer lock.
+    * The view must not escape the function.
+    *
+    * @param f the function to apply to the records.
+    * @return the result of the function.
+    */
+  def withRecords[A](f: Iterable[RenderedRecord] => A): A = synchronized {
+    val snapshotHead  = head
+    val snapshotCount = count
+    f(new Iterable[RenderedRecord] {
+      override def iterator: Iterator[RenderedRecord] =
+        Iterator.range(0, snapshotCount).map(i => elements((snapshotHead + i) % capacity))
+      override def knownSize: Int = snapshotCount
+    })
+  }
+
+  /**
+    * Removes up to `n` records from the head of the buffer.
+    *
+    * @param n the number of records to remove.
+    * @return the number of records actually removed.
+    */
+  def dropFirst(n: Int): Int = synchronized {
+    val removed = math.min(n, count)
+    (0 until removed).foreach(i => elements((head + i) % capacity) = null)
+    head   = (head + removed) % capacity
+    count -= removed
+    removed
+  }
+
+  def toList: List[RenderedRecord] = withRecords(_.toList)
+
+}
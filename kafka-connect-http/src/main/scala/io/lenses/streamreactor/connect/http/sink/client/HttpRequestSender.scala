@@ -168,7 +168,8 @@ abstract class HttpRequestSender(
       authenticatedRequest <- updateRequest(requestWithContentType)
       _                    <- IO.delay(logger.debug(s"[$sinkName] Auth: $authenticatedRequest"))
       startTime            <- IO(System.nanoTime())
-      response             <- executeRequestAndHandleErrors(authenticatedRequest)
+      response <- IO(metrics.requestStarted())
+        .bracket(_ => executeRequestAndHandleErrors(authenticatedRequest))(_ => IO(metrics.requestCompleted()))
       durationMillis       <- IO((System.nanoTime() - startTime) / 1000000)
       _                    <- IO(metrics.recordRequestTime(durationMillis))
       _                    <- IO.delay(logger.trace(s"[$sinkName] Response: $response"))
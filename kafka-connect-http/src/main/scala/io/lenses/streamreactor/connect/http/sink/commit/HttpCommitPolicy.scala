@@ -35,14 +35,16 @@ case class BatchPolicy(logger: Logger, conditions: BatchPolicyCondition*) {
 
   def shouldBatch(context: CommitContext): BatchResult = {
 
-    val res                  = conditions.map(_.eval(context, debugEnabled = true))
+    val debugEnabled         = logger.underlying.isDebugEnabled
+    val res                  = conditions.map(_.eval(context, debugEnabled))
     val triggerReached       = res.exists(_.batchResult.triggerReached)
     val fitsInBatch          = res.map(_.batchResult.fitsInBatch).distinct.headOption.contains(true)
     val greedyTriggerReached = res.exists(_.batchResult.greedyTriggerReached)
 
-    //if (triggerReached) {
-    logger.info(generateLogLine(triggerReached, res))
-    //}
+    // evaluated once per queued record, so only rendered when debugging
+    if (debugEnabled) {
+      logger.debug(generateLogLine(triggerReached, res))
+    }
 
     BatchResult(fitsInBatch, triggerReached, greedyTriggerReached)
 
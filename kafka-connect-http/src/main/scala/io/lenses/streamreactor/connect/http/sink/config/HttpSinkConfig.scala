@@ -104,6 +104,7 @@ case class HttpSinkConfig(
   successReportingController: ReportingController[HttpSuccessConnectorSpecificRecordData],
   maxQueueSize:               Int,
   maxQueueOfferTimeout:       FiniteDuration,
+  maxInFlightRequests:        Int,
 )
 
 object HttpSinkConfig {
@@ -168,6 +169,7 @@ object HttpSinkConfig {
         connectConfig.getLong(HttpSinkConfigDef.MaxQueueOfferTimeoutProp),
         scala.concurrent.duration.MILLISECONDS,
       )
+      maxInFlightRequests = connectConfig.getInt(HttpSinkConfigDef.MaxInFlightRequestsProp)
     } yield HttpSinkConfig(
       method,
       endpoint,
@@ -186,6 +188,7 @@ object HttpSinkConfig {
       successReportingController,
       maxQueueSize,
       maxQueueOfferTimeout,
+      maxInFlightRequests,
     )
   }
 
@@ -172,6 +172,13 @@ object HttpSinkConfigDef {
       |""".stripMargin
   val MaxQueueOfferTimeoutDefault = 120000
 
+  val MaxInFlightRequestsProp: String = "connect.http.max.inflight.requests"
+  val MaxInFlightRequestsDoc: String =
+    """
+      |The maximum number of batches sent concurrently per topic. Offsets are only committed once every earlier batch of the topic has been acknowledged. Defaults to 1, sending one batch at a time. When a batch fails beyond the error threshold, the batches sent with it are not committed or retried: the topic stops sending and the task fails, so they are delivered again from the last committed offset.
+      |""".stripMargin
+  val MaxInFlightRequestsDefault = 1
+
   val config: ConfigDef = {
     val configDef = new ConfigDef()
       .withClientSslSupport()
@@ -320,6 +327,14 @@ object HttpSinkConfigDef {
         Importance.HIGH,
         MaxQueueOfferTimeoutDoc,
       )
+      .define(
+        MaxInFlightRequestsProp,
+        Type.INT,
+        MaxInFlightRequestsDefault,
+        ConfigDef.Range.atLeast(1),
+        Importance.MEDIUM,
+        MaxInFlightRequestsDoc,
+      )
     ReporterConfig.withErrorRecordReportingSupport(configDef)
     ReporterConfig.withSuccessRecordReportingSupport(configDef)
     OAuth2Config.append(configDef)
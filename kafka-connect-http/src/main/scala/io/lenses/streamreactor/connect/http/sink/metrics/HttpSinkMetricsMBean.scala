@@ -48,6 +48,34 @@ trait HttpSinkMetricsMBean {
   def getP50RequestTimeMs:         Long
   def getP95RequestTimeMs:         Long
   def getP99RequestTimeMs:         Long
+
+  /**
+    * Mark an HTTP request as started, it stays in flight until [[requestCompleted]] is called
+    */
+  def requestStarted(): Unit
+
+  /**
+    * Mark an in flight HTTP request as completed, successfully or not
+    */
+  def requestCompleted(): Unit
+
+  /**
+    * The number of HTTP requests currently in flight across all the writers of the task
+    */
+  def getInFlightRequests: Long
+
+  /**
+    * The highest number of HTTP requests in flight at the same time since the last reset of the request time histogram
+    */
+  def getMaxInFlightRequests: Long
+}
+
+object HttpSinkMetrics {
+
+  /**
+    * Domain of the MBean, registered as `type=metrics,name=<sink name>`
+    */
+  val Domain = "io.lenses.streamreactor.connect.http.sink"
 }
 
 class HttpSinkMetrics extends HttpSinkMetricsMBean {
@@ -56,6 +84,9 @@ class HttpSinkMetrics extends HttpSinkMetricsMBean {
   private val error5xxCount    = new LongAdder()
   private val otherErrorsCount = new LongAdder()
 
+  private val inFlightRequests    = new AtomicLong(0L)
+  private val maxInFlightRequests = new AtomicLong(0L)
+
   private val p50RequestTimeMs = new AtomicLong(0L)
   private val p95RequestTimeMs = new AtomicLong(0L)
   private val p99RequestTimeMs = new AtomicLong(0L)
@@ -77,6 +108,18 @@ class HttpSinkMetrics extends HttpSinkMetricsMBean {
   def resetRequestTime(): Unit = {
     updatePercentiles()
     recorder.reset()
+    maxInFlightRequests.set(inFlightRequests.get())
+  }
+
+  def requestStarted(): Unit = {
+    val inFlight = inFlightRequests.incrementAndGet()
+    maxInFlightRequests.accumulateAndGet(inFlight, (current, candidate) => math.max(current, candidate))
+    ()
+  }
+
+  def requestCompleted(): Unit = {
+    inFlightRequests.decrementAndGet()
+    ()
   }
 
   def updatePercentiles(): Unit = {
@@ -97,4 +140,7 @@ class HttpSinkMetrics extends HttpSinkMetricsMBean {
     p95RequestTimeMs.get()
   override def getP99RequestTimeMs: Long =
     p99RequestTimeMs.get()
+
+  override def getInFlightRequests:    Long = inFlightRequests.get()
+  override def getMaxInFlightRequests: Long = maxInFlightRequests.get()
 }
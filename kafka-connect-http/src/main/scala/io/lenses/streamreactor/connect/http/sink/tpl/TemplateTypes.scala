@@ -17,11 +17,11 @@ package io.lenses.streamreactor.connect.http.sink.tpl
 
 import cats.data.NonEmptySeq
 import cats.implicits.catsSyntaxEitherId
-import cats.implicits.toTraverseOps
 import com.typesafe.scalalogging.LazyLogging
 import io.lenses.streamreactor.connect.http.sink.config.NullPayloadHandler
 import io.lenses.streamreactor.connect.http.sink.tpl.JsonTidy.cleanUp
 import io.lenses.streamreactor.connect.http.sink.tpl.renderer.RecordRenderer
+import io.lenses.streamreactor.connect.http.sink.tpl.renderer.RecordTemplate
 import io.lenses.streamreactor.connect.http.sink.tpl.substitutions.SubstitutionError
 import org.apache.kafka.connect.sink.SinkRecord
 
@@ -62,8 +62,10 @@ case class SimpleTemplate(
 ) extends TemplateType
     with LazyLogging {
 
+  private val recordTemplate = RecordTemplate(endpoint, content, headers)
+
   override def renderRecords(records: NonEmptySeq[SinkRecord]): Either[SubstitutionError, NonEmptySeq[RenderedRecord]] =
-    RecordRenderer.renderRecords(records, endpoint, content, headers, nullPayloadHandler)
+    RecordRenderer.renderRecords(records, recordTemplate, nullPayloadHandler)
 
   override def process(
     records:  NonEmptySeq[RenderedRecord],
@@ -88,17 +90,10 @@ case class TemplateWithInnerLoop(
 ) extends TemplateType
     with LazyLogging {
 
+  private val recordTemplate = RecordTemplate(endpoint, innerTemplate, headers)
+
   override def renderRecords(records: NonEmptySeq[SinkRecord]): Either[SubstitutionError, NonEmptySeq[RenderedRecord]] =
-    records.map {
-      record =>
-        RecordRenderer.renderRecord(
-          record,
-          endpoint,
-          innerTemplate,
-          headers,
-          nullPayloadHandler,
-        )
-    }.sequence
+    RecordRenderer.renderRecords(records, recordTemplate, nullPayloadHandler)
 
   override def process(
     records:  NonEmptySeq[RenderedRecord],
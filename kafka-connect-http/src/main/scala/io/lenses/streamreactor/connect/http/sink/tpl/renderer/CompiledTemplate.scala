@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.http.sink.tpl.renderer
+
+import enumeratum.Enum
+import io.lenses.streamreactor.connect.http.sink.config.NullPayloadHandler
+import io.lenses.streamreactor.connect.http.sink.tpl.substitutions.SubstitutionError
+import io.lenses.streamreactor.connect.http.sink.tpl.substitutions.SubstitutionType
+import org.apache.kafka.connect.sink.SinkRecord
+
+import scala.util.matching.Regex
+
+/**
+  * A template parsed once into literal text and pre-resolved substitutions.
+  *
+  * Rendering a record walks the segments and appends them into a reusable per-thread `StringBuilder`, instead of
+  * running the tag regex over the template text, splitting the tag and looking up the `SubstitutionType` for every
+  * record as [[TemplateRenderer]] does. The output is identical.
+  */
+sealed trait CompiledTemplate {
+  def render(data: SinkRecord, nullPayloadHandler: NullPayloadHandler): Either[SubstitutionError, String]
+}
+
+object CompiledTemplate {
+
+  private val templatePattern: Regex = "\\{\\{([^{}]*)}}".r
+
+  private val builders: ThreadLocal[java.lang.StringBuilder] =
+    ThreadLocal.withInitial(() => new java.lang.StringBuilder(256))
+
+  sealed private trait Segment
+  private case class Literal(text: String) extends Segment
+  private case class Substitution(accessor: SinkRecord => Either[SubstitutionError, AnyRef]) extends Segment
+  // errors are raised when rendering, not compiling, to match the behaviour of TemplateRenderer
+  private case class Invalid(error: () => SubstitutionError) extends Segment
+
+  /**
+    * Compiles the template text.
+    *
+    * @param tplText the template text with placeholders to be replaced
+    * @param substitutionType the substitution types which may be referenced from the template
+    * @return the compiled template
+    */
+  def apply[X <: SubstitutionType](tplText: String, substitutionType: Enum[X]): CompiledTemplate = {
+    val (tagSegments, end) = templatePattern.findAllMatchIn(tplText).foldLeft((Vector.empty[Segment], 0)) {
+      case ((acc, position), matchTag) =>
+        val literal = Option.when(matchTag.start > position)(Literal(tplText.substring(position, matchTag.start)))
+        val tag     = compileTag(Option(matchTag.group(1)).getOrElse("").trim, substitutionType)
+        (acc ++ literal ++ tag, matchTag.end)
+    }
+    val segments = tagSegments ++ Option.when(end < tplText.length)(Literal(tplText.substring(end)))
+
+    segments.toList match {
+      case Nil                  => LiteralTemplate("")
+      case Literal(text) :: Nil => LiteralTemplate(text)
+      case _                    => SegmentedTemplate(segments.toArray)
+    }
+  }
+
+  def apply(tplText: String): CompiledTemplate = apply(tplText, SubstitutionType)
+
+  private def compileTag[X <: SubstitutionType](tag: String, substitutionType: Enum[X]): Option[Segment] =
+    if (tag.isEmpty) {
+      Some(Invalid(() => SubstitutionError("No tag specified")))
+    } else {
+      val locs    = tag.split("\\.", 2)
+      val key     = locs.headOption.map(_.toLowerCase).getOrElse("")
+      val locator = locs.lift(1)
+
+      key match {
+        case "#message" | "/message" => None
+        case k =>
+          Some(
+            substitutionType.withNameInsensitiveOption(k)
+              .fold[Segment](Invalid(() => SubstitutionError(s"Couldn't find `$k` SubstitutionType")))(sType =>
+                Substitution(sType.accessor(locator)),
+              ),
+          )
+      }
+    }
+
+  private case class LiteralTemplate(text: String) extends CompiledTemplate {
+    override def render(data: SinkRecord, nullPayloadHandler: NullPayloadHandler): Either[SubstitutionError, String] =
+      Right(text)
+  }
+
+  private case class SegmentedTemplate(segments: Array[Segment]) extends CompiledTemplate {
+    override def render(data: SinkRecord, nullPayloadHandler: NullPayloadHandler): Either[SubstitutionError, String] = {
+      val builder = builders.get()
+      builder.setLength(0)
+      var error: SubstitutionError = null
+      var i = 0
+      while (error == null && i < segments.length) {
+        segments(i) match {
+          case Literal(text) => builder.append(text)
+          case Substitution(accessor) =>
+            accessor(data).flatMap(Option(_).fold(nullPayloadHandler.handleNullValue)(v => Right(v.toString))) match {
+              case Right(value) => builder.append(value)
+              case Left(err)    => error = err
+            }
+          case Invalid(err) => error = err()
+        }
+        i += 1
+      }
+      if (error == null) Right(builder.toString) else Left(error)
+    }
+  }
+}
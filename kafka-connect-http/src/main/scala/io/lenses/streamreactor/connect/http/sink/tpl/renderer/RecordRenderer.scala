@@ -23,54 +23,65 @@ import io.lenses.streamreactor.connect.cloud.common.model.TopicPartitionOffset
 import io.lenses.streamreactor.connect.http.sink.config.NullPayloadHandler
 import io.lenses.streamreactor.connect.http.sink.tpl.substitutions.SubstitutionError
 import io.lenses.streamreactor.connect.http.sink.tpl.RenderedRecord
-import io.lenses.streamreactor.connect.http.sink.tpl.substitutions.SubstitutionType
 import org.apache.kafka.connect.sink.SinkRecord
 
-object RecordRenderer {
+/**
+  * The compiled endpoint, content and header templates used to render each record.
+  */
+case class RecordTemplate(
+  endpoint: CompiledTemplate,
+  content:  CompiledTemplate,
+  headers:  Seq[(CompiledTemplate, CompiledTemplate)],
+)
+
+object RecordTemplate {
+  def apply(endpointTpl: String, contentTpl: String, headers: Seq[(String, String)]): RecordTemplate =
+    RecordTemplate(
+      CompiledTemplate(endpointTpl),
+      CompiledTemplate(contentTpl),
+      headers.map { case (hKey, hVal) => CompiledTemplate(hKey) -> CompiledTemplate(hVal) },
+    )
+}
 
-  private val templateRenderer = new TemplateRenderer[SubstitutionType](SubstitutionType)
+object RecordRenderer {
 
   def renderRecords(
     data:               NonEmptySeq[SinkRecord],
-    endpointTpl:        String,
-    contentTpl:         String,
-    headers:            Seq[(String, String)],
+    recordTemplate:     RecordTemplate,
     nullPayloadHandler: NullPayloadHandler,
   ): Either[SubstitutionError, NonEmptySeq[RenderedRecord]] =
-    data.map(renderRecord(_, endpointTpl, contentTpl, headers, nullPayloadHandler)).sequence
+    data.map(renderRecord(_, recordTemplate, nullPayloadHandler)).sequence
   def renderRecord(
     sinkRecord:         SinkRecord,
-    endpointTpl:        String,
-    contentTpl:         String,
-    headers:            Seq[(String, String)],
+    recordTemplate:     RecordTemplate,
     nullPayloadHandler: NullPayloadHandler,
   ): Either[SubstitutionError, RenderedRecord] = {
     val topicPartitionOffset: TopicPartitionOffset =
       Topic(sinkRecord.topic()).withPartition(sinkRecord.kafkaPartition()).withOffset(Offset(sinkRecord.kafkaOffset()))
 
     for {
-      recordRend:   String <- templateRenderer.render(sinkRecord, contentTpl, nullPayloadHandler)
-      headersRend:  Seq[(String, String)] <- renderHeaders(sinkRecord, headers, nullPayloadHandler)
-      endpointRend: String <- templateRenderer.render(sinkRecord, endpointTpl, nullPayloadHandler)
+      recordRend:   String <- recordTemplate.content.render(sinkRecord, nullPayloadHandler)
+      headersRend:  Seq[(String, String)] <- renderHeaders(sinkRecord, recordTemplate.headers, nullPayloadHandler)
+      endpointRend: String <- recordTemplate.endpoint.render(sinkRecord, nullPayloadHandler)
     } yield RenderedRecord(topicPartitionOffset, sinkRecord.timestamp(), recordRend, headersRend, endpointRend)
   }
 
   private def renderHeader(
     sinkRecord:         SinkRecord,
-    header:             (String, String),
+    header:             (CompiledTemplate, CompiledTemplate),
     nullPayloadHandler: NullPayloadHandler,
   ): Either[SubstitutionError, (String, String)] =
     header match {
       case (hKey, hVal) =>
         for {
-          k <- templateRenderer.render(sinkRecord, hKey, nullPayloadHandler)
-          v <- templateRenderer.render(sinkRecord, hVal, nullPayloadHandler)
+          k <- hKey.render(sinkRecord, nullPayloadHandler)
+          v <- hVal.render(sinkRecord, nullPayloadHandler)
         } yield k -> v
     }
 
   private def renderHeaders(
     sinkRecord:         SinkRecord,
-    headers:            Seq[(String, String)],
+    headers:            Seq[(CompiledTemplate, CompiledTemplate)],
     nullPayloadHandler: NullPayloadHandler,
   ): Either[SubstitutionError, Seq[(String, String)]] =
     headers.map(h => renderHeader(sinkRecord, h, nullPayloadHandler)).sequence
@@ -17,6 +17,7 @@ package io.lenses.streamreactor.connect.http.sink.tpl.substitutions
 
 import cats.implicits.toBifunctorOps
 import io.lenses.streamreactor.connect.cloud.common.sink.extractors.KafkaConnectExtractor
+import io.lenses.streamreactor.connect.cloud.common.sink.extractors.KafkaConnectExtractor.toPartitionNamePath
 import org.apache.kafka.connect.sink.SinkRecord
 
 case object Key extends SubstitutionType {
@@ -26,4 +27,11 @@ case object Key extends SubstitutionType {
       SubstitutionError(s"unable to extract field $locator for template, ", e),
     )
 
+  override def accessor(locator: Option[String]): SinkRecord => Either[SubstitutionError, AnyRef] = {
+    val maybePnp = locator.map(toPartitionNamePath)
+    sinkRecord =>
+      KafkaConnectExtractor.extractPathFromKey(sinkRecord, maybePnp).leftMap(e =>
+        SubstitutionError(s"unable to extract field $locator for template, ", e),
+      )
+  }
 }
@@ -22,6 +22,13 @@ import org.apache.kafka.connect.sink.SinkRecord
 
 trait SubstitutionType extends EnumEntry {
   def get(locator: Option[String], sinkRecord: SinkRecord): Either[SubstitutionError, AnyRef]
+
+  /**
+    * Resolves the locator once and returns a function which extracts the value from each record.
+    * Substitution types which parse their locator should override this to do so up front.
+    */
+  def accessor(locator: Option[String]): SinkRecord => Either[SubstitutionError, AnyRef] =
+    sinkRecord => get(locator, sinkRecord)
 }
 
 case object SubstitutionType extends Enum[SubstitutionType] with CirceEnum[SubstitutionType] {
@@ -17,6 +17,7 @@ package io.lenses.streamreactor.connect.http.sink.tpl.substitutions
 
 import cats.implicits.toBifunctorOps
 import io.lenses.streamreactor.connect.cloud.common.sink.extractors.KafkaConnectExtractor
+import io.lenses.streamreactor.connect.cloud.common.sink.extractors.KafkaConnectExtractor.toPartitionNamePath
 import org.apache.kafka.connect.sink.SinkRecord
 
 case object Value extends SubstitutionType {
@@ -24,4 +25,12 @@ case object Value extends SubstitutionType {
     KafkaConnectExtractor.extractFromValue(sinkRecord, locator).leftMap(e =>
       SubstitutionError(s"unable to extract field $locator for template, ", e),
     )
+
+  override def accessor(locator: Option[String]): SinkRecord => Either[SubstitutionError, AnyRef] = {
+    val maybePnp = locator.map(toPartitionNamePath)
+    sinkRecord =>
+      KafkaConnectExtractor.extractPathFromValue(sinkRecord, maybePnp).leftMap(e =>
+        SubstitutionError(s"unable to extract field $locator for template, ", e),
+      )
+  }
 }
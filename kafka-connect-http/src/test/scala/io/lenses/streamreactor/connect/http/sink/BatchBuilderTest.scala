@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.http.sink
+
+import io.lenses.streamreactor.connect.cloud.common.model.Offset
+import io.lenses.streamreactor.connect.cloud.common.model.Topic
+import io.lenses.streamreactor.connect.http.sink.commit.HttpCommitContext
+import io.lenses.streamreactor.connect.http.sink.tpl.RenderedRecord
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers._
+
+class BatchBuilderTest extends AnyFunSuite {
+
+  private val TIMESTAMP    = 125L
+  private val testEndpoint = "https://mytestendpoint.example.com"
+
+  private def record(topic: String, offset: Long, value: String): RenderedRecord =
+    RenderedRecord(Topic(topic).withPartition(0).withOffset(Offset(offset)), TIMESTAMP, value, Seq.empty, testEndpoint)
+
+  test("contextWith should produce the same context as evaluating the whole batch") {
+    val batch = Seq(
+      record("topic1", 100, "record1"),
+      record("topic2", 50, "record2"),
+      record("topic1", 99, "record3"),
+    )
+    val initialContext = HttpCommitContext.default("My Sink").copy(
+      committedOffsets = Map(Topic("topic1").withPartition(0) -> Offset(50)),
+      count            = 7L,
+      fileSize         = 70L,
+    )
+
+    val builder = new BatchBuilder(initialContext)
+    batch.foreach(r => builder.add(r, builder.contextWith(r)))
+
+    builder.currentContext shouldBe OffsetMergeUtils.createCommitContextForEvaluation(batch, initialContext)
+    builder.result.map(_.toSeq) shouldBe Some(batch)
+  }
+
+  test("contextWith should not modify the batch") {
+    val builder = new BatchBuilder(HttpCommitContext.default("My Sink"))
+
+    val context = builder.contextWith(record("topic1", 100, "record1"))
+
+    context.count shouldBe 1L
+    context.fileSize shouldBe 7L
+    builder.currentContext.count shouldBe 0L
+    builder.result shouldBe None
+  }
+
+  test("running totals should be tracked for large batches") {
+    val builder = new BatchBuilder(HttpCommitContext.default("My Sink"))
+
+    (0 until 50_000).foreach { i =>
+      val r = record("topic1", i.toLong, "r")
+      builder.add(r, builder.contextWith(r))
+    }
+
+    builder.currentContext.count shouldBe 50_000L
+    builder.currentContext.fileSize shouldBe 50_000L
+    builder.currentContext.committedOffsets shouldBe Map(Topic("topic1").withPartition(0) -> Offset(49_999))
+  }
+}
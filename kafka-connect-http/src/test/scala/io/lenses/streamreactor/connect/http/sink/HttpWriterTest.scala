@@ -22,6 +22,7 @@ import cats.effect.testing.scalatest.AsyncIOSpec
 import cats.implicits.catsSyntaxEitherId
 import cats.implicits.catsSyntaxOptionId
 import cats.implicits.none
+import io.lenses.streamreactor.connect.cloud.common.model.Offset
 import io.lenses.streamreactor.connect.cloud.common.model.Topic
 import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
 import io.lenses.streamreactor.connect.http.sink.client.HttpRequestSender
@@ -72,6 +73,7 @@ class HttpWriterTest extends AsyncIOSpec with AsyncFunSuiteLike with Matchers wi
                                     mock[ReportingController[HttpFailureConnectorSpecificRecordData]],
                                     mock[ReportingController[HttpSuccessConnectorSpecificRecordData]],
                                     commitContextRef,
+                                    1,
         )
 
         _ <- httpWriter.add(recordsToAdd)
@@ -112,6 +114,7 @@ class HttpWriterTest extends AsyncIOSpec with AsyncFunSuiteLike with Matchers wi
                                     mock[ReportingController[HttpFailureConnectorSpecificRecordData]],
                                     mock[ReportingController[HttpSuccessConnectorSpecificRecordData]],
                                     commitContextRef,
+                                    1,
         )
 
         _              <- httpWriter.process()
@@ -148,6 +151,7 @@ class HttpWriterTest extends AsyncIOSpec with AsyncFunSuiteLike with Matchers wi
                                     mock[ReportingController[HttpFailureConnectorSpecificRecordData]],
                                     mock[ReportingController[HttpSuccessConnectorSpecificRecordData]],
                                     commitContextRef,
+                                    1,
         )
 
         _              <- httpWriter.process()
@@ -161,6 +165,133 @@ class HttpWriterTest extends AsyncIOSpec with AsyncFunSuiteLike with Matchers wi
     }
   }
 
+  test("process method should send up to the in-flight limit of batches and commit the highest offset") {
+    val sender   = mock[HttpRequestSender]
+    val template = mock[TemplateType]
+    val queue    = mockQueueOfTwoBatches(template)
+
+    when(sender.sendHttpRequest(any[ProcessedTemplate])).thenReturn(IO(HttpResponseSuccess(200, "OK".some).asRight))
+
+    {
+      for {
+        commitContextRef <- Ref.of[IO, HttpCommitContext](defaultContext)
+        httpWriter = new HttpWriter(sinkName,
+                                    sender,
+                                    template,
+                                    queue,
+                                    0,
+                                    false,
+                                    mock[ReportingController[HttpFailureConnectorSpecificRecordData]],
+                                    mock[ReportingController[HttpSuccessConnectorSpecificRecordData]],
+                                    commitContextRef,
+                                    2,
+        )
+        _              <- httpWriter.process()
+        updatedContext <- commitContextRef.get
+      } yield updatedContext
+    }.asserting {
+      updatedContext =>
+        verify(sender, times(2)).sendHttpRequest(any[ProcessedTemplate])
+        verify(queue, times(2)).popBatch()
+        updatedContext.committedOffsets shouldBe Map(topicPartition -> Offset(103))
+    }
+  }
+
+  test("process method should not commit offsets past a failed batch") {
+    val sender   = mock[HttpRequestSender]
+    val template = mock[TemplateType]
+    val queue    = mockQueueOfTwoBatches(template)
+
+    when(sender.sendHttpRequest(eqTo(ProcessedTemplate("a", "batch1", Seq.empty)))).thenReturn(
+      IO(HttpResponseFailure("fail", none, 500.some, none).asLeft),
+    )
+    when(sender.sendHttpRequest(eqTo(ProcessedTemplate("a", "batch2", Seq.empty)))).thenReturn(
+      IO(HttpResponseSuccess(200, "OK".some).asRight),
+    )
+
+    {
+      for {
+        commitContextRef <- Ref.of[IO, HttpCommitContext](defaultContext)
+        httpWriter = new HttpWriter(sinkName,
+                                    sender,
+                                    template,
+                                    queue,
+                                    0,
+                                    false,
+                                    mock[ReportingController[HttpFailureConnectorSpecificRecordData]],
+                                    mock[ReportingController[HttpSuccessConnectorSpecificRecordData]],
+                                    commitContextRef,
+                                    2,
+        )
+        result         <- httpWriter.process().attempt
+        updatedContext <- commitContextRef.get
+      } yield (result, updatedContext)
+    }.asserting {
+      case (result, updatedContext) =>
+        verify(sender, times(2)).sendHttpRequest(any[ProcessedTemplate])
+        result.isLeft shouldBe true
+        updatedContext.committedOffsets shouldBe empty
+    }
+  }
+
+  test("process method should keep failing without taking batches once a batch failed over the threshold") {
+    val sender   = mock[HttpRequestSender]
+    val template = mock[TemplateType]
+    val queue    = mockQueueOfTwoBatches(template)
+
+    when(sender.sendHttpRequest(eqTo(ProcessedTemplate("a", "batch1", Seq.empty)))).thenReturn(
+      IO(HttpResponseFailure("fail", none, 500.some, none).asLeft),
+    )
+    when(sender.sendHttpRequest(eqTo(ProcessedTemplate("a", "batch2", Seq.empty)))).thenReturn(
+      IO(HttpResponseSuccess(200, "OK".some).asRight),
+    )
+
+    {
+      for {
+        commitContextRef <- Ref.of[IO, HttpCommitContext](defaultContext)
+        httpWriter = new HttpWriter(sinkName,
+                                    sender,
+                                    template,
+                                    queue,
+                                    0,
+                                    false,
+                                    mock[ReportingController[HttpFailureConnectorSpecificRecordData]],
+                                    mock[ReportingController[HttpSuccessConnectorSpecificRecordData]],
+                                    commitContextRef,
+                                    1,
+        )
+        firstResult    <- httpWriter.process().attempt
+        secondResult   <- httpWriter.process().attempt
+        updatedContext <- commitContextRef.get
+      } yield (firstResult, secondResult, updatedContext)
+    }.asserting {
+      case (firstResult, secondResult, updatedContext) =>
+        verify(queue, times(1)).popBatch()
+        verify(sender, times(1)).sendHttpRequest(any[ProcessedTemplate])
+        firstResult.isLeft shouldBe true
+        secondResult shouldBe firstResult
+        updatedContext.committedOffsets shouldBe empty
+    }
+  }
+
+  private def mockQueueOfTwoBatches(template: TemplateType): RecordsQueue = {
+    val batch1 = NonEmptySeq.of(record1, record2)
+    val batch2 = NonEmptySeq.of(
+      RenderedRecord(topicPartition.atOffset(102), timestamp, "record3", Seq.empty, ""),
+      RenderedRecord(topicPartition.atOffset(103), timestamp, "record4", Seq.empty, ""),
+    )
+    when(template.process(eqTo(batch1), eqTo(false))).thenReturn(Right(ProcessedTemplate("a", "batch1", Seq.empty)))
+    when(template.process(eqTo(batch2), eqTo(false))).thenReturn(Right(ProcessedTemplate("a", "batch2", Seq.empty)))
+
+    val queue = mock[RecordsQueue]
+    when(queue.popBatch()).thenReturn(
+      IO(NonEmptyBatchInfo(batch1, defaultContext.copy(committedOffsets = Map(topicPartition -> Offset(101))), 4)),
+      IO(NonEmptyBatchInfo(batch2, defaultContext.copy(committedOffsets = Map(topicPartition -> Offset(103))), 2)),
+    )
+    when(queue.dequeue(any[NonEmptySeq[RenderedRecord]])).thenReturn(IO.unit)
+    queue
+  }
+
   private def mockRecordQueue(batchInfo: BatchInfo) = {
     val recordsQueue = mock[RecordsQueue]
     when(recordsQueue.popBatch()).thenReturn(IO(batchInfo))
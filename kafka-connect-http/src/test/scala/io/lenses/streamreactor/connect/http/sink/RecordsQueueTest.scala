@@ -13,28 +13,12 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-/*
- * Copyright 2017-2024 Lenses.io Ltd
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
 package io.lenses.streamreactor.connect.http.sink
 
 import cats.data.NonEmptySeq
 import cats.effect.IO
 import cats.effect.kernel.Ref
 import cats.effect.testing.scalatest.AsyncIOSpec
-import io.lenses.streamreactor.connect.cloud.common.model.Offset
 import io.lenses.streamreactor.connect.cloud.common.model.Topic
 import io.lenses.streamreactor.connect.cloud.common.model.TopicPartition
 import io.lenses.streamreactor.connect.http.sink.commit.BatchPolicy
@@ -47,7 +31,6 @@ import org.mockito.MockitoSugar
 import org.scalatest.funsuite.AsyncFunSuiteLike
 import org.scalatest.matchers.should.Matchers
 
-import scala.collection.immutable.Queue
 import scala.concurrent.duration.DurationInt
 
 class RecordsQueueTest extends AsyncFunSuiteLike with AsyncIOSpec with MockitoSugar with Matchers {
@@ -67,13 +50,11 @@ class RecordsQueueTest extends AsyncFunSuiteLike with AsyncIOSpec with MockitoSu
   test("enqueueAll should add all records to the queue") {
     {
       for {
-        commitContext   <- Ref[IO].of(defaultContext)
-        recordsQueueRef <- Ref[IO].of(Queue.empty[RenderedRecord])
-        offsetsRef      <- Ref[IO].of(Map.empty[TopicPartition, Offset])
-        recordsQueue     = new RecordsQueue(recordsQueueRef, commitContext, mock[BatchPolicy], 10000, 1.minute, offsetsRef)
-        _               <- recordsQueue.enqueueAll(NonEmptySeq.of(record1, record2))
-        refValue        <- recordsQueueRef.get
-      } yield refValue
+        commitContext <- Ref[IO].of(defaultContext)
+        recordsQueue  <- RecordsQueue(commitContext, mock[BatchPolicy], 10000, 1.minute)
+        _             <- recordsQueue.enqueueAll(NonEmptySeq.of(record1, record2))
+        queued        <- recordsQueue.queuedRecords
+      } yield queued
     } asserting {
       backingQueue =>
         backingQueue.size should be(2)
@@ -90,11 +71,10 @@ class RecordsQueueTest extends AsyncFunSuiteLike with AsyncIOSpec with MockitoSu
 
     {
       for {
-        commitContext   <- Ref[IO].of(defaultContext)
-        recordsQueueRef <- Ref[IO].of(Queue(record1, record2))
-        offsetsRef      <- Ref[IO].of(Map.empty[TopicPartition, Offset])
-        recordsQueue     = new RecordsQueue(recordsQueueRef, commitContext, commitPolicy, 10000, 1.minute, offsetsRef)
-        batchInfo       <- recordsQueue.popBatch()
+        commitContext <- Ref[IO].of(defaultContext)
+        recordsQueue  <- RecordsQueue(commitContext, commitPolicy, 10000, 1.minute)
+        _             <- recordsQueue.enqueueAll(NonEmptySeq.of(record1, record2))
+        batchInfo     <- recordsQueue.popBatch()
       } yield batchInfo
     } asserting {
       case EmptyBatchInfo(totalQueueSize) => totalQueueSize shouldBe 2
@@ -105,11 +85,9 @@ class RecordsQueueTest extends AsyncFunSuiteLike with AsyncIOSpec with MockitoSu
   test("takeBatch should return an empty batch when the queue is empty") {
     {
       for {
-        commitContext   <- Ref[IO].of(defaultContext)
-        recordsQueueRef <- Ref[IO].of(Queue.empty[RenderedRecord])
-        offsetsRef      <- Ref[IO].of(Map.empty[TopicPartition, Offset])
-        recordsQueue     = new RecordsQueue(recordsQueueRef, commitContext, mock[BatchPolicy], 10000, 1.minute, offsetsRef)
-        batchInfo       <- recordsQueue.popBatch()
+        commitContext <- Ref[IO].of(defaultContext)
+        recordsQueue  <- RecordsQueue(commitContext, mock[BatchPolicy], 10000, 1.minute)
+        batchInfo     <- recordsQueue.popBatch()
       } yield batchInfo
     } asserting {
       case EmptyBatchInfo(totalQueueSize) => totalQueueSize shouldBe 0
@@ -117,39 +95,64 @@ class RecordsQueueTest extends AsyncFunSuiteLike with AsyncIOSpec with MockitoSu
     }
   }
 
+  test("popBatch should not remove the batch from the queue") {
+    val commitPolicy = mock[BatchPolicy]
+    when(commitPolicy.shouldBatch(any[HttpCommitContext])).thenReturn(BatchResult(fitsInBatch          = true,
+                                                                                  triggerReached       = true,
+                                                                                  greedyTriggerReached = false,
+    ))
+
+    {
+      for {
+        commitContext <- Ref[IO].of(defaultContext)
+        recordsQueue  <- RecordsQueue(commitContext, commitPolicy, 10000, 1.minute)
+        _             <- recordsQueue.enqueueAll(NonEmptySeq.of(record1, record2))
+        batchInfo     <- recordsQueue.popBatch()
+        queued        <- recordsQueue.queuedRecords
+      } yield (batchInfo, queued)
+    } asserting {
+      case (NonEmptyBatchInfo(batch, _, totalQueueSize), queued) =>
+        batch.toSeq should contain theSameElementsInOrderAs Seq(record1)
+        totalQueueSize shouldBe 2
+        queued should contain theSameElementsInOrderAs Seq(record1, record2)
+      case (other, _) => fail(s"Should be a non-empty BatchInfo but was $other")
+    }
+  }
+
   test("dequeue should remove the specified records from the queue") {
     val records = NonEmptySeq.of(record1)
 
     {
       for {
-        commitContext   <- Ref[IO].of(defaultContext)
-        recordsQueueRef <- Ref[IO].of(Queue(record1, record2))
-        offsetsRef      <- Ref[IO].of(Map.empty[TopicPartition, Offset])
-        recordsQueue     = new RecordsQueue(recordsQueueRef, commitContext, mock[BatchPolicy], 10000, 1.minute, offsetsRef)
-        _               <- recordsQueue.dequeue(records)
-        refValue        <- recordsQueueRef.get
-      } yield refValue
+        commitContext <- Ref[IO].of(defaultContext)
+        recordsQueue  <- RecordsQueue(commitContext, mock[BatchPolicy], 10000, 1.minute)
+        _             <- recordsQueue.enqueueAll(NonEmptySeq.of(record1, record2))
+        _             <- recordsQueue.dequeue(records)
+        queued        <- recordsQueue.queuedRecords
+      } yield queued
     } asserting {
       backingQueue =>
         backingQueue should contain theSameElementsInOrderAs Seq(record2)
     }
   }
 
-  test("dequeue should do nothing if the specified records are not in the queue") {
+  test("dequeue should do nothing if the queue is empty") {
     val records = NonEmptySeq.of(record2)
 
     {
       for {
-        commitContext   <- Ref[IO].of(defaultContext)
-        recordsQueueRef <- Ref[IO].of(Queue(record1))
-        offsetsRef      <- Ref[IO].of(Map.empty[TopicPartition, Offset])
-        recordsQueue     = new RecordsQueue(recordsQueueRef, commitContext, mock[BatchPolicy], 10000, 1.minute, offsetsRef)
-        _               <- recordsQueue.dequeue(records)
-        refValue        <- recordsQueueRef.get
-      } yield refValue
+        commitContext <- Ref[IO].of(defaultContext)
+        recordsQueue  <- RecordsQueue(commitContext, mock[BatchPolicy], 1, 1.second)
+        _             <- recordsQueue.dequeue(records)
+        // the queue capacity must not have grown
+        _      <- recordsQueue.enqueueAll(NonEmptySeq.of(record1))
+        result <- recordsQueue.enqueueAll(NonEmptySeq.of(record3)).attempt
+        queued <- recordsQueue.queuedRecords
+      } yield (result, queued)
     } asserting {
-      backingQueue =>
-        backingQueue should contain theSameElementsInOrderAs Seq(record1)
+      case (result, queued) =>
+        result.isLeft shouldBe true
+        queued should contain theSameElementsInOrderAs Seq(record1)
     }
   }
 
@@ -158,11 +161,9 @@ class RecordsQueueTest extends AsyncFunSuiteLike with AsyncIOSpec with MockitoSu
     val commitPolicy = mock[BatchPolicy]
 
     val ioAction = for {
-      commitContext   <- Ref[IO].of(defaultContext)
-      recordsQueueRef <- Ref[IO].of(Queue.empty[RenderedRecord])
-      offsetsRef      <- Ref[IO].of(Map.empty[TopicPartition, Offset])
-      recordsQueue     = new RecordsQueue(recordsQueueRef, commitContext, commitPolicy, 1, 2.seconds, offsetsRef)
-      _               <- recordsQueue.enqueueAll(records)
+      commitContext <- Ref[IO].of(defaultContext)
+      recordsQueue  <- RecordsQueue(commitContext, commitPolicy, 1, 2.seconds)
+      _             <- recordsQueue.enqueueAll(records)
     } yield ()
 
     ioAction.attempt.map {
@@ -176,20 +177,40 @@ class RecordsQueueTest extends AsyncFunSuiteLike with AsyncIOSpec with MockitoSu
 
   }
 
+  test("enqueue all should wait for space to be released by dequeue") {
+    val commitPolicy = mock[BatchPolicy]
+
+    val ioAction = for {
+      commitContext <- Ref[IO].of(defaultContext)
+      recordsQueue  <- RecordsQueue(commitContext, commitPolicy, 1, 10.seconds)
+      _             <- recordsQueue.enqueueAll(NonEmptySeq.of(record1))
+      blocked       <- recordsQueue.enqueueAll(NonEmptySeq.of(record2, record3)).start
+      _             <- IO.sleep(100.millis)
+      _             <- recordsQueue.dequeue(NonEmptySeq.of(record1))
+      _             <- IO.sleep(100.millis)
+      _             <- recordsQueue.dequeue(NonEmptySeq.of(record2))
+      _             <- blocked.joinWithNever
+      queue         <- recordsQueue.queuedRecords
+    } yield queue
+
+    ioAction asserting {
+      queue =>
+        queue should contain theSameElementsInOrderAs List(record3)
+    }
+  }
+
   test(" does not enqueue a record which was enqueued before") {
     val records      = NonEmptySeq.of(record1, record2)
     val commitPolicy = mock[BatchPolicy]
     val newRecords   = NonEmptySeq.of(record2, record3)
 
     val ioAction = for {
-      commitContext   <- Ref[IO].of(defaultContext)
-      recordsQueueRef <- Ref[IO].of(Queue.empty[RenderedRecord])
-      offsetsRef      <- Ref[IO].of(Map.empty[TopicPartition, Offset])
-      recordsQueue     = new RecordsQueue(recordsQueueRef, commitContext, commitPolicy, 10000, 1.minute, offsetsRef)
-      _               <- recordsQueue.enqueueAll(records)
-      _               <- recordsQueue.enqueueAll(newRecords)
-      queue           <- recordsQueueRef.get
-    } yield queue.toList
+      commitContext <- Ref[IO].of(defaultContext)
+      recordsQueue  <- RecordsQueue(commitContext, commitPolicy, 10000, 1.minute)
+      _             <- recordsQueue.enqueueAll(records)
+      _             <- recordsQueue.enqueueAll(newRecords)
+      queue         <- recordsQueue.queuedRecords
+    } yield queue
 
     ioAction asserting {
       queue =>
@@ -203,15 +224,13 @@ class RecordsQueueTest extends AsyncFunSuiteLike with AsyncIOSpec with MockitoSu
     val newRecords   = NonEmptySeq.of(record2)
 
     val ioAction = for {
-      commitContext   <- Ref[IO].of(defaultContext)
-      recordsQueueRef <- Ref[IO].of(Queue.empty[RenderedRecord])
-      offsetsRef      <- Ref[IO].of(Map.empty[TopicPartition, Offset])
-      recordsQueue     = new RecordsQueue(recordsQueueRef, commitContext, commitPolicy, 1, 10.seconds, offsetsRef)
-      _               <- recordsQueue.enqueueAll(records)
-      _               <- recordsQueue.dequeue(records)
-      _               <- recordsQueue.enqueueAll(newRecords)
-      queue           <- recordsQueueRef.get
-    } yield queue.toList
+      commitContext <- Ref[IO].of(defaultContext)
+      recordsQueue  <- RecordsQueue(commitContext, commitPolicy, 1, 10.seconds)
+      _             <- recordsQueue.enqueueAll(records)
+      _             <- recordsQueue.dequeue(records)
+      _             <- recordsQueue.enqueueAll(newRecords)
+      queue         <- recordsQueue.queuedRecords
+    } yield queue
 
     ioAction asserting {
       queue =>
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.http.sink
+
+import io.lenses.streamreactor.connect.cloud.common.model.Topic
+import io.lenses.streamreactor.connect.http.sink.tpl.RenderedRecord
+import org.scalatest.funsuite.AnyFunSuite
+import org.scalatest.matchers.should.Matchers._
+
+class RecordsRingBufferTest extends AnyFunSuite {
+
+  private val testEndpoint = "https://mytestendpoint.example.com"
+
+  private def record(partition: Int, offset: Long): RenderedRecord =
+    RenderedRecord(Topic("myTopic").withPartition(partition).atOffset(offset),
+                   125L,
+                   s"record$offset",
+                   Seq.empty,
+                   testEndpoint,
+    )
+
+  test("appendAll and dropFirst should preserve FIFO order across the wrap-around point") {
+    val buffer = new RecordsRingBuffer(3)
+
+    buffer.appendAll(Seq(record(0, 1), record(0, 2), record(0, 3)))
+    buffer.dropFirst(2) shouldBe 2
+    buffer.appendAll(Seq(record(0, 4), record(0, 5)))
+
+    buffer.size shouldBe 3
+    buffer.toList shouldBe List(record(0, 3), record(0, 4), record(0, 5))
+  }
+
+  test("appendAll should fail when there is not enough space") {
+    val buffer = new RecordsRingBuffer(1)
+
+    an[IllegalArgumentException] should be thrownBy buffer.appendAll(Seq(record(0, 1), record(0, 2)))
+  }
+
+  test("dropFirst should not remove more records than are buffered") {
+    val buffer = new RecordsRingBuffer(2)
+    buffer.appendAll(Seq(record(0, 1)))
+
+    buffer.dropFirst(5) shouldBe 1
+    buffer.size shouldBe 0
+  }
+
+  test("filterNew should discard records at or below the highest appended offset per partition") {
+    val buffer = new RecordsRingBuffer(10)
+    buffer.appendAll(Seq(record(0, 5), record(1, 2)))
+    buffer.dropFirst(2)
+
+    buffer.filterNew(List(record(0, 4), record(0, 5), record(0, 6), record(1, 2), record(2, 0))) shouldBe
+      List(record(0, 6), record(2, 0))
+  }
+}
@@ -17,8 +17,8 @@ package io.lenses.streamreactor.connect.http.sink.client
 import cats.effect.IO
 import cats.effect.kernel.Resource
 import cats.effect.unsafe.IORuntime
+import io.lenses.streamreactor.common.metrics.MetricsRegistrar
 import io.lenses.streamreactor.connect.http.sink.metrics.HttpSinkMetrics
-import io.lenses.streamreactor.connect.http.sink.metrics.MetricsRegistrar
 import io.lenses.streamreactor.connect.http.sink.tpl.ProcessedTemplate
 import org.http4s._
 import org.http4s.client.Client
@@ -31,7 +31,6 @@ import org.scalatest.matchers.should.Matchers
 import org.typelevel.ci.CIString
 
 import java.lang.management.ManagementFactory
-import javax.management.ObjectName
 
 class BasicAuthenticationHttpRequestSenderTest extends AnyFunSuiteLike with Matchers with MockitoSugar {
   test("attaches the authorization header to the request") {
@@ -46,7 +45,7 @@ class BasicAuthenticationHttpRequestSenderTest extends AnyFunSuiteLike with Matc
     val userName = "user"
     val password = "password"
     val metrics  = new HttpSinkMetrics
-    MetricsRegistrar.registerMetricsMBean(metrics, sinkName)
+    MetricsRegistrar.register(metrics, MetricsRegistrar.metricsName(HttpSinkMetrics.Domain, sinkName))
     val sender = new BasicAuthenticationHttpRequestSender(sinkName, method, client, userName, password, metrics)
     val template = ProcessedTemplate(
       "http://localhost:8080",
@@ -73,7 +72,7 @@ class BasicAuthenticationHttpRequestSenderTest extends AnyFunSuiteLike with Matc
     metrics.get5xxCount shouldBe 0
 
     val mbs        = ManagementFactory.getPlatformMBeanServer
-    val objectName = new ObjectName(MetricsRegistrar.NameTemplate.format(sinkName))
+    val objectName = MetricsRegistrar.metricsName(HttpSinkMetrics.Domain, sinkName)
     val mbean      = mbs.getMBeanInfo(objectName)
     mbean.getAttributes.map(_.getName) should contain allElementsOf List("4xxCount",
                                                                          "5xxCount",
@@ -102,7 +101,7 @@ class BasicAuthenticationHttpRequestSenderTest extends AnyFunSuiteLike with Matc
     val userName = "user"
     val password = "password"
     val metrics  = new HttpSinkMetrics
-    MetricsRegistrar.registerMetricsMBean(metrics, sinkName)
+    MetricsRegistrar.register(metrics, MetricsRegistrar.metricsName(HttpSinkMetrics.Domain, sinkName))
     val sender = new BasicAuthenticationHttpRequestSender(sinkName, method, client, userName, password, metrics)
     val template = ProcessedTemplate(
       "http://localhost:8080",
@@ -129,7 +128,7 @@ class BasicAuthenticationHttpRequestSenderTest extends AnyFunSuiteLike with Matc
     metrics.get5xxCount shouldBe 1
 
     val mbs        = ManagementFactory.getPlatformMBeanServer
-    val objectName = new ObjectName(MetricsRegistrar.NameTemplate.format(sinkName))
+    val objectName = MetricsRegistrar.metricsName(HttpSinkMetrics.Domain, sinkName)
     val mbean      = mbs.getMBeanInfo(objectName)
     mbean.getAttributes.map(_.getName) should contain allElementsOf List("4xxCount",
                                                                          "5xxCount",
@@ -159,7 +158,7 @@ class BasicAuthenticationHttpRequestSenderTest extends AnyFunSuiteLike with Matc
     val userName = "user"
     val password = "password"
     val metrics  = new HttpSinkMetrics
-    MetricsRegistrar.registerMetricsMBean(metrics, sinkName)
+    MetricsRegistrar.register(metrics, MetricsRegistrar.metricsName(HttpSinkMetrics.Domain, sinkName))
     val sender = new BasicAuthenticationHttpRequestSender(sinkName, method, client, userName, password, metrics)
     val template = ProcessedTemplate(
       "http://localhost:8080",
@@ -186,7 +185,7 @@ class BasicAuthenticationHttpRequestSenderTest extends AnyFunSuiteLike with Matc
     metrics.get5xxCount shouldBe 0
 
     val mbs        = ManagementFactory.getPlatformMBeanServer
-    val objectName = new ObjectName(MetricsRegistrar.NameTemplate.format(sinkName))
+    val objectName = MetricsRegistrar.metricsName(HttpSinkMetrics.Domain, sinkName)
     val mbean      = mbs.getMBeanInfo(objectName)
     mbean.getAttributes.map(_.getName) should contain allElementsOf List("4xxCount",
                                                                          "5xxCount",
@@ -81,6 +81,14 @@ class MetricsResetterSpec extends AnyFunSuite with Matchers {
     override def getP95RequestTimeMs: Long = ???
 
     override def getP99RequestTimeMs: Long = ???
+
+    override def requestStarted(): Unit = ???
+
+    override def requestCompleted(): Unit = ???
+
+    override def getInFlightRequests: Long = ???
+
+    override def getMaxInFlightRequests: Long = ???
   }
 
   // Import or define the calculateInitialDelay method here
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.http.sink.tpl.renderer
+
+import io.lenses.streamreactor.connect.http.sink.config.CustomNullPayloadHandler
+import io.lenses.streamreactor.connect.http.sink.config.ErrorNullPayloadHandler
+import io.lenses.streamreactor.connect.http.sink.tpl.substitutions.SubstitutionType
+import org.apache.kafka.connect.data.Schema
+import org.apache.kafka.connect.data.SchemaBuilder
+import org.apache.kafka.connect.data.Struct
+import org.apache.kafka.connect.header.ConnectHeaders
+import org.apache.kafka.connect.sink.SinkRecord
+import org.scalatest.EitherValues
+import org.scalatest.funsuite.AnyFunSuiteLike
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.prop.TableDrivenPropertyChecks._
+
+class CompiledTemplateTest extends AnyFunSuiteLike with Matchers with EitherValues {
+
+  private val templateRenderer = new TemplateRenderer(SubstitutionType)
+
+  private val valueSchema = SchemaBuilder
+    .struct()
+    .name("myStruct")
+    .field("groupDomain", Schema.STRING_SCHEMA)
+    .field("orderNo", Schema.INT32_SCHEMA)
+    .build()
+
+  private val value = new Struct(valueSchema)
+    .put("groupDomain", "myExampleGroup.uk")
+    .put("orderNo", 10)
+
+  private val record = new SinkRecord("myTopic",
+                                      3,
+                                      Schema.STRING_SCHEMA,
+                                      "myKey",
+                                      valueSchema,
+                                      value,
+                                      9,
+                                      1234L,
+                                      null,
+                                      new ConnectHeaders().addString("myHeader", "headerValue"),
+  )
+
+  private val templates = Table(
+    "template",
+    "",
+    "plain text without tags",
+    "{{topic}}",
+    "http://example.com/{{topic}}/{{partition}}?offset={{offset}}",
+    "<order>{{value.orderNo}}</order><group>{{ value.groupDomain }}</group>",
+    "{{key}}-{{header.myHeader}}-{{timestamp}}",
+    "{\"data\":[{{#message}}{{value.orderNo}},{{/message}}]}",
+    "$1 \\ {{VALUE.groupDomain}} $ {{topic}}",
+  )
+
+  forAll(templates) { template =>
+    test(s"compiled template should render the same as TemplateRenderer for '$template'") {
+      CompiledTemplate(template).render(record, ErrorNullPayloadHandler) shouldBe
+        templateRenderer.render(record, template, ErrorNullPayloadHandler)
+    }
+  }
+
+  test("compiled template should apply the null payload handler") {
+    val nullValueRecord = new SinkRecord("topic", 0, null, null, null, null, 0)
+    CompiledTemplate("value: {{value}}").render(
+      nullValueRecord,
+      new CustomNullPayloadHandler("none"),
+    ).value shouldBe "value: none"
+  }
+
+  test("compiled template should return an error for an unknown substitution type when rendering") {
+    CompiledTemplate("{{unknownType}}").render(record, ErrorNullPayloadHandler).left.value.msg shouldBe
+      "Couldn't find `unknowntype` SubstitutionType"
+  }
+
+  test("compiled template should return an error for an empty tag when rendering") {
+    CompiledTemplate("before {{ }} after").render(record, ErrorNullPayloadHandler).left.value.msg shouldBe
+      "No tag specified"
+  }
+
+  test("compiled template should be reusable across records") {
+    val compiled = CompiledTemplate("{{topic}}:{{offset}}")
+    val other    = new SinkRecord("otherTopic", 0, null, null, null, null, 42)
+
+    compiled.render(record, ErrorNullPayloadHandler).value shouldBe "myTopic:9"
+    compiled.render(other, ErrorNullPayloadHandler).value shouldBe "otherTopic:42"
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.redis.sink.writer
+
+import com.dimafeng.testcontainers.ForAllTestContainer
+import com.dimafeng.testcontainers.GenericContainer
+import io.lenses.streamreactor.connect.redis.sink.JedisClientBuilder
+import io.lenses.streamreactor.connect.redis.sink.config.RedisConfig
+import io.lenses.streamreactor.connect.redis.sink.config.RedisConfigConstants
+import io.lenses.streamreactor.connect.redis.sink.config.RedisSinkSettings
+import org.apache.kafka.connect.data.Schema
+import org.apache.kafka.connect.data.SchemaBuilder
+import org.apache.kafka.connect.data.Struct
+import org.apache.kafka.connect.errors.ConnectException
+import org.apache.kafka.connect.sink.SinkRecord
+import org.scalatest.BeforeAndAfterEach
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+import redis.clients.jedis.Jedis
+
+class RedisPipelineTest extends AnyWordSpec with Matchers with BeforeAndAfterEach with ForAllTestContainer {
+
+  private val ContainerPort = 6379
+
+  override val container = GenericContainer(
+    dockerImage  = "redis:6-alpine",
+    exposedPorts = Seq(ContainerPort),
+  )
+
+  private val TOPIC = "cpuTopic"
+
+  private val schema = SchemaBuilder.struct().name("com.example.Cpu")
+    .field("type", Schema.STRING_SCHEMA)
+    .field("temperature", Schema.FLOAT64_SCHEMA)
+    .field("ts", Schema.INT64_SCHEMA).build()
+
+  private val records = (1 to 5000).map { i =>
+    val struct = new Struct(schema).put("type", s"cpu-$i").put("temperature", 60.0 + i).put("ts", 1482180657010L + i)
+    new SinkRecord(TOPIC, 0, null, null, schema, struct, i.toLong)
+  }
+
+  private def jedis = new Jedis("localhost", container.mappedPort(ContainerPort))
+
+  private def settings(kcql: String, pipelineProps: Map[String, String]): RedisSinkSettings =
+    RedisSinkSettings(
+      RedisConfig(
+        Map(
+          RedisConfigConstants.REDIS_HOST  -> "localhost",
+          RedisConfigConstants.REDIS_PORT  -> container.mappedPort(ContainerPort).toString,
+          RedisConfigConstants.KCQL_CONFIG -> kcql,
+        ) ++ pipelineProps,
+      ),
+    )
+
+  private val pipelined = Map(
+    RedisConfigConstants.REDIS_PIPELINE_ENABLED    -> "true",
+    RedisConfigConstants.REDIS_PIPELINE_BATCH_SIZE -> "500",
+  )
+
+  override def beforeEach(): Unit = {
+    val _ = jedis.flushAll()
+  }
+
+  private def timed(write: => Unit): Long = {
+    val start = System.nanoTime()
+    write
+    System.nanoTime() - start
+  }
+
+  "Redis pipelined writes" should {
+
+    "write the same cache entries as one command per record, in less time" in {
+      val kcql = s"INSERT INTO direct- SELECT * FROM $TOPIC PK type"
+
+      val directSettings = settings(kcql, Map.empty)
+      val direct         = new RedisCache(directSettings, JedisClientBuilder.createClient(directSettings))
+      val directNanos    = timed(direct.write(records))
+
+      val pipelinedSettings = settings(kcql.replace("direct-", "pipelined-"), pipelined)
+      val pipelinedWriter   = new RedisCache(pipelinedSettings, JedisClientBuilder.createClient(pipelinedSettings))
+      val pipelinedNanos    = timed(pipelinedWriter.write(records))
+
+      val redis = jedis
+      redis.keys("direct-*").size() shouldBe records.size
+      redis.keys("pipelined-*").size() shouldBe records.size
+      redis.get("pipelined-cpu-42") shouldBe redis.get("direct-cpu-42")
+      pipelinedNanos should be < directNanos
+    }
+
+    "expire the sorted sets members were added to, within MULTI/EXEC" in {
+      val kcql = s"INSERT INTO cpu_stats SELECT * FROM $TOPIC STOREAS SortedSet(score=ts) TTL = 600"
+      val pipelinedSettings =
+        settings(kcql, pipelined + (RedisConfigConstants.REDIS_PIPELINE_TRANSACTIONAL -> "true"))
+      val writer = new RedisInsertSortedSet(pipelinedSettings, JedisClientBuilder.createClient(pipelinedSettings))
+
+      writer.write(records)
+
+      val redis = jedis
+      redis.zcard("cpu_stats") shouldBe records.size.toLong
+      redis.ttl("cpu_stats") should be > 0L
+    }
+
+    "report the commands Redis replied to with an error" in {
+      val redis = jedis
+      redis.set("cpu_stats", "not a sorted set")
+
+      val kcql              = s"INSERT INTO cpu_stats SELECT * FROM $TOPIC STOREAS SortedSet(score=ts)"
+      val pipelinedSettings = settings(kcql, pipelined)
+      val writer = new RedisInsertSortedSet(pipelinedSettings, JedisClientBuilder.createClient(pipelinedSettings))
+
+      val error = intercept[ConnectException](writer.write(records.take(10)))
+      error.getCause.getMessage should include("[10] of [10] pipelined Redis commands failed")
+      error.getCause.getMessage should include("WRONGTYPE")
+
+      // the connection is left usable for the next batch
+      redis.del("cpu_stats")
+      writer.write(records.take(10))
+      redis.zcard("cpu_stats") shouldBe 10L
+    }
+  }
+}
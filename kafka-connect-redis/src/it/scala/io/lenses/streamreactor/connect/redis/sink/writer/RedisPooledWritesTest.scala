@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.redis.sink.writer
+
+import com.dimafeng.testcontainers.ForAllTestContainer
+import com.dimafeng.testcontainers.GenericContainer
+import io.lenses.streamreactor.connect.redis.sink.JedisClientBuilder
+import io.lenses.streamreactor.connect.redis.sink.config.RedisConfig
+import io.lenses.streamreactor.connect.redis.sink.config.RedisConfigConstants
+import io.lenses.streamreactor.connect.redis.sink.config.RedisSinkSettings
+import io.lenses.streamreactor.connect.redis.sink.metrics.RedisSinkMetrics
+import org.apache.kafka.connect.data.Schema
+import org.apache.kafka.connect.data.SchemaBuilder
+import org.apache.kafka.connect.data.Struct
+import org.apache.kafka.connect.errors.ConnectException
+import org.apache.kafka.connect.sink.SinkRecord
+import org.scalatest.BeforeAndAfterEach
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+import redis.clients.jedis.Jedis
+import redis.clients.jedis.util.JedisClusterCRC16
+
+class RedisPooledWritesTest extends AnyWordSpec with Matchers with BeforeAndAfterEach with ForAllTestContainer {
+
+  private val ContainerPort = 6379
+
+  override val container = GenericContainer(
+    dockerImage  = "redis:6-alpine",
+    exposedPorts = Seq(ContainerPort),
+  )
+
+  private val TOPIC = "cpuTopic"
+
+  private val schema = SchemaBuilder.struct().name("com.example.Cpu")
+    .field("type", Schema.STRING_SCHEMA)
+    .field("temperature", Schema.FLOAT64_SCHEMA)
+    .field("ts", Schema.INT64_SCHEMA).build()
+
+  private val records = (1 to 2000).map { i =>
+    val struct = new Struct(schema).put("type", s"cpu-$i").put("temperature", 60.0 + i).put("ts", 1482180657010L + i)
+    new SinkRecord(TOPIC, 0, null, null, schema, struct, i.toLong)
+  }
+
+  private def jedis = new Jedis("localhost", container.mappedPort(ContainerPort))
+
+  private def settings(kcql: String, props: Map[String, String]): RedisSinkSettings =
+    RedisSinkSettings(
+      RedisConfig(
+        Map(
+          RedisConfigConstants.REDIS_HOST         -> "localhost",
+          RedisConfigConstants.REDIS_PORT         -> container.mappedPort(ContainerPort).toString,
+          RedisConfigConstants.KCQL_CONFIG        -> kcql,
+          RedisConfigConstants.REDIS_POOL_ENABLED -> "true",
+          RedisConfigConstants.REDIS_WRITE_SHARDS -> "4",
+        ) ++ props,
+      ),
+    )
+
+  private def pooledClient(sinkSettings: RedisSinkSettings): (PooledRedisClient, RedisSinkMetrics) = {
+    val pooled  = JedisClientBuilder.createPooledClient(sinkSettings)
+    val metrics = new RedisSinkMetrics(() => PooledRedisClient.pools(pooled))
+    (new PooledRedisClient(pooled, sinkSettings.pool.shards, metrics), metrics)
+  }
+
+  override def beforeEach(): Unit = {
+    val _ = jedis.flushAll()
+  }
+
+  "Redis pooled writes" should {
+
+    "write every cache entry across the shards and give the connections back to the pool" in {
+      val sinkSettings      = settings(s"INSERT INTO pooled- SELECT * FROM $TOPIC PK type", Map.empty)
+      val (client, metrics) = pooledClient(sinkSettings)
+      val writer            = new RedisCache(sinkSettings, client)
+
+      writer.write(records)
+      metrics.resetWriteTime()
+
+      val redis = jedis
+      redis.keys("pooled-*").size() shouldBe records.size
+      redis.get("pooled-cpu-42") should include("\"temperature\":102.0")
+      metrics.getFailedWritesCount shouldBe 0L
+      metrics.getActiveConnections shouldBe 0L
+      metrics.getIdleConnections should be > 0L
+      writer.close()
+    }
+
+    "pipeline the commands of each shard and expire the sorted sets" in {
+      val kcql = s"INSERT INTO stats- SELECT temperature, ts FROM $TOPIC PK type STOREAS SortedSet(score=ts) TTL = 600"
+      val sinkSettings = settings(
+        kcql,
+        Map(
+          RedisConfigConstants.REDIS_PIPELINE_ENABLED    -> "true",
+          RedisConfigConstants.REDIS_PIPELINE_BATCH_SIZE -> "100",
+        ),
+      )
+      val (client, _) = pooledClient(sinkSettings)
+      val writer      = new RedisMultipleSortedSets(sinkSettings, client)
+
+      writer.write(records)
+
+      val redis = jedis
+      redis.keys("stats-*").size() shouldBe records.size
+      redis.zcard("stats-cpu-7") shouldBe 1L
+      redis.ttl("stats-cpu-7") should be > 0L
+      writer.close()
+    }
+
+    "fail the batch when a shard fails and still write the other shards" in {
+      val redis = jedis
+      redis.set("stats-cpu-1", "not a sorted set")
+
+      val kcql              = s"INSERT INTO stats- SELECT temperature, ts FROM $TOPIC PK type STOREAS SortedSet(score=ts)"
+      val sinkSettings      = settings(kcql, Map.empty)
+      val (client, metrics) = pooledClient(sinkSettings)
+      val writer            = new RedisMultipleSortedSets(sinkSettings, client)
+
+      val error = intercept[ConnectException](writer.write(records.take(100)))
+      error.getCause.getMessage should include("WRONGTYPE")
+      metrics.getFailedWritesCount shouldBe 1L
+
+      def shard(key: String): Int = JedisClusterCRC16.getSlot(key) % sinkSettings.pool.shards
+      val otherShardKey = (2 to 100).map(i => s"stats-cpu-$i").find(shard(_) != shard("stats-cpu-1")).get
+      redis.zcard(otherShardKey) shouldBe 1L
+      writer.close()
+    }
+  }
+}
@@ -15,16 +15,55 @@
  */
 package io.lenses.streamreactor.connect.redis.sink
 
+import io.lenses.streamreactor.connect.redis.sink.config.RedisConnectionInfo
 import io.lenses.streamreactor.connect.redis.sink.config.RedisSinkSettings
+import redis.clients.jedis.ConnectionPoolConfig
+import redis.clients.jedis.DefaultJedisClientConfig
+import redis.clients.jedis.HostAndPort
 import redis.clients.jedis.Jedis
+import redis.clients.jedis.JedisCluster
+import redis.clients.jedis.JedisPooled
+import redis.clients.jedis.UnifiedJedis
 
 import java.io.File
 import java.io.FileNotFoundException
+import scala.jdk.CollectionConverters.SetHasAsJava
 
 object JedisClientBuilder {
   def createClient(sinkSettings: RedisSinkSettings): Jedis = {
     val connection = sinkSettings.connectionInfo
+    configureSsl(connection)
 
+    val jedis = new Jedis(connection.host, connection.port, connection.isSslConnection)
+    connection.password.foreach(p => jedis.auth(p))
+    jedis
+  }
+
+  /**
+    * Creates a client borrowing its connections from a pool, to the Redis Cluster when its nodes are set and to the
+    * host and port otherwise.
+    */
+  def createPooledClient(sinkSettings: RedisSinkSettings): UnifiedJedis = {
+    val connection = sinkSettings.connectionInfo
+    configureSsl(connection)
+
+    val clientConfig = DefaultJedisClientConfig.builder()
+      .ssl(connection.isSslConnection)
+      .password(connection.password.orNull)
+      .build()
+
+    val poolConfig = new ConnectionPoolConfig()
+    poolConfig.setMaxTotal(sinkSettings.pool.maxTotal)
+    poolConfig.setMaxIdle(sinkSettings.pool.maxTotal)
+
+    if (sinkSettings.pool.clusterNodes.nonEmpty) {
+      new JedisCluster(sinkSettings.pool.clusterNodes.asJava, clientConfig, JedisCluster.DEFAULT_MAX_ATTEMPTS, poolConfig)
+    } else {
+      new JedisPooled(poolConfig, new HostAndPort(connection.host, connection.port), clientConfig)
+    }
+  }
+
+  private def configureSsl(connection: RedisConnectionInfo): Unit =
     if (connection.isSslConnection) {
       connection.keyStoreFilepath match {
         case Some(path) =>
@@ -52,9 +91,4 @@ object JedisClientBuilder {
         case None =>
       }
     }
-
-    val jedis = new Jedis(connection.host, connection.port, connection.isSslConnection)
-    connection.password.foreach(p => jedis.auth(p))
-    jedis
-  }
 }
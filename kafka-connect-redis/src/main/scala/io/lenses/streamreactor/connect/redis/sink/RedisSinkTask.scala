@@ -16,12 +16,14 @@
 package io.lenses.streamreactor.connect.redis.sink
 
 import io.lenses.streamreactor.common.errors.RetryErrorPolicy
+import io.lenses.streamreactor.common.metrics.MetricsRegistrar
 import io.lenses.streamreactor.common.util.AsciiArtPrinter.printAsciiHeader
 import io.lenses.streamreactor.common.utils.JarManifestProvided
 import io.lenses.streamreactor.common.utils.ProgressCounter
 import io.lenses.streamreactor.connect.redis.sink.config.RedisConfig
 import io.lenses.streamreactor.connect.redis.sink.config.RedisConfigConstants
 import io.lenses.streamreactor.connect.redis.sink.config.RedisSinkSettings
+import io.lenses.streamreactor.connect.redis.sink.metrics.RedisSinkMetrics
 import io.lenses.streamreactor.connect.redis.sink.writer._
 import com.typesafe.scalalogging.StrictLogging
 import io.lenses.streamreactor.common.sink.DbWriter
@@ -31,6 +33,7 @@ import org.apache.kafka.connect.sink.SinkRecord
 import org.apache.kafka.connect.sink.SinkTask
 
 import java.util
+import javax.management.ObjectName
 import scala.jdk.CollectionConverters.IterableHasAsScala
 import scala.jdk.CollectionConverters.ListHasAsScala
 import scala.jdk.CollectionConverters.MapHasAsScala
@@ -45,6 +48,7 @@ class RedisSinkTask extends SinkTask with StrictLogging with JarManifestProvided
   var writer: List[DbWriter] = List[DbWriter]()
   private val progressCounter = new ProgressCounter
   private var enableProgress: Boolean = false
+  private var metrics: Option[(RedisSinkMetrics, ObjectName)] = None
 
   /**
     * Parse the configurations and setup the writer
@@ -84,36 +88,55 @@ class RedisSinkTask extends SinkTask with StrictLogging with JarManifestProvided
     val mode_GEOADD = filterGeoAddMode(settings)
 
     val mode_STREAM = filterStream(settings)
-    val jedis       = JedisClientBuilder.createClient(settings)
+    val client      = createClient(settings, conf.asScala.getOrElse("name", "redis-sink"))
     //-- Start as many writers as required
     writer = (modeCache.kcqlSettings.headOption.map { _ =>
       logger.info(s"Starting [${modeCache.kcqlSettings.size}] KCQLs with Redis Cache mode")
-      val writer = new RedisCache(modeCache, jedis)
+      val writer = new RedisCache(modeCache, client)
       List(writer)
     } ++ mode_INSERT_SS.kcqlSettings.headOption.map { _ =>
       logger.info(s"Starting ${mode_INSERT_SS.kcqlSettings.size}] KCQLs with Redis Insert Sorted Set mode")
-      val writer = new RedisInsertSortedSet(mode_INSERT_SS, jedis)
+      val writer = new RedisInsertSortedSet(mode_INSERT_SS, client)
       List(writer)
     } ++ mode_PUBSUB.kcqlSettings.headOption.map { _ =>
       logger.info(s"Starting [${mode_PUBSUB.kcqlSettings.size}] KCQLs with Redis PubSub mode")
-      val writer = new RedisPubSub(mode_PUBSUB, jedis)
+      val writer = new RedisPubSub(mode_PUBSUB, client)
       List(writer)
     } ++ mode_PK_SS.kcqlSettings.headOption.map { _ =>
       logger.info(s"Starting [${mode_PK_SS.kcqlSettings.size}] KCQLs with Redis Multiple Sorted Sets mode")
-      val writer = new RedisMultipleSortedSets(mode_PK_SS, jedis)
+      val writer = new RedisMultipleSortedSets(mode_PK_SS, client)
       List(writer)
     } ++ mode_GEOADD.kcqlSettings.headOption.map { _ =>
       logger.info(s"Starting [${mode_GEOADD.kcqlSettings.size}] KCQLs with Redis Geo Add mode")
-      List(new RedisGeoAdd(mode_GEOADD, jedis))
+      List(new RedisGeoAdd(mode_GEOADD, client))
     } ++ mode_STREAM.kcqlSettings.headOption.map { _ =>
       logger.info(s"Starting [${mode_STREAM.kcqlSettings.size}] KCQLs with Redis Stream mode")
-      val writer = new RedisStreams(mode_STREAM, jedis)
+      val writer = new RedisStreams(mode_STREAM, client)
       List(writer)
     }).flatten.toList
 
     require(writer.nonEmpty, s"No writers set for [${RedisConfigConstants.KCQL_CONFIG}]")
   }
 
+  /**
+    * Create the client the writers share, writing the shards of the batches concurrently on pooled connections when
+    * pooling is enabled, in which case the write times and the pool usage are exposed as an MBean
+    */
+  private def createClient(settings: RedisSinkSettings, sinkName: String): RedisClient =
+    if (settings.pool.enabled) {
+      val pooled      = JedisClientBuilder.createPooledClient(settings)
+      val sinkMetrics = new RedisSinkMetrics(() => PooledRedisClient.pools(pooled))
+      val metricsName = MetricsRegistrar.taskMetricsName(RedisSinkMetrics.Domain, sinkName)
+      MetricsRegistrar.register(sinkMetrics, metricsName)
+      metrics = Some((sinkMetrics, metricsName))
+      logger.info(
+        s"Writing to Redis on up to [${settings.pool.maxTotal}] pooled connections in [${settings.pool.shards}] shards",
+      )
+      new PooledRedisClient(pooled, settings.pool.shards, sinkMetrics)
+    } else {
+      RedisClient(JedisClientBuilder.createClient(settings))
+    }
+
   /**
     * Construct a RedisSinkSettings object containing all the kcqlConfigs that use the Cache mode.
     * This function will filter by the absence of the "STOREAS" keyword and the presence of primary keys.
@@ -234,11 +257,12 @@ class RedisSinkTask extends SinkTask with StrictLogging with JarManifestProvided
   override def stop(): Unit = {
     logger.info("Stopping Redis sink.")
     writer.foreach(w => w.close())
+    metrics.foreach { case (_, objectName) => MetricsRegistrar.unregister(objectName) }
+    metrics = None
     progressCounter.empty()
   }
 
-  override def flush(map: util.Map[TopicPartition, OffsetAndMetadata]): Unit = {
-    //TODO
-    //have the writer expose a is busy; can expose an await using a countdownlatch internally
-  }
+  override def flush(map: util.Map[TopicPartition, OffsetAndMetadata]): Unit =
+    //the writes of a batch are sent by the time put returns, the write times are summarised once per commit
+    metrics.foreach { case (sinkMetrics, _) => sinkMetrics.resetWriteTime() }
 }
@@ -132,6 +132,58 @@ object RedisConfig {
       Importance.LOW,
       RedisConfigConstants.REDIS_PK_DELIMITER_DOC,
     )
+    .define(
+      RedisConfigConstants.REDIS_PIPELINE_ENABLED,
+      Type.BOOLEAN,
+      RedisConfigConstants.REDIS_PIPELINE_ENABLED_DEFAULT,
+      Importance.MEDIUM,
+      RedisConfigConstants.REDIS_PIPELINE_ENABLED_DOC,
+    )
+    .define(
+      RedisConfigConstants.REDIS_PIPELINE_BATCH_SIZE,
+      Type.INT,
+      RedisConfigConstants.REDIS_PIPELINE_BATCH_SIZE_DEFAULT,
+      ConfigDef.Range.atLeast(1),
+      Importance.LOW,
+      RedisConfigConstants.REDIS_PIPELINE_BATCH_SIZE_DOC,
+    )
+    .define(
+      RedisConfigConstants.REDIS_PIPELINE_TRANSACTIONAL,
+      Type.BOOLEAN,
+      RedisConfigConstants.REDIS_PIPELINE_TRANSACTIONAL_DEFAULT,
+      Importance.LOW,
+      RedisConfigConstants.REDIS_PIPELINE_TRANSACTIONAL_DOC,
+    )
+    .define(
+      RedisConfigConstants.REDIS_POOL_ENABLED,
+      Type.BOOLEAN,
+      RedisConfigConstants.REDIS_POOL_ENABLED_DEFAULT,
+      Importance.MEDIUM,
+      RedisConfigConstants.REDIS_POOL_ENABLED_DOC,
+    )
+    .define(
+      RedisConfigConstants.REDIS_POOL_MAX_TOTAL,
+      Type.INT,
+      RedisConfigConstants.REDIS_POOL_MAX_TOTAL_DEFAULT,
+      ConfigDef.Range.atLeast(1),
+      Importance.LOW,
+      RedisConfigConstants.REDIS_POOL_MAX_TOTAL_DOC,
+    )
+    .define(
+      RedisConfigConstants.REDIS_WRITE_SHARDS,
+      Type.INT,
+      RedisConfigConstants.REDIS_WRITE_SHARDS_DEFAULT,
+      ConfigDef.Range.atLeast(1),
+      Importance.LOW,
+      RedisConfigConstants.REDIS_WRITE_SHARDS_DOC,
+    )
+    .define(
+      RedisConfigConstants.REDIS_CLUSTER_NODES,
+      Type.LIST,
+      "",
+      Importance.MEDIUM,
+      RedisConfigConstants.REDIS_CLUSTER_NODES_DOC,
+    )
     .withClientSslSupport()
 }
 
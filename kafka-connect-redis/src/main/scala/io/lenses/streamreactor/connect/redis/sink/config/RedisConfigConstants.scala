@@ -77,4 +77,58 @@ object RedisConfigConstants {
       |Specifies the redis primary key delimiter
     """.stripMargin
   val REDIS_PK_DELIMITER_DEFAULT_VALUE = "."
+
+  val REDIS_PIPELINE_ENABLED = s"$CONNECTOR_PREFIX.pipeline.enabled"
+  private[config] val REDIS_PIPELINE_ENABLED_DOC: String =
+    """
+      |Queues the Redis commands of each batch of records on a pipeline instead of waiting for the reply of every
+      |command. Errors Redis replies with are reported once the queued commands are sent.
+    """.stripMargin
+  val REDIS_PIPELINE_ENABLED_DEFAULT = false
+
+  val REDIS_PIPELINE_BATCH_SIZE = s"$CONNECTOR_PREFIX.pipeline.batch.size"
+  private[config] val REDIS_PIPELINE_BATCH_SIZE_DOC: String =
+    """
+      |The number of queued commands which makes the pipeline send them, when pipelining is enabled.
+    """.stripMargin
+  val REDIS_PIPELINE_BATCH_SIZE_DEFAULT = 1000
+
+  val REDIS_PIPELINE_TRANSACTIONAL = s"$CONNECTOR_PREFIX.pipeline.transactional"
+  private[config] val REDIS_PIPELINE_TRANSACTIONAL_DOC: String =
+    """
+      |Wraps the commands sent together by the pipeline in MULTI/EXEC, when pipelining is enabled.
+    """.stripMargin
+  val REDIS_PIPELINE_TRANSACTIONAL_DEFAULT = false
+
+  val REDIS_POOL_ENABLED = s"$CONNECTOR_PREFIX.pool.enabled"
+  private[config] val REDIS_POOL_ENABLED_DOC: String =
+    """
+      |Writes through a pool of connections, splitting the commands of each batch of records into shards by the hash
+      |slot of their key and writing the shards concurrently.
+    """.stripMargin
+  val REDIS_POOL_ENABLED_DEFAULT = false
+
+  val REDIS_POOL_MAX_TOTAL = s"$CONNECTOR_PREFIX.pool.max.total"
+  private[config] val REDIS_POOL_MAX_TOTAL_DOC: String =
+    """
+      |The maximum number of pooled connections, to each node of a Redis Cluster.
+    """.stripMargin
+  val REDIS_POOL_MAX_TOTAL_DEFAULT = 8
+
+  val REDIS_WRITE_SHARDS = s"$CONNECTOR_PREFIX.write.shards"
+  private[config] val REDIS_WRITE_SHARDS_DOC: String =
+    """
+      |The number of shards the commands of a batch of records are split into, and written concurrently, when writing
+      |through a pool or to a Redis Cluster. When a shard fails the whole batch is retried, so the commands the other
+      |shards wrote are written again: harmless for the cache, sorted set and geo modes, but the stream (XADD) and
+      |pub/sub (PUBLISH) modes deliver those entries and messages twice.
+    """.stripMargin
+  val REDIS_WRITE_SHARDS_DEFAULT = 4
+
+  val REDIS_CLUSTER_NODES = s"$CONNECTOR_PREFIX.cluster.nodes"
+  private[config] val REDIS_CLUSTER_NODES_DOC: String =
+    """
+      |Comma separated host:port list of Redis Cluster nodes to discover the cluster from. When set the sink writes to
+      |the cluster through pooled connections to its nodes, instead of to the host and port.
+    """.stripMargin
 }
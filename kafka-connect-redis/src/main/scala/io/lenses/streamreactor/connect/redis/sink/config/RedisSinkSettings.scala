@@ -21,8 +21,10 @@ import io.lenses.streamreactor.common.errors.ThrowErrorPolicy
 import io.lenses.streamreactor.connect.redis.sink.rowkeys.StringKeyBuilder
 import org.apache.kafka.common.config.ConfigException
 import org.apache.kafka.common.config.SslConfigs
+import redis.clients.jedis.HostAndPort
 
 import scala.jdk.CollectionConverters.ListHasAsScala
+import scala.util.Try
 
 // Redis connection details: host, port, password
 case class RedisConnectionInfo(
@@ -48,13 +50,77 @@ case class RedisKCQLSetting(
   ignoredFields:    Set[String],
 )
 
+// Pipelining of the Redis commands: off, or sending every batchSize commands, optionally within MULTI/EXEC
+case class RedisPipelineSettings(
+  enabled:       Boolean,
+  batchSize:     Int,
+  transactional: Boolean,
+)
+
+object RedisPipelineSettings {
+  val Disabled: RedisPipelineSettings = RedisPipelineSettings(
+    enabled       = false,
+    batchSize     = RedisConfigConstants.REDIS_PIPELINE_BATCH_SIZE_DEFAULT,
+    transactional = false,
+  )
+
+  def apply(config: RedisConfig): RedisPipelineSettings =
+    RedisPipelineSettings(
+      enabled       = config.getBoolean(RedisConfigConstants.REDIS_PIPELINE_ENABLED),
+      batchSize     = config.getInt(RedisConfigConstants.REDIS_PIPELINE_BATCH_SIZE),
+      transactional = config.getBoolean(RedisConfigConstants.REDIS_PIPELINE_TRANSACTIONAL),
+    )
+}
+
+// Pooled connections, to the host and port or to the nodes of a Redis Cluster, written to by concurrent shards
+case class RedisPoolSettings(
+  enabled:      Boolean,
+  maxTotal:     Int,
+  shards:       Int,
+  clusterNodes: Set[HostAndPort],
+)
+
+object RedisPoolSettings {
+  val Disabled: RedisPoolSettings = RedisPoolSettings(
+    enabled      = false,
+    maxTotal     = RedisConfigConstants.REDIS_POOL_MAX_TOTAL_DEFAULT,
+    shards       = RedisConfigConstants.REDIS_WRITE_SHARDS_DEFAULT,
+    clusterNodes = Set.empty,
+  )
+
+  def apply(config: RedisConfig, pipeline: RedisPipelineSettings): RedisPoolSettings = {
+    val clusterNodes = config.getList(RedisConfigConstants.REDIS_CLUSTER_NODES).asScala
+      .map(_.trim)
+      .filter(_.nonEmpty)
+      .map { node =>
+        Try(HostAndPort.from(node)).getOrElse(
+          throw new ConfigException(s"[${RedisConfigConstants.REDIS_CLUSTER_NODES}] has an invalid host:port [$node]"),
+        )
+      }.toSet
+    if (clusterNodes.nonEmpty && pipeline.enabled && pipeline.transactional) {
+      throw new ConfigException(
+        s"[${RedisConfigConstants.REDIS_PIPELINE_TRANSACTIONAL}] is not supported by Redis Cluster, " +
+          s"remove it or [${RedisConfigConstants.REDIS_CLUSTER_NODES}]",
+      )
+    }
+    RedisPoolSettings(
+      enabled      = config.getBoolean(RedisConfigConstants.REDIS_POOL_ENABLED) || clusterNodes.nonEmpty,
+      maxTotal     = config.getInt(RedisConfigConstants.REDIS_POOL_MAX_TOTAL),
+      shards       = config.getInt(RedisConfigConstants.REDIS_WRITE_SHARDS),
+      clusterNodes = clusterNodes,
+    )
+  }
+}
+
 // All the settings of the running connector
 case class RedisSinkSettings(
   connectionInfo: RedisConnectionInfo,
   pkDelimiter:    String,
   kcqlSettings:   Set[RedisKCQLSetting],
-  errorPolicy:    ErrorPolicy = new ThrowErrorPolicy,
-  taskRetries:    Int         = RedisConfigConstants.NBR_OF_RETIRES_DEFAULT,
+  errorPolicy:    ErrorPolicy           = new ThrowErrorPolicy,
+  taskRetries:    Int                   = RedisConfigConstants.NBR_OF_RETIRES_DEFAULT,
+  pipeline:       RedisPipelineSettings = RedisPipelineSettings.Disabled,
+  pool:           RedisPoolSettings     = RedisPoolSettings.Disabled,
 )
 
 object RedisSinkSettings {
@@ -93,7 +159,16 @@ object RedisSinkSettings {
       )
     }.toSet
 
-    RedisSinkSettings(connectionInfo, pkDelimiter, allRedisKCQLSettings, errorPolicy, nbrOfRetries)
+    val pipeline = RedisPipelineSettings(config)
+
+    RedisSinkSettings(connectionInfo,
+                      pkDelimiter,
+                      allRedisKCQLSettings,
+                      errorPolicy,
+                      nbrOfRetries,
+                      pipeline,
+                      RedisPoolSettings(config, pipeline),
+    )
   }
 
 }
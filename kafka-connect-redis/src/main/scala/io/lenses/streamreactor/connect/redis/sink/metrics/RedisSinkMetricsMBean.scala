@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.redis.sink.metrics
+
+import org.HdrHistogram.Recorder
+import redis.clients.jedis.ConnectionPool
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.LongAdder
+
+trait RedisSinkMetricsMBean {
+  def getFailedWritesCount: Long
+  def getP50WriteTimeMs:    Long
+  def getP95WriteTimeMs:    Long
+  def getP99WriteTimeMs:    Long
+  def getActiveConnections: Long
+  def getIdleConnections:   Long
+  def getConnectionWaiters: Long
+}
+
+object RedisSinkMetrics {
+
+  /**
+    * Domain of the MBean, registered per task as `type=metrics,name=<sink name>,task=<n>`
+    */
+  val Domain = "io.lenses.streamreactor.connect.redis.sink"
+}
+
+/**
+  * @param pools the connection pools of the client, one per node for the Redis Cluster
+  */
+class RedisSinkMetrics(pools: () => Iterable[ConnectionPool]) extends RedisSinkMetricsMBean {
+  private val failedWrites = new LongAdder()
+
+  private val p50WriteTimeMs = new AtomicLong(0L)
+  private val p95WriteTimeMs = new AtomicLong(0L)
+  private val p99WriteTimeMs = new AtomicLong(0L)
+
+  // a write taking longer than an hour is reported as an hour
+  private val MaxValueMillis = 60 * 60 * 1000L
+  private val recorder       = new Recorder(MaxValueMillis, 3)
+
+  /**
+    * Record the time taken to write the commands of a shard
+    */
+  def recordWriteTime(millis: Long): Unit =
+    recorder.recordValue(math.min(millis, MaxValueMillis))
+
+  /**
+    * Reset the write time histogram and calculate the percentiles
+    */
+  def resetWriteTime(): Unit = {
+    val histogram = recorder.getIntervalHistogram()
+    p50WriteTimeMs.set(histogram.getValueAtPercentile(50.0))
+    p95WriteTimeMs.set(histogram.getValueAtPercentile(95.0))
+    p99WriteTimeMs.set(histogram.getValueAtPercentile(99.0))
+  }
+
+  def incrementFailedWrites(): Unit = failedWrites.increment()
+
+  override def getFailedWritesCount: Long = failedWrites.sum()
+  override def getP50WriteTimeMs:    Long = p50WriteTimeMs.get()
+  override def getP95WriteTimeMs:    Long = p95WriteTimeMs.get()
+  override def getP99WriteTimeMs:    Long = p99WriteTimeMs.get()
+
+  override def getActiveConnections: Long = pools().map(_.getNumActive.toLong).sum
+  override def getIdleConnections:   Long = pools().map(_.getNumIdle.toLong).sum
+  override def getConnectionWaiters: Long = pools().map(_.getNumWaiters.toLong).sum
+}
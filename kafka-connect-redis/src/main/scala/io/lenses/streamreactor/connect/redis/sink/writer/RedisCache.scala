@@ -23,7 +23,6 @@ import io.lenses.streamreactor.common.schemas.SinkRecordConverterHelper.SinkReco
 import io.lenses.streamreactor.common.schemas.StructHelper
 import io.lenses.streamreactor.common.sink.DbWriter
 import io.lenses.streamreactor.connect.json.SimpleJsonConverter
-import io.lenses.streamreactor.connect.redis.sink.config.RedisKCQLSetting
 import io.lenses.streamreactor.connect.redis.sink.config.RedisSinkSettings
 import org.apache.kafka.connect.errors.ConnectException
 import org.apache.kafka.connect.sink.SinkRecord
@@ -44,9 +43,16 @@ import scala.util.Try
   * INSERT INTO FX- SELECT price from yahoo-fx PK symbol
   * SELECT price from yahoo-fx PK symbol WITHEXTRACT
   */
-class RedisCache(sinkSettings: RedisSinkSettings, jedis: Jedis) extends DbWriter with StrictLogging with ErrorHandler {
+class RedisCache(sinkSettings: RedisSinkSettings, client: RedisClient)
+    extends DbWriter
+    with StrictLogging
+    with ErrorHandler {
   initialize(sinkSettings.taskRetries, sinkSettings.errorPolicy)
 
+  def this(sinkSettings: RedisSinkSettings, jedis: Jedis) = this(sinkSettings, RedisClient(jedis))
+
+  private val commands = client.commands(sinkSettings.pipeline)
+
   private lazy val simpleJsonConverter = new SimpleJsonConverter()
   val configs: Set[Kcql] = sinkSettings.kcqlSettings.map(_.kcqlConfig)
   configs.foreach { c =>
@@ -58,6 +64,8 @@ class RedisCache(sinkSettings: RedisSinkSettings, jedis: Jedis) extends DbWriter
     assert(c.getStoredAs == null, "The Redis CACHE mode does not support STOREAS")
   }
 
+  private val plan = RedisWritePlan(sinkSettings, RedisWritePlan.FlattenedKey)(_ => ())
+
   private val projections = Projections(
     kcqls            = configs,
     props            = Map.empty,
@@ -79,22 +87,17 @@ class RedisCache(sinkSettings: RedisSinkSettings, jedis: Jedis) extends DbWriter
   def insert(records: Map[String, Seq[SinkRecord]]): Unit =
     records.foreach {
       case (topic, sinkRecords) => {
-          val topicSettings: Set[RedisKCQLSetting] = sinkSettings.kcqlSettings.filter(_.kcqlConfig.getSource == topic)
-          if (topicSettings.isEmpty)
+          val topicPlans = plan.forTopic(topic)
+          if (topicPlans.isEmpty)
             logger.warn(s"No KCQL statement set for [$topic]")
           //pass try to error handler and try
-          val t = Try {
+          val t = Try(commands.sending {
             sinkRecords.foreach { record =>
               val struct = record.newFilteredRecordAsStruct(projections)
 
-              topicSettings.map { KCQL =>
-                // We can prefix the name of the <KEY> using the target
-                val optionalPrefix =
-                  if (Option(KCQL.kcqlConfig.getTarget).isEmpty) "" else KCQL.kcqlConfig.getTarget.trim
+              topicPlans.foreach { KCQL =>
                 //extract will flatten if parent/child detected
-                val keys = KCQL.kcqlConfig.getPrimaryKeys.asScala.map(pk =>
-                  (pk.toString, pk.toString.replaceAll("\\.", "_")),
-                ).toMap
+                val keys = KCQL.keys
 
                 Try(record.extract(
                   record.value(),
@@ -116,14 +119,15 @@ class RedisCache(sinkSettings: RedisSinkSettings, jedis: Jedis) extends DbWriter
                           )
                       }.mkString(sinkSettings.pkDelimiter)
 
-                    val key = optionalPrefix + pkValue
+                    // We can prefix the name of the <KEY> using the target
+                    val key = KCQL.prefix + pkValue
 
                     val payload = simpleJsonConverter.fromConnectData(struct.schema(), struct).toString
-                    val ttl     = KCQL.kcqlConfig.getTTL
+                    val ttl     = KCQL.ttl
                     if (ttl <= 0) {
-                      jedis.set(key, payload)
+                      commands.set(key, payload)
                     } else {
-                      jedis.setex(key, ttl, payload)
+                      commands.setex(key, ttl, payload)
                     }
 
                   case Failure(_) =>
@@ -133,10 +137,10 @@ class RedisCache(sinkSettings: RedisSinkSettings, jedis: Jedis) extends DbWriter
                 }
               }
             }
-          }
+          })
           handleTry(t)
         }
         logger.debug(s"Wrote [${sinkRecords.size}] rows for topic [$topic]")
     }
-  override def close(): Unit = jedis.close()
+  override def close(): Unit = client.close()
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.redis.sink.writer
+
+import io.lenses.streamreactor.connect.redis.sink.config.RedisPipelineSettings
+import io.lenses.streamreactor.connect.redis.sink.metrics.RedisSinkMetrics
+import redis.clients.jedis.ConnectionPool
+import redis.clients.jedis.Jedis
+import redis.clients.jedis.JedisCluster
+import redis.clients.jedis.JedisPooled
+import redis.clients.jedis.UnifiedJedis
+
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import scala.concurrent.ExecutionContext
+import scala.jdk.CollectionConverters.CollectionHasAsScala
+
+/**
+  * The connection to Redis the writers of a task share
+  */
+trait RedisClient extends AutoCloseable {
+
+  /**
+    * The commands a writer issues for its records
+    */
+  def commands(pipeline: RedisPipelineSettings): RedisCommands
+}
+
+object RedisClient {
+
+  def apply(jedis: Jedis): RedisClient = new SingleConnectionRedisClient(jedis)
+}
+
+class SingleConnectionRedisClient(jedis: Jedis) extends RedisClient {
+
+  override def commands(pipeline: RedisPipelineSettings): RedisCommands = RedisCommands(jedis, pipeline)
+
+  override def close(): Unit = jedis.close()
+}
+
+/**
+  * Borrows its connections from the pools of the client and writes the commands of each shard on its own thread
+  *
+  * @param shards the number of shards the commands of a batch of records are split into by the hash slot of their key
+  */
+class PooledRedisClient(val client: UnifiedJedis, shards: Int, metrics: RedisSinkMetrics) extends RedisClient {
+
+  private val executor         = Executors.newFixedThreadPool(shards, PooledRedisClient.shardThreadFactory)
+  private val executionContext = ExecutionContext.fromExecutorService(executor)
+  private val closed           = new AtomicBoolean(false)
+
+  override def commands(pipeline: RedisPipelineSettings): RedisCommands =
+    new ShardedRedisCommands(Vector.fill(shards)(RedisCommands(client, pipeline)), executionContext, metrics)
+
+  /**
+    * The writers share the client, the first of them to close it shuts it down
+    */
+  override def close(): Unit =
+    if (closed.compareAndSet(false, true)) {
+      val _ = executor.shutdownNow()
+      client.close()
+    }
+}
+
+object PooledRedisClient {
+
+  private val shardThreadCounter = new AtomicInteger(0)
+
+  private val shardThreadFactory: ThreadFactory =
+    new ThreadFactory {
+      override def newThread(runnable: Runnable): Thread = {
+        val thread = new Thread(runnable, s"redis-shard-writer-${shardThreadCounter.incrementAndGet()}")
+        thread.setDaemon(true)
+        thread
+      }
+    }
+
+  /**
+    * The connection pools of the client, one per node of the Redis Cluster
+    */
+  def pools(client: UnifiedJedis): Iterable[ConnectionPool] =
+    client match {
+      case cluster: JedisCluster => cluster.getClusterNodes.values().asScala
+      case pooled:  JedisPooled  => List(pooled.getPool)
+      case _ => List.empty
+    }
+}
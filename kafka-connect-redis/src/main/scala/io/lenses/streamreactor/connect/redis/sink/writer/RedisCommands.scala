@@ -0,0 +1,259 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.redis.sink.writer
+
+import com.typesafe.scalalogging.StrictLogging
+import io.lenses.streamreactor.connect.redis.sink.config.RedisPipelineSettings
+import org.apache.kafka.connect.errors.ConnectException
+import redis.clients.jedis.AbstractTransaction
+import redis.clients.jedis.Jedis
+import redis.clients.jedis.Pipeline
+import redis.clients.jedis.Response
+import redis.clients.jedis.Transaction
+import redis.clients.jedis.UnifiedJedis
+import redis.clients.jedis.commands.PipelineCommands
+import redis.clients.jedis.exceptions.JedisDataException
+import redis.clients.jedis.params.XAddParams
+
+import java.io.Closeable
+import scala.collection.mutable.ArrayBuffer
+import scala.util.Failure
+import scala.util.Success
+import scala.util.Try
+
+/**
+  * The Redis commands the writers issue for their records
+  */
+trait RedisCommands {
+
+  def set(key: String, value: String): Unit
+
+  def setex(key: String, ttl: Long, value: String): Unit
+
+  /**
+    * Adds the member to the sorted set and, when it was not there yet and the ttl is positive, expires the set
+    */
+  def zadd(key: String, score: Double, member: String, ttl: Long): Unit
+
+  def geoadd(key: String, longitude: Double, latitude: Double, member: String): Unit
+
+  def publish(channel: String, message: String): Unit
+
+  def xadd(key: String, fields: java.util.Map[String, String]): Unit
+
+  /**
+    * Runs the writes of a batch of records and sends the commands still queued, even when a write fails, so the
+    * connection is not left with replies to read. Commands Redis replied to with an error fail the batch.
+    */
+  def sending[A](writes: => A): A
+}
+
+object RedisCommands {
+
+  def apply(jedis: Jedis, settings: RedisPipelineSettings): RedisCommands =
+    if (settings.enabled) {
+      new PipelinedRedisCommands(
+        () =>
+          if (settings.transactional) new Transaction(jedis.getConnection) else new Pipeline(jedis.getConnection),
+        settings.batchSize,
+      )
+    } else new DirectRedisCommands(jedis)
+
+  /**
+    * The commands on a client borrowing a pooled connection for every command, or every pipeline when pipelining
+    */
+  def apply(client: UnifiedJedis, settings: RedisPipelineSettings): RedisCommands =
+    if (settings.enabled) {
+      new PipelinedRedisCommands(() => if (settings.transactional) client.multi() else client.pipelined(),
+                                 settings.batchSize,
+      )
+    } else new UnifiedRedisCommands(client)
+}
+
+/**
+  * Sends every command on its own, waiting for its reply
+  */
+class DirectRedisCommands(jedis: Jedis) extends RedisCommands {
+
+  override def set(key: String, value: String): Unit = {
+    val _ = jedis.set(key, value)
+  }
+
+  override def setex(key: String, ttl: Long, value: String): Unit = {
+    val _ = jedis.setex(key, ttl, value)
+  }
+
+  override def zadd(key: String, score: Double, member: String, ttl: Long): Unit =
+    if (jedis.zadd(key, score, member) == 1 && ttl > 0) {
+      val _ = jedis.expire(key, ttl)
+    }
+
+  override def geoadd(key: String, longitude: Double, latitude: Double, member: String): Unit = {
+    val _ = jedis.geoadd(key, longitude, latitude, member)
+  }
+
+  override def publish(channel: String, message: String): Unit = {
+    val _ = jedis.publish(channel, message)
+  }
+
+  override def xadd(key: String, fields: java.util.Map[String, String]): Unit = {
+    val _ = jedis.xadd(key, new XAddParams, fields)
+  }
+
+  override def sending[A](writes: => A): A = writes
+}
+
+/**
+  * Sends every command on its own on a connection borrowed from the pool of the client, waiting for its reply
+  */
+class UnifiedRedisCommands(client: UnifiedJedis) extends RedisCommands {
+
+  override def set(key: String, value: String): Unit = {
+    val _ = client.set(key, value)
+  }
+
+  override def setex(key: String, ttl: Long, value: String): Unit = {
+    val _ = client.setex(key, ttl, value)
+  }
+
+  override def zadd(key: String, score: Double, member: String, ttl: Long): Unit =
+    if (client.zadd(key, score, member) == 1 && ttl > 0) {
+      val _ = client.expire(key, ttl)
+    }
+
+  override def geoadd(key: String, longitude: Double, latitude: Double, member: String): Unit = {
+    val _ = client.geoadd(key, longitude, latitude, member)
+  }
+
+  override def publish(channel: String, message: String): Unit = {
+    val _ = client.publish(channel, message)
+  }
+
+  override def xadd(key: String, fields: java.util.Map[String, String]): Unit = {
+    val _ = client.xadd(key, new XAddParams, fields)
+  }
+
+  override def sending[A](writes: => A): A = writes
+}
+
+/**
+  * Queues the commands on a pipeline, or a MULTI/EXEC transaction, and sends them every `batchSize` commands and at
+  * the end of each batch of records, so a batch costs one round trip per `batchSize` commands rather than one per
+  * command. The replies are only read when the commands are sent, which is when the errors among them are reported.
+  */
+class PipelinedRedisCommands(newQueue: () => PipelineCommands, batchSize: Int)
+    extends RedisCommands
+    with StrictLogging {
+
+  private var queue: PipelineCommands = _
+  private val replies       = ArrayBuffer.empty[Response[_]]
+  private val sortedSetAdds = ArrayBuffer.empty[(Response[java.lang.Long], String, Long)]
+  private val errors        = ArrayBuffer.empty[Throwable]
+  private var sent          = 0L
+
+  override def set(key: String, value: String): Unit =
+    enqueue(_.set(key, value))
+
+  override def setex(key: String, ttl: Long, value: String): Unit =
+    enqueue(_.setex(key, ttl, value))
+
+  override def zadd(key: String, score: Double, member: String, ttl: Long): Unit = {
+    // whether the member was added is only known once the reply is read, the set is expired in the next send then
+    val added = enqueueWithReply(_.zadd(key, score, member))
+    if (ttl > 0) {
+      val _ = sortedSetAdds += ((added, key, ttl))
+    }
+  }
+
+  override def geoadd(key: String, longitude: Double, latitude: Double, member: String): Unit =
+    enqueue(_.geoadd(key, longitude, latitude, member))
+
+  override def publish(channel: String, message: String): Unit =
+    enqueue(_.publish(channel, message))
+
+  override def xadd(key: String, fields: java.util.Map[String, String]): Unit =
+    enqueue(_.xadd(key, new XAddParams, fields))
+
+  override def sending[A](writes: => A): A = {
+    val written = Try(writes)
+    val flushed = Try(flush())
+    written.flatMap(result => flushed.map(_ => result)).get
+  }
+
+  /**
+    * Sends the queued commands, and the expiries of the sorted sets they added members to, then fails with the errors
+    * Redis replied with since the last flush
+    */
+  def flush(): Unit = {
+    while (queue != null) send()
+    val failed = errors.toList
+    val total  = sent
+    errors.clear()
+    sent = 0L
+    failed.headOption.foreach { first =>
+      throw new ConnectException(
+        s"[${failed.size}] of [$total] pipelined Redis commands failed, the first with [${first.getMessage}]",
+        first,
+      )
+    }
+  }
+
+  private def enqueue(command: PipelineCommands => Response[_]): Unit = {
+    val _ = enqueueWithReply(command)
+  }
+
+  private def enqueueWithReply[T](command: PipelineCommands => Response[T]): Response[T] = {
+    if (queue == null) queue = newQueue()
+    val reply = command(queue)
+    replies += reply
+    if (replies.size >= batchSize) send()
+    reply
+  }
+
+  private def send(): Unit = {
+    val commands = queue
+    val queued   = replies.toList
+    val adds     = sortedSetAdds.toList
+    queue = null
+    replies.clear()
+    sortedSetAdds.clear()
+    sent += queued.size
+
+    Try(execute(commands)) match {
+      case Success(_) =>
+        queued.foreach(reply => Try(reply.get()).failed.foreach(errors += _))
+        adds.foreach {
+          case (added, key, ttl) =>
+            if (Try(added.get()).toOption.exists(_.longValue() == 1L)) enqueue(_.expire(key, ttl))
+        }
+      // a transaction Redis refused to run fails all its commands
+      case Failure(refused: JedisDataException) => errors += refused
+      case Failure(other) => throw other
+    }
+    logger.debug(s"Sent [${queued.size}] pipelined Redis commands")
+  }
+
+  // closing syncs a pipeline and gives a pooled connection back, it leaves a connection the queue does not own open
+  private def execute(commands: PipelineCommands): Unit =
+    commands match {
+      case transaction: AbstractTransaction =>
+        try {
+          val _ = transaction.exec()
+        } finally transaction.close()
+      case pipeline: Closeable => pipeline.close()
+      case other => throw new IllegalStateException(s"Unexpected Redis command queue [${other.getClass.getName}]")
+    }
+}
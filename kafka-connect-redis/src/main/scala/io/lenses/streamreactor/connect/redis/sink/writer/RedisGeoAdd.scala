@@ -23,7 +23,6 @@ import io.lenses.streamreactor.common.schemas.SinkRecordConverterHelper.SinkReco
 import io.lenses.streamreactor.common.schemas.StructHelper
 import io.lenses.streamreactor.common.sink.DbWriter
 import io.lenses.streamreactor.connect.json.SimpleJsonConverter
-import io.lenses.streamreactor.connect.redis.sink.config.RedisKCQLSetting
 import io.lenses.streamreactor.connect.redis.sink.config.RedisSinkSettings
 import org.apache.kafka.connect.errors.ConnectException
 import org.apache.kafka.connect.sink.SinkRecord
@@ -35,13 +34,17 @@ import scala.util.Failure
 import scala.util.Success
 import scala.util.Try
 
-class RedisGeoAdd(sinkSettings: RedisSinkSettings, jedis: Jedis)
+class RedisGeoAdd(sinkSettings: RedisSinkSettings, client: RedisClient)
     extends DbWriter
     with StrictLogging
     with ErrorHandler
     with GeoAddSupport {
   initialize(sinkSettings.taskRetries, sinkSettings.errorPolicy)
 
+  def this(sinkSettings: RedisSinkSettings, jedis: Jedis) = this(sinkSettings, RedisClient(jedis))
+
+  private val commands = client.commands(sinkSettings.pipeline)
+
   private lazy val simpleJsonConverter = new SimpleJsonConverter()
 
   val configs: Set[Kcql] = sinkSettings.kcqlSettings.map(_.kcqlConfig)
@@ -56,6 +59,11 @@ class RedisGeoAdd(sinkSettings: RedisSinkSettings, jedis: Jedis)
     )
     assert(c.getStoredAs.equalsIgnoreCase("GeoAdd"), "The Redis GeoAdd mode requires the KCQL syntax: STOREAS GeoAdd")
   }
+
+  private val plan = RedisWritePlan(sinkSettings, RedisWritePlan.FlattenedKey) { kcql =>
+    (getLongitudeField(kcql), getLatitudeField(kcql))
+  }
+
   private val projections = Projections(
     kcqls            = configs,
     props            = Map.empty,
@@ -77,25 +85,22 @@ class RedisGeoAdd(sinkSettings: RedisSinkSettings, jedis: Jedis)
   def insert(records: Map[String, Seq[SinkRecord]]): Unit =
     records.foreach {
       case (topic, sinkRecords: Seq[SinkRecord]) => {
-          val topicSettings: Set[RedisKCQLSetting] = sinkSettings.kcqlSettings.filter(_.kcqlConfig.getSource == topic)
-          if (topicSettings.isEmpty)
+          val topicPlans = plan.forTopic(topic)
+          if (topicPlans.isEmpty)
             logger.warn(s"No KCQL statement set for [$topic]")
           //pass try to error handler and try
-          val t = Try {
+          val t = Try(commands.sending {
             sinkRecords.foreach { record =>
               val struct = record.newFilteredRecordAsStruct(projections)
-              topicSettings.map { KCQL =>
-                val longitudeField = getLongitudeField(KCQL.kcqlConfig)
-                val latitudeField  = getLatitudeField(KCQL.kcqlConfig)
-                val keys = KCQL.kcqlConfig.getPrimaryKeys.asScala.map(pk =>
-                  (pk.toString, pk.toString.replaceAll("\\.", "_")),
-                ).toMap
+              topicPlans.foreach { KCQL =>
+                val (longitudeField, latitudeField) = KCQL.fields
+                val keys                            = KCQL.keys
 
                 Try(
                   record.extract(
                     record.value(),
                     record.valueSchema(),
-                    keys ++ Map(latitudeField -> latitudeField) ++ Map(longitudeField -> longitudeField),
+                    keys ++ Map(latitudeField -> latitudeField, longitudeField -> longitudeField),
                     Set.empty,
                   ),
                 ) match {
@@ -114,15 +119,13 @@ class RedisGeoAdd(sinkSettings: RedisSinkSettings, jedis: Jedis)
                       }.mkString(sinkSettings.pkDelimiter)
 
                     // Use the target (and optionally the prefix) to name the GeoAdd key
-                    val optionalPrefix =
-                      if (Option(KCQL.kcqlConfig.getTarget).isEmpty) "" else KCQL.kcqlConfig.getTarget.trim
-                    val key       = optionalPrefix + pkValue
+                    val key       = KCQL.prefix + pkValue
                     val payload   = simpleJsonConverter.fromConnectData(struct.schema(), struct)
                     val longitude = value.getString(longitudeField)
                     val latitude  = value.getString(latitudeField)
 
                     if (isDoubleNumber(longitude) && isDoubleNumber(latitude)) {
-                      jedis.geoadd(key, longitude.toDouble, latitude.toDouble, payload.toString)
+                      commands.geoadd(key, longitude.toDouble, latitude.toDouble, payload.toString)
                     } else {
                       logger.warn(
                         s"GeoAdd record contains invalid longitude [$longitude] and latitude [$latitude] values, " +
@@ -137,7 +140,7 @@ class RedisGeoAdd(sinkSettings: RedisSinkSettings, jedis: Jedis)
                 }
               }
             }
-          }
+          })
           handleTry(t)
         }
         logger.debug(s"Wrote [${sinkRecords.size}] rows for topic [$topic]")
@@ -145,5 +148,5 @@ class RedisGeoAdd(sinkSettings: RedisSinkSettings, jedis: Jedis)
 
   def isDoubleNumber(s: String): Boolean = (allCatch opt s.toDouble).isDefined
 
-  override def close(): Unit = jedis.close()
+  override def close(): Unit = client.close()
 }
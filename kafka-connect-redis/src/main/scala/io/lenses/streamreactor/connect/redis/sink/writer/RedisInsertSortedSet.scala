@@ -22,7 +22,6 @@ import io.lenses.streamreactor.common.errors.ErrorHandler
 import io.lenses.streamreactor.common.schemas.SinkRecordConverterHelper.SinkRecordExtension
 import io.lenses.streamreactor.common.sink.DbWriter
 import io.lenses.streamreactor.connect.json.SimpleJsonConverter
-import io.lenses.streamreactor.connect.redis.sink.config.RedisKCQLSetting
 import io.lenses.streamreactor.connect.redis.sink.config.RedisSinkSettings
 import io.lenses.streamreactor.connect.redis.sink.rowkeys.StringStructFieldsStringKeyBuilder
 import org.apache.kafka.connect.sink.SinkRecord
@@ -44,13 +43,17 @@ import scala.util.Try
   * INSERT INTO cpu_stats SELECT * from cpuTopic STOREAS SortedSet
   * INSERT INTO cpu_stats_SS SELECT * from cpuTopic STOREAS SortedSet (score=ts)
   */
-class RedisInsertSortedSet(sinkSettings: RedisSinkSettings, jedis: Jedis)
+class RedisInsertSortedSet(sinkSettings: RedisSinkSettings, client: RedisClient)
     extends DbWriter
     with StrictLogging
     with ErrorHandler
     with SortedSetSupport {
   initialize(sinkSettings.taskRetries, sinkSettings.errorPolicy)
 
+  def this(sinkSettings: RedisSinkSettings, jedis: Jedis) = this(sinkSettings, RedisClient(jedis))
+
+  private val commands = client.commands(sinkSettings.pipeline)
+
   val configs: Set[Kcql] = sinkSettings.kcqlSettings.map(_.kcqlConfig)
   configs.foreach { c =>
     assert(c.getTarget.nonEmpty, "Add to your KCQL syntax : INSERT INTO REDIS_KEY_NAME ")
@@ -70,6 +73,10 @@ class RedisInsertSortedSet(sinkSettings: RedisSinkSettings, jedis: Jedis)
     assert(c.getStoredAs.equalsIgnoreCase("SortedSet"), "This mode requires the KCQL syntax: STOREAS SortedSet")
   }
 
+  private val plan = RedisWritePlan(sinkSettings, RedisWritePlan.FlattenedKey) { kcql =>
+    StringStructFieldsStringKeyBuilder(Seq(getScoreField(kcql)))
+  }
+
   private lazy val simpleJsonConverter = new SimpleJsonConverter()
   private val projections = Projections(
     kcqls            = configs,
@@ -93,18 +100,18 @@ class RedisInsertSortedSet(sinkSettings: RedisSinkSettings, jedis: Jedis)
     records.foreach(
       {
         case (topic, sinkRecords: Seq[SinkRecord]) => {
-            val topicSettings: Set[RedisKCQLSetting] = sinkSettings.kcqlSettings.filter(_.kcqlConfig.getSource == topic)
-            if (topicSettings.isEmpty)
+            val topicPlans = plan.forTopic(topic)
+            if (topicPlans.isEmpty)
               logger.warn(s"No KCQL statement set for [$topic]")
             //pass try to error handler and try
-            val t = Try {
+            val t = Try(commands.sending {
               sinkRecords.foreach {
                 record =>
                   val struct = record.newFilteredRecordAsStruct(projections)
-                  topicSettings.map {
+                  topicPlans.foreach {
                     KCQL =>
                       // Use the target to name the SortedSet
-                      val sortedSetName = KCQL.kcqlConfig.getTarget
+                      val sortedSetName = KCQL.kcql.getTarget
                       val payload       = simpleJsonConverter.fromConnectData(struct.schema(), struct)
                       val newRecord = record.newRecord(record.topic(),
                                                        record.kafkaPartition(),
@@ -114,24 +121,16 @@ class RedisInsertSortedSet(sinkSettings: RedisSinkSettings, jedis: Jedis)
                                                        struct,
                                                        record.timestamp(),
                       )
-                      val scoreField = getScoreField(KCQL.kcqlConfig)
-                      val score      = StringStructFieldsStringKeyBuilder(Seq(scoreField)).build(newRecord).toDouble
-                      val response   = jedis.zadd(sortedSetName, score, payload.toString)
-
-                      if (response == 1) {
-                        val ttl = KCQL.kcqlConfig.getTTL
-                        if (ttl > 0) {
-                          jedis.expire(sortedSetName, ttl)
-                        }
-                      }
+                      val score = KCQL.fields.build(newRecord).toDouble
+                      commands.zadd(sortedSetName, score, payload.toString, KCQL.ttl)
                   }
               }
-            }
+            })
             handleTry(t)
           }
           logger.debug(s"Wrote [${sinkRecords.size}] rows for topic [$topic]")
       },
     )
 
-  override def close(): Unit = jedis.close()
+  override def close(): Unit = client.close()
 }
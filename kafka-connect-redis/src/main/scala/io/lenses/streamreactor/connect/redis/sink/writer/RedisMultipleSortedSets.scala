@@ -22,7 +22,6 @@ import io.lenses.streamreactor.common.schemas.SinkRecordConverterHelper.SinkReco
 import io.lenses.streamreactor.common.schemas.StructHelper
 import io.lenses.streamreactor.common.sink.DbWriter
 import io.lenses.streamreactor.connect.json.SimpleJsonConverter
-import io.lenses.streamreactor.connect.redis.sink.config.RedisKCQLSetting
 import io.lenses.streamreactor.connect.redis.sink.config.RedisSinkSettings
 import org.apache.kafka.connect.errors.ConnectException
 import org.apache.kafka.connect.sink.SinkRecord
@@ -40,13 +39,17 @@ import scala.util.Try
   *
   * .. PK .. STOREAS SortedSet
   */
-class RedisMultipleSortedSets(sinkSettings: RedisSinkSettings, jedis: Jedis)
+class RedisMultipleSortedSets(sinkSettings: RedisSinkSettings, client: RedisClient)
     extends DbWriter
     with StrictLogging
     with ErrorHandler
     with SortedSetSupport {
   initialize(sinkSettings.taskRetries, sinkSettings.errorPolicy)
 
+  def this(sinkSettings: RedisSinkSettings, jedis: Jedis) = this(sinkSettings, RedisClient(jedis))
+
+  private val commands = client.commands(sinkSettings.pipeline)
+
   private lazy val simpleJsonConverter = new SimpleJsonConverter()
 
   val configs: Set[Kcql] = sinkSettings.kcqlSettings.map(_.kcqlConfig)
@@ -65,6 +68,10 @@ class RedisMultipleSortedSets(sinkSettings: RedisSinkSettings, jedis: Jedis)
     )
   }
 
+  private val plan = RedisWritePlan(sinkSettings, pk => pk.replaceAll("//.", "_")) { kcql =>
+    ScoredFields(kcql.getFields.asScala.map(f => f.toString -> f.getAlias).toMap, getScoreField(kcql))
+  }
+
   // Write a sequence of SinkRecords to Redis
   override def write(records: Seq[SinkRecord]): Unit =
     if (records.isEmpty)
@@ -78,20 +85,18 @@ class RedisMultipleSortedSets(sinkSettings: RedisSinkSettings, jedis: Jedis)
   def insert(records: Map[String, Seq[SinkRecord]]): Unit =
     records.foreach {
       case (topic, sinkRecords: Seq[SinkRecord]) => {
-          val topicSettings: Set[RedisKCQLSetting] = sinkSettings.kcqlSettings.filter(_.kcqlConfig.getSource == topic)
-          if (topicSettings.isEmpty) {
+          val topicPlans = plan.forTopic(topic)
+          if (topicPlans.isEmpty) {
             throw new ConnectException(s"No KCQL statement set for [$topic]")
           }
           //pass try to error handler and try
-          val t = Try {
+          val t = Try(commands.sending {
             sinkRecords.foreach { record =>
-              topicSettings.map { KCQL =>
-                val keys = KCQL.kcqlConfig.getPrimaryKeys.asScala.map(pk =>
-                  (pk.toString, pk.toString.replaceAll("//.", "_")),
-                ).toMap
-                val fields      = KCQL.kcqlConfig.getFields.asScala.map(f => f.toString -> f.getAlias).toMap
-                val scoreField  = getScoreField(KCQL.kcqlConfig)
-                val scoreFields = Map(scoreField -> scoreField)
+              topicPlans.foreach { KCQL =>
+                val keys        = KCQL.keys
+                val fields      = KCQL.fields.fields
+                val scoreField  = KCQL.fields.score
+                val scoreFields = KCQL.fields.scoreFields
 
                 //convert with fields and score
                 val payload =
@@ -120,9 +125,7 @@ class RedisMultipleSortedSets(sinkSettings: RedisSinkSettings, jedis: Jedis)
                       }.mkString(sinkSettings.pkDelimiter)
 
                     // Use the target (and optionally the prefix) to name the GeoAdd key
-                    val optionalPrefix =
-                      if (Option(KCQL.kcqlConfig.getTarget).isEmpty) "" else KCQL.kcqlConfig.getTarget.trim
-                    val sortedSetName = optionalPrefix + pkValue
+                    val sortedSetName = KCQL.prefix + pkValue
 
                     val score = helper.extractValueFromPath(scoreField) match {
                       case Right(Some(v: java.lang.Long)) => v.toDouble
@@ -137,16 +140,7 @@ class RedisMultipleSortedSets(sinkSettings: RedisSinkSettings, jedis: Jedis)
                         )
                     }
 
-                    val response = jedis.zadd(sortedSetName, score, payload.toString)
-
-                    if (response == 1) {
-                      val ttl = KCQL.kcqlConfig.getTTL
-                      if (ttl > 0) {
-                        jedis.expire(sortedSetName, ttl)
-                      }
-                    }
-
-                    response
+                    commands.zadd(sortedSetName, score, payload.toString, KCQL.ttl)
                   case Failure(_) =>
                     throw new ConnectException(
                       s"Failed to constructed new record with primary key fields [${fields.mkString(",")}] and score fields [${scoreFields.mkString(",")}]",
@@ -154,11 +148,19 @@ class RedisMultipleSortedSets(sinkSettings: RedisSinkSettings, jedis: Jedis)
                 }
               }
             }
-          }
+          })
           handleTry(t)
         }
         logger.debug(s"Wrote [${sinkRecords.size}] rows for topic [$topic]")
     }
 
-  override def close(): Unit = jedis.close()
+  override def close(): Unit = client.close()
+}
+
+/**
+  * @param fields the fields written to the sorted sets, by their alias
+  * @param score  the field scoring the members of the sorted sets
+  */
+private case class ScoredFields(fields: Map[String, String], score: String) {
+  val scoreFields: Map[String, String] = Map(score -> score)
 }
@@ -22,7 +22,6 @@ import io.lenses.streamreactor.common.errors.ErrorHandler
 import io.lenses.streamreactor.common.schemas.SinkRecordConverterHelper.SinkRecordExtension
 import io.lenses.streamreactor.common.sink.DbWriter
 import io.lenses.streamreactor.connect.json.SimpleJsonConverter
-import io.lenses.streamreactor.connect.redis.sink.config.RedisKCQLSetting
 import io.lenses.streamreactor.connect.redis.sink.config.RedisSinkSettings
 import io.lenses.streamreactor.connect.redis.sink.rowkeys.StringStructFieldsStringKeyBuilder
 import org.apache.kafka.connect.sink.SinkRecord
@@ -44,12 +43,17 @@ import scala.util.Try
   * SELECT * from cpuTopic STOREAS PubSub
   * SELECT * from cpuTopic STOREAS PubSub (channel=channel)
   */
-class RedisPubSub(sinkSettings: RedisSinkSettings, jedis: Jedis)
+class RedisPubSub(sinkSettings: RedisSinkSettings, client: RedisClient)
     extends DbWriter
     with StrictLogging
     with ErrorHandler
     with PubSubSupport {
   initialize(sinkSettings.taskRetries, sinkSettings.errorPolicy)
+
+  def this(sinkSettings: RedisSinkSettings, jedis: Jedis) = this(sinkSettings, RedisClient(jedis))
+
+  private val commands = client.commands(sinkSettings.pipeline)
+
   val configs: Set[Kcql] = sinkSettings.kcqlSettings.map(_.kcqlConfig)
   configs.foreach { c =>
 //    assert(c.getTarget.length > 0, "Add to your KCQL syntax : INSERT INTO REDIS_KEY_NAME ")
@@ -69,6 +73,10 @@ class RedisPubSub(sinkSettings: RedisSinkSettings, jedis: Jedis)
     assert(c.getStoredAs.equalsIgnoreCase("PubSub"), "This mode requires the KCQL syntax: STOREAS PubSub")
   }
 
+  private val plan = RedisWritePlan(sinkSettings, RedisWritePlan.FlattenedKey) { kcql =>
+    StringStructFieldsStringKeyBuilder(Seq(getChannelField(kcql)))
+  }
+
   private lazy val simpleJsonConverter = new SimpleJsonConverter()
   private val projections = Projections(
     kcqls            = configs,
@@ -92,25 +100,23 @@ class RedisPubSub(sinkSettings: RedisSinkSettings, jedis: Jedis)
     records.foreach(
       {
         case (topic, sinkRecords: Seq[SinkRecord]) => {
-            val topicSettings: Set[RedisKCQLSetting] = sinkSettings.kcqlSettings.filter(_.kcqlConfig.getSource == topic)
-            if (topicSettings.isEmpty)
+            val topicPlans = plan.forTopic(topic)
+            if (topicPlans.isEmpty)
               logger.warn(s"No KCQL statement set for [$topic]")
-            val t = Try {
+            val t = Try(commands.sending {
               sinkRecords.foreach { record =>
                 val struct = record.newFilteredRecordAsStruct(projections)
-                topicSettings.map { KCQL =>
-                  val payload      = simpleJsonConverter.fromConnectData(struct.schema(), struct)
-                  val channelField = getChannelField(KCQL.kcqlConfig)
-                  val channel      = StringStructFieldsStringKeyBuilder(Seq(channelField)).build(record)
-                  val response     = jedis.publish(channel, payload.toString)
-                  response
+                topicPlans.foreach { KCQL =>
+                  val payload = simpleJsonConverter.fromConnectData(struct.schema(), struct)
+                  val channel = KCQL.fields.build(record)
+                  commands.publish(channel, payload.toString)
                 }
               }
-            }
+            })
             handleTry(t)
           }
           logger.debug(s"Published [${sinkRecords.size}] messages for topic [$topic]")
       },
     )
-  override def close(): Unit = jedis.close()
+  override def close(): Unit = client.close()
 }
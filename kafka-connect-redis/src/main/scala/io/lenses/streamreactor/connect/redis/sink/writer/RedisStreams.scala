@@ -19,21 +19,13 @@ import io.lenses.kcql.Kcql
 import io.lenses.streamreactor.common.config.base.settings.Projections
 import io.lenses.streamreactor.common.schemas.SinkRecordConverterHelper.SinkRecordExtension
 import io.lenses.streamreactor.connect.json.SimpleJsonConverter
-import io.lenses.streamreactor.connect.redis.sink.config.RedisKCQLSetting
 import io.lenses.streamreactor.connect.redis.sink.config.RedisSinkSettings
-import com.fasterxml.jackson.databind.ObjectMapper
 import com.typesafe.scalalogging.StrictLogging
 import io.lenses.streamreactor.common.errors.ErrorHandler
 import io.lenses.streamreactor.common.sink.DbWriter
-import org.apache.kafka.connect.errors.ConnectException
 import org.apache.kafka.connect.sink.SinkRecord
 import redis.clients.jedis.Jedis
-import redis.clients.jedis.params.XAddParams
 
-import scala.jdk.CollectionConverters.MapHasAsJava
-import scala.jdk.CollectionConverters.MapHasAsScala
-import scala.util.Failure
-import scala.util.Success
 import scala.util.Try
 
 /**
@@ -45,13 +37,17 @@ import scala.util.Try
   *
   * INSERT INTO stream1 SELECT * from cpuTopic STOREAS stream
   */
-class RedisStreams(sinkSettings: RedisSinkSettings, jedis: Jedis)
+class RedisStreams(sinkSettings: RedisSinkSettings, client: RedisClient)
     extends DbWriter
     with StrictLogging
     with ErrorHandler
     with PubSubSupport {
   initialize(sinkSettings.taskRetries, sinkSettings.errorPolicy)
 
+  def this(sinkSettings: RedisSinkSettings, jedis: Jedis) = this(sinkSettings, RedisClient(jedis))
+
+  private val commands = client.commands(sinkSettings.pipeline)
+
   val configs: Set[Kcql] = sinkSettings.kcqlSettings.map(_.kcqlConfig)
   configs.foreach { c =>
 //    assert(c.getTarget.length > 0, "Add to your KCQL syntax : INSERT INTO REDIS_KEY_NAME ")
@@ -62,6 +58,8 @@ class RedisStreams(sinkSettings: RedisSinkSettings, jedis: Jedis)
     assert(c.getStoredAs.equalsIgnoreCase("Stream"), "This mode requires the KCQL syntax: STOREAS Stream")
   }
 
+  private val plan = RedisWritePlan(sinkSettings, RedisWritePlan.FlattenedKey)(_ => ())
+
   private lazy val simpleJsonConverter = new SimpleJsonConverter()
   private val projections = Projections(
     kcqls            = configs,
@@ -85,34 +83,23 @@ class RedisStreams(sinkSettings: RedisSinkSettings, jedis: Jedis)
     records.foreach(
       {
         case (topic, sinkRecords: Seq[SinkRecord]) => {
-            val topicSettings: Set[RedisKCQLSetting] = sinkSettings.kcqlSettings.filter(_.kcqlConfig.getSource == topic)
-            if (topicSettings.isEmpty)
+            val topicPlans = plan.forTopic(topic)
+            if (topicPlans.isEmpty)
               logger.warn(s"No KCQL statement set for [$topic]")
-            val t = Try {
+            val t = Try(commands.sending {
               sinkRecords.foreach {
                 record =>
                   val struct = record.newFilteredRecordAsStruct(projections)
-                  topicSettings.map {
+                  topicPlans.foreach {
                     KCQL =>
-                      val jsonNode = simpleJsonConverter.fromConnectData(struct.schema(), struct)
-                      val payload =
-                        Try(new ObjectMapper().convertValue(jsonNode, classOf[java.util.HashMap[String, Any]])) match {
-                          case Success(value) =>
-                            value.asScala.toMap.map {
-                              case (k, v) =>
-                                (k, v.toString)
-                            }
-                          case Failure(exception) =>
-                            throw new ConnectException(s"Failed to convert payload to key value pairs", exception)
-                        }
-                      jedis.xadd(KCQL.kcqlConfig.getTarget, new XAddParams, payload.asJava)
+                      commands.xadd(KCQL.kcql.getTarget, StreamFields(struct, simpleJsonConverter))
                   }
               }
-            }
+            })
             handleTry(t)
           }
           logger.debug(s"Published [${sinkRecords.size}] messages for topic [$topic]")
       },
     )
-  override def close(): Unit = jedis.close()
+  override def close(): Unit = client.close()
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.redis.sink.writer
+
+import io.lenses.kcql.Kcql
+import io.lenses.streamreactor.connect.redis.sink.config.RedisSinkSettings
+
+import scala.jdk.CollectionConverters.ListHasAsScala
+
+/**
+  * A KCQL statement of a writer, resolved once when the writer is created rather than for every record
+  *
+  * @param keys   the primary key paths, by the name of the field they are extracted to
+  * @param prefix the target the keys are prefixed with, empty when there is none
+  * @param fields the fields the writer reads from each record besides the keys, e.g. the score of a sorted set
+  */
+case class RedisKcqlPlan[F](kcql: Kcql, keys: Map[String, String], prefix: String, ttl: Long, fields: F)
+
+/**
+  * The resolved KCQL statements of a writer, by their source topic
+  */
+class RedisWritePlan[F](plans: Map[String, Seq[RedisKcqlPlan[F]]]) {
+
+  def forTopic(topic: String): Seq[RedisKcqlPlan[F]] = plans.getOrElse(topic, Seq.empty)
+}
+
+object RedisWritePlan {
+
+  /**
+    * Flattens a nested primary key path into the name of the field it is extracted to
+    */
+  val FlattenedKey: String => String = _.replaceAll("\\.", "_")
+
+  /**
+    * @param keyName the name of the field a primary key path is extracted to
+    * @param fields  resolves the fields the writer reads from the records of a KCQL statement
+    */
+  def apply[F](sinkSettings: RedisSinkSettings, keyName: String => String)(fields: Kcql => F): RedisWritePlan[F] =
+    new RedisWritePlan(
+      sinkSettings.kcqlSettings.toSeq.map { setting =>
+        val kcql = setting.kcqlConfig
+        RedisKcqlPlan(
+          kcql   = kcql,
+          keys   = kcql.getPrimaryKeys.asScala.map(pk => pk.toString -> keyName(pk.toString)).toMap,
+          prefix = Option(kcql.getTarget).map(_.trim).getOrElse(""),
+          ttl    = kcql.getTTL,
+          fields = fields(kcql),
+        )
+      }.groupBy(_.kcql.getSource),
+    )
+}
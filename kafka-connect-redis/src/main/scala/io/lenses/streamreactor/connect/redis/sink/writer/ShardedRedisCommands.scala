@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.redis.sink.writer
+
+import com.typesafe.scalalogging.StrictLogging
+import io.lenses.streamreactor.connect.redis.sink.metrics.RedisSinkMetrics
+import org.apache.kafka.connect.errors.ConnectException
+import redis.clients.jedis.util.JedisClusterCRC16
+
+import scala.collection.mutable.ArrayBuffer
+import scala.concurrent.Await
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.duration.Duration
+import scala.util.Try
+
+/**
+  * Splits the commands of a batch of records into shards by the hash slot of their key and sends the shards
+  * concurrently, each on a connection of its own. The commands on a key all go to the same shard, in order, so the
+  * writes to a key are applied in the order of the records.
+  *
+  * The shards are not written atomically: when one fails the error policy retries the whole batch, writing again the
+  * commands the other shards already wrote. SET, SETEX, ZADD and GEOADD end in the same state, but XADD appends the
+  * entries again and PUBLISH sends the messages again.
+  *
+  * @param shards the commands each shard is sent with, only used by one thread at a time
+  */
+class ShardedRedisCommands(
+  shards:           Vector[RedisCommands],
+  executionContext: ExecutionContext,
+  metrics:          RedisSinkMetrics,
+) extends RedisCommands
+    with StrictLogging {
+
+  private implicit val ec: ExecutionContext = executionContext
+
+  private val queued = Vector.fill(shards.size)(ArrayBuffer.empty[RedisCommands => Unit])
+
+  override def set(key: String, value: String): Unit =
+    route(key)(_.set(key, value))
+
+  override def setex(key: String, ttl: Long, value: String): Unit =
+    route(key)(_.setex(key, ttl, value))
+
+  override def zadd(key: String, score: Double, member: String, ttl: Long): Unit =
+    route(key)(_.zadd(key, score, member, ttl))
+
+  override def geoadd(key: String, longitude: Double, latitude: Double, member: String): Unit =
+    route(key)(_.geoadd(key, longitude, latitude, member))
+
+  override def publish(channel: String, message: String): Unit =
+    route(channel)(_.publish(channel, message))
+
+  override def xadd(key: String, fields: java.util.Map[String, String]): Unit =
+    route(key)(_.xadd(key, fields))
+
+  override def sending[A](writes: => A): A = {
+    val written = Try(writes)
+    val sent    = Try(send())
+    written.flatMap(result => sent.map(_ => result)).get
+  }
+
+  private def route(key: String)(command: RedisCommands => Unit): Unit = {
+    val _ = queued(JedisClusterCRC16.getSlot(key) % shards.size) += command
+  }
+
+  private def send(): Unit = {
+    val batches = shards.zip(queued.map(_.toList)).filter(_._2.nonEmpty)
+    queued.foreach(_.clear())
+
+    val pending = batches.map {
+      case (commands, batch) =>
+        Future {
+          val start  = System.nanoTime()
+          val result = Try(commands.sending(batch.foreach(_(commands))))
+          metrics.recordWriteTime((System.nanoTime() - start) / 1000000L)
+          result.failed.foreach(_ => metrics.incrementFailedWrites())
+          result
+        }
+    }
+    val failures = Await.result(Future.sequence(pending), Duration.Inf).flatMap(_.failed.toOption)
+    logger.debug(s"Sent the commands of [${batches.size}] Redis shards, [${failures.size}] failed")
+
+    failures match {
+      case Seq()      =>
+      case Seq(error) => throw error
+      case first +: _ =>
+        throw new ConnectException(
+          s"[${failures.size}] of [${batches.size}] Redis shards failed, the first with [${first.getMessage}]",
+          first,
+        )
+    }
+  }
+}
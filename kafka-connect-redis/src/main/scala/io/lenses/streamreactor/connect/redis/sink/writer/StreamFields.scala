@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.redis.sink.writer
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.lenses.streamreactor.connect.json.SimpleJsonConverter
+import org.apache.kafka.connect.data.Schema
+import org.apache.kafka.connect.data.Struct
+import org.apache.kafka.connect.errors.ConnectException
+
+import scala.util.Failure
+import scala.util.Success
+import scala.util.Try
+
+/**
+  * Turns the struct of a record into the field/value pairs of a stream entry
+  */
+object StreamFields {
+
+  // thread safe once configured, and costly to create
+  private val mapper = new ObjectMapper()
+
+  /**
+    * Reads the fields straight from the struct when they are all set and of a type whose text is the same as through
+    * JSON, converting the struct to JSON otherwise
+    */
+  def apply(struct: Struct, converter: SimpleJsonConverter): java.util.Map[String, String] =
+    direct(struct).getOrElse(viaJson(struct, converter))
+
+  def direct(struct: Struct): Option[java.util.Map[String, String]] = {
+    val fields  = struct.schema().fields()
+    val entries = new java.util.LinkedHashMap[String, String](fields.size() * 2)
+    val it      = fields.iterator()
+    while (it.hasNext) {
+      val field = it.next()
+      val value = if (hasPlainText(field.schema())) struct.get(field) else null
+      if (value == null) return None
+      val _ = entries.put(field.name(), value.toString)
+    }
+    Some(entries)
+  }
+
+  def viaJson(struct: Struct, converter: SimpleJsonConverter): java.util.Map[String, String] = {
+    val jsonNode = converter.fromConnectData(struct.schema(), struct)
+    Try(mapper.convertValue(jsonNode, classOf[java.util.HashMap[String, Any]])) match {
+      case Success(value) =>
+        val entries = new java.util.HashMap[String, String](value.size() * 2)
+        value.forEach((k, v) => { val _ = entries.put(k, v.toString) })
+        entries
+      case Failure(exception) =>
+        throw new ConnectException(s"Failed to convert payload to key value pairs", exception)
+    }
+  }
+
+  // logical types and floats are written differently through JSON, and structs, arrays and maps are nested
+  private def hasPlainText(schema: Schema): Boolean =
+    schema.name() == null && (schema.`type`() match {
+      case Schema.Type.INT8 | Schema.Type.INT16 | Schema.Type.INT32 | Schema.Type.INT64 | Schema.Type.FLOAT64 |
+          Schema.Type.BOOLEAN | Schema.Type.STRING => true
+      case _ => false
+    })
+}
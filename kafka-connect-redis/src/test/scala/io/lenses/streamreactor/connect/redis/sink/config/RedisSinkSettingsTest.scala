@@ -21,6 +21,7 @@ import io.lenses.streamreactor.connect.redis.sink.support.RedisMockSupport
 import org.apache.kafka.common.config.ConfigException
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
+import redis.clients.jedis.HostAndPort
 import scala.jdk.CollectionConverters.ListHasAsScala
 
 class RedisSinkSettingsTest extends AnyWordSpec with Matchers with RedisMockSupport {
@@ -51,6 +52,62 @@ class RedisSinkSettingsTest extends AnyWordSpec with Matchers with RedisMockSupp
     settings.pkDelimiter shouldBe delimiter
   }
 
+  "disable pipelining by default" in {
+    val KCQL     = "SELECT * FROM topicA PK lastName"
+    val settings = RedisSinkSettings(getRedisSinkConfig(password = false, KCQL = Option(KCQL)))
+    settings.pipeline shouldBe RedisPipelineSettings.Disabled
+  }
+
+  "read the pipelining settings" in {
+    val KCQL = "SELECT * FROM topicA PK lastName"
+    val config = RedisConfig(
+      getRedisSinkConfig(password = false, KCQL = Option(KCQL)).props ++ Map(
+        RedisConfigConstants.REDIS_PIPELINE_ENABLED       -> "true",
+        RedisConfigConstants.REDIS_PIPELINE_BATCH_SIZE    -> "250",
+        RedisConfigConstants.REDIS_PIPELINE_TRANSACTIONAL -> "true",
+      ),
+    )
+    RedisSinkSettings(config).pipeline shouldBe
+      RedisPipelineSettings(enabled = true, batchSize = 250, transactional = true)
+  }
+
+  "disable pooling by default" in {
+    val KCQL     = "SELECT * FROM topicA PK lastName"
+    val settings = RedisSinkSettings(getRedisSinkConfig(password = false, KCQL = Option(KCQL)))
+    settings.pool shouldBe RedisPoolSettings.Disabled
+  }
+
+  "enable pooling when the cluster nodes are set" in {
+    val KCQL = "SELECT * FROM topicA PK lastName"
+    val config = RedisConfig(
+      getRedisSinkConfig(password = false, KCQL = Option(KCQL)).props ++ Map(
+        RedisConfigConstants.REDIS_POOL_MAX_TOTAL -> "16",
+        RedisConfigConstants.REDIS_WRITE_SHARDS   -> "6",
+        RedisConfigConstants.REDIS_CLUSTER_NODES  -> "node1:7000, node2:7001",
+      ),
+    )
+    RedisSinkSettings(config).pool shouldBe
+      RedisPoolSettings(enabled      = true,
+                        maxTotal     = 16,
+                        shards       = 6,
+                        clusterNodes = Set(new HostAndPort("node1", 7000), new HostAndPort("node2", 7001)),
+      )
+  }
+
+  "throw [config exception] for transactional pipelines to a Redis Cluster" in {
+    val KCQL = "SELECT * FROM topicA PK lastName"
+    val config = RedisConfig(
+      getRedisSinkConfig(password = false, KCQL = Option(KCQL)).props ++ Map(
+        RedisConfigConstants.REDIS_PIPELINE_ENABLED       -> "true",
+        RedisConfigConstants.REDIS_PIPELINE_TRANSACTIONAL -> "true",
+        RedisConfigConstants.REDIS_CLUSTER_NODES          -> "node1:7000",
+      ),
+    )
+    intercept[ConfigException] {
+      RedisSinkSettings(config)
+    }
+  }
+
   "should throw an expection as no PK set in Cache Mode : SELECT * FROM topicA" in {
     val QUERY_ALL = "SELECT * FROM topicA"
     val config    = getRedisSinkConfig(password = true, KCQL = Option(QUERY_ALL))
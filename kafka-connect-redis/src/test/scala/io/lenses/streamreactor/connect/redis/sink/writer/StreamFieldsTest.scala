@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017-2025 Lenses.io Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.lenses.streamreactor.connect.redis.sink.writer
+
+import io.lenses.streamreactor.connect.json.SimpleJsonConverter
+import org.apache.kafka.connect.data.Date
+import org.apache.kafka.connect.data.Schema
+import org.apache.kafka.connect.data.SchemaBuilder
+import org.apache.kafka.connect.data.Struct
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class StreamFieldsTest extends AnyWordSpec with Matchers {
+
+  private val converter = new SimpleJsonConverter()
+
+  private val schema = SchemaBuilder.struct().name("com.example.Cpu")
+    .field("type", Schema.STRING_SCHEMA)
+    .field("cores", Schema.INT8_SCHEMA)
+    .field("temperature", Schema.FLOAT64_SCHEMA)
+    .field("idle", Schema.BOOLEAN_SCHEMA)
+    .field("ts", Schema.INT64_SCHEMA)
+    .field("comment", Schema.OPTIONAL_STRING_SCHEMA)
+    .build()
+
+  private val struct = new Struct(schema)
+    .put("type", "Xeon")
+    .put("cores", 16.toByte)
+    .put("temperature", 60.4)
+    .put("idle", false)
+    .put("ts", 1482180657010L)
+    .put("comment", "fan replaced")
+
+  "StreamFields" should {
+
+    "read plain fields straight from the struct, in the order of the schema" in {
+      val fields = StreamFields.direct(struct)
+      fields.map(_.keySet().toArray.toSeq) shouldBe Some(Seq("type", "cores", "temperature", "idle", "ts", "comment"))
+    }
+
+    "write the same field values as through JSON" in {
+      StreamFields(struct, converter) shouldBe StreamFields.viaJson(struct, converter)
+    }
+
+    "go through JSON when a field is not set" in {
+      val withoutComment = new Struct(schema)
+        .put("type", "Xeon")
+        .put("cores", 16.toByte)
+        .put("temperature", 60.4)
+        .put("idle", false)
+        .put("ts", 1482180657010L)
+
+      StreamFields.direct(withoutComment) shouldBe None
+    }
+
+    "go through JSON for logical types" in {
+      val datedSchema = SchemaBuilder.struct().field("day", Date.SCHEMA).build()
+      val dated       = new Struct(datedSchema).put("day", new java.util.Date(0L))
+
+      StreamFields.direct(dated) shouldBe None
+      StreamFields(dated, converter).get("day") shouldBe "1970-01-1T00:00:00.000Z"
+    }
+  }
+}
@@ -546,6 +546,7 @@ trait Dependencies {
     cassandraDriver,
     jsonPath,
     nettyTransport,
+    histogram,
   )
 
   val kafkaConnectCassandraTestDeps: Seq[ModuleID] =
@@ -605,7 +606,7 @@ trait Dependencies {
 
   val kafkaConnectMongoDbTestDeps: Seq[ModuleID] = baseTestDeps ++ Seq(testContainersScalaMongodb)
 
-  val kafkaConnectRedisDeps: Seq[ModuleID] = Seq(jedis)
+  val kafkaConnectRedisDeps: Seq[ModuleID] = Seq(jedis, histogram)
 
   val kafkaConnectRedisTestDeps: Seq[ModuleID] = (baseTestDeps ++ Seq(testContainersScala, gson))
     .map {